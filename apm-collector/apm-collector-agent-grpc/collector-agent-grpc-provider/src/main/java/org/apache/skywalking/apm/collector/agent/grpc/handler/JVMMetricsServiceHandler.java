@@ -20,6 +20,7 @@
 package org.apache.skywalking.apm.collector.agent.grpc.handler;
 
 import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.collector.agent.stream.AgentStreamModule;
 import org.apache.skywalking.apm.collector.agent.stream.service.jvm.IGCMetricService;
@@ -33,6 +34,7 @@ import org.apache.skywalking.apm.collector.server.grpc.GRPCHandler;
 import org.apache.skywalking.apm.network.proto.CPU;
 import org.apache.skywalking.apm.network.proto.Downstream;
 import org.apache.skywalking.apm.network.proto.GC;
+import org.apache.skywalking.apm.network.proto.JVMMetric;
 import org.apache.skywalking.apm.network.proto.JVMMetrics;
 import org.apache.skywalking.apm.network.proto.JVMMetricsServiceGrpc;
 import org.apache.skywalking.apm.network.proto.Memory;
@@ -65,9 +67,12 @@ public class JVMMetricsServiceHandler extends JVMMetricsServiceGrpc.JVMMetricsSe
         int instanceId = request.getApplicationInstanceId();
         logger.debug("receive the jvm metric from application instance, id: {}", instanceId);
 
-        request.getMetricsList().forEach(metric -> {
+        List<JVMMetric> metrics = request.getCompact() ? decompact(request.getMetricsList()) : request.getMetricsList();
+        metrics.forEach(metric -> sendToInstanceHeartBeatService(instanceId, metric.getTime()));
+        metrics = expand(metrics, request.getSampleInterval());
+
+        metrics.forEach(metric -> {
             long time = TimeBucketUtils.INSTANCE.getSecondTimeBucket(metric.getTime());
-            sendToInstanceHeartBeatService(instanceId, metric.getTime());
             sendToCpuMetricService(instanceId, time, metric.getCpu());
             sendToMemoryMetricService(instanceId, time, metric.getMemoryList());
             sendToMemoryPoolMetricService(instanceId, time, metric.getMemoryPoolList());
@@ -78,6 +83,73 @@ public class JVMMetricsServiceHandler extends JVMMetricsServiceGrpc.JVMMetricsSe
         responseObserver.onCompleted();
     }
 
+    /**
+     * Restore the complete metrics from the compact metrics, the gc deltas are added to the previous gc count and
+     * time, the missing memory and memory pool readings are taken from the previous metric.
+     */
+    static List<JVMMetric> decompact(List<JVMMetric> metrics) {
+        List<JVMMetric> completeMetrics = new ArrayList<>(metrics.size());
+        JVMMetric previous = null;
+        for (JVMMetric metric : metrics) {
+            if (previous == null) {
+                completeMetrics.add(metric);
+            } else {
+                JVMMetric last = previous;
+                JVMMetric.Builder builder = JVMMetric.newBuilder().setTime(metric.getTime()).setCpu(metric.getCpu());
+
+                for (Memory memory : last.getMemoryList()) {
+                    builder.addMemory(metric.getMemoryList().stream().filter(changed -> changed.getIsHeap() == memory.getIsHeap()).findFirst().orElse(memory));
+                }
+                metric.getMemoryList().stream()
+                    .filter(changed -> last.getMemoryList().stream().noneMatch(memory -> memory.getIsHeap() == changed.getIsHeap()))
+                    .forEach(builder::addMemory);
+
+                for (MemoryPool memoryPool : last.getMemoryPoolList()) {
+                    builder.addMemoryPool(metric.getMemoryPoolList().stream().filter(changed -> changed.getType() == memoryPool.getType()).findFirst().orElse(memoryPool));
+                }
+                metric.getMemoryPoolList().stream()
+                    .filter(changed -> last.getMemoryPoolList().stream().noneMatch(memoryPool -> memoryPool.getType() == changed.getType()))
+                    .forEach(builder::addMemoryPool);
+
+                for (GC gc : metric.getGcList()) {
+                    GC previousGC = last.getGcList().stream().filter(lastGC -> lastGC.getPhrase() == gc.getPhrase()).findFirst().orElse(null);
+                    if (previousGC == null) {
+                        builder.addGc(gc);
+                    } else {
+                        builder.addGc(GC.newBuilder().setPhrase(gc.getPhrase()).setCount(previousGC.getCount() + gc.getCount()).setTime(previousGC.getTime() + gc.getTime()));
+                    }
+                }
+                completeMetrics.add(builder.build());
+            }
+            previous = completeMetrics.get(completeMetrics.size() - 1);
+        }
+        return completeMetrics;
+    }
+
+    /**
+     * Fill every second between two metrics, sampled in the given interval, with the previous metric.
+     */
+    static List<JVMMetric> expand(List<JVMMetric> metrics, int sampleInterval) {
+        if (sampleInterval <= 1) {
+            return metrics;
+        }
+
+        List<JVMMetric> secondMetrics = new ArrayList<>(metrics.size() * sampleInterval);
+        for (int i = 0; i < metrics.size(); i++) {
+            JVMMetric metric = metrics.get(i);
+            long nextTime = i + 1 < metrics.size() ? metrics.get(i + 1).getTime() : Long.MAX_VALUE;
+            secondMetrics.add(metric);
+            for (int second = 1; second < sampleInterval; second++) {
+                long time = metric.getTime() + second * 1000L;
+                if (time >= nextTime) {
+                    break;
+                }
+                secondMetrics.add(metric.toBuilder().setTime(time).build());
+            }
+        }
+        return secondMetrics;
+    }
+
     private void sendToInstanceHeartBeatService(int instanceId, long heartBeatTime) {
         instanceHeartBeatService.send(instanceId, heartBeatTime);
     }
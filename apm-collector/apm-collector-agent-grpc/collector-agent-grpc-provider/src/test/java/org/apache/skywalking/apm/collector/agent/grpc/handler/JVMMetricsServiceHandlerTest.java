@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.collector.agent.grpc.handler;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.apm.network.proto.CPU;
+import org.apache.skywalking.apm.network.proto.GC;
+import org.apache.skywalking.apm.network.proto.GCPhrase;
+import org.apache.skywalking.apm.network.proto.JVMMetric;
+import org.apache.skywalking.apm.network.proto.Memory;
+import org.apache.skywalking.apm.network.proto.MemoryPool;
+import org.apache.skywalking.apm.network.proto.PoolType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JVMMetricsServiceHandlerTest {
+
+    @Test
+    public void testDecompact() {
+        JVMMetric first = JVMMetric.newBuilder().setTime(1000)
+            .setCpu(CPU.newBuilder().setUsagePercent(0.5))
+            .addMemory(Memory.newBuilder().setIsHeap(true).setUsed(100))
+            .addMemory(Memory.newBuilder().setIsHeap(false).setUsed(20))
+            .addMemoryPool(MemoryPool.newBuilder().setType(PoolType.NEWGEN_USAGE).setUsed(10))
+            .addMemoryPool(MemoryPool.newBuilder().setType(PoolType.OLDGEN_USAGE).setUsed(200))
+            .addGc(GC.newBuilder().setPhrase(GCPhrase.OLD).setCount(5).setTime(50))
+            .build();
+        JVMMetric second = JVMMetric.newBuilder().setTime(2000)
+            .setCpu(CPU.newBuilder().setUsagePercent(0.7))
+            .addMemoryPool(MemoryPool.newBuilder().setType(PoolType.OLDGEN_USAGE).setUsed(300))
+            .addGc(GC.newBuilder().setPhrase(GCPhrase.OLD).setCount(2).setTime(30))
+            .build();
+        JVMMetric third = JVMMetric.newBuilder().setTime(3000)
+            .setCpu(CPU.newBuilder().setUsagePercent(0.6))
+            .addMemory(Memory.newBuilder().setIsHeap(true).setUsed(150))
+            .addGc(GC.newBuilder().setPhrase(GCPhrase.OLD))
+            .build();
+
+        List<JVMMetric> metrics = JVMMetricsServiceHandler.decompact(Arrays.asList(first, second, third));
+        Assert.assertEquals(3, metrics.size());
+        Assert.assertEquals(first, metrics.get(0));
+
+        JVMMetric metric = metrics.get(1);
+        Assert.assertEquals(2000, metric.getTime());
+        Assert.assertEquals(0.7, metric.getCpu().getUsagePercent(), 0);
+        Assert.assertEquals(first.getMemoryList(), metric.getMemoryList());
+        Assert.assertEquals(10, metric.getMemoryPool(0).getUsed());
+        Assert.assertEquals(300, metric.getMemoryPool(1).getUsed());
+        Assert.assertEquals(7, metric.getGc(0).getCount());
+        Assert.assertEquals(80, metric.getGc(0).getTime());
+
+        metric = metrics.get(2);
+        Assert.assertEquals(150, metric.getMemory(0).getUsed());
+        Assert.assertEquals(20, metric.getMemory(1).getUsed());
+        Assert.assertEquals(300, metric.getMemoryPool(1).getUsed());
+        Assert.assertEquals(7, metric.getGc(0).getCount());
+        Assert.assertEquals(80, metric.getGc(0).getTime());
+    }
+
+    @Test
+    public void testExpand() {
+        JVMMetric first = JVMMetric.newBuilder().setTime(1000).setCpu(CPU.newBuilder().setUsagePercent(0.5)).build();
+        JVMMetric second = JVMMetric.newBuilder().setTime(3500).setCpu(CPU.newBuilder().setUsagePercent(0.7)).build();
+
+        List<JVMMetric> metrics = JVMMetricsServiceHandler.expand(Arrays.asList(first, second), 3);
+        Assert.assertEquals(6, metrics.size());
+        Assert.assertEquals(1000, metrics.get(0).getTime());
+        Assert.assertEquals(2000, metrics.get(1).getTime());
+        Assert.assertEquals(3000, metrics.get(2).getTime());
+        Assert.assertEquals(0.5, metrics.get(2).getCpu().getUsagePercent(), 0);
+        Assert.assertEquals(3500, metrics.get(3).getTime());
+        Assert.assertEquals(5500, metrics.get(5).getTime());
+        Assert.assertEquals(0.7, metrics.get(5).getCpu().getUsagePercent(), 0);
+
+        Assert.assertEquals(2, JVMMetricsServiceHandler.expand(Arrays.asList(first, second), 1).size());
+    }
+}
@@ -41,6 +41,7 @@ import org.apache.skywalking.apm.collector.agent.stream.worker.trace.service.Ser
 import org.apache.skywalking.apm.collector.core.UnexpectedException;
 import org.apache.skywalking.apm.collector.core.graph.Graph;
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
+import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.table.segment.Segment;
 import org.apache.skywalking.apm.network.proto.SpanType;
@@ -60,11 +61,11 @@ public class SegmentParse {
     private final List<SpanListener> spanListeners;
     private final ModuleManager moduleManager;
     private String segmentId;
+    private String storageId;
     private long timeBucket = 0;
 
     public SegmentParse(ModuleManager moduleManager) {
-        this.moduleManager = moduleManager;
-        this.spanListeners = new ArrayList<>();
+        this(moduleManager, new ArrayList<>());
         this.spanListeners.add(new ApplicationComponentSpanListener());
         this.spanListeners.add(new ApplicationMappingSpanListener());
         this.spanListeners.add(new ApplicationReferenceMetricSpanListener(moduleManager));
@@ -75,6 +76,11 @@ public class SegmentParse {
         this.spanListeners.add(new InstanceMetricSpanListener());
     }
 
+    SegmentParse(ModuleManager moduleManager, List<SpanListener> spanListeners) {
+        this.moduleManager = moduleManager;
+        this.spanListeners = spanListeners;
+    }
+
     public boolean parse(UpstreamSegment segment, Source source) {
         try {
             List<UniqueId> traceIds = segment.getGlobalTraceIdsList();
@@ -92,7 +98,7 @@ public class SegmentParse {
             } else {
                 logger.debug("This segment id exchange success, id: {}", segmentId);
                 notifyListenerToBuild();
-                buildSegment(segmentId, segmentDecorator.toByteArray());
+                buildSegment(storageId, segmentDecorator.toByteArray());
                 return true;
             }
         } catch (InvalidProtocolBufferException e) {
@@ -114,6 +120,14 @@ public class SegmentParse {
 
         segmentId = segmentIdBuilder.toString();
 
+        int partSequence = segmentDecorator.getPartSequence();
+        if (partSequence > 0) {
+            storageId = segmentId + Const.SEGMENT_PART_SPLIT + partSequence;
+            spanListeners.removeIf(listener -> listener instanceof FirstSpanListener && !(listener instanceof SegmentPartListener));
+        } else {
+            storageId = segmentId;
+        }
+
         for (UniqueId uniqueId : traceIds) {
             notifyGlobalsListener(uniqueId);
         }
@@ -145,8 +159,10 @@ public class SegmentParse {
             }
         }
 
+        long partStartTime = Long.MAX_VALUE;
         for (int i = 0; i < segmentDecorator.getSpansCount(); i++) {
             SpanDecorator spanDecorator = segmentDecorator.getSpans(i);
+            partStartTime = Math.min(partStartTime, spanDecorator.getStartTime());
 
             if (spanDecorator.getSpanId() == 0) {
                 notifyFirstListener(spanDecorator, applicationId, applicationInstanceId, segmentId);
@@ -164,6 +180,11 @@ public class SegmentParse {
             }
         }
 
+        if (partSequence > 0 && segmentDecorator.getSpansCount() > 0) {
+            notifyPartListener(applicationId, applicationInstanceId, storageId, partStartTime);
+            timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(partStartTime);
+        }
+
         return true;
     }
 
@@ -223,6 +244,15 @@ public class SegmentParse {
         }
     }
 
+    private void notifyPartListener(int applicationId, int applicationInstanceId, String storageId,
+        long startTime) {
+        for (SpanListener listener : spanListeners) {
+            if (listener instanceof SegmentPartListener) {
+                ((SegmentPartListener)listener).parsePart(applicationId, applicationInstanceId, storageId, startTime);
+            }
+        }
+    }
+
     private void notifyGlobalsListener(UniqueId uniqueId) {
         for (SpanListener listener : spanListeners) {
             if (listener instanceof GlobalTraceIdsListener) {
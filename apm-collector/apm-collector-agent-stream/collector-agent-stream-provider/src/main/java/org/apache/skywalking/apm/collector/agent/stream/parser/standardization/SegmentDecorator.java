@@ -46,6 +46,10 @@ public class SegmentDecorator implements StandardBuilder {
         return segmentObject.getTraceSegmentId();
     }
 
+    public int getPartSequence() {
+        return segmentObject.getPartSequence();
+    }
+
     public int getSpansCount() {
         return segmentObject.getSpansCount();
     }
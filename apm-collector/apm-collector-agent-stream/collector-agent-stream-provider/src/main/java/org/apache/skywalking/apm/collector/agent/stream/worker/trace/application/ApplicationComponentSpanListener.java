@@ -23,7 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.collector.agent.stream.parser.EntrySpanListener;
 import org.apache.skywalking.apm.collector.agent.stream.parser.ExitSpanListener;
-import org.apache.skywalking.apm.collector.agent.stream.parser.FirstSpanListener;
+import org.apache.skywalking.apm.collector.agent.stream.parser.SegmentPartListener;
 import org.apache.skywalking.apm.collector.core.graph.Graph;
 import org.apache.skywalking.apm.collector.core.graph.GraphManager;
 import org.apache.skywalking.apm.collector.core.util.Const;
@@ -37,7 +37,7 @@ import org.slf4j.LoggerFactory;
 /**
  * @author peng-yongsheng
  */
-public class ApplicationComponentSpanListener implements EntrySpanListener, ExitSpanListener, FirstSpanListener {
+public class ApplicationComponentSpanListener implements EntrySpanListener, ExitSpanListener, SegmentPartListener {
 
     private final Logger logger = LoggerFactory.getLogger(ApplicationComponentSpanListener.class);
 
@@ -75,6 +75,11 @@ public class ApplicationComponentSpanListener implements EntrySpanListener, Exit
         timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(spanDecorator.getStartTime());
     }
 
+    @Override
+    public void parsePart(int applicationId, int instanceId, String segmentId, long startTime) {
+        timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(startTime);
+    }
+
     @Override public void build() {
         Graph<ApplicationComponent> graph = GraphManager.INSTANCE.createIfAbsent(TraceStreamGraph.APPLICATION_COMPONENT_GRAPH_ID, ApplicationComponent.class);
 
@@ -23,7 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
 import org.apache.skywalking.apm.collector.agent.stream.parser.EntrySpanListener;
-import org.apache.skywalking.apm.collector.agent.stream.parser.FirstSpanListener;
+import org.apache.skywalking.apm.collector.agent.stream.parser.SegmentPartListener;
 import org.apache.skywalking.apm.collector.agent.stream.parser.standardization.SpanDecorator;
 import org.apache.skywalking.apm.collector.core.graph.Graph;
 import org.apache.skywalking.apm.collector.core.graph.GraphManager;
@@ -36,7 +36,7 @@ import org.slf4j.LoggerFactory;
 /**
  * @author peng-yongsheng
  */
-public class ApplicationMappingSpanListener implements FirstSpanListener, EntrySpanListener {
+public class ApplicationMappingSpanListener implements SegmentPartListener, EntrySpanListener {
 
     private final Logger logger = LoggerFactory.getLogger(ApplicationMappingSpanListener.class);
 
@@ -61,6 +61,11 @@ public class ApplicationMappingSpanListener implements FirstSpanListener, EntryS
         timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(spanDecorator.getStartTime());
     }
 
+    @Override
+    public void parsePart(int applicationId, int instanceId, String segmentId, long startTime) {
+        timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(startTime);
+    }
+
     @Override public void build() {
         logger.debug("node mapping listener build");
         Graph<ApplicationMapping> graph = GraphManager.INSTANCE.createIfAbsent(TraceStreamGraph.APPLICATION_MAPPING_GRAPH_ID, ApplicationMapping.class);
@@ -22,7 +22,7 @@ package org.apache.skywalking.apm.collector.agent.stream.worker.trace.global;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
-import org.apache.skywalking.apm.collector.agent.stream.parser.FirstSpanListener;
+import org.apache.skywalking.apm.collector.agent.stream.parser.SegmentPartListener;
 import org.apache.skywalking.apm.collector.agent.stream.parser.standardization.SpanDecorator;
 import org.apache.skywalking.apm.collector.core.graph.Graph;
 import org.apache.skywalking.apm.collector.core.graph.GraphManager;
@@ -37,7 +37,7 @@ import org.slf4j.LoggerFactory;
 /**
  * @author peng-yongsheng
  */
-public class GlobalTraceSpanListener implements FirstSpanListener, GlobalTraceIdsListener {
+public class GlobalTraceSpanListener implements SegmentPartListener, GlobalTraceIdsListener {
 
     private final Logger logger = LoggerFactory.getLogger(GlobalTraceSpanListener.class);
 
@@ -64,6 +64,12 @@ public class GlobalTraceSpanListener implements FirstSpanListener, GlobalTraceId
         globalTraceIds.add(globalTraceIdBuilder.toString());
     }
 
+    @Override
+    public void parsePart(int applicationId, int instanceId, String segmentId, long startTime) {
+        this.timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(startTime);
+        this.segmentId = segmentId;
+    }
+
     @Override public void build() {
         logger.debug("global trace listener build");
 
@@ -65,6 +65,7 @@ public class InstanceMetricSpanListener implements EntrySpanListener, FirstSpanL
         instanceMetric.setInstanceId(instanceId);
         instanceMetric.setTransactionCalls(1L);
         instanceMetric.setTransactionDurationSum(duration);
+        instanceMetric.getTransactionDurationHistogram().record(duration);
 
         if (isError) {
             instanceMetric.setTransactionErrorCalls(1L);
@@ -49,6 +49,7 @@ public class ServiceMetricAggregationWorker extends AggregationWorker<ServiceRef
 //        serviceMetric.setErrorCalls(serviceReferenceMetric.getErrorCalls());
 //        serviceMetric.setDurationSum(serviceReferenceMetric.getDurationSum());
 //        serviceMetric.setErrorDurationSum(serviceReferenceMetric.getErrorDurationSum());
+        serviceMetric.getTransactionDurationHistogram().merge(serviceReferenceMetric.getTransactionDurationHistogram());
         serviceMetric.setTimeBucket(timeBucket);
 
         return serviceMetric;
@@ -24,7 +24,7 @@ import java.util.List;
 import org.apache.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
 import org.apache.skywalking.apm.collector.agent.stream.parser.EntrySpanListener;
 import org.apache.skywalking.apm.collector.agent.stream.parser.ExitSpanListener;
-import org.apache.skywalking.apm.collector.agent.stream.parser.FirstSpanListener;
+import org.apache.skywalking.apm.collector.agent.stream.parser.SegmentPartListener;
 import org.apache.skywalking.apm.collector.agent.stream.parser.standardization.SpanDecorator;
 import org.apache.skywalking.apm.collector.agent.stream.service.trace.MetricSource;
 import org.apache.skywalking.apm.collector.core.graph.Graph;
@@ -41,7 +41,7 @@ import org.slf4j.LoggerFactory;
 /**
  * @author peng-yongsheng
  */
-public class ServiceReferenceMetricSpanListener implements FirstSpanListener, EntrySpanListener, ExitSpanListener {
+public class ServiceReferenceMetricSpanListener implements SegmentPartListener, EntrySpanListener, ExitSpanListener {
 
     private final Logger logger = LoggerFactory.getLogger(ServiceReferenceMetricSpanListener.class);
 
@@ -101,7 +101,8 @@ public class ServiceReferenceMetricSpanListener implements FirstSpanListener, En
 
     private void calculateCost(ServiceReferenceMetric serviceReferenceMetric, SpanDecorator spanDecorator,
         boolean hasReference) {
-        long duration = spanDecorator.getStartTime() - spanDecorator.getEndTime();
+        long duration = spanDecorator.getEndTime() - spanDecorator.getStartTime();
+        serviceReferenceMetric.getTransactionDurationHistogram().record(duration);
 
         if (spanDecorator.getIsError()) {
             serviceReferenceMetric.setTransactionErrorCalls(1L);
@@ -132,6 +133,11 @@ public class ServiceReferenceMetricSpanListener implements FirstSpanListener, En
         }
     }
 
+    @Override
+    public void parsePart(int applicationId, int instanceId, String segmentId, long startTime) {
+        timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(startTime);
+    }
+
     @Override public void build() {
         logger.debug("service reference listener build");
         Graph<ServiceReferenceMetric> graph = GraphManager.INSTANCE.createIfAbsent(TraceStreamGraph.SERVICE_REFERENCE_GRAPH_ID, ServiceReferenceMetric.class);
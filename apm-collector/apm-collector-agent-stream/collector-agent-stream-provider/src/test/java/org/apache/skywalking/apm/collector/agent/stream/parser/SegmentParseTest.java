@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.agent.stream.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
+import org.apache.skywalking.apm.collector.core.graph.GraphManager;
+import org.apache.skywalking.apm.collector.core.graph.Next;
+import org.apache.skywalking.apm.collector.core.graph.NodeProcessor;
+import org.apache.skywalking.apm.collector.storage.table.segment.Segment;
+import org.apache.skywalking.apm.network.proto.SpanObject;
+import org.apache.skywalking.apm.network.proto.SpanType;
+import org.apache.skywalking.apm.network.proto.TraceSegmentObject;
+import org.apache.skywalking.apm.network.proto.UniqueId;
+import org.apache.skywalking.apm.network.proto.UpstreamSegment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class SegmentParseTest {
+
+    private List<Segment> segments;
+    private FirstSpanListener firstSpanListener;
+    private SegmentPartListener segmentPartListener;
+    private List<SpanListener> spanListeners;
+
+    @Before
+    public void setUp() {
+        segments = new ArrayList<>();
+        GraphManager.INSTANCE.createIfAbsent(TraceStreamGraph.SEGMENT_GRAPH_ID, Segment.class).addNode(new NodeProcessor<Segment, Segment>() {
+            @Override public int id() {
+                return 1;
+            }
+
+            @Override public void process(Segment segment, Next<Segment> next) {
+                segments.add(segment);
+            }
+        });
+
+        firstSpanListener = mock(FirstSpanListener.class);
+        segmentPartListener = mock(SegmentPartListener.class);
+        spanListeners = new ArrayList<>(Arrays.asList(firstSpanListener, segmentPartListener));
+    }
+
+    @After
+    public void tearDown() {
+        GraphManager.INSTANCE.reset();
+    }
+
+    @Test
+    public void testPartStoredWithPartSequence() {
+        SegmentParse segmentParse = new SegmentParse(null, spanListeners);
+        Assert.assertTrue(segmentParse.parse(segment(2, span(1, 0, 1000), span(2, 0, 1500)), SegmentParse.Source.Buffer));
+
+        Assert.assertEquals(1, segments.size());
+        Assert.assertEquals("1.2.3P2", segments.get(0).getId());
+        Assert.assertEquals(Arrays.<SpanListener>asList(segmentPartListener), spanListeners);
+        verify(segmentPartListener).parsePart(10, 20, "1.2.3P2", 1000L);
+        verify(segmentPartListener).build();
+        verify(firstSpanListener, never()).build();
+    }
+
+    @Test
+    public void testLastPartStoredWithSegmentId() {
+        SegmentParse segmentParse = new SegmentParse(null, spanListeners);
+        Assert.assertTrue(segmentParse.parse(segment(0, span(0, -1, 1000), span(3, 0, 1200)), SegmentParse.Source.Buffer));
+
+        Assert.assertEquals(1, segments.size());
+        Assert.assertEquals("1.2.3", segments.get(0).getId());
+        Assert.assertEquals(2, spanListeners.size());
+        verify(firstSpanListener).parseFirst(any(), eq(10), eq(20), eq("1.2.3"));
+        verify(segmentPartListener, never()).parsePart(anyInt(), anyInt(), anyString(), any(Long.class));
+        verify(firstSpanListener).build();
+        verify(segmentPartListener).build();
+    }
+
+    private UpstreamSegment segment(int partSequence, SpanObject... spans) {
+        TraceSegmentObject segmentObject = TraceSegmentObject.newBuilder()
+            .setTraceSegmentId(UniqueId.newBuilder().addIdParts(1).addIdParts(2).addIdParts(3))
+            .setApplicationId(10)
+            .setApplicationInstanceId(20)
+            .setPartSequence(partSequence)
+            .addAllSpans(Arrays.asList(spans))
+            .build();
+        return UpstreamSegment.newBuilder().setSegment(segmentObject.toByteString()).build();
+    }
+
+    private SpanObject span(int spanId, int parentSpanId, long startTime) {
+        return SpanObject.newBuilder()
+            .setSpanId(spanId)
+            .setParentSpanId(parentSpanId)
+            .setStartTime(startTime)
+            .setEndTime(startTime + 100)
+            .setSpanType(SpanType.Local)
+            .setOperationNameId(1)
+            .build();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.agent.stream.worker.trace.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
+import org.apache.skywalking.apm.collector.agent.stream.parser.standardization.SpanDecorator;
+import org.apache.skywalking.apm.collector.core.graph.GraphManager;
+import org.apache.skywalking.apm.collector.core.graph.Next;
+import org.apache.skywalking.apm.collector.core.graph.NodeProcessor;
+import org.apache.skywalking.apm.collector.storage.table.service.ServiceReferenceMetric;
+import org.apache.skywalking.apm.network.proto.SpanObject;
+import org.apache.skywalking.apm.network.proto.SpanType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServiceReferenceMetricSpanListenerTest {
+
+    private List<ServiceReferenceMetric> metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new ArrayList<>();
+        GraphManager.INSTANCE.createIfAbsent(TraceStreamGraph.SERVICE_REFERENCE_GRAPH_ID, ServiceReferenceMetric.class).addNode(new NodeProcessor<ServiceReferenceMetric, ServiceReferenceMetric>() {
+            @Override public int id() {
+                return 1;
+            }
+
+            @Override public void process(ServiceReferenceMetric metric, Next<ServiceReferenceMetric> next) {
+                metrics.add(metric);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        GraphManager.INSTANCE.reset();
+    }
+
+    @Test
+    public void testDurationIsEndTimeMinusStartTime() {
+        SpanObject span = SpanObject.newBuilder()
+            .setSpanId(0)
+            .setParentSpanId(-1)
+            .setStartTime(1000)
+            .setEndTime(1250)
+            .setSpanType(SpanType.Entry)
+            .setOperationNameId(1)
+            .build();
+        SpanDecorator spanDecorator = new SpanDecorator(span, null);
+
+        ServiceReferenceMetricSpanListener listener = new ServiceReferenceMetricSpanListener();
+        listener.parseFirst(spanDecorator, 1, 2, "1.2.3");
+        listener.parseEntry(spanDecorator, 1, 2, "1.2.3");
+        listener.build();
+
+        Assert.assertEquals(1, metrics.size());
+        Assert.assertEquals(1L, (long)metrics.get(0).getTransactionCalls());
+        Assert.assertEquals(250L, (long)metrics.get(0).getTransactionDurationSum());
+    }
+}
@@ -23,8 +23,12 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.apache.skywalking.apm.collector.client.ClientException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
 import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
@@ -32,7 +36,9 @@ import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.get.GetRequestBuilder;
 import org.elasticsearch.action.get.MultiGetRequestBuilder;
 import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.search.ClearScrollRequestBuilder;
 import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchScrollRequestBuilder;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.client.IndicesAdminClient;
@@ -136,6 +142,14 @@ public class ElasticSearchClient implements Client {
         return client.prepareSearch(indexName);
     }
 
+    public SearchScrollRequestBuilder prepareSearchScroll(String scrollId) {
+        return client.prepareSearchScroll(scrollId);
+    }
+
+    public ClearScrollRequestBuilder prepareClearScroll() {
+        return client.prepareClearScroll();
+    }
+
     public IndexRequestBuilder prepareIndex(String indexName, String id) {
         return client.prepareIndex(indexName, "type", id);
     }
@@ -160,6 +174,25 @@ public class ElasticSearchClient implements Client {
         return client.prepareBulk();
     }
 
+    /**
+     * Send the request without blocking the caller, the future completes on the transport thread when the response
+     * or failure arrives. Used to run independent queries in parallel.
+     */
+    public <R extends ActionResponse> CompletableFuture<R> executeAsync(
+        ActionRequestBuilder<?, R, ?> requestBuilder) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        requestBuilder.execute(new ActionListener<R>() {
+            @Override public void onResponse(R response) {
+                future.complete(response);
+            }
+
+            @Override public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
     public void update(UpdateRequest updateRequest) {
         try {
             client.update(updateRequest).get();
@@ -19,12 +19,14 @@
 
 package org.apache.skywalking.apm.collector.server.grpc;
 
+import io.grpc.DecompressorRegistry;
 import io.grpc.netty.NettyServerBuilder;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import org.apache.skywalking.apm.collector.server.Server;
 import org.apache.skywalking.apm.collector.server.ServerException;
 import org.apache.skywalking.apm.collector.server.ServerHandler;
+import org.apache.skywalking.apm.network.compress.SnappyCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,7 +57,8 @@ public class GRPCServer implements Server {
 
     @Override public void initialize() throws ServerException {
         InetSocketAddress address = new InetSocketAddress(host, port);
-        nettyServerBuilder = NettyServerBuilder.forAddress(address);
+        nettyServerBuilder = NettyServerBuilder.forAddress(address)
+            .decompressorRegistry(DecompressorRegistry.getDefaultInstance().with(new SnappyCodec(), true));
         logger.info("Server started, host {} listening on {}", host, port);
     }
 
@@ -29,15 +29,22 @@ public abstract class Data extends EndOfBatchQueueMessage {
     private Integer[] dataIntegers;
     private Boolean[] dataBooleans;
     private byte[][] dataBytes;
+    private Histogram[] dataHistograms;
     private final Column[] stringColumns;
     private final Column[] longColumns;
     private final Column[] doubleColumns;
     private final Column[] integerColumns;
     private final Column[] booleanColumns;
     private final Column[] byteColumns;
+    private final Column[] histogramColumns;
 
     public Data(String id, Column[] stringColumns, Column[] longColumns, Column[] doubleColumns,
         Column[] integerColumns, Column[] booleanColumns, Column[] byteColumns) {
+        this(id, stringColumns, longColumns, doubleColumns, integerColumns, booleanColumns, byteColumns, new Column[0]);
+    }
+
+    public Data(String id, Column[] stringColumns, Column[] longColumns, Column[] doubleColumns,
+        Column[] integerColumns, Column[] booleanColumns, Column[] byteColumns, Column[] histogramColumns) {
         super(id);
         this.dataStrings = new String[stringColumns.length];
         this.dataStrings[0] = id;
@@ -46,12 +53,17 @@ public abstract class Data extends EndOfBatchQueueMessage {
         this.dataIntegers = new Integer[integerColumns.length];
         this.dataBooleans = new Boolean[booleanColumns.length];
         this.dataBytes = new byte[byteColumns.length][];
+        this.dataHistograms = new Histogram[histogramColumns.length];
+        for (int i = 0; i < histogramColumns.length; i++) {
+            this.dataHistograms[i] = new Histogram();
+        }
         this.stringColumns = stringColumns;
         this.longColumns = longColumns;
         this.doubleColumns = doubleColumns;
         this.integerColumns = integerColumns;
         this.booleanColumns = booleanColumns;
         this.byteColumns = byteColumns;
+        this.histogramColumns = histogramColumns;
     }
 
     public int getDataStringsCount() {
@@ -78,6 +90,10 @@ public abstract class Data extends EndOfBatchQueueMessage {
         return dataBytes.length;
     }
 
+    public int getDataHistogramsCount() {
+        return dataHistograms.length;
+    }
+
     public void setDataString(int position, String value) {
         dataStrings[position] = value;
     }
@@ -102,6 +118,10 @@ public abstract class Data extends EndOfBatchQueueMessage {
         this.dataBytes[position] = dataBytes;
     }
 
+    public void setDataHistogram(int position, Histogram value) {
+        dataHistograms[position] = value;
+    }
+
     public String getDataString(int position) {
         return dataStrings[position];
     }
@@ -144,6 +164,10 @@ public abstract class Data extends EndOfBatchQueueMessage {
         return dataBytes[position];
     }
 
+    public Histogram getDataHistogram(int position) {
+        return dataHistograms[position];
+    }
+
     public String getId() {
         return dataStrings[0];
     }
@@ -178,6 +202,10 @@ public abstract class Data extends EndOfBatchQueueMessage {
             byte[] byteData = byteColumns[i].getOperation().operate(newData.getDataBytes(i), this.getDataBytes(i));
             this.dataBytes[i] = byteData;
         }
+        for (int i = 0; i < histogramColumns.length; i++) {
+            Histogram histogramData = histogramColumns[i].getOperation().operate(newData.getDataHistogram(i), this.getDataHistogram(i));
+            this.dataHistograms[i] = histogramData;
+        }
     }
 
     @Override public String toString() {
@@ -202,6 +230,10 @@ public abstract class Data extends EndOfBatchQueueMessage {
         for (Boolean dataBoolean : dataBooleans) {
             dataStr.append(dataBoolean).append(",");
         }
+        dataStr.append("], histogram: [");
+        for (Histogram dataHistogram : dataHistograms) {
+            dataStr.append(dataHistogram).append(",");
+        }
         dataStr.append("]");
         return dataStr.toString();
     }
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.collector.core.data;
+
+/**
+ * A fixed size, log bucketed histogram of non-negative values, e.g. durations in milliseconds.
+ *
+ * Values in [0, 4) own one bucket each, every following power of two range is split into 4 equal sub buckets,
+ * so a percentile read from the histogram is at most 25% above the real value. Values greater than {@link
+ * #MAX_VALUE} are counted into the last bucket.
+ *
+ * Two histograms always have the same layout, which makes {@link #merge(Histogram)} a plain element wise addition
+ * without any allocation.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 22;
+
+    public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    public static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts;
+    private long totalCount;
+
+    public Histogram() {
+        this.counts = new long[BUCKET_COUNT];
+    }
+
+    public void record(long value) {
+        counts[bucketIndex(value)]++;
+        totalCount++;
+    }
+
+    public void merge(Histogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100, e.g. 99 for p99
+     * @return the upper bound of the bucket which contains the given percentile, 0 when the histogram is empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = (long)Math.ceil(percentile / 100 * totalCount);
+        if (rank < 1) {
+            rank = 1;
+        }
+
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += counts[i];
+            if (accumulated >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    /**
+     * Encode the non-empty buckets as pairs of varint(bucket index) and varint(count).
+     */
+    public byte[] toBytes() {
+        int size = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                size += varintSize(i) + varintSize(counts[i]);
+            }
+        }
+
+        byte[] bytes = new byte[size];
+        int position = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                position = writeVarint(bytes, position, i);
+                position = writeVarint(bytes, position, counts[i]);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Decode the bytes which encoded by {@link #toBytes()}, empty histogram when the bytes are null or empty.
+     */
+    public static Histogram fromBytes(byte[] bytes) {
+        Histogram histogram = new Histogram();
+        if (bytes == null) {
+            return histogram;
+        }
+
+        int position = 0;
+        while (position < bytes.length) {
+            long index = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                index |= (long)(b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+
+            long count = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                count |= (long)(b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+
+            histogram.counts[(int)index] += count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int)value;
+        }
+        if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1L) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] bytes, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[position++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte)value;
+        return position;
+    }
+
+    @Override public String toString() {
+        return "totalCount: " + totalCount + ", p50: " + getValueAtPercentile(50) + ", p90: " + getValueAtPercentile(90) + ", p99: " + getValueAtPercentile(99);
+    }
+}
@@ -34,4 +34,6 @@ public interface Operation {
     Boolean operate(Boolean newValue, Boolean oldValue);
 
     byte[] operate(byte[] newValue, byte[] oldValue);
+
+    Histogram operate(Histogram newValue, Histogram oldValue);
 }
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.collector.core.data.operator;
 
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.data.Operation;
 
 /**
@@ -49,4 +50,9 @@ public class AddOperation implements Operation {
     @Override public byte[] operate(byte[] newValue, byte[] oldValue) {
         throw new UnsupportedOperationException("not support byte addition operation");
     }
+
+    @Override public Histogram operate(Histogram newValue, Histogram oldValue) {
+        oldValue.merge(newValue);
+        return oldValue;
+    }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.collector.core.data.operator;
 
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.data.Operation;
 
 /**
@@ -48,4 +49,8 @@ public class CoverOperation implements Operation {
     @Override public byte[] operate(byte[] newValue, byte[] oldValue) {
         return newValue;
     }
+
+    @Override public Histogram operate(Histogram newValue, Histogram oldValue) {
+        return newValue;
+    }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.collector.core.data.operator;
 
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.data.Operation;
 
 /**
@@ -48,4 +49,8 @@ public class NonOperation implements Operation {
     @Override public byte[] operate(byte[] newValue, byte[] oldValue) {
         return oldValue;
     }
+
+    @Override public Histogram operate(Histogram newValue, Histogram oldValue) {
+        return oldValue;
+    }
 }
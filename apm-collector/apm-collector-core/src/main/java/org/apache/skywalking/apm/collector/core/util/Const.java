@@ -30,6 +30,7 @@ public class Const {
     public static final String NONE_SERVICE_NAME = "None";
     public static final String USER_CODE = "User";
     public static final String SEGMENT_SPAN_SPLIT = "S";
+    public static final String SEGMENT_PART_SPLIT = "P";
     public static final String UNKNOWN = "Unknown";
     public static final String EXCEPTION = "Exception";
     public static final String EMPTY_STRING = "";
@@ -100,6 +100,33 @@ public enum TimeBucketUtils {
         return timeBuckets;
     }
 
+    /**
+     * @return every second time bucket from start to end, both inclusive, built by one calendar without any date
+     * formatting.
+     */
+    public long[] getSecondTimeBuckets(long startSecondTimeBucket, long endSecondTimeBucket) {
+        if (startSecondTimeBucket > endSecondTimeBucket) {
+            return new long[0];
+        }
+
+        long startTimeStamp = changeTimeBucket2TimeStamp(TimeBucketType.SECOND.name(), startSecondTimeBucket);
+        long endTimeStamp = changeTimeBucket2TimeStamp(TimeBucketType.SECOND.name(), endSecondTimeBucket);
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(startTimeStamp);
+
+        long[] timeBuckets = new long[(int)Math.round((endTimeStamp - startTimeStamp) / 1000.0) + 1];
+        for (int i = 0; i < timeBuckets.length; i++) {
+            timeBuckets[i] = calendar.get(Calendar.YEAR) * 10000000000L
+                + (calendar.get(Calendar.MONTH) + 1) * 100000000L
+                + calendar.get(Calendar.DAY_OF_MONTH) * 1000000L
+                + calendar.get(Calendar.HOUR_OF_DAY) * 10000L
+                + calendar.get(Calendar.MINUTE) * 100L
+                + calendar.get(Calendar.SECOND);
+            calendar.add(Calendar.SECOND, 1);
+        }
+        return timeBuckets;
+    }
+
     public long changeToUTCTimeBucket(long timeBucket) {
         String timeBucketStr = String.valueOf(timeBucket);
 
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.collector.core.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testBucketBound() {
+        for (long value = 0; value < 100000; value++) {
+            int index = Histogram.bucketIndex(value);
+            Assert.assertTrue(value <= Histogram.bucketUpperBound(index));
+            if (index > 0) {
+                Assert.assertTrue(value > Histogram.bucketUpperBound(index - 1));
+            }
+        }
+        Assert.assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.bucketIndex(Long.MAX_VALUE));
+        Assert.assertEquals(Histogram.MAX_VALUE, Histogram.bucketUpperBound(Histogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testPercentile() {
+        Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(100, histogram.getTotalCount());
+
+        long p50 = histogram.getValueAtPercentile(50);
+        Assert.assertTrue(p50 >= 50 && p50 <= 63);
+        long p99 = histogram.getValueAtPercentile(99);
+        Assert.assertTrue(p99 >= 99 && p99 <= 127);
+    }
+
+    @Test
+    public void testMerge() {
+        Histogram first = new Histogram();
+        first.record(10);
+        Histogram second = new Histogram();
+        second.record(1000);
+        second.record(1000);
+
+        first.merge(second);
+        Assert.assertEquals(3, first.getTotalCount());
+        Assert.assertEquals(Histogram.bucketUpperBound(Histogram.bucketIndex(1000)), first.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testBytes() {
+        Histogram histogram = new Histogram();
+        histogram.record(0);
+        histogram.record(300);
+        for (int i = 0; i < 200; i++) {
+            histogram.record(Histogram.MAX_VALUE);
+        }
+
+        Histogram decoded = Histogram.fromBytes(histogram.toBytes());
+        Assert.assertEquals(histogram.getTotalCount(), decoded.getTotalCount());
+        Assert.assertEquals(histogram.getValueAtPercentile(1), decoded.getValueAtPercentile(1));
+        Assert.assertEquals(histogram.getValueAtPercentile(99), decoded.getValueAtPercentile(99));
+
+        Assert.assertEquals(0, Histogram.fromBytes(null).getTotalCount());
+        Assert.assertEquals(0, new Histogram().toBytes().length);
+    }
+}
@@ -54,4 +54,16 @@ public class TimeBucketUtilsTest {
         Assert.assertEquals(201711011500L, TimeBucketUtils.INSTANCE.getHourTimeBucket(timeMillis));
         Assert.assertEquals(201711010000L, TimeBucketUtils.INSTANCE.getDayTimeBucket(timeMillis));
     }
+
+    @Test
+    public void testGetSecondTimeBuckets() {
+        Assert.assertArrayEquals(new long[] {
+            20171231235958L,
+            20171231235959L,
+            20180101000000L,
+            20180101000001L
+        }, TimeBucketUtils.INSTANCE.getSecondTimeBuckets(20171231235958L, 20180101000001L));
+        Assert.assertArrayEquals(new long[] {20171101153545L}, TimeBucketUtils.INSTANCE.getSecondTimeBuckets(20171101153545L, 20171101153545L));
+        Assert.assertEquals(0, TimeBucketUtils.INSTANCE.getSecondTimeBuckets(20171101153545L, 20171101153544L).length);
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.collector.remote.grpc.service;
 
 import org.apache.skywalking.apm.collector.remote.service.RemoteDeserializeService;
 import org.apache.skywalking.apm.collector.core.data.Data;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.remote.grpc.proto.RemoteData;
 
 /**
@@ -44,5 +45,8 @@ public class GRPCRemoteDeserializeService implements RemoteDeserializeService<Re
         for (int i = 0; i < remoteData.getDataDoublesCount(); i++) {
             data.setDataDouble(i, remoteData.getDataDoubles(i));
         }
+        for (int i = 0; i < remoteData.getDataHistogramsCount(); i++) {
+            data.setDataHistogram(i, Histogram.fromBytes(remoteData.getDataHistograms(i).toByteArray()));
+        }
     }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.collector.remote.grpc.service;
 
+import com.google.protobuf.ByteString;
 import org.apache.skywalking.apm.collector.core.data.Data;
 import org.apache.skywalking.apm.collector.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.apm.collector.remote.service.RemoteSerializeService;
@@ -48,6 +49,9 @@ public class GRPCRemoteSerializeService implements RemoteSerializeService<Remote
         for (int i = 0; i < data.getDataBytesCount(); i++) {
 //            builder.addDataBytes(ByteString.copyFrom(data.getDataBytes(i)));
         }
+        for (int i = 0; i < data.getDataHistogramsCount(); i++) {
+            builder.addDataHistograms(ByteString.copyFrom(data.getDataHistogram(i).toBytes()));
+        }
         return builder;
     }
 }
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.storage;
+
+/**
+ * The data received by the stream workers before the watermark has been saved into the storage. The persistence timer
+ * moves it forward after every successful round, readers use it to decide whether the data of a time range is final.
+ */
+public enum PersistenceWatermark {
+    INSTANCE;
+
+    private volatile long watermark = 0;
+
+    /**
+     * @param roundStartTime the time when the successfully saved persistence round extracted the worker data
+     */
+    public void persisted(long roundStartTime) {
+        if (roundStartTime > watermark) {
+            watermark = roundStartTime;
+        }
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+}
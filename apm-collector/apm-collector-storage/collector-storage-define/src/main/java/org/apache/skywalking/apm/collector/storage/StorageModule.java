@@ -53,6 +53,7 @@ import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricPersistence
 import org.apache.skywalking.apm.collector.storage.dao.IServiceNameCacheDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceNameRegisterDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceReferenceMetricPersistenceDAO;
+import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceReferenceUIDAO;
 import org.apache.skywalking.apm.collector.storage.base.dao.IBatchDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IAlertingListPersistenceDAO;
@@ -134,6 +135,7 @@ public class StorageModule extends Module {
         classes.add(ISegmentCostUIDAO.class);
         classes.add(ISegmentUIDAO.class);
         classes.add(IServiceEntryUIDAO.class);
+        classes.add(IServiceMetricUIDAO.class);
         classes.add(IServiceReferenceUIDAO.class);
     }
 
@@ -20,6 +20,7 @@
 package org.apache.skywalking.apm.collector.storage.dao;
 
 import com.google.gson.JsonArray;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.storage.base.dao.DAO;
 
 /**
@@ -36,6 +37,8 @@ public interface IInstanceMetricUIDAO extends DAO {
 
     JsonArray getRespTimeMetric(int instanceId, long startTimeBucket, long endTimeBucket);
 
+    Histogram getTransactionDurationHistogram(int instanceId, long startTimeBucket, long endTimeBucket);
+
     class InstanceMetric {
         private final int instanceId;
         private final long calls;
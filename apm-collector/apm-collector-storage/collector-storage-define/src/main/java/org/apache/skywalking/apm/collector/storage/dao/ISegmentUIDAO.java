@@ -19,6 +19,8 @@
 
 package org.apache.skywalking.apm.collector.storage.dao;
 
+import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.apm.collector.storage.base.dao.DAO;
 import org.apache.skywalking.apm.network.proto.TraceSegmentObject;
 
@@ -27,4 +29,19 @@ import org.apache.skywalking.apm.network.proto.TraceSegmentObject;
  */
 public interface ISegmentUIDAO extends DAO {
     TraceSegmentObject load(String segmentId);
+
+    /**
+     * Load the segments in one storage round trip, the segments which not exist are absent from the result.
+     *
+     * @return segment id to segment
+     */
+    Map<String, TraceSegmentObject> load(List<String> segmentIds);
+
+    /**
+     * Load the parts of a long running segment, which are stored as {segment id}P{part sequence}, in one query. The
+     * last part, stored with the segment id, is not included.
+     *
+     * @return part id to part
+     */
+    Map<String, TraceSegmentObject> loadParts(String segmentId);
 }
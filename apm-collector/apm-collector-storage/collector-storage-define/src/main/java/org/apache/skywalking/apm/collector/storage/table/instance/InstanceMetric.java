@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.collector.storage.table.instance;
 
 import org.apache.skywalking.apm.collector.core.data.Column;
 import org.apache.skywalking.apm.collector.core.data.Data;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.data.operator.AddOperation;
 import org.apache.skywalking.apm.collector.core.data.operator.CoverOperation;
 import org.apache.skywalking.apm.collector.core.data.operator.NonOperation;
@@ -61,8 +62,12 @@ public class InstanceMetric extends Data {
     private static final Column[] BOOLEAN_COLUMNS = {};
     private static final Column[] BYTE_COLUMNS = {};
 
+    private static final Column[] HISTOGRAM_COLUMNS = {
+        new Column(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new AddOperation()),
+    };
+
     public InstanceMetric(String id) {
-        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS);
+        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS, HISTOGRAM_COLUMNS);
     }
 
     public Integer getApplicationId() {
@@ -184,4 +189,12 @@ public class InstanceMetric extends Data {
     public void setMqTransactionErrorDurationSum(Long mqTransactionErrorDurationSum) {
         setDataLong(12, mqTransactionErrorDurationSum);
     }
+
+    public Histogram getTransactionDurationHistogram() {
+        return getDataHistogram(0);
+    }
+
+    public void setTransactionDurationHistogram(Histogram transactionDurationHistogram) {
+        setDataHistogram(0, transactionDurationHistogram);
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.collector.storage.table.service;
 
 import org.apache.skywalking.apm.collector.core.data.Column;
 import org.apache.skywalking.apm.collector.core.data.Data;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.data.operator.NonOperation;
 import org.apache.skywalking.apm.collector.core.data.operator.AddOperation;
 
@@ -60,8 +61,12 @@ public class ServiceMetric extends Data {
 
     private static final Column[] BYTE_COLUMNS = {};
 
+    private static final Column[] HISTOGRAM_COLUMNS = {
+        new Column(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new AddOperation()),
+    };
+
     public ServiceMetric(String id) {
-        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS);
+        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS, HISTOGRAM_COLUMNS);
     }
 
     public Integer getServiceId() {
@@ -175,4 +180,12 @@ public class ServiceMetric extends Data {
     public void setMqTransactionErrorDurationSum(Long mqTransactionErrorDurationSum) {
         setDataLong(12, mqTransactionErrorDurationSum);
     }
+
+    public Histogram getTransactionDurationHistogram() {
+        return getDataHistogram(0);
+    }
+
+    public void setTransactionDurationHistogram(Histogram transactionDurationHistogram) {
+        setDataHistogram(0, transactionDurationHistogram);
+    }
 }
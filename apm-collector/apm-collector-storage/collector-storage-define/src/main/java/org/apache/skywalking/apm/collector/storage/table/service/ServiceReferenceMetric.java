@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.collector.storage.table.service;
 
 import org.apache.skywalking.apm.collector.core.data.Column;
 import org.apache.skywalking.apm.collector.core.data.Data;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.data.operator.AddOperation;
 import org.apache.skywalking.apm.collector.core.data.operator.NonOperation;
 
@@ -68,8 +69,12 @@ public class ServiceReferenceMetric extends Data {
 
     private static final Column[] BYTE_COLUMNS = {};
 
+    private static final Column[] HISTOGRAM_COLUMNS = {
+        new Column(ServiceReferenceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new AddOperation()),
+    };
+
     public ServiceReferenceMetric(String id) {
-        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS);
+        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS, HISTOGRAM_COLUMNS);
     }
 
     public Integer getEntryServiceId() {
@@ -231,4 +236,12 @@ public class ServiceReferenceMetric extends Data {
     public void setMqTransactionErrorDurationSum(Long mqTransactionErrorDurationSum) {
         setDataLong(12, mqTransactionErrorDurationSum);
     }
+
+    public Histogram getTransactionDurationHistogram() {
+        return getDataHistogram(0);
+    }
+
+    public void setTransactionDurationHistogram(Histogram transactionDurationHistogram) {
+        setDataHistogram(0, transactionDurationHistogram);
+    }
 }
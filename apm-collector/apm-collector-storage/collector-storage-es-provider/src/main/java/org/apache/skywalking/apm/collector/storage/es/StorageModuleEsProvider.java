@@ -70,6 +70,7 @@ import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricPersistence
 import org.apache.skywalking.apm.collector.storage.dao.IServiceNameCacheDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceNameRegisterDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceReferenceMetricPersistenceDAO;
+import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceReferenceUIDAO;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.BatchEsDAO;
 import org.apache.skywalking.apm.collector.storage.es.base.define.ElasticSearchStorageInstaller;
@@ -106,6 +107,7 @@ import org.apache.skywalking.apm.collector.storage.es.dao.ServiceEntryEsUIDAO;
 import org.apache.skywalking.apm.collector.storage.es.dao.ServiceMetricEsPersistenceDAO;
 import org.apache.skywalking.apm.collector.storage.es.dao.ServiceNameEsCacheDAO;
 import org.apache.skywalking.apm.collector.storage.es.dao.ServiceNameEsRegisterDAO;
+import org.apache.skywalking.apm.collector.storage.es.dao.ServiceMetricEsUIDAO;
 import org.apache.skywalking.apm.collector.storage.es.dao.ServiceReferenceEsUIDAO;
 import org.apache.skywalking.apm.collector.storage.es.dao.ServiceReferenceMetricEsPersistenceDAO;
 import org.slf4j.Logger;
@@ -232,6 +234,7 @@ public class StorageModuleEsProvider extends ModuleProvider {
         this.registerServiceImplementation(ISegmentCostUIDAO.class, new SegmentCostEsUIDAO(elasticSearchClient));
         this.registerServiceImplementation(ISegmentUIDAO.class, new SegmentEsUIDAO(elasticSearchClient));
         this.registerServiceImplementation(IServiceEntryUIDAO.class, new ServiceEntryEsUIDAO(elasticSearchClient));
+        this.registerServiceImplementation(IServiceMetricUIDAO.class, new ServiceMetricEsUIDAO(elasticSearchClient));
         this.registerServiceImplementation(IServiceReferenceUIDAO.class, new ServiceReferenceEsUIDAO(elasticSearchClient));
     }
 
@@ -19,8 +19,12 @@
 
 package org.apache.skywalking.apm.collector.storage.es.base.dao;
 
+import java.util.function.Consumer;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.metrics.max.Max;
 import org.elasticsearch.search.aggregations.metrics.max.MaxAggregationBuilder;
@@ -34,6 +38,9 @@ import org.apache.skywalking.apm.collector.storage.base.dao.AbstractDAO;
  */
 public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
 
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+    private static final int SCROLL_PAGE_SIZE = 1000;
+
     public EsDAO(ElasticSearchClient client) {
         super(client);
     }
@@ -75,4 +82,26 @@ public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
             return id;
         }
     }
+
+    /**
+     * Visit all hits of the search page by page, a plain search returns at most one page of hits and silently drops
+     * the others.
+     */
+    protected final void scroll(SearchRequestBuilder searchRequestBuilder, Consumer<SearchHit> consumer) {
+        searchRequestBuilder.setScroll(SCROLL_KEEP_ALIVE);
+        searchRequestBuilder.setSize(SCROLL_PAGE_SIZE);
+        searchRequestBuilder.addSort("_doc", SortOrder.ASC);
+
+        SearchResponse searchResponse = searchRequestBuilder.execute().actionGet();
+        try {
+            while (searchResponse.getHits().getHits().length > 0) {
+                for (SearchHit searchHit : searchResponse.getHits().getHits()) {
+                    consumer.accept(searchHit);
+                }
+                searchResponse = getClient().prepareSearchScroll(searchResponse.getScrollId()).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet();
+            }
+        } finally {
+            getClient().prepareClearScroll().addScrollId(searchResponse.getScrollId()).execute().actionGet();
+        }
+    }
 }
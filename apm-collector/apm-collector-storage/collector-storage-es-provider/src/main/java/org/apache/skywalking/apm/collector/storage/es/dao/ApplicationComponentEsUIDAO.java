@@ -55,7 +55,7 @@ public class ApplicationComponentEsUIDAO extends EsDAO implements IApplicationCo
     private JsonArray aggregationByComponentId(long startTime, long endTime) {
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(ApplicationComponentTable.TABLE);
         searchRequestBuilder.setTypes(ApplicationComponentTable.TABLE_TYPE);
-        searchRequestBuilder.setSearchType(SearchType.DFS_QUERY_THEN_FETCH);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
         searchRequestBuilder.setQuery(QueryBuilders.rangeQuery(ApplicationComponentTable.COLUMN_TIME_BUCKET).gte(startTime).lte(endTime));
         searchRequestBuilder.setSize(0);
 
@@ -20,16 +20,19 @@
 package org.apache.skywalking.apm.collector.storage.es.dao;
 
 import com.google.gson.JsonArray;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.get.MultiGetItemResponse;
-import org.elasticsearch.action.get.MultiGetRequestBuilder;
-import org.elasticsearch.action.get.MultiGetResponse;
 import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.dao.ICpuMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.jvm.CpuMetricTable;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 
 /**
  * @author peng-yongsheng
@@ -51,25 +54,28 @@ public class CpuMetricEsUIDAO extends EsDAO implements ICpuMetricUIDAO {
     }
 
     @Override public JsonArray getMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
-        MultiGetRequestBuilder prepareMultiGet = getClient().prepareMultiGet();
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
 
-        long timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String id = timeBucket + Const.ID_SPLIT + instanceId;
-            prepareMultiGet.add(CpuMetricTable.TABLE, CpuMetricTable.TABLE_TYPE, id);
-        }
-        while (timeBucket <= endTimeBucket);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(CpuMetricTable.TABLE);
+        searchRequestBuilder.setTypes(CpuMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(CpuMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.rangeQuery(CpuMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {CpuMetricTable.COLUMN_TIME_BUCKET, CpuMetricTable.COLUMN_USAGE_PERCENT}, null);
+        Map<Long, Double> cpuUsedMap = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            Map<String, Object> source = searchHit.getSource();
+            cpuUsedMap.put(((Number)source.get(CpuMetricTable.COLUMN_TIME_BUCKET)).longValue(), ((Number)source.get(CpuMetricTable.COLUMN_USAGE_PERCENT)).doubleValue());
+        });
 
         JsonArray metrics = new JsonArray();
-        MultiGetResponse multiGetResponse = prepareMultiGet.get();
-        for (MultiGetItemResponse response : multiGetResponse.getResponses()) {
-            if (response.getResponse().isExists()) {
-                double cpuUsed = ((Number)response.getResponse().getSource().get(CpuMetricTable.COLUMN_USAGE_PERCENT)).doubleValue();
-                metrics.add((int)(cpuUsed * 100));
-            } else {
-                metrics.add(0);
-            }
+        for (long timeBucket : timeBuckets) {
+            Double cpuUsed = cpuUsedMap.get(timeBucket);
+            metrics.add(cpuUsed == null ? 0 : (int)(cpuUsed * 100));
         }
         return metrics;
     }
@@ -25,9 +25,6 @@ import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.apache.skywalking.apm.collector.storage.table.jvm.GCMetricTable;
 import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.get.MultiGetItemResponse;
-import org.elasticsearch.action.get.MultiGetRequestBuilder;
-import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchType;
@@ -42,6 +39,9 @@ import org.apache.skywalking.apm.collector.storage.dao.IGCMetricUIDAO;
 import org.apache.skywalking.apm.network.proto.GCPhrase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
 
 /**
  * @author peng-yongsheng
@@ -58,7 +58,7 @@ public class GCMetricEsUIDAO extends EsDAO implements IGCMetricUIDAO {
         logger.debug("get gc count, timeBuckets: {}, instanceId: {}", timeBuckets, instanceId);
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(GCMetricTable.TABLE);
         searchRequestBuilder.setTypes(GCMetricTable.TABLE_TYPE);
-        searchRequestBuilder.setSearchType(SearchType.DFS_QUERY_THEN_FETCH);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
 
         BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
         boolQuery.must().add(QueryBuilders.termQuery(GCMetricTable.COLUMN_INSTANCE_ID, instanceId));
@@ -93,13 +93,17 @@ public class GCMetricEsUIDAO extends EsDAO implements IGCMetricUIDAO {
         JsonObject response = new JsonObject();
 
         String youngId = timeBucket + Const.ID_SPLIT + GCPhrase.NEW_VALUE + instanceId;
-        GetResponse youngResponse = getClient().prepareGet(GCMetricTable.TABLE, youngId).get();
+        CompletableFuture<GetResponse> youngFuture = getClient().executeAsync(getClient().prepareGet(GCMetricTable.TABLE, youngId));
+
+        String oldId = timeBucket + Const.ID_SPLIT + GCPhrase.OLD_VALUE + instanceId;
+        CompletableFuture<GetResponse> oldFuture = getClient().executeAsync(getClient().prepareGet(GCMetricTable.TABLE, oldId));
+
+        GetResponse youngResponse = youngFuture.join();
         if (youngResponse.isExists()) {
             response.addProperty("ygc", ((Number)youngResponse.getSource().get(GCMetricTable.COLUMN_COUNT)).intValue());
         }
 
-        String oldId = timeBucket + Const.ID_SPLIT + GCPhrase.OLD_VALUE + instanceId;
-        GetResponse oldResponse = getClient().prepareGet(GCMetricTable.TABLE, oldId).get();
+        GetResponse oldResponse = oldFuture.join();
         if (oldResponse.isExists()) {
             response.addProperty("ogc", ((Number)oldResponse.getSource().get(GCMetricTable.COLUMN_COUNT)).intValue());
         }
@@ -108,49 +112,42 @@ public class GCMetricEsUIDAO extends EsDAO implements IGCMetricUIDAO {
     }
 
     @Override public JsonObject getMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
-        JsonObject response = new JsonObject();
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
 
-        MultiGetRequestBuilder youngPrepareMultiGet = getClient().prepareMultiGet();
-        long timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String youngId = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + GCPhrase.NEW_VALUE;
-            youngPrepareMultiGet.add(GCMetricTable.TABLE, GCMetricTable.TABLE_TYPE, youngId);
-        }
-        while (timeBucket <= endTimeBucket);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(GCMetricTable.TABLE);
+        searchRequestBuilder.setTypes(GCMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
 
-        JsonArray youngArray = new JsonArray();
-        MultiGetResponse multiGetResponse = youngPrepareMultiGet.get();
-        for (MultiGetItemResponse itemResponse : multiGetResponse.getResponses()) {
-            if (itemResponse.getResponse().isExists()) {
-                youngArray.add(((Number)itemResponse.getResponse().getSource().get(GCMetricTable.COLUMN_COUNT)).intValue());
-            } else {
-                youngArray.add(0);
-            }
-        }
-        response.add("ygc", youngArray);
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(GCMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.rangeQuery(GCMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
 
-        MultiGetRequestBuilder oldPrepareMultiGet = getClient().prepareMultiGet();
-        timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String oldId = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + GCPhrase.OLD_VALUE;
-            oldPrepareMultiGet.add(GCMetricTable.TABLE, GCMetricTable.TABLE_TYPE, oldId);
-        }
-        while (timeBucket <= endTimeBucket);
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {GCMetricTable.COLUMN_TIME_BUCKET, GCMetricTable.COLUMN_PHRASE, GCMetricTable.COLUMN_COUNT}, null);
+        Map<Long, Integer> youngCountMap = new HashMap<>();
+        Map<Long, Integer> oldCountMap = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            Map<String, Object> source = searchHit.getSource();
+            long timeBucket = ((Number)source.get(GCMetricTable.COLUMN_TIME_BUCKET)).longValue();
+            int phrase = ((Number)source.get(GCMetricTable.COLUMN_PHRASE)).intValue();
+            int count = ((Number)source.get(GCMetricTable.COLUMN_COUNT)).intValue();
+            if (phrase == GCPhrase.NEW_VALUE) {
+                youngCountMap.put(timeBucket, count);
+            } else if (phrase == GCPhrase.OLD_VALUE) {
+                oldCountMap.put(timeBucket, count);
+            }
+        });
 
+        JsonArray youngArray = new JsonArray();
         JsonArray oldArray = new JsonArray();
-
-        multiGetResponse = oldPrepareMultiGet.get();
-        for (MultiGetItemResponse itemResponse : multiGetResponse.getResponses()) {
-            if (itemResponse.getResponse().isExists()) {
-                oldArray.add(((Number)itemResponse.getResponse().getSource().get(GCMetricTable.COLUMN_COUNT)).intValue());
-            } else {
-                oldArray.add(0);
-            }
+        for (long timeBucket : timeBuckets) {
+            youngArray.add(youngCountMap.getOrDefault(timeBucket, 0));
+            oldArray.add(oldCountMap.getOrDefault(timeBucket, 0));
         }
-        response.add("ogc", oldArray);
 
+        JsonObject response = new JsonObject();
+        response.add("ygc", youngArray);
+        response.add("ogc", oldArray);
         return response;
     }
 }
@@ -47,7 +47,7 @@ public class GlobalTraceEsUIDAO extends EsDAO implements IGlobalTraceUIDAO {
     @Override public List<String> getGlobalTraceId(String segmentId) {
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(GlobalTraceTable.TABLE);
         searchRequestBuilder.setTypes(GlobalTraceTable.TABLE_TYPE);
-        searchRequestBuilder.setSearchType(SearchType.DFS_QUERY_THEN_FETCH);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
         searchRequestBuilder.setQuery(QueryBuilders.termQuery(GlobalTraceTable.COLUMN_SEGMENT_ID, segmentId));
         searchRequestBuilder.setSize(10);
 
@@ -66,7 +66,7 @@ public class GlobalTraceEsUIDAO extends EsDAO implements IGlobalTraceUIDAO {
     @Override public List<String> getSegmentIds(String globalTraceId) {
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(GlobalTraceTable.TABLE);
         searchRequestBuilder.setTypes(GlobalTraceTable.TABLE_TYPE);
-        searchRequestBuilder.setSearchType(SearchType.DFS_QUERY_THEN_FETCH);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
         searchRequestBuilder.setQuery(QueryBuilders.termQuery(GlobalTraceTable.COLUMN_GLOBAL_TRACE_ID, globalTraceId));
         searchRequestBuilder.setSize(10);
 
@@ -19,9 +19,11 @@
 
 package org.apache.skywalking.apm.collector.storage.es.dao;
 
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.storage.dao.IInstanceMetricPersistenceDAO;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.apache.skywalking.apm.collector.storage.table.instance.InstanceMetric;
@@ -70,6 +72,11 @@ public class InstanceMetricEsPersistenceDAO extends EsDAO implements IInstanceMe
             instanceMetric.setMqTransactionDurationSum(((Number)source.get(InstanceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM)).longValue());
             instanceMetric.setMqTransactionErrorDurationSum(((Number)source.get(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM)).longValue());
 
+            String histogramBase64 = (String)source.get(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM);
+            if (histogramBase64 != null) {
+                instanceMetric.setTransactionDurationHistogram(Histogram.fromBytes(Base64.getDecoder().decode(histogramBase64)));
+            }
+
             instanceMetric.setTimeBucket(((Number)source.get(InstanceMetricTable.COLUMN_TIME_BUCKET)).longValue());
 
             return instanceMetric;
@@ -97,6 +104,7 @@ public class InstanceMetricEsPersistenceDAO extends EsDAO implements IInstanceMe
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new String(Base64.getEncoder().encode(data.getTransactionDurationHistogram().toBytes())));
 
         source.put(InstanceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
@@ -122,6 +130,7 @@ public class InstanceMetricEsPersistenceDAO extends EsDAO implements IInstanceMe
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new String(Base64.getEncoder().encode(data.getTransactionDurationHistogram().toBytes())));
 
         source.put(InstanceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
@@ -20,13 +20,12 @@
 package org.apache.skywalking.apm.collector.storage.es.dao;
 
 import com.google.gson.JsonArray;
+import java.util.Base64;
 import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.get.MultiGetItemResponse;
-import org.elasticsearch.action.get.MultiGetRequestBuilder;
-import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchType;
@@ -38,6 +37,8 @@ import org.elasticsearch.search.sort.SortOrder;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.dao.IInstanceMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.instance.InstanceMetricTable;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author peng-yongsheng
@@ -51,7 +52,7 @@ public class InstanceMetricEsUIDAO extends EsDAO implements IInstanceMetricUIDAO
     @Override public InstanceMetric get(long[] timeBuckets, int instanceId) {
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(InstanceMetricTable.TABLE);
         searchRequestBuilder.setTypes(InstanceMetricTable.TABLE_TYPE);
-        searchRequestBuilder.setSearchType(SearchType.DFS_QUERY_THEN_FETCH);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
 
         BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
         boolQuery.must().add(QueryBuilders.termQuery(InstanceMetricTable.COLUMN_INSTANCE_ID, instanceId));
@@ -81,24 +82,27 @@ public class InstanceMetricEsUIDAO extends EsDAO implements IInstanceMetricUIDAO
     }
 
     @Override public JsonArray getTpsMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
-        MultiGetRequestBuilder prepareMultiGet = getClient().prepareMultiGet();
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
 
-        long timeBucket = startTimeBucket;
-        do {
-            String id = timeBucket + Const.ID_SPLIT + instanceId;
-            prepareMultiGet.add(InstanceMetricTable.TABLE, InstanceMetricTable.TABLE_TYPE, id);
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-        }
-        while (timeBucket <= endTimeBucket);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(InstanceMetricTable.TABLE);
+        searchRequestBuilder.setTypes(InstanceMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(InstanceMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.rangeQuery(InstanceMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {InstanceMetricTable.COLUMN_TIME_BUCKET, InstanceMetricTable.COLUMN_TRANSACTION_CALLS}, null);
+        Map<Long, Long> callsMap = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            Map<String, Object> source = searchHit.getSource();
+            callsMap.put(((Number)source.get(InstanceMetricTable.COLUMN_TIME_BUCKET)).longValue(), ((Number)source.get(InstanceMetricTable.COLUMN_TRANSACTION_CALLS)).longValue());
+        });
 
         JsonArray metrics = new JsonArray();
-        MultiGetResponse multiGetResponse = prepareMultiGet.get();
-        for (MultiGetItemResponse response : multiGetResponse.getResponses()) {
-            if (response.getResponse().isExists()) {
-                metrics.add(((Number)response.getResponse().getSource().get(InstanceMetricTable.COLUMN_TRANSACTION_CALLS)).longValue());
-            } else {
-                metrics.add(0);
-            }
+        for (long timeBucket : timeBuckets) {
+            metrics.add(callsMap.getOrDefault(timeBucket, 0L));
         }
         return metrics;
     }
@@ -116,29 +120,53 @@ public class InstanceMetricEsUIDAO extends EsDAO implements IInstanceMetricUIDAO
     }
 
     @Override public JsonArray getRespTimeMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
-        MultiGetRequestBuilder prepareMultiGet = getClient().prepareMultiGet();
-
-        int i = 0;
-        long timeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), startTimeBucket, i);
-            String id = timeBucket + Const.ID_SPLIT + instanceId;
-            prepareMultiGet.add(InstanceMetricTable.TABLE, InstanceMetricTable.TABLE_TYPE, id);
-            i++;
-        }
-        while (timeBucket <= endTimeBucket);
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(InstanceMetricTable.TABLE);
+        searchRequestBuilder.setTypes(InstanceMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(InstanceMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.rangeQuery(InstanceMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {InstanceMetricTable.COLUMN_TIME_BUCKET, InstanceMetricTable.COLUMN_TRANSACTION_CALLS, InstanceMetricTable.COLUMN_TRANSACTION_DURATION_SUM}, null);
+        Map<Long, Long> respTimeMap = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            Map<String, Object> source = searchHit.getSource();
+            long callTimes = ((Number)source.get(InstanceMetricTable.COLUMN_TRANSACTION_CALLS)).longValue();
+            long costTotal = ((Number)source.get(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_SUM)).longValue();
+            respTimeMap.put(((Number)source.get(InstanceMetricTable.COLUMN_TIME_BUCKET)).longValue(), callTimes == 0 ? 0 : costTotal / callTimes);
+        });
 
         JsonArray metrics = new JsonArray();
-        MultiGetResponse multiGetResponse = prepareMultiGet.get();
-        for (MultiGetItemResponse response : multiGetResponse.getResponses()) {
-            if (response.getResponse().isExists()) {
-                long callTimes = ((Number)response.getResponse().getSource().get(InstanceMetricTable.COLUMN_TRANSACTION_CALLS)).longValue();
-                long costTotal = ((Number)response.getResponse().getSource().get(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_SUM)).longValue();
-                metrics.add(costTotal / callTimes);
-            } else {
-                metrics.add(0);
-            }
+        for (long timeBucket : timeBuckets) {
+            metrics.add(respTimeMap.getOrDefault(timeBucket, 0L));
         }
         return metrics;
     }
+
+    @Override
+    public Histogram getTransactionDurationHistogram(int instanceId, long startTimeBucket, long endTimeBucket) {
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(InstanceMetricTable.TABLE);
+        searchRequestBuilder.setTypes(InstanceMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(InstanceMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.rangeQuery(InstanceMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM}, null);
+
+        Histogram histogram = new Histogram();
+        scroll(searchRequestBuilder, searchHit -> {
+            String histogramBase64 = (String)searchHit.getSource().get(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM);
+            if (histogramBase64 != null) {
+                histogram.merge(Histogram.fromBytes(Base64.getDecoder().decode(histogramBase64)));
+            }
+        });
+        return histogram;
+    }
 }
@@ -26,11 +26,14 @@ import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.dao.IMemoryMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.get.MultiGetItemResponse;
-import org.elasticsearch.action.get.MultiGetRequestBuilder;
-import org.elasticsearch.action.get.MultiGetResponse;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.table.jvm.MemoryMetricTable;
+import java.util.HashMap;
+import java.util.Map;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 
 /**
  * @author peng-yongsheng
@@ -59,25 +62,35 @@ public class MemoryMetricEsUIDAO extends EsDAO implements IMemoryMetricUIDAO {
     }
 
     @Override public JsonObject getMetric(int instanceId, long startTimeBucket, long endTimeBucket, boolean isHeap) {
-        MultiGetRequestBuilder prepareMultiGet = getClient().prepareMultiGet();
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
 
-        int i = 0;
-        long timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String id = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + isHeap;
-            prepareMultiGet.add(MemoryMetricTable.TABLE, MemoryMetricTable.TABLE_TYPE, id);
-        }
-        while (timeBucket <= endTimeBucket);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(MemoryMetricTable.TABLE);
+        searchRequestBuilder.setTypes(MemoryMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(MemoryMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.termQuery(MemoryMetricTable.COLUMN_IS_HEAP, isHeap));
+        boolQuery.must().add(QueryBuilders.rangeQuery(MemoryMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {MemoryMetricTable.COLUMN_TIME_BUCKET, MemoryMetricTable.COLUMN_INIT, MemoryMetricTable.COLUMN_MAX, MemoryMetricTable.COLUMN_USED}, null);
+        Map<Long, Map<String, Object>> sourceMap = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            Map<String, Object> source = searchHit.getSource();
+            sourceMap.put(((Number)source.get(MemoryMetricTable.COLUMN_TIME_BUCKET)).longValue(), source);
+        });
 
         JsonObject metric = new JsonObject();
+        metric.addProperty("max", 0);
+        metric.addProperty("init", 0);
         JsonArray usedMetric = new JsonArray();
-        MultiGetResponse multiGetResponse = prepareMultiGet.get();
-        for (MultiGetItemResponse response : multiGetResponse.getResponses()) {
-            if (response.getResponse().isExists()) {
-                metric.addProperty("max", ((Number)response.getResponse().getSource().get(MemoryMetricTable.COLUMN_MAX)).longValue());
-                metric.addProperty("init", ((Number)response.getResponse().getSource().get(MemoryMetricTable.COLUMN_INIT)).longValue());
-                usedMetric.add(((Number)response.getResponse().getSource().get(MemoryMetricTable.COLUMN_USED)).longValue());
+        for (long timeBucket : timeBuckets) {
+            Map<String, Object> source = sourceMap.get(timeBucket);
+            if (source != null) {
+                metric.addProperty("max", ((Number)source.get(MemoryMetricTable.COLUMN_MAX)).longValue());
+                metric.addProperty("init", ((Number)source.get(MemoryMetricTable.COLUMN_INIT)).longValue());
+                usedMetric.add(((Number)source.get(MemoryMetricTable.COLUMN_USED)).longValue());
             } else {
                 metric.addProperty("max", 0);
                 metric.addProperty("init", 0);
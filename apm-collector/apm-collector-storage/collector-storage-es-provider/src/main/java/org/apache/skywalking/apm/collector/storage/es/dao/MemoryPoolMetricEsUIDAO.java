@@ -25,12 +25,15 @@ import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchCli
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.get.MultiGetItemResponse;
-import org.elasticsearch.action.get.MultiGetRequestBuilder;
-import org.elasticsearch.action.get.MultiGetResponse;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.dao.IMemoryPoolMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.jvm.MemoryPoolMetricTable;
+import java.util.HashMap;
+import java.util.Map;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 
 /**
  * @author peng-yongsheng
@@ -59,24 +62,35 @@ public class MemoryPoolMetricEsUIDAO extends EsDAO implements IMemoryPoolMetricU
     }
 
     @Override public JsonObject getMetric(int instanceId, long startTimeBucket, long endTimeBucket, int poolType) {
-        MultiGetRequestBuilder prepareMultiGet = getClient().prepareMultiGet();
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
 
-        long timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String id = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + poolType;
-            prepareMultiGet.add(MemoryPoolMetricTable.TABLE, MemoryPoolMetricTable.TABLE_TYPE, id);
-        }
-        while (timeBucket <= endTimeBucket);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(MemoryPoolMetricTable.TABLE);
+        searchRequestBuilder.setTypes(MemoryPoolMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(MemoryPoolMetricTable.COLUMN_INSTANCE_ID, instanceId));
+        boolQuery.must().add(QueryBuilders.termQuery(MemoryPoolMetricTable.COLUMN_POOL_TYPE, poolType));
+        boolQuery.must().add(QueryBuilders.rangeQuery(MemoryPoolMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {MemoryPoolMetricTable.COLUMN_TIME_BUCKET, MemoryPoolMetricTable.COLUMN_INIT, MemoryPoolMetricTable.COLUMN_MAX, MemoryPoolMetricTable.COLUMN_USED}, null);
+        Map<Long, Map<String, Object>> sourceMap = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            Map<String, Object> source = searchHit.getSource();
+            sourceMap.put(((Number)source.get(MemoryPoolMetricTable.COLUMN_TIME_BUCKET)).longValue(), source);
+        });
 
         JsonObject metric = new JsonObject();
+        metric.addProperty("max", 0);
+        metric.addProperty("init", 0);
         JsonArray usedMetric = new JsonArray();
-        MultiGetResponse multiGetResponse = prepareMultiGet.get();
-        for (MultiGetItemResponse response : multiGetResponse.getResponses()) {
-            if (response.getResponse().isExists()) {
-                metric.addProperty("max", ((Number)response.getResponse().getSource().get(MemoryPoolMetricTable.COLUMN_MAX)).longValue());
-                metric.addProperty("init", ((Number)response.getResponse().getSource().get(MemoryPoolMetricTable.COLUMN_INIT)).longValue());
-                usedMetric.add(((Number)response.getResponse().getSource().get(MemoryPoolMetricTable.COLUMN_USED)).longValue());
+        for (long timeBucket : timeBuckets) {
+            Map<String, Object> source = sourceMap.get(timeBucket);
+            if (source != null) {
+                metric.addProperty("max", ((Number)source.get(MemoryPoolMetricTable.COLUMN_MAX)).longValue());
+                metric.addProperty("init", ((Number)source.get(MemoryPoolMetricTable.COLUMN_INIT)).longValue());
+                usedMetric.add(((Number)source.get(MemoryPoolMetricTable.COLUMN_USED)).longValue());
             } else {
                 metric.addProperty("max", 0);
                 metric.addProperty("init", 0);
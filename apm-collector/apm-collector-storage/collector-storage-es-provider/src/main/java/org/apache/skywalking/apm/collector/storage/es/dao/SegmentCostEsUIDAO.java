@@ -51,7 +51,7 @@ public class SegmentCostEsUIDAO extends EsDAO implements ISegmentCostUIDAO {
         Error error, int applicationId, List<String> segmentIds, int limit, int from, Sort sort) {
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(SegmentCostTable.TABLE);
         searchRequestBuilder.setTypes(SegmentCostTable.TABLE_TYPE);
-        searchRequestBuilder.setSearchType(SearchType.DFS_QUERY_THEN_FETCH);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
         BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery();
         searchRequestBuilder.setQuery(boolQueryBuilder);
         List<QueryBuilder> mustQueryList = boolQueryBuilder.must();
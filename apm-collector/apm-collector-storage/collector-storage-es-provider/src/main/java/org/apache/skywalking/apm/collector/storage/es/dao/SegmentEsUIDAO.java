@@ -21,10 +21,20 @@ package org.apache.skywalking.apm.collector.storage.es.dao;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequestBuilder;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.index.mapper.Uid;
+import org.elasticsearch.index.mapper.UidFieldMapper;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.core.util.StringUtils;
 import org.apache.skywalking.apm.collector.storage.dao.ISegmentUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.segment.SegmentTable;
@@ -45,7 +55,52 @@ public class SegmentEsUIDAO extends EsDAO implements ISegmentUIDAO {
 
     @Override public TraceSegmentObject load(String segmentId) {
         GetResponse response = getClient().prepareGet(SegmentTable.TABLE, segmentId).get();
-        Map<String, Object> source = response.getSource();
+        if (!response.isExists()) {
+            return null;
+        }
+        return parse(response.getSource());
+    }
+
+    @Override public Map<String, TraceSegmentObject> load(List<String> segmentIds) {
+        Map<String, TraceSegmentObject> segments = new HashMap<>();
+        if (segmentIds.isEmpty()) {
+            return segments;
+        }
+
+        MultiGetRequestBuilder prepareMultiGet = getClient().prepareMultiGet();
+        prepareMultiGet.add(SegmentTable.TABLE, SegmentTable.TABLE_TYPE, segmentIds);
+
+        MultiGetResponse multiGetResponse = prepareMultiGet.get();
+        for (MultiGetItemResponse itemResponse : multiGetResponse.getResponses()) {
+            if (!itemResponse.isFailed() && itemResponse.getResponse().isExists()) {
+                TraceSegmentObject segment = parse(itemResponse.getResponse().getSource());
+                if (segment != null) {
+                    segments.put(itemResponse.getId(), segment);
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * The _id field of elasticsearch 5 doesn't support the prefix query, the _uid field, which is {type}#{id}, does.
+     */
+    @Override public Map<String, TraceSegmentObject> loadParts(String segmentId) {
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(SegmentTable.TABLE);
+        searchRequestBuilder.setTypes(SegmentTable.TABLE_TYPE);
+        searchRequestBuilder.setQuery(QueryBuilders.prefixQuery(UidFieldMapper.NAME, Uid.createUid(SegmentTable.TABLE_TYPE, segmentId + Const.SEGMENT_PART_SPLIT)));
+
+        Map<String, TraceSegmentObject> parts = new HashMap<>();
+        scroll(searchRequestBuilder, searchHit -> {
+            TraceSegmentObject part = parse(searchHit.getSource());
+            if (part != null) {
+                parts.put(searchHit.getId(), part);
+            }
+        });
+        return parts;
+    }
+
+    private TraceSegmentObject parse(Map<String, Object> source) {
         String dataBinaryBase64 = (String)source.get(SegmentTable.COLUMN_DATA_BINARY);
         if (StringUtils.isNotEmpty(dataBinaryBase64)) {
             byte[] dataBinary = Base64.getDecoder().decode(dataBinaryBase64);
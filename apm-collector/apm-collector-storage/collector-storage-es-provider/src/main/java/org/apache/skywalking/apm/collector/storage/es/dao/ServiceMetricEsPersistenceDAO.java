@@ -19,9 +19,11 @@
 
 package org.apache.skywalking.apm.collector.storage.es.dao;
 
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.apache.skywalking.apm.collector.storage.table.service.ServiceMetric;
@@ -68,6 +70,11 @@ public class ServiceMetricEsPersistenceDAO extends EsDAO implements IServiceMetr
             serviceMetric.setMqTransactionDurationSum(((Number)source.get(ServiceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM)).longValue());
             serviceMetric.setMqTransactionErrorDurationSum(((Number)source.get(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM)).longValue());
 
+            String histogramBase64 = (String)source.get(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM);
+            if (histogramBase64 != null) {
+                serviceMetric.setTransactionDurationHistogram(Histogram.fromBytes(Base64.getDecoder().decode(histogramBase64)));
+            }
+
             serviceMetric.setTimeBucket(((Number)source.get(ServiceMetricTable.COLUMN_TIME_BUCKET)).longValue());
             return serviceMetric;
         } else {
@@ -93,6 +100,7 @@ public class ServiceMetricEsPersistenceDAO extends EsDAO implements IServiceMetr
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new String(Base64.getEncoder().encode(data.getTransactionDurationHistogram().toBytes())));
 
         source.put(ServiceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
@@ -117,6 +125,7 @@ public class ServiceMetricEsPersistenceDAO extends EsDAO implements IServiceMetr
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new String(Base64.getEncoder().encode(data.getTransactionDurationHistogram().toBytes())));
 
         source.put(ServiceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.storage.es.dao;
+
+import java.util.Base64;
+import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
+import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricUIDAO;
+import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
+import org.apache.skywalking.apm.collector.storage.table.service.ServiceMetricTable;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+
+public class ServiceMetricEsUIDAO extends EsDAO implements IServiceMetricUIDAO {
+
+    public ServiceMetricEsUIDAO(ElasticSearchClient client) {
+        super(client);
+    }
+
+    @Override
+    public Histogram getTransactionDurationHistogram(int serviceId, long startTimeBucket, long endTimeBucket) {
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(ServiceMetricTable.TABLE);
+        searchRequestBuilder.setTypes(ServiceMetricTable.TABLE_TYPE);
+        searchRequestBuilder.setSearchType(SearchType.QUERY_THEN_FETCH);
+
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(ServiceMetricTable.COLUMN_SERVICE_ID, serviceId));
+        boolQuery.must().add(QueryBuilders.rangeQuery(ServiceMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket));
+
+        searchRequestBuilder.setQuery(boolQuery);
+        searchRequestBuilder.setFetchSource(new String[] {ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM}, null);
+
+        Histogram histogram = new Histogram();
+        scroll(searchRequestBuilder, searchHit -> {
+            String histogramBase64 = (String)searchHit.getSource().get(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM);
+            if (histogramBase64 != null) {
+                histogram.merge(Histogram.fromBytes(Base64.getDecoder().decode(histogramBase64)));
+            }
+        });
+        return histogram;
+    }
+}
@@ -19,9 +19,11 @@
 
 package org.apache.skywalking.apm.collector.storage.es.dao;
 
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceReferenceMetricPersistenceDAO;
 import org.apache.skywalking.apm.collector.storage.es.base.dao.EsDAO;
 import org.apache.skywalking.apm.collector.storage.table.service.ServiceReferenceMetric;
@@ -71,6 +73,11 @@ public class ServiceReferenceMetricEsPersistenceDAO extends EsDAO implements ISe
             serviceReferenceMetric.setMqTransactionDurationSum(((Number)source.get(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM)).longValue());
             serviceReferenceMetric.setMqTransactionErrorDurationSum(((Number)source.get(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM)).longValue());
 
+            String histogramBase64 = (String)source.get(ServiceReferenceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM);
+            if (histogramBase64 != null) {
+                serviceReferenceMetric.setTransactionDurationHistogram(Histogram.fromBytes(Base64.getDecoder().decode(histogramBase64)));
+            }
+
             serviceReferenceMetric.setTimeBucket(((Number)source.get(ServiceReferenceMetricTable.COLUMN_TIME_BUCKET)).longValue());
             return serviceReferenceMetric;
         } else {
@@ -99,6 +106,7 @@ public class ServiceReferenceMetricEsPersistenceDAO extends EsDAO implements ISe
         source.put(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(ServiceReferenceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new String(Base64.getEncoder().encode(data.getTransactionDurationHistogram().toBytes())));
 
         source.put(ServiceReferenceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
@@ -126,6 +134,7 @@ public class ServiceReferenceMetricEsPersistenceDAO extends EsDAO implements ISe
         source.put(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(ServiceReferenceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(ServiceReferenceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, new String(Base64.getEncoder().encode(data.getTransactionDurationHistogram().toBytes())));
 
         source.put(ServiceReferenceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
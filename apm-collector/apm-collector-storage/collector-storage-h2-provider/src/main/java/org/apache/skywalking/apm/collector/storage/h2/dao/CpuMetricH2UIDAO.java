@@ -22,8 +22,8 @@ package org.apache.skywalking.apm.collector.storage.h2.dao;
 import com.google.gson.JsonArray;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
 import org.apache.skywalking.apm.collector.storage.table.jvm.CpuMetricTable;
@@ -41,6 +41,7 @@ import org.slf4j.LoggerFactory;
 public class CpuMetricH2UIDAO extends H2DAO implements ICpuMetricUIDAO {
     private final Logger logger = LoggerFactory.getLogger(CpuMetricH2UIDAO.class);
     private static final String GET_CPU_METRIC_SQL = "select * from {0} where {1} = ?";
+    private static final String GET_CPU_METRICS_SQL = "select * from {0} where {1} = ? and {2} >= ? and {2} <= ?";
 
     public CpuMetricH2UIDAO(H2Client client) {
         super(client);
@@ -62,32 +63,26 @@ public class CpuMetricH2UIDAO extends H2DAO implements ICpuMetricUIDAO {
     }
 
     @Override public JsonArray getMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
         H2Client client = getClient();
-        String sql = SqlBuilder.buildSql(GET_CPU_METRIC_SQL, CpuMetricTable.TABLE, CpuMetricTable.COLUMN_ID);
+        String sql = SqlBuilder.buildSql(GET_CPU_METRICS_SQL, CpuMetricTable.TABLE, CpuMetricTable.COLUMN_INSTANCE_ID, CpuMetricTable.COLUMN_TIME_BUCKET);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket};
 
-        long timeBucket = startTimeBucket;
-        List<String> idList = new ArrayList<>();
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String id = timeBucket + Const.ID_SPLIT + instanceId;
-            idList.add(id);
+        Map<Long, Double> cpuUsedMap = new HashMap<>();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                cpuUsedMap.put(rs.getLong(CpuMetricTable.COLUMN_TIME_BUCKET), rs.getDouble(CpuMetricTable.COLUMN_USAGE_PERCENT));
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
         }
-        while (timeBucket <= endTimeBucket);
 
         JsonArray metrics = new JsonArray();
-        idList.forEach(id -> {
-            try (ResultSet rs = client.executeQuery(sql, new String[] {id})) {
-                if (rs.next()) {
-                    double cpuUsed = rs.getDouble(CpuMetricTable.COLUMN_USAGE_PERCENT);
-                    metrics.add((int)(cpuUsed * 100));
-                } else {
-                    metrics.add(0);
-                }
-            } catch (SQLException | H2ClientException e) {
-                logger.error(e.getMessage(), e);
-            }
-        });
-
+        for (long timeBucket : timeBuckets) {
+            Double cpuUsed = cpuUsedMap.get(timeBucket);
+            metrics.add(cpuUsed == null ? 0 : (int)(cpuUsed * 100));
+        }
         return metrics;
     }
 }
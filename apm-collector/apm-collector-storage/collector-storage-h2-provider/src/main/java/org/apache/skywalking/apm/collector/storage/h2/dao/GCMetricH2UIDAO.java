@@ -23,8 +23,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
 import org.apache.skywalking.apm.collector.storage.dao.IGCMetricUIDAO;
@@ -36,6 +34,8 @@ import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
 import org.apache.skywalking.apm.network.proto.GCPhrase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author peng-yongsheng, clevertension
@@ -45,6 +45,7 @@ public class GCMetricH2UIDAO extends H2DAO implements IGCMetricUIDAO {
     private final Logger logger = LoggerFactory.getLogger(GCMetricH2UIDAO.class);
     private static final String GET_GC_COUNT_SQL = "select {1}, sum({0}) as cnt, {1} from {2} where {3} = ? and {4} in (";
     private static final String GET_GC_METRIC_SQL = "select * from {0} where {1} = ?";
+    private static final String GET_GC_METRICS_SQL = "select * from {0} where {1} = ? and {2} >= ? and {2} <= ?";
 
     public GCMetricH2UIDAO(H2Client client) {
         super(client);
@@ -113,49 +114,38 @@ public class GCMetricH2UIDAO extends H2DAO implements IGCMetricUIDAO {
     }
 
     @Override public JsonObject getMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
-        JsonObject response = new JsonObject();
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
         H2Client client = getClient();
-        String sql = SqlBuilder.buildSql(GET_GC_METRIC_SQL, GCMetricTable.TABLE, GCMetricTable.COLUMN_ID);
-        long timeBucket = startTimeBucket;
-        List<String> youngIdsList = new ArrayList<>();
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String youngId = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + GCPhrase.NEW_VALUE;
-            youngIdsList.add(youngId);
+        String sql = SqlBuilder.buildSql(GET_GC_METRICS_SQL, GCMetricTable.TABLE, GCMetricTable.COLUMN_INSTANCE_ID, GCMetricTable.COLUMN_TIME_BUCKET);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket};
+
+        Map<Long, Integer> youngCountMap = new HashMap<>();
+        Map<Long, Integer> oldCountMap = new HashMap<>();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                long timeBucket = rs.getLong(GCMetricTable.COLUMN_TIME_BUCKET);
+                int phrase = rs.getInt(GCMetricTable.COLUMN_PHRASE);
+                if (phrase == GCPhrase.NEW_VALUE) {
+                    youngCountMap.put(timeBucket, rs.getInt(GCMetricTable.COLUMN_COUNT));
+                } else if (phrase == GCPhrase.OLD_VALUE) {
+                    oldCountMap.put(timeBucket, rs.getInt(GCMetricTable.COLUMN_COUNT));
+                }
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
         }
-        while (timeBucket <= endTimeBucket);
 
         JsonArray youngArray = new JsonArray();
-        forEachRs(client, youngIdsList, sql, youngArray);
-        response.add("ygc", youngArray);
-
-        List<String> oldIdsList = new ArrayList<>();
-        timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String oldId = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + GCPhrase.OLD_VALUE;
-            oldIdsList.add(oldId);
+        JsonArray oldArray = new JsonArray();
+        for (long timeBucket : timeBuckets) {
+            youngArray.add(youngCountMap.getOrDefault(timeBucket, 0));
+            oldArray.add(oldCountMap.getOrDefault(timeBucket, 0));
         }
-        while (timeBucket <= endTimeBucket);
 
-        JsonArray oldArray = new JsonArray();
-        forEachRs(client, oldIdsList, sql, oldArray);
+        JsonObject response = new JsonObject();
+        response.add("ygc", youngArray);
         response.add("ogc", oldArray);
-
         return response;
     }
-
-    private void forEachRs(H2Client client, List<String> idsList, String sql, JsonArray metricArray) {
-        idsList.forEach(id -> {
-            try (ResultSet rs = client.executeQuery(sql, new String[] {id})) {
-                if (rs.next()) {
-                    metricArray.add(rs.getInt(GCMetricTable.COLUMN_COUNT));
-                } else {
-                    metricArray.add(0);
-                }
-            } catch (SQLException | H2ClientException e) {
-                logger.error(e.getMessage(), e);
-            }
-        });
-    }
 }
@@ -31,6 +31,7 @@ import org.apache.skywalking.apm.collector.storage.h2.base.define.H2SqlEntity;
 import org.apache.skywalking.apm.collector.storage.table.instance.InstanceMetric;
 import org.apache.skywalking.apm.collector.client.h2.H2Client;
 import org.apache.skywalking.apm.collector.client.h2.H2ClientException;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
 import org.apache.skywalking.apm.collector.storage.table.instance.InstanceMetricTable;
 import org.slf4j.Logger;
@@ -72,6 +73,7 @@ public class InstanceMetricH2PersistenceDAO extends H2DAO implements IInstanceMe
                 instanceMetric.setMqTransactionErrorCalls(rs.getLong(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS));
                 instanceMetric.setMqTransactionDurationSum(rs.getLong(InstanceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM));
                 instanceMetric.setMqTransactionErrorDurationSum(rs.getLong(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM));
+                instanceMetric.setTransactionDurationHistogram(Histogram.fromBytes(rs.getBytes(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM)));
 
                 instanceMetric.setTimeBucket(rs.getLong(InstanceMetricTable.COLUMN_TIME_BUCKET));
                 return instanceMetric;
@@ -103,6 +105,7 @@ public class InstanceMetricH2PersistenceDAO extends H2DAO implements IInstanceMe
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, data.getTransactionDurationHistogram().toBytes());
 
         source.put(InstanceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
         String sql = SqlBuilder.buildBatchInsertSql(InstanceMetricTable.TABLE, source.keySet());
@@ -131,6 +134,7 @@ public class InstanceMetricH2PersistenceDAO extends H2DAO implements IInstanceMe
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(InstanceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, data.getTransactionDurationHistogram().toBytes());
 
         source.put(InstanceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
         String sql = SqlBuilder.buildBatchUpdateSql(InstanceMetricTable.TABLE, source.keySet(), InstanceMetricTable.COLUMN_ID);
@@ -22,10 +22,8 @@ package org.apache.skywalking.apm.collector.storage.h2.dao;
 import com.google.gson.JsonArray;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import org.apache.skywalking.apm.collector.client.h2.H2Client;
-import org.apache.skywalking.apm.collector.core.util.Const;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
 import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
@@ -34,6 +32,8 @@ import org.apache.skywalking.apm.collector.storage.dao.IInstanceMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.instance.InstanceMetricTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author peng-yongsheng, clevertension
@@ -43,6 +43,8 @@ public class InstanceMetricH2UIDAO extends H2DAO implements IInstanceMetricUIDAO
     private final Logger logger = LoggerFactory.getLogger(InstanceMetricH2UIDAO.class);
     private static final String GET_INSTANCE_METRIC_SQL = "select * from {0} where {1} = ? and {2} in (";
     private static final String GET_TPS_METRIC_SQL = "select * from {0} where {1} = ?";
+    private static final String GET_TPS_METRICS_SQL = "select * from {0} where {1} = ? and {2} >= ? and {2} <= ?";
+    private static final String GET_HISTOGRAM_SQL = "select {0} from {1} where {2} = ? and {3} >= ? and {3} <= ?";
 
     public InstanceMetricH2UIDAO(H2Client client) {
         super(client);
@@ -93,31 +95,25 @@ public class InstanceMetricH2UIDAO extends H2DAO implements IInstanceMetricUIDAO
 
     @Override public JsonArray getTpsMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
         logger.info("getTpsMetric instanceId = {}, startTimeBucket = {}, endTimeBucket = {}", instanceId, startTimeBucket, endTimeBucket);
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
         H2Client client = getClient();
-        String sql = SqlBuilder.buildSql(GET_TPS_METRIC_SQL, InstanceMetricTable.TABLE, InstanceMetricTable.COLUMN_ID);
+        String sql = SqlBuilder.buildSql(GET_TPS_METRICS_SQL, InstanceMetricTable.TABLE, InstanceMetricTable.COLUMN_INSTANCE_ID, InstanceMetricTable.COLUMN_TIME_BUCKET);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket};
 
-        long timeBucket = startTimeBucket;
-        List<String> idList = new ArrayList<>();
-        do {
-            String id = timeBucket + Const.ID_SPLIT + instanceId;
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            idList.add(id);
+        Map<Long, Long> callsMap = new HashMap<>();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                callsMap.put(rs.getLong(InstanceMetricTable.COLUMN_TIME_BUCKET), rs.getLong(InstanceMetricTable.COLUMN_TRANSACTION_CALLS));
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
         }
-        while (timeBucket <= endTimeBucket);
 
         JsonArray metrics = new JsonArray();
-        idList.forEach(id -> {
-            try (ResultSet rs = client.executeQuery(sql, new Object[] {id})) {
-                if (rs.next()) {
-                    long calls = rs.getLong(InstanceMetricTable.COLUMN_TRANSACTION_CALLS);
-                    metrics.add(calls);
-                } else {
-                    metrics.add(0);
-                }
-            } catch (SQLException | H2ClientException e) {
-                logger.error(e.getMessage(), e);
-            }
-        });
+        for (long timeBucket : timeBuckets) {
+            metrics.add(callsMap.getOrDefault(timeBucket, 0L));
+        }
         return metrics;
     }
 
@@ -138,32 +134,45 @@ public class InstanceMetricH2UIDAO extends H2DAO implements IInstanceMetricUIDAO
     }
 
     @Override public JsonArray getRespTimeMetric(int instanceId, long startTimeBucket, long endTimeBucket) {
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
         H2Client client = getClient();
-        String sql = SqlBuilder.buildSql(GET_TPS_METRIC_SQL, InstanceMetricTable.TABLE, InstanceMetricTable.COLUMN_ID);
+        String sql = SqlBuilder.buildSql(GET_TPS_METRICS_SQL, InstanceMetricTable.TABLE, InstanceMetricTable.COLUMN_INSTANCE_ID, InstanceMetricTable.COLUMN_TIME_BUCKET);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket};
 
-        long timeBucket = startTimeBucket;
-        List<String> idList = new ArrayList<>();
-        do {
-            String id = timeBucket + Const.ID_SPLIT + instanceId;
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            idList.add(id);
+        Map<Long, Long> respTimeMap = new HashMap<>();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                long callTimes = rs.getLong(InstanceMetricTable.COLUMN_TRANSACTION_CALLS);
+                long costTotal = rs.getLong(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_SUM);
+                respTimeMap.put(rs.getLong(InstanceMetricTable.COLUMN_TIME_BUCKET), callTimes == 0 ? 0 : costTotal / callTimes);
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
         }
-        while (timeBucket <= endTimeBucket);
 
         JsonArray metrics = new JsonArray();
-        idList.forEach(id -> {
-            try (ResultSet rs = client.executeQuery(sql, new Object[] {id})) {
-                if (rs.next()) {
-                    long callTimes = rs.getLong(InstanceMetricTable.COLUMN_TRANSACTION_CALLS);
-                    long costTotal = rs.getLong(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_SUM);
-                    metrics.add(costTotal / callTimes);
-                } else {
-                    metrics.add(0);
-                }
-            } catch (SQLException | H2ClientException e) {
-                logger.error(e.getMessage(), e);
-            }
-        });
+        for (long timeBucket : timeBuckets) {
+            metrics.add(respTimeMap.getOrDefault(timeBucket, 0L));
+        }
         return metrics;
     }
+
+    @Override
+    public Histogram getTransactionDurationHistogram(int instanceId, long startTimeBucket, long endTimeBucket) {
+        H2Client client = getClient();
+        String sql = SqlBuilder.buildSql(GET_HISTOGRAM_SQL, InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, InstanceMetricTable.TABLE,
+            InstanceMetricTable.COLUMN_INSTANCE_ID, InstanceMetricTable.COLUMN_TIME_BUCKET);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket};
+
+        Histogram histogram = new Histogram();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                histogram.merge(Histogram.fromBytes(rs.getBytes(InstanceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM)));
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return histogram;
+    }
 }
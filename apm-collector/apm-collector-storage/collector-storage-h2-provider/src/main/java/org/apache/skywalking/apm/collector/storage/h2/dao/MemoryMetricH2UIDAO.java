@@ -23,8 +23,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import org.apache.skywalking.apm.collector.client.h2.H2Client;
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
@@ -35,6 +33,8 @@ import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.table.jvm.MemoryMetricTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author clevertension
@@ -43,6 +43,7 @@ public class MemoryMetricH2UIDAO extends H2DAO implements IMemoryMetricUIDAO {
 
     private final Logger logger = LoggerFactory.getLogger(MemoryMetricH2UIDAO.class);
     private static final String GET_MEMORY_METRIC_SQL = "select * from {0} where {1} =?";
+    private static final String GET_MEMORY_METRICS_SQL = "select * from {0} where {1} = ? and {2} >= ? and {2} <= ? and {3} = ?";
 
     public MemoryMetricH2UIDAO(H2Client client) {
         super(client);
@@ -71,36 +72,37 @@ public class MemoryMetricH2UIDAO extends H2DAO implements IMemoryMetricUIDAO {
     }
 
     @Override public JsonObject getMetric(int instanceId, long startTimeBucket, long endTimeBucket, boolean isHeap) {
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
         H2Client client = getClient();
-        String sql = SqlBuilder.buildSql(GET_MEMORY_METRIC_SQL, MemoryMetricTable.TABLE, MemoryMetricTable.COLUMN_ID);
-        List<String> idList = new ArrayList<>();
-        long timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String id = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + isHeap;
-            idList.add(id);
+        String sql = SqlBuilder.buildSql(GET_MEMORY_METRICS_SQL, MemoryMetricTable.TABLE, MemoryMetricTable.COLUMN_INSTANCE_ID, MemoryMetricTable.COLUMN_TIME_BUCKET, MemoryMetricTable.COLUMN_IS_HEAP);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket, isHeap};
+
+        Map<Long, long[]> memoryMap = new HashMap<>();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                memoryMap.put(rs.getLong(MemoryMetricTable.COLUMN_TIME_BUCKET), new long[] {rs.getLong(MemoryMetricTable.COLUMN_MAX), rs.getLong(MemoryMetricTable.COLUMN_INIT), rs.getLong(MemoryMetricTable.COLUMN_USED)});
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
         }
-        while (timeBucket <= endTimeBucket);
 
         JsonObject metric = new JsonObject();
+        metric.addProperty("max", 0);
+        metric.addProperty("init", 0);
         JsonArray usedMetric = new JsonArray();
-
-        idList.forEach(id -> {
-            try (ResultSet rs = client.executeQuery(sql, new String[] {id})) {
-                if (rs.next()) {
-                    metric.addProperty("max", rs.getLong(MemoryMetricTable.COLUMN_MAX));
-                    metric.addProperty("init", rs.getLong(MemoryMetricTable.COLUMN_INIT));
-                    usedMetric.add(rs.getLong(MemoryMetricTable.COLUMN_USED));
-                } else {
-                    metric.addProperty("max", 0);
-                    metric.addProperty("init", 0);
-                    usedMetric.add(0);
-                }
-            } catch (SQLException | H2ClientException e) {
-                logger.error(e.getMessage(), e);
+        for (long timeBucket : timeBuckets) {
+            long[] memory = memoryMap.get(timeBucket);
+            if (memory != null) {
+                metric.addProperty("max", memory[0]);
+                metric.addProperty("init", memory[1]);
+                usedMetric.add(memory[2]);
+            } else {
+                metric.addProperty("max", 0);
+                metric.addProperty("init", 0);
+                usedMetric.add(0);
             }
-        });
-
+        }
         metric.add("used", usedMetric);
         return metric;
     }
@@ -23,8 +23,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
 import org.apache.skywalking.apm.collector.client.h2.H2Client;
@@ -35,6 +33,8 @@ import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
 import org.apache.skywalking.apm.collector.storage.table.jvm.MemoryPoolMetricTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author clevertension
@@ -43,6 +43,7 @@ public class MemoryPoolMetricH2UIDAO extends H2DAO implements IMemoryPoolMetricU
 
     private final Logger logger = LoggerFactory.getLogger(MemoryPoolMetricH2UIDAO.class);
     private static final String GET_MEMORY_POOL_METRIC_SQL = "select * from {0} where {1} = ?";
+    private static final String GET_MEMORY_POOL_METRICS_SQL = "select * from {0} where {1} = ? and {2} >= ? and {2} <= ? and {3} = ?";
 
     public MemoryPoolMetricH2UIDAO(H2Client client) {
         super(client);
@@ -71,36 +72,37 @@ public class MemoryPoolMetricH2UIDAO extends H2DAO implements IMemoryPoolMetricU
     }
 
     @Override public JsonObject getMetric(int instanceId, long startTimeBucket, long endTimeBucket, int poolType) {
+        long[] timeBuckets = TimeBucketUtils.INSTANCE.getSecondTimeBuckets(startTimeBucket, endTimeBucket);
+
         H2Client client = getClient();
-        String sql = SqlBuilder.buildSql(GET_MEMORY_POOL_METRIC_SQL, MemoryPoolMetricTable.TABLE, MemoryPoolMetricTable.COLUMN_ID);
-        List<String> idList = new ArrayList<>();
-        long timeBucket = startTimeBucket;
-        do {
-            timeBucket = TimeBucketUtils.INSTANCE.addSecondForSecondTimeBucket(TimeBucketUtils.TimeBucketType.SECOND.name(), timeBucket, 1);
-            String id = timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + poolType;
-            idList.add(id);
+        String sql = SqlBuilder.buildSql(GET_MEMORY_POOL_METRICS_SQL, MemoryPoolMetricTable.TABLE, MemoryPoolMetricTable.COLUMN_INSTANCE_ID, MemoryPoolMetricTable.COLUMN_TIME_BUCKET, MemoryPoolMetricTable.COLUMN_POOL_TYPE);
+        Object[] params = new Object[] {instanceId, startTimeBucket, endTimeBucket, poolType};
+
+        Map<Long, long[]> memoryMap = new HashMap<>();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                memoryMap.put(rs.getLong(MemoryPoolMetricTable.COLUMN_TIME_BUCKET), new long[] {rs.getLong(MemoryPoolMetricTable.COLUMN_MAX), rs.getLong(MemoryPoolMetricTable.COLUMN_INIT), rs.getLong(MemoryPoolMetricTable.COLUMN_USED)});
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
         }
-        while (timeBucket <= endTimeBucket);
 
         JsonObject metric = new JsonObject();
+        metric.addProperty("max", 0);
+        metric.addProperty("init", 0);
         JsonArray usedMetric = new JsonArray();
-
-        idList.forEach(id -> {
-            try (ResultSet rs = client.executeQuery(sql, new String[] {id})) {
-                if (rs.next()) {
-                    metric.addProperty("max", rs.getLong(MemoryPoolMetricTable.COLUMN_MAX));
-                    metric.addProperty("init", rs.getLong(MemoryPoolMetricTable.COLUMN_INIT));
-                    usedMetric.add(rs.getLong(MemoryPoolMetricTable.COLUMN_USED));
-                } else {
-                    metric.addProperty("max", 0);
-                    metric.addProperty("init", 0);
-                    usedMetric.add(0);
-                }
-            } catch (SQLException | H2ClientException e) {
-                logger.error(e.getMessage(), e);
+        for (long timeBucket : timeBuckets) {
+            long[] memory = memoryMap.get(timeBucket);
+            if (memory != null) {
+                metric.addProperty("max", memory[0]);
+                metric.addProperty("init", memory[1]);
+                usedMetric.add(memory[2]);
+            } else {
+                metric.addProperty("max", 0);
+                metric.addProperty("init", 0);
+                usedMetric.add(0);
             }
-        });
-
+        }
         metric.add("used", usedMetric);
         return metric;
     }
@@ -22,7 +22,11 @@ package org.apache.skywalking.apm.collector.storage.h2.dao;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.apm.collector.client.h2.H2Client;
+import org.apache.skywalking.apm.collector.core.util.Const;
 import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
 import org.apache.skywalking.apm.collector.storage.dao.ISegmentUIDAO;
 import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
@@ -38,6 +42,8 @@ import org.slf4j.LoggerFactory;
 public class SegmentH2UIDAO extends H2DAO implements ISegmentUIDAO {
     private final Logger logger = LoggerFactory.getLogger(SegmentH2UIDAO.class);
     private static final String GET_SEGMENT_SQL = "select {0} from {1} where {2} = ?";
+    private static final String GET_SEGMENTS_SQL = "select {0}, {1} from {2} where {0} in (";
+    private static final String GET_SEGMENT_PARTS_SQL = "select {0}, {1} from {2} where {0} like ?";
 
     public SegmentH2UIDAO(H2Client client) {
         super(client);
@@ -62,4 +68,56 @@ public class SegmentH2UIDAO extends H2DAO implements ISegmentUIDAO {
         }
         return null;
     }
+
+    @Override public Map<String, TraceSegmentObject> load(List<String> segmentIds) {
+        Map<String, TraceSegmentObject> segments = new HashMap<>();
+        if (segmentIds.isEmpty()) {
+            return segments;
+        }
+
+        H2Client client = getClient();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < segmentIds.size(); i++) {
+            builder.append("?,");
+        }
+        builder.delete(builder.length() - 1, builder.length());
+        builder.append(")");
+        String sql = SqlBuilder.buildSql(GET_SEGMENTS_SQL + builder, SegmentTable.COLUMN_ID, SegmentTable.COLUMN_DATA_BINARY,
+            SegmentTable.TABLE);
+        Object[] params = segmentIds.toArray();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                byte[] dataBinary = rs.getBytes(SegmentTable.COLUMN_DATA_BINARY);
+                try {
+                    segments.put(rs.getString(SegmentTable.COLUMN_ID), TraceSegmentObject.parseFrom(dataBinary));
+                } catch (InvalidProtocolBufferException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return segments;
+    }
+
+    @Override public Map<String, TraceSegmentObject> loadParts(String segmentId) {
+        Map<String, TraceSegmentObject> parts = new HashMap<>();
+        H2Client client = getClient();
+        String sql = SqlBuilder.buildSql(GET_SEGMENT_PARTS_SQL, SegmentTable.COLUMN_ID, SegmentTable.COLUMN_DATA_BINARY,
+            SegmentTable.TABLE);
+        Object[] params = new Object[] {segmentId + Const.SEGMENT_PART_SPLIT + "%"};
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                byte[] dataBinary = rs.getBytes(SegmentTable.COLUMN_DATA_BINARY);
+                try {
+                    parts.put(rs.getString(SegmentTable.COLUMN_ID), TraceSegmentObject.parseFrom(dataBinary));
+                } catch (InvalidProtocolBufferException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return parts;
+    }
 }
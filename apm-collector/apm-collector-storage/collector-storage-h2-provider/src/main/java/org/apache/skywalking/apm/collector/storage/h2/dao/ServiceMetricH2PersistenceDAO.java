@@ -30,6 +30,7 @@ import org.apache.skywalking.apm.collector.storage.h2.base.define.H2SqlEntity;
 import org.apache.skywalking.apm.collector.storage.table.service.ServiceMetricTable;
 import org.apache.skywalking.apm.collector.client.h2.H2Client;
 import org.apache.skywalking.apm.collector.client.h2.H2ClientException;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricPersistenceDAO;
 import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
 import org.apache.skywalking.apm.collector.storage.table.service.ServiceMetric;
@@ -72,6 +73,7 @@ public class ServiceMetricH2PersistenceDAO extends H2DAO implements IServiceMetr
                 serviceMetric.setMqTransactionErrorCalls(rs.getLong(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS));
                 serviceMetric.setMqTransactionDurationSum(rs.getLong(ServiceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM));
                 serviceMetric.setMqTransactionErrorDurationSum(rs.getLong(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM));
+                serviceMetric.setTransactionDurationHistogram(Histogram.fromBytes(rs.getBytes(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM)));
 
                 serviceMetric.setTimeBucket(rs.getLong(ServiceMetricTable.COLUMN_TIME_BUCKET));
                 return serviceMetric;
@@ -103,6 +105,7 @@ public class ServiceMetricH2PersistenceDAO extends H2DAO implements IServiceMetr
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, data.getTransactionDurationHistogram().toBytes());
 
         source.put(ServiceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
@@ -132,6 +135,7 @@ public class ServiceMetricH2PersistenceDAO extends H2DAO implements IServiceMetr
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_CALLS, data.getMqTransactionErrorCalls());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_DURATION_SUM, data.getMqTransactionDurationSum());
         source.put(ServiceMetricTable.COLUMN_MQ_TRANSACTION_ERROR_DURATION_SUM, data.getMqTransactionErrorDurationSum());
+        source.put(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, data.getTransactionDurationHistogram().toBytes());
 
         source.put(ServiceMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
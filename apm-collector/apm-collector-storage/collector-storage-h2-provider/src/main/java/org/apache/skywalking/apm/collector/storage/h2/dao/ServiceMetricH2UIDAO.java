@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.storage.h2.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.apache.skywalking.apm.collector.client.h2.H2Client;
+import org.apache.skywalking.apm.collector.client.h2.H2ClientException;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
+import org.apache.skywalking.apm.collector.storage.base.sql.SqlBuilder;
+import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricUIDAO;
+import org.apache.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
+import org.apache.skywalking.apm.collector.storage.table.service.ServiceMetricTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ServiceMetricH2UIDAO extends H2DAO implements IServiceMetricUIDAO {
+
+    private final Logger logger = LoggerFactory.getLogger(ServiceMetricH2UIDAO.class);
+    private static final String GET_HISTOGRAM_SQL = "select {0} from {1} where {2} = ? and {3} >= ? and {3} <= ?";
+
+    public ServiceMetricH2UIDAO(H2Client client) {
+        super(client);
+    }
+
+    @Override
+    public Histogram getTransactionDurationHistogram(int serviceId, long startTimeBucket, long endTimeBucket) {
+        H2Client client = getClient();
+        String sql = SqlBuilder.buildSql(GET_HISTOGRAM_SQL, ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM, ServiceMetricTable.TABLE,
+            ServiceMetricTable.COLUMN_SERVICE_ID, ServiceMetricTable.COLUMN_TIME_BUCKET);
+        Object[] params = new Object[] {serviceId, startTimeBucket, endTimeBucket};
+
+        Histogram histogram = new Histogram();
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            while (rs.next()) {
+                histogram.merge(Histogram.fromBytes(rs.getBytes(ServiceMetricTable.COLUMN_TRANSACTION_DURATION_HISTOGRAM)));
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return histogram;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
+import org.apache.skywalking.apm.collector.storage.PersistenceWatermark;
 import org.apache.skywalking.apm.collector.storage.StorageModule;
 import org.apache.skywalking.apm.collector.storage.base.dao.IBatchDAO;
 import org.apache.skywalking.apm.collector.stream.worker.base.WorkerException;
@@ -48,6 +49,7 @@ public class PersistenceTimer {
     }
 
     private void extractDataAndSave(IBatchDAO batchDAO, List<PersistenceWorker> persistenceWorkers) {
+        long roundStartTime = System.currentTimeMillis();
         try {
             List batchAllCollection = new ArrayList<>();
             persistenceWorkers.forEach((PersistenceWorker worker) -> {
@@ -63,6 +65,7 @@ public class PersistenceTimer {
             });
 
             batchDAO.batchPersistence(batchAllCollection);
+            PersistenceWatermark.INSTANCE.persisted(roundStartTime);
         } catch (Throwable e) {
             logger.error(e.getMessage(), e);
         } finally {
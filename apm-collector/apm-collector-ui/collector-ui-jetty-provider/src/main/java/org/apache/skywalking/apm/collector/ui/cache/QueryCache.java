@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.collector.ui.cache;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.apache.skywalking.apm.collector.core.UnexpectedException;
+import org.apache.skywalking.apm.collector.core.util.Const;
+import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.apache.skywalking.apm.collector.storage.PersistenceWatermark;
+
+/**
+ * Cache the query results of the UI services, keyed by the query name with its arguments.
+ *
+ * The result of a query whose range ended {@link #ARRIVAL_DELAY_MILLIS} before the {@link PersistenceWatermark} is
+ * sealed and expires after {@link #SEALED_TTL_MILLIS}. The watermark is local to this collector, other collectors of
+ * the cluster or replayed segments may still write into a sealed range, so sealed results are refreshed too, just less
+ * often. Any other result expires after {@link #OPEN_BUCKET_TTL_MILLIS}. Concurrent loads of the same key are coalesced into one storage query. Every caller gets
+ * its own copy of the cached value.
+ */
+public class QueryCache<V extends JsonElement> {
+
+    static final long OPEN_BUCKET_TTL_MILLIS = 5000;
+    static final long SEALED_TTL_MILLIS = 5 * 60 * 1000;
+    static final long ARRIVAL_DELAY_MILLIS = 10 * 1000;
+    private static final int DEFAULT_MAX_SIZE = 200;
+
+    private final Map<String, Entry<V>> entries;
+    final ConcurrentHashMap<String, CompletableFuture<V>> loadingQueries;
+    private final LongSupplier clock;
+    private final LongSupplier watermark;
+
+    public QueryCache() {
+        this(DEFAULT_MAX_SIZE, System::currentTimeMillis, PersistenceWatermark.INSTANCE::getWatermark);
+    }
+
+    QueryCache(int maxSize, LongSupplier clock, LongSupplier watermark) {
+        this.entries = new LinkedHashMap<String, Entry<V>>(maxSize, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.loadingQueries = new ConcurrentHashMap<>();
+        this.clock = clock;
+        this.watermark = watermark;
+    }
+
+    /**
+     * @param granularity second or minute, the granularity of the end time bucket
+     * @param endTimeBucket the end of the queried range
+     * @param loader query the storage when the key is absent or expired
+     */
+    public V get(TimeBucketUtils.TimeBucketType granularity, long endTimeBucket, Supplier<V> loader,
+        Object... arguments) {
+        String key = key(arguments);
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expireTime > clock.getAsLong()) {
+                return copy(entry.value);
+            }
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> loading = loadingQueries.putIfAbsent(key, future);
+        if (loading != null) {
+            return copy(join(loading));
+        }
+
+        try {
+            boolean sealed = isSealed(granularity, endTimeBucket);
+            V value = loader.get();
+            long expireTime = clock.getAsLong() + (sealed ? SEALED_TTL_MILLIS : OPEN_BUCKET_TTL_MILLIS);
+            synchronized (entries) {
+                entries.put(key, new Entry<>(value, expireTime));
+            }
+            future.complete(value);
+            return copy(value);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingQueries.remove(key, future);
+        }
+    }
+
+    /**
+     * The watermark is read before the query, so the data of a sealed range was saved before the query started.
+     */
+    boolean isSealed(TimeBucketUtils.TimeBucketType granularity, long endTimeBucket) {
+        return bucketEndTime(granularity, endTimeBucket) + ARRIVAL_DELAY_MILLIS <= watermark.getAsLong();
+    }
+
+    static long bucketEndTime(TimeBucketUtils.TimeBucketType granularity, long timeBucket) {
+        int second;
+        long minuteBucket;
+        if (TimeBucketUtils.TimeBucketType.SECOND.equals(granularity)) {
+            second = (int)(timeBucket % 100);
+            minuteBucket = timeBucket / 100;
+        } else if (TimeBucketUtils.TimeBucketType.MINUTE.equals(granularity)) {
+            second = 0;
+            minuteBucket = timeBucket;
+        } else {
+            throw new UnexpectedException("time bucket type must be second or minute");
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set((int)(minuteBucket / 100000000L), (int)(minuteBucket / 1000000 % 100) - 1, (int)(minuteBucket / 10000 % 100),
+            (int)(minuteBucket / 100 % 100), (int)(minuteBucket % 100), second);
+        calendar.add(TimeBucketUtils.TimeBucketType.SECOND.equals(granularity) ? Calendar.SECOND : Calendar.MINUTE, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    private static String key(Object... arguments) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                key.append(Const.ID_SPLIT);
+            }
+            key.append(arguments[i]);
+        }
+        return key.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V extends JsonElement> V copy(V value) {
+        return value == null ? null : (V)deepCopy(value);
+    }
+
+    /**
+     * {@link JsonElement#deepCopy()} isn't public in this gson version, the primitives and null are immutable.
+     */
+    private static JsonElement deepCopy(JsonElement element) {
+        if (element.isJsonObject()) {
+            JsonObject copy = new JsonObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                copy.add(entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return copy;
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            JsonArray copy = new JsonArray(array.size());
+            for (JsonElement item : array) {
+                copy.add(deepCopy(item));
+            }
+            return copy;
+        }
+        return element;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expireTime;
+
+        private Entry(V value, long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.apache.skywalking.apm.collector.ui.jetty.handler.instancemetric.Insta
 import org.apache.skywalking.apm.collector.ui.jetty.handler.instancemetric.InstanceOsInfoGetHandler;
 import org.apache.skywalking.apm.collector.ui.jetty.handler.naming.UIJettyNamingHandler;
 import org.apache.skywalking.apm.collector.ui.jetty.handler.naming.UIJettyNamingListener;
+import org.apache.skywalking.apm.collector.ui.jetty.handler.servicemetric.ServiceMetricPercentileGetHandler;
 import org.apache.skywalking.apm.collector.ui.jetty.handler.servicetree.EntryServiceGetHandler;
 import org.apache.skywalking.apm.collector.ui.jetty.handler.servicetree.ServiceTreeGetByIdHandler;
 import org.apache.skywalking.apm.collector.ui.jetty.handler.time.AllInstanceLastTimeGetHandler;
@@ -106,6 +107,7 @@ public class UIModuleJettyProvider extends ModuleProvider {
         jettyServer.addHandler(new InstanceMetricGetRangeTimeBucketHandler(getManager()));
         jettyServer.addHandler(new InstanceOsInfoGetHandler(getManager()));
         jettyServer.addHandler(new EntryServiceGetHandler(getManager()));
+        jettyServer.addHandler(new ServiceMetricPercentileGetHandler(getManager()));
         jettyServer.addHandler(new ServiceTreeGetByIdHandler(getManager()));
         jettyServer.addHandler(new AllInstanceLastTimeGetHandler(getManager()));
         jettyServer.addHandler(new OneInstanceLastTimeGetHandler(getManager()));
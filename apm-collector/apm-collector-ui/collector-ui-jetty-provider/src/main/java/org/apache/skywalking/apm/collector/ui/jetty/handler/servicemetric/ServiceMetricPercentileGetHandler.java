@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.collector.ui.jetty.handler.servicemetric;
+
+import com.google.gson.JsonElement;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.skywalking.apm.collector.core.module.ModuleManager;
+import org.apache.skywalking.apm.collector.server.jetty.ArgumentsParseException;
+import org.apache.skywalking.apm.collector.server.jetty.JettyHandler;
+import org.apache.skywalking.apm.collector.ui.service.ServiceMetricService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ServiceMetricPercentileGetHandler extends JettyHandler {
+
+    private final Logger logger = LoggerFactory.getLogger(ServiceMetricPercentileGetHandler.class);
+
+    @Override public String pathSpec() {
+        return "/service/metric/percentile";
+    }
+
+    private final ServiceMetricService service;
+
+    public ServiceMetricPercentileGetHandler(ModuleManager moduleManager) {
+        this.service = new ServiceMetricService(moduleManager);
+    }
+
+    @Override protected JsonElement doGet(HttpServletRequest req) throws ArgumentsParseException {
+        String startTimeBucketStr = req.getParameter("startTimeBucket");
+        String endTimeBucketStr = req.getParameter("endTimeBucket");
+        String serviceIdStr = req.getParameter("serviceId");
+
+        logger.debug("service metric percentile get start timeBucket: {}, end timeBucket: {}, service id: {}", startTimeBucketStr, endTimeBucketStr, serviceIdStr);
+
+        long startTimeBucket;
+        try {
+            startTimeBucket = Long.parseLong(startTimeBucketStr);
+        } catch (NumberFormatException e) {
+            throw new ArgumentsParseException("start timeBucket must be long");
+        }
+
+        long endTimeBucket;
+        try {
+            endTimeBucket = Long.parseLong(endTimeBucketStr);
+        } catch (NumberFormatException e) {
+            throw new ArgumentsParseException("end timeBucket must be long");
+        }
+
+        int serviceId;
+        try {
+            serviceId = Integer.parseInt(serviceIdStr);
+        } catch (NumberFormatException e) {
+            throw new ArgumentsParseException("service id must be integer");
+        }
+
+        return service.getRespTimePercentile(serviceId, startTimeBucket, endTimeBucket);
+    }
+
+    @Override protected JsonElement doPost(HttpServletRequest req) throws ArgumentsParseException {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -21,7 +21,9 @@ package org.apache.skywalking.apm.collector.ui.service;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.skywalking.apm.collector.cache.CacheModule;
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
 import org.apache.skywalking.apm.collector.storage.dao.IGCMetricUIDAO;
@@ -29,6 +31,7 @@ import org.apache.skywalking.apm.collector.storage.table.register.Instance;
 import org.apache.skywalking.apm.collector.cache.service.ApplicationCacheService;
 import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
 import org.apache.skywalking.apm.collector.storage.StorageModule;
+import org.apache.skywalking.apm.collector.ui.cache.QueryCache;
 import org.apache.skywalking.apm.collector.storage.dao.IInstanceMetricUIDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IInstanceUIDAO;
 import org.slf4j.Logger;
@@ -45,6 +48,7 @@ public class InstanceHealthService {
     private final IInstanceUIDAO instanceDAO;
     private final IInstanceMetricUIDAO instanceMetricUIDAO;
     private final ApplicationCacheService applicationCacheService;
+    private final QueryCache<JsonObject> instancesCache = new QueryCache<>();
 
     public InstanceHealthService(ModuleManager moduleManager) {
         this.gcMetricDAO = moduleManager.find(StorageModule.NAME).getService(IGCMetricUIDAO.class);
@@ -54,6 +58,10 @@ public class InstanceHealthService {
     }
 
     public JsonObject getInstances(long timeBucket, int applicationId) {
+        return instancesCache.get(TimeBucketUtils.TimeBucketType.SECOND, timeBucket, () -> getInstancesFromStorage(timeBucket, applicationId), timeBucket, applicationId);
+    }
+
+    private JsonObject getInstancesFromStorage(long timeBucket, int applicationId) {
         JsonObject response = new JsonObject();
 
         long[] timeBuckets = TimeBucketUtils.INSTANCE.getFiveSecondTimeBuckets(timeBucket);
@@ -63,11 +71,20 @@ public class InstanceHealthService {
         JsonArray instances = new JsonArray();
         response.add("instances", instances);
 
+        ParallelQueryExecutor executor = ParallelQueryExecutor.INSTANCE;
+        List<CompletableFuture<IInstanceMetricUIDAO.InstanceMetric>> performanceFutures = new ArrayList<>(instanceList.size());
+        List<CompletableFuture<IGCMetricUIDAO.GCCount>> gcCountFutures = new ArrayList<>(instanceList.size());
         instanceList.forEach(instance -> {
+            performanceFutures.add(executor.submit(() -> instanceMetricUIDAO.get(timeBuckets, instance.getInstanceId())));
+            gcCountFutures.add(executor.submit(() -> gcMetricDAO.getGCCount(timeBuckets, instance.getInstanceId())));
+        });
+
+        for (int i = 0; i < instanceList.size(); i++) {
+            Instance instance = instanceList.get(i);
             response.addProperty("applicationCode", applicationCacheService.get(applicationId));
             response.addProperty("applicationId", applicationId);
 
-            IInstanceMetricUIDAO.InstanceMetric performance = instanceMetricUIDAO.get(timeBuckets, instance.getInstanceId());
+            IInstanceMetricUIDAO.InstanceMetric performance = executor.get(performanceFutures.get(i));
 
             JsonObject instanceJson = new JsonObject();
             instanceJson.addProperty("id", instance.getInstanceId());
@@ -102,12 +119,12 @@ public class InstanceHealthService {
                 instanceJson.addProperty("status", 1);
             }
 
-            IGCMetricUIDAO.GCCount gcCount = gcMetricDAO.getGCCount(timeBuckets, instance.getInstanceId());
+            IGCMetricUIDAO.GCCount gcCount = executor.get(gcCountFutures.get(i));
             instanceJson.addProperty("ygc", gcCount.getYoung());
             instanceJson.addProperty("ogc", gcCount.getOld());
 
             instances.add(instanceJson);
-        });
+        }
 
         return response;
     }
@@ -20,9 +20,15 @@
 package org.apache.skywalking.apm.collector.ui.service;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.apache.skywalking.apm.collector.core.UnexpectedException;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
 import org.apache.skywalking.apm.collector.core.util.ObjectUtils;
 import org.apache.skywalking.apm.collector.storage.dao.ICpuMetricUIDAO;
@@ -72,73 +78,101 @@ public class InstanceJVMService {
     }
 
     public JsonObject getInstanceJvmMetric(int instanceId, Set<String> metricTypes, long timeBucket) {
-        JsonObject metrics = new JsonObject();
+        Map<String, CompletableFuture<JsonElement>> metricFutures = new LinkedHashMap<>();
         for (String metricType : metricTypes) {
-            if (metricType.toLowerCase().equals(MetricType.cpu.name())) {
-                metrics.addProperty(MetricType.cpu.name(), cpuMetricDAO.getMetric(instanceId, timeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.gc.name())) {
-                metrics.add(MetricType.gc.name(), gcMetricDAO.getMetric(instanceId, timeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.tps.name())) {
-                metrics.addProperty(MetricType.tps.name(), instanceMetricUIDAO.getTpsMetric(instanceId, timeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.resptime.name())) {
-                metrics.addProperty(MetricType.resptime.name(), instanceMetricUIDAO.getRespTimeMetric(instanceId, timeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.heapmemory.name())) {
-                metrics.add(MetricType.heapmemory.name(), memoryMetricDAO.getMetric(instanceId, timeBucket, true));
-            } else if (metricType.toLowerCase().equals(MetricType.nonheapmemory.name())) {
-                metrics.add(MetricType.nonheapmemory.name(), memoryMetricDAO.getMetric(instanceId, timeBucket, false));
-            } else if (metricType.toLowerCase().equals(MetricType.permgen.name())) {
-                metrics.add(MetricType.permgen.name(), memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.PERMGEN_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.metaspace.name())) {
-                metrics.add(MetricType.metaspace.name(), memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.METASPACE_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.newgen.name())) {
-                metrics.add(MetricType.newgen.name(), memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.NEWGEN_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.oldgen.name())) {
-                metrics.add(MetricType.oldgen.name(), memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.OLDGEN_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.survivor.name())) {
-                metrics.add(MetricType.survivor.name(), memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.SURVIVOR_USAGE_VALUE));
-            } else {
-                throw new UnexpectedException("unexpected metric type");
-            }
+            String lowerCaseMetricType = metricType.toLowerCase();
+            metricFutures.put(lowerCaseMetricType, ParallelQueryExecutor.INSTANCE.submit(() -> getInstanceJvmMetric(instanceId, lowerCaseMetricType, timeBucket)));
         }
-        return metrics;
+        return toMetrics(metricFutures);
     }
 
     public JsonObject getInstanceJvmMetrics(int instanceId, Set<String> metricTypes, long startTimeBucket,
         long endTimeBucket) {
-        JsonObject metrics = new JsonObject();
+        Map<String, CompletableFuture<JsonElement>> metricFutures = new LinkedHashMap<>();
         for (String metricType : metricTypes) {
-            if (metricType.toLowerCase().equals(MetricType.cpu.name())) {
-                metrics.add(MetricType.cpu.name(), cpuMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.gc.name())) {
-                metrics.add(MetricType.gc.name(), gcMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.tps.name())) {
-                metrics.add(MetricType.tps.name(), instanceMetricUIDAO.getTpsMetric(instanceId, startTimeBucket, endTimeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.resptime.name())) {
-                metrics.add(MetricType.resptime.name(), instanceMetricUIDAO.getRespTimeMetric(instanceId, startTimeBucket, endTimeBucket));
-            } else if (metricType.toLowerCase().equals(MetricType.heapmemory.name())) {
-                metrics.add(MetricType.heapmemory.name(), memoryMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, true));
-            } else if (metricType.toLowerCase().equals(MetricType.nonheapmemory.name())) {
-                metrics.add(MetricType.nonheapmemory.name(), memoryMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, false));
-            } else if (metricType.toLowerCase().equals(MetricType.permgen.name())) {
-                metrics.add(MetricType.permgen.name(), memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.PERMGEN_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.metaspace.name())) {
-                metrics.add(MetricType.metaspace.name(), memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.METASPACE_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.newgen.name())) {
-                metrics.add(MetricType.newgen.name(), memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.NEWGEN_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.oldgen.name())) {
-                metrics.add(MetricType.oldgen.name(), memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.OLDGEN_USAGE_VALUE));
-            } else if (metricType.toLowerCase().equals(MetricType.survivor.name())) {
-                metrics.add(MetricType.survivor.name(), memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.SURVIVOR_USAGE_VALUE));
-            } else {
-                throw new UnexpectedException("unexpected metric type");
-            }
+            String lowerCaseMetricType = metricType.toLowerCase();
+            metricFutures.put(lowerCaseMetricType, ParallelQueryExecutor.INSTANCE.submit(() -> getInstanceJvmMetrics(instanceId, lowerCaseMetricType, startTimeBucket, endTimeBucket)));
         }
+        return toMetrics(metricFutures);
+    }
 
+    private JsonObject toMetrics(Map<String, CompletableFuture<JsonElement>> metricFutures) {
+        JsonObject metrics = new JsonObject();
+        metricFutures.forEach((metricType, metricFuture) -> metrics.add(metricType, ParallelQueryExecutor.INSTANCE.get(metricFuture)));
         return metrics;
     }
 
+    private JsonElement getInstanceJvmMetric(int instanceId, String metricType, long timeBucket) {
+        if (metricType.equals(MetricType.cpu.name())) {
+            return new JsonPrimitive(cpuMetricDAO.getMetric(instanceId, timeBucket));
+        } else if (metricType.equals(MetricType.gc.name())) {
+            return gcMetricDAO.getMetric(instanceId, timeBucket);
+        } else if (metricType.equals(MetricType.tps.name())) {
+            return new JsonPrimitive(instanceMetricUIDAO.getTpsMetric(instanceId, timeBucket));
+        } else if (metricType.equals(MetricType.resptime.name())) {
+            return new JsonPrimitive(instanceMetricUIDAO.getRespTimeMetric(instanceId, timeBucket));
+        } else if (metricType.equals(MetricType.resptimepercentile.name())) {
+            return buildPercentile(instanceMetricUIDAO.getTransactionDurationHistogram(instanceId, timeBucket, timeBucket));
+        } else if (metricType.equals(MetricType.heapmemory.name())) {
+            return memoryMetricDAO.getMetric(instanceId, timeBucket, true);
+        } else if (metricType.equals(MetricType.nonheapmemory.name())) {
+            return memoryMetricDAO.getMetric(instanceId, timeBucket, false);
+        } else if (metricType.equals(MetricType.permgen.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.PERMGEN_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.metaspace.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.METASPACE_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.newgen.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.NEWGEN_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.oldgen.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.OLDGEN_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.survivor.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, timeBucket, PoolType.SURVIVOR_USAGE_VALUE);
+        } else {
+            throw new UnexpectedException("unexpected metric type");
+        }
+    }
+
+    private JsonElement getInstanceJvmMetrics(int instanceId, String metricType, long startTimeBucket,
+        long endTimeBucket) {
+        if (metricType.equals(MetricType.cpu.name())) {
+            return cpuMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket);
+        } else if (metricType.equals(MetricType.gc.name())) {
+            return gcMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket);
+        } else if (metricType.equals(MetricType.tps.name())) {
+            return instanceMetricUIDAO.getTpsMetric(instanceId, startTimeBucket, endTimeBucket);
+        } else if (metricType.equals(MetricType.resptime.name())) {
+            return instanceMetricUIDAO.getRespTimeMetric(instanceId, startTimeBucket, endTimeBucket);
+        } else if (metricType.equals(MetricType.resptimepercentile.name())) {
+            return buildPercentile(instanceMetricUIDAO.getTransactionDurationHistogram(instanceId, startTimeBucket, endTimeBucket));
+        } else if (metricType.equals(MetricType.heapmemory.name())) {
+            return memoryMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, true);
+        } else if (metricType.equals(MetricType.nonheapmemory.name())) {
+            return memoryMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, false);
+        } else if (metricType.equals(MetricType.permgen.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.PERMGEN_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.metaspace.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.METASPACE_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.newgen.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.NEWGEN_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.oldgen.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.OLDGEN_USAGE_VALUE);
+        } else if (metricType.equals(MetricType.survivor.name())) {
+            return memoryPoolMetricDAO.getMetric(instanceId, startTimeBucket, endTimeBucket, PoolType.SURVIVOR_USAGE_VALUE);
+        } else {
+            throw new UnexpectedException("unexpected metric type");
+        }
+    }
+
+    private JsonObject buildPercentile(Histogram histogram) {
+        JsonObject percentile = new JsonObject();
+        percentile.addProperty("p50", histogram.getValueAtPercentile(50));
+        percentile.addProperty("p90", histogram.getValueAtPercentile(90));
+        percentile.addProperty("p99", histogram.getValueAtPercentile(99));
+        return percentile;
+    }
+
     public enum MetricType {
-        cpu, gc, tps, resptime, heapmemory, nonheapmemory, permgen, metaspace, newgen,
+        cpu, gc, tps, resptime, resptimepercentile, heapmemory, nonheapmemory, permgen, metaspace, newgen,
         oldgen, survivor
     }
 }
@@ -31,6 +31,8 @@ import org.apache.skywalking.apm.collector.storage.dao.ISegmentCostUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.segment.SegmentCostTable;
 import org.apache.skywalking.apm.collector.core.util.StringUtils;
 import org.apache.skywalking.apm.collector.storage.StorageModule;
+import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.apache.skywalking.apm.collector.ui.cache.QueryCache;
 import org.apache.skywalking.apm.collector.storage.table.global.GlobalTraceTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +46,7 @@ public class SegmentTopService {
 
     private final IGlobalTraceUIDAO globalTraceDAO;
     private final ISegmentCostUIDAO segmentCostDAO;
+    private final QueryCache<JsonObject> segmentTopCache = new QueryCache<>();
 
     public SegmentTopService(ModuleManager moduleManager) {
         this.globalTraceDAO = moduleManager.find(StorageModule.NAME).getService(IGlobalTraceUIDAO.class);
@@ -53,6 +56,13 @@ public class SegmentTopService {
     public JsonObject loadTop(long startTime, long endTime, long minCost, long maxCost, String operationName,
         String globalTraceId, ISegmentCostUIDAO.Error error, int applicationId, int limit, int from,
         ISegmentCostUIDAO.Sort sort) {
+        return segmentTopCache.get(TimeBucketUtils.TimeBucketType.MINUTE, endTime, () -> loadTopFromStorage(startTime, endTime, minCost, maxCost, operationName, globalTraceId, error, applicationId, limit, from, sort),
+            startTime, endTime, minCost, maxCost, operationName, globalTraceId, error, applicationId, limit, from, sort);
+    }
+
+    private JsonObject loadTopFromStorage(long startTime, long endTime, long minCost, long maxCost,
+        String operationName, String globalTraceId, ISegmentCostUIDAO.Error error, int applicationId, int limit,
+        int from, ISegmentCostUIDAO.Sort sort) {
         logger.debug("startTime: {}, endTime: {}, minCost: {}, maxCost: {}, operationName: {}, globalTraceId: {}, error: {}, applicationId: {}, limit: {}, from: {}", startTime, endTime, minCost, maxCost, operationName, globalTraceId, error, applicationId, limit, from);
 
         List<String> segmentIds = new LinkedList<>();
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.collector.ui.service;
+
+import com.google.gson.JsonObject;
+import org.apache.skywalking.apm.collector.core.data.Histogram;
+import org.apache.skywalking.apm.collector.core.module.ModuleManager;
+import org.apache.skywalking.apm.collector.storage.StorageModule;
+import org.apache.skywalking.apm.collector.storage.dao.IServiceMetricUIDAO;
+
+public class ServiceMetricService {
+
+    private final IServiceMetricUIDAO serviceMetricUIDAO;
+
+    public ServiceMetricService(ModuleManager moduleManager) {
+        this.serviceMetricUIDAO = moduleManager.find(StorageModule.NAME).getService(IServiceMetricUIDAO.class);
+    }
+
+    public JsonObject getRespTimePercentile(int serviceId, long startTimeBucket, long endTimeBucket) {
+        Histogram histogram = serviceMetricUIDAO.getTransactionDurationHistogram(serviceId, startTimeBucket, endTimeBucket);
+
+        JsonObject percentile = new JsonObject();
+        percentile.addProperty("count", histogram.getTotalCount());
+        percentile.addProperty("p50", histogram.getValueAtPercentile(50));
+        percentile.addProperty("p90", histogram.getValueAtPercentile(90));
+        percentile.addProperty("p99", histogram.getValueAtPercentile(99));
+        return percentile;
+    }
+}
@@ -34,6 +34,8 @@ import org.apache.skywalking.apm.collector.cache.service.ServiceNameCacheService
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
 import org.apache.skywalking.apm.collector.core.util.ColumnNameUtils;
 import org.apache.skywalking.apm.collector.storage.StorageModule;
+import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.apache.skywalking.apm.collector.ui.cache.QueryCache;
 import org.apache.skywalking.apm.collector.storage.dao.IServiceReferenceUIDAO;
 import org.apache.skywalking.apm.collector.storage.table.service.ServiceReferenceMetricTable;
 
@@ -46,6 +48,8 @@ public class ServiceTreeService {
     private final IServiceReferenceUIDAO serviceReferenceDAO;
     private final ApplicationCacheService applicationCacheService;
     private final ServiceNameCacheService serviceNameCacheService;
+    private final QueryCache<JsonObject> entryServiceCache = new QueryCache<>();
+    private final QueryCache<JsonArray> serviceTreeCache = new QueryCache<>();
 
     public ServiceTreeService(ModuleManager moduleManager) {
         this.serviceEntryDAO = moduleManager.find(StorageModule.NAME).getService(IServiceEntryUIDAO.class);
@@ -56,6 +60,12 @@ public class ServiceTreeService {
 
     public JsonObject loadEntryService(int applicationId, String entryServiceName, long startTime, long endTime,
         int from, int size) {
+        return entryServiceCache.get(TimeBucketUtils.TimeBucketType.MINUTE, endTime, () -> loadEntryServiceFromStorage(applicationId, entryServiceName, startTime, endTime, from, size),
+            applicationId, entryServiceName, startTime, endTime, from, size);
+    }
+
+    private JsonObject loadEntryServiceFromStorage(int applicationId, String entryServiceName, long startTime,
+        long endTime, int from, int size) {
         JsonObject response = serviceEntryDAO.load(applicationId, entryServiceName, startTime, endTime, from, size);
         JsonArray entryServices = response.get("array").getAsJsonArray();
         for (JsonElement element : entryServices) {
@@ -69,6 +79,10 @@ public class ServiceTreeService {
     }
 
     public JsonArray loadServiceTree(int entryServiceId, long startTime, long endTime) {
+        return serviceTreeCache.get(TimeBucketUtils.TimeBucketType.MINUTE, endTime, () -> loadServiceTreeFromStorage(entryServiceId, startTime, endTime), entryServiceId, startTime, endTime);
+    }
+
+    private JsonArray loadServiceTreeFromStorage(int entryServiceId, long startTime, long endTime) {
         Map<String, JsonObject> serviceReferenceMap = serviceReferenceDAO.load(entryServiceId, startTime, endTime);
         serviceReferenceMap.values().forEach(serviceReference -> {
             int frontServiceId = serviceReference.get(ColumnNameUtils.INSTANCE.rename(ServiceReferenceMetricTable.COLUMN_FRONT_SERVICE_ID)).getAsInt();
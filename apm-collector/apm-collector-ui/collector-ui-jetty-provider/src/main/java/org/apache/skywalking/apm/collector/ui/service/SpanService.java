@@ -46,15 +46,26 @@ public class SpanService {
     private final ApplicationCacheService applicationCacheService;
 
     public SpanService(ModuleManager moduleManager) {
-        this.segmentDAO = moduleManager.find(StorageModule.NAME).getService(ISegmentUIDAO.class);
-        this.serviceNameCacheService = moduleManager.find(CacheModule.NAME).getService(ServiceNameCacheService.class);
-        this.applicationCacheService = moduleManager.find(CacheModule.NAME).getService(ApplicationCacheService.class);
+        this(moduleManager.find(StorageModule.NAME).getService(ISegmentUIDAO.class),
+            moduleManager.find(CacheModule.NAME).getService(ServiceNameCacheService.class),
+            moduleManager.find(CacheModule.NAME).getService(ApplicationCacheService.class));
+    }
+
+    SpanService(ISegmentUIDAO segmentDAO, ServiceNameCacheService serviceNameCacheService,
+        ApplicationCacheService applicationCacheService) {
+        this.segmentDAO = segmentDAO;
+        this.serviceNameCacheService = serviceNameCacheService;
+        this.applicationCacheService = applicationCacheService;
     }
 
     public JsonObject load(String segmentId, int spanId) {
-        TraceSegmentObject segmentObject = segmentDAO.load(segmentId);
+        TraceSegmentObject segmentObject = loadSegmentOfSpan(segmentId, spanId);
 
         JsonObject spanJson = new JsonObject();
+        if (segmentObject == null) {
+            return spanJson;
+        }
+
         List<SpanObject> spans = segmentObject.getSpansList();
         for (SpanObject spanObject : spans) {
             if (spanId == spanObject.getSpanId()) {
@@ -130,4 +141,35 @@ public class SpanService {
 
         return spanJson;
     }
+
+    /**
+     * The finished spans of a long running segment may be stored in parts, {segment id}P1, {segment id}P2 and so on,
+     * look into the parts when the span isn't in the last part which stored with the segment id. The parts are found
+     * by the id prefix, so a missing part doesn't hide the later ones.
+     */
+    private TraceSegmentObject loadSegmentOfSpan(String segmentId, int spanId) {
+        TraceSegmentObject segmentObject = segmentDAO.load(segmentId);
+        if (containsSpan(segmentObject, spanId)) {
+            return segmentObject;
+        }
+
+        for (TraceSegmentObject partObject : segmentDAO.loadParts(segmentId).values()) {
+            if (containsSpan(partObject, spanId)) {
+                return partObject;
+            }
+        }
+        return segmentObject;
+    }
+
+    private boolean containsSpan(TraceSegmentObject segmentObject, int spanId) {
+        if (segmentObject == null) {
+            return false;
+        }
+        for (SpanObject spanObject : segmentObject.getSpansList()) {
+            if (spanId == spanObject.getSpanId()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
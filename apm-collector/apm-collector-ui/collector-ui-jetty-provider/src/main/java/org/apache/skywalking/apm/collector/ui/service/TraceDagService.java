@@ -21,8 +21,11 @@ package org.apache.skywalking.apm.collector.ui.service;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import java.util.concurrent.CompletableFuture;
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
 import org.apache.skywalking.apm.collector.storage.StorageModule;
+import org.apache.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.apache.skywalking.apm.collector.ui.cache.QueryCache;
 import org.apache.skywalking.apm.collector.storage.dao.IApplicationComponentUIDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IApplicationMappingUIDAO;
 import org.apache.skywalking.apm.collector.storage.dao.IApplicationReferenceMetricUIDAO;
@@ -40,6 +43,7 @@ public class TraceDagService {
     private final IApplicationMappingUIDAO applicationMappingUIDAO;
     private final IApplicationReferenceMetricUIDAO applicationReferenceMetricUIDAO;
     private final ModuleManager moduleManager;
+    private final QueryCache<JsonObject> traceDagCache = new QueryCache<>();
 
     public TraceDagService(ModuleManager moduleManager) {
         this.moduleManager = moduleManager;
@@ -49,12 +53,19 @@ public class TraceDagService {
     }
 
     public JsonObject load(long startTime, long endTime) {
-        logger.debug("startTime: {}, endTime: {}", startTime, endTime);
-        JsonArray applicationComponentArray = applicationComponentUIDAO.load(startTime, endTime);
+        return traceDagCache.get(TimeBucketUtils.TimeBucketType.MINUTE, endTime, () -> loadFromStorage(startTime, endTime), startTime, endTime);
+    }
 
-        JsonArray applicationMappingArray = applicationMappingUIDAO.load(startTime, endTime);
+    private JsonObject loadFromStorage(long startTime, long endTime) {
+        logger.debug("startTime: {}, endTime: {}", startTime, endTime);
+        ParallelQueryExecutor executor = ParallelQueryExecutor.INSTANCE;
+        CompletableFuture<JsonArray> applicationComponentFuture = executor.submit(() -> applicationComponentUIDAO.load(startTime, endTime));
+        CompletableFuture<JsonArray> applicationMappingFuture = executor.submit(() -> applicationMappingUIDAO.load(startTime, endTime));
+        CompletableFuture<JsonArray> applicationReferenceMetricFuture = executor.submit(() -> applicationReferenceMetricUIDAO.load(startTime, endTime));
 
-        JsonArray applicationReferenceMetricArray = applicationReferenceMetricUIDAO.load(startTime, endTime);
+        JsonArray applicationComponentArray = executor.get(applicationComponentFuture);
+        JsonArray applicationMappingArray = executor.get(applicationMappingFuture);
+        JsonArray applicationReferenceMetricArray = executor.get(applicationReferenceMetricFuture);
 
         TraceDagDataBuilder builder = new TraceDagDataBuilder(moduleManager);
         JsonObject traceDag = builder.build(applicationComponentArray, applicationMappingArray, applicationReferenceMetricArray);
@@ -21,8 +21,16 @@ package org.apache.skywalking.apm.collector.ui.service;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.collector.cache.CacheModule;
 import org.apache.skywalking.apm.collector.core.module.ModuleManager;
 import org.apache.skywalking.apm.collector.core.util.CollectionUtils;
@@ -36,52 +44,106 @@ import org.apache.skywalking.apm.collector.core.util.StringUtils;
 import org.apache.skywalking.apm.collector.storage.StorageModule;
 import org.apache.skywalking.apm.network.proto.SpanObject;
 import org.apache.skywalking.apm.network.proto.TraceSegmentObject;
+import org.apache.skywalking.apm.network.proto.TraceSegmentReference;
+import org.apache.skywalking.apm.network.proto.UniqueId;
 
 /**
  * @author peng-yongsheng
  */
 public class TraceStackService {
 
+    private static final int TRACE_STACK_CACHE_SIZE = 100;
+    private static final long SEGMENT_ARRIVAL_WINDOW = TimeUnit.MINUTES.toMillis(5);
+    private static final long TRACE_STACK_CACHE_TTL = TimeUnit.MINUTES.toMillis(30);
+
     private final IGlobalTraceUIDAO globalTraceDAO;
     private final ISegmentUIDAO segmentDAO;
     private final ApplicationCacheService applicationCacheService;
     private final ServiceNameCacheService serviceNameCacheService;
+    private final Map<String, CachedTraceStack> traceStackCache;
 
     public TraceStackService(ModuleManager moduleManager) {
-        this.globalTraceDAO = moduleManager.find(StorageModule.NAME).getService(IGlobalTraceUIDAO.class);
-        this.segmentDAO = moduleManager.find(StorageModule.NAME).getService(ISegmentUIDAO.class);
-        this.applicationCacheService = moduleManager.find(CacheModule.NAME).getService(ApplicationCacheService.class);
-        this.serviceNameCacheService = moduleManager.find(CacheModule.NAME).getService(ServiceNameCacheService.class);
+        this(moduleManager.find(StorageModule.NAME).getService(IGlobalTraceUIDAO.class),
+            moduleManager.find(StorageModule.NAME).getService(ISegmentUIDAO.class),
+            moduleManager.find(CacheModule.NAME).getService(ApplicationCacheService.class),
+            moduleManager.find(CacheModule.NAME).getService(ServiceNameCacheService.class));
+    }
+
+    TraceStackService(IGlobalTraceUIDAO globalTraceDAO, ISegmentUIDAO segmentDAO,
+        ApplicationCacheService applicationCacheService, ServiceNameCacheService serviceNameCacheService) {
+        this.globalTraceDAO = globalTraceDAO;
+        this.segmentDAO = segmentDAO;
+        this.applicationCacheService = applicationCacheService;
+        this.serviceNameCacheService = serviceNameCacheService;
+        this.traceStackCache = new LinkedHashMap<String, CachedTraceStack>(TRACE_STACK_CACHE_SIZE, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, CachedTraceStack> eldest) {
+                return size() > TRACE_STACK_CACHE_SIZE;
+            }
+        };
     }
 
     public JsonArray load(String globalTraceId) {
+        JsonArray cachedTraceStack = getCachedTraceStack(globalTraceId);
+        if (ObjectUtils.isNotEmpty(cachedTraceStack)) {
+            return cachedTraceStack;
+        }
+
         List<Span> spans = new ArrayList<>();
+        long latestEndTime = 0;
+        boolean isReceivingParts = false;
         List<String> segmentIds = globalTraceDAO.getSegmentIds(globalTraceId);
         if (CollectionUtils.isNotEmpty(segmentIds)) {
-            for (String segmentId : segmentIds) {
-                TraceSegmentObject segment = segmentDAO.load(segmentId);
+            Map<String, TraceSegmentObject> segments = segmentDAO.load(segmentIds);
+            for (String storageId : segmentIds) {
+                TraceSegmentObject segment = segments.get(storageId);
                 if (ObjectUtils.isNotEmpty(segment)) {
-                    spans.addAll(buildSpanList(segmentId, segment));
+                    spans.addAll(buildSpanList(storageId, segment));
+                    for (SpanObject spanObject : segment.getSpansList()) {
+                        latestEndTime = Math.max(latestEndTime, spanObject.getEndTime());
+                    }
+                }
+
+                String segmentId = toSegmentId(storageId);
+                if (!segmentId.equals(storageId) && !segments.containsKey(segmentId)) {
+                    isReceivingParts = true;
                 }
             }
         }
 
-        List<Span> sortedSpans = new ArrayList<>();
-        if (CollectionUtils.isNotEmpty(spans)) {
-            List<Span> rootSpans = findRoot(spans);
-
-            if (CollectionUtils.isNotEmpty(rootSpans)) {
-                rootSpans.forEach(span -> {
-                    List<Span> childrenSpan = new ArrayList<>();
-                    childrenSpan.add(span);
-                    findChildren(spans, span, childrenSpan);
-                    sortedSpans.addAll(childrenSpan);
-                });
+        List<Span> sortedSpans = sortSpans(spans);
+        minStartTime(sortedSpans);
+
+        JsonArray traceStack = toJsonArray(sortedSpans);
+        if (traceStack.size() > 0 && !isReceivingParts && System.currentTimeMillis() - latestEndTime > SEGMENT_ARRIVAL_WINDOW) {
+            cacheTraceStack(globalTraceId, traceStack);
+        }
+        return traceStack;
+    }
+
+    private JsonArray getCachedTraceStack(String globalTraceId) {
+        synchronized (traceStackCache) {
+            CachedTraceStack cachedTraceStack = traceStackCache.get(globalTraceId);
+            if (cachedTraceStack == null) {
+                return null;
             }
+            if (cachedTraceStack.expireTime < System.currentTimeMillis()) {
+                traceStackCache.remove(globalTraceId);
+                return null;
+            }
+            return cachedTraceStack.traceStack;
         }
-        minStartTime(sortedSpans);
+    }
 
-        return toJsonArray(sortedSpans);
+    /**
+     * Only the traces which have no span ended within the segment arrival window are cached, the segments of a
+     * younger trace may still be on their way. The traces with a part whose last part, stored with the segment id,
+     * hasn't arrived are not cached either, the long running segment is still reporting parts. The ttl bounds the
+     * staleness of the traces whose segments arrive even later, e.g. replayed from the buffer files.
+     */
+    private void cacheTraceStack(String globalTraceId, JsonArray traceStack) {
+        synchronized (traceStackCache) {
+            traceStackCache.put(globalTraceId, new CachedTraceStack(traceStack, System.currentTimeMillis() + TRACE_STACK_CACHE_TTL));
+        }
     }
 
     private JsonArray toJsonArray(List<Span> sortedSpans) {
@@ -115,9 +177,14 @@ public class TraceStackService {
         }
     }
 
-    private List<Span> buildSpanList(String segmentId, TraceSegmentObject segment) {
+    /**
+     * The parts of a long running segment are stored as {segment id}P{part sequence}, the spans of all parts belong to
+     * the same segment, so they are linked by the segment id without the part sequence.
+     */
+    private List<Span> buildSpanList(String storageId, TraceSegmentObject segment) {
         List<Span> spans = new ArrayList<>();
         if (segment.getSpansCount() > 0) {
+            String segmentId = toSegmentId(storageId);
             for (SpanObject spanObject : segment.getSpansList()) {
                 int spanId = spanObject.getSpanId();
                 int parentSpanId = spanObject.getParentSpanId();
@@ -141,60 +208,93 @@ public class TraceStackService {
                     cost = 1;
                 }
 
-//                if (parentSpanId == -1 && segment.getRefsCount() > 0) {
-//                    for (TraceSegmentReference reference : segment.getRefsList()) {
-//                        parentSpanId = reference.getParentSpanId();
-//                        UniqueId uniqueId = reference.getParentTraceSegmentId();
-//
-//                        StringBuilder segmentIdBuilder = new StringBuilder();
-//                        for (int i = 0; i < uniqueId.getIdPartsList().size(); i++) {
-//                            if (i == 0) {
-//                                segmentIdBuilder.append(String.valueOf(uniqueId.getIdPartsList().get(i)));
-//                            } else {
-//                                segmentIdBuilder.append(".").append(String.valueOf(uniqueId.getIdPartsList().get(i)));
-//                            }
-//                        }
-//
-//                        String parentSegmentId = segmentIdBuilder.toString();
-//                        segmentParentSpanId = parentSegmentId + Const.SEGMENT_SPAN_SPLIT + String.valueOf(parentSpanId);
-//
-//                        spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost));
-//                    }
-//                } else {
-//                    spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost));
-//                }
+                if (parentSpanId == -1 && spanObject.getRefsCount() > 0) {
+                    for (TraceSegmentReference reference : spanObject.getRefsList()) {
+                        parentSpanId = reference.getParentSpanId();
+                        String parentSegmentId = toSegmentId(reference.getParentTraceSegmentId());
+                        segmentParentSpanId = parentSegmentId + Const.SEGMENT_SPAN_SPLIT + String.valueOf(parentSpanId);
+
+                        spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost));
+                    }
+                } else {
+                    spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost));
+                }
             }
         }
         return spans;
     }
 
-    private List<Span> findRoot(List<Span> spans) {
-        List<Span> rootSpans = new ArrayList<>();
-        spans.forEach(span -> {
-            String segmentParentSpanId = span.getSegmentParentSpanId();
+    private String toSegmentId(String storageId) {
+        int partSplitIndex = storageId.indexOf(Const.SEGMENT_PART_SPLIT);
+        return partSplitIndex < 0 ? storageId : storageId.substring(0, partSplitIndex);
+    }
 
-            boolean hasParent = false;
-            for (Span span1 : spans) {
-                if (segmentParentSpanId.equals(span1.getSegmentSpanId())) {
-                    hasParent = true;
-                }
+    private String toSegmentId(UniqueId uniqueId) {
+        StringBuilder segmentIdBuilder = new StringBuilder();
+        for (int i = 0; i < uniqueId.getIdPartsList().size(); i++) {
+            if (i == 0) {
+                segmentIdBuilder.append(String.valueOf(uniqueId.getIdPartsList().get(i)));
+            } else {
+                segmentIdBuilder.append(".").append(String.valueOf(uniqueId.getIdPartsList().get(i)));
             }
+        }
+        return segmentIdBuilder.toString();
+    }
 
-            if (!hasParent) {
+    /**
+     * Index the spans by segment span id and by parent, then walk the tree from every root in depth first order, so
+     * the spans are sorted in linear time.
+     */
+    private List<Span> sortSpans(List<Span> spans) {
+        List<Span> sortedSpans = new ArrayList<>(spans.size());
+        if (CollectionUtils.isEmpty(spans)) {
+            return sortedSpans;
+        }
+
+        Map<String, Span> spanIndex = new HashMap<>(spans.size() * 2);
+        spans.forEach(span -> spanIndex.put(span.getSegmentSpanId(), span));
+
+        List<Span> rootSpans = new ArrayList<>();
+        Map<String, List<Span>> childrenIndex = new HashMap<>(spans.size() * 2);
+        spans.forEach(span -> {
+            if (spanIndex.containsKey(span.getSegmentParentSpanId())) {
+                childrenIndex.computeIfAbsent(span.getSegmentParentSpanId(), key -> new ArrayList<>()).add(span);
+            } else {
                 span.setRoot(true);
                 rootSpans.add(span);
             }
         });
-        return rootSpans;
-    }
 
-    private void findChildren(List<Span> spans, Span parentSpan, List<Span> childrenSpan) {
-        spans.forEach(span -> {
-            if (span.getSegmentParentSpanId().equals(parentSpan.getSegmentSpanId())) {
-                childrenSpan.add(span);
-                findChildren(spans, span, childrenSpan);
+        Set<String> visited = new HashSet<>(spans.size() * 2);
+        Deque<Span> stack = new ArrayDeque<>();
+        rootSpans.forEach(rootSpan -> {
+            stack.push(rootSpan);
+            while (!stack.isEmpty()) {
+                Span span = stack.pop();
+                if (!visited.add(span.getSegmentSpanId())) {
+                    continue;
+                }
+                sortedSpans.add(span);
+
+                List<Span> childrenSpans = childrenIndex.get(span.getSegmentSpanId());
+                if (CollectionUtils.isNotEmpty(childrenSpans)) {
+                    for (int i = childrenSpans.size() - 1; i >= 0; i--) {
+                        stack.push(childrenSpans.get(i));
+                    }
+                }
             }
         });
+        return sortedSpans;
+    }
+
+    private static class CachedTraceStack {
+        private final JsonArray traceStack;
+        private final long expireTime;
+
+        CachedTraceStack(JsonArray traceStack, long expireTime) {
+            this.traceStack = traceStack;
+            this.expireTime = expireTime;
+        }
     }
 
     class Span {
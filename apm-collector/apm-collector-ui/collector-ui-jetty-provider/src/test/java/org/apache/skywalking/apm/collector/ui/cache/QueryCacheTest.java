@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.collector.ui.cache;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import java.util.Calendar;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.collector.core.util.TimeBucketUtils.TimeBucketType.MINUTE;
+import static org.apache.skywalking.apm.collector.core.util.TimeBucketUtils.TimeBucketType.SECOND;
+
+public class QueryCacheTest {
+
+    private static final long MINUTE_BUCKET = 201701010000L;
+    private static final long SECOND_BUCKET = 20170101000000L;
+
+    private AtomicLong clock;
+    private AtomicLong watermark;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(QueryCache.bucketEndTime(MINUTE, MINUTE_BUCKET));
+        watermark = new AtomicLong(0);
+    }
+
+    @Test
+    public void testBucketEndTime() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2017, Calendar.JANUARY, 1, 0, 0, 0);
+        long minuteStart = calendar.getTimeInMillis();
+        Assert.assertEquals(minuteStart + 60 * 1000, QueryCache.bucketEndTime(MINUTE, MINUTE_BUCKET));
+        Assert.assertEquals(minuteStart + 1000, QueryCache.bucketEndTime(SECOND, SECOND_BUCKET));
+        Assert.assertEquals(QueryCache.bucketEndTime(MINUTE, 201612312359L), QueryCache.bucketEndTime(SECOND, 20161231235959L));
+    }
+
+    @Test
+    public void testSealedByWatermark() {
+        QueryCache<JsonArray> cache = newCache(200);
+        long minuteEnd = QueryCache.bucketEndTime(MINUTE, MINUTE_BUCKET);
+
+        watermark.set(minuteEnd + QueryCache.ARRIVAL_DELAY_MILLIS - 1);
+        Assert.assertFalse(cache.isSealed(MINUTE, MINUTE_BUCKET));
+        Assert.assertTrue(cache.isSealed(SECOND, SECOND_BUCKET));
+
+        watermark.set(minuteEnd + QueryCache.ARRIVAL_DELAY_MILLIS);
+        Assert.assertTrue(cache.isSealed(MINUTE, MINUTE_BUCKET));
+    }
+
+    @Test
+    public void testCacheSealedResult() {
+        QueryCache<JsonArray> cache = newCache(200);
+        watermark.set(Long.MAX_VALUE);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> {
+            loadCount.incrementAndGet();
+            return array("a");
+        }, 1, MINUTE_BUCKET));
+        clock.addAndGet(QueryCache.OPEN_BUCKET_TTL_MILLIS * 10);
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("b"), 1, MINUTE_BUCKET));
+        Assert.assertEquals(array("c"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("c"), 2, MINUTE_BUCKET));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void testSealedResultExpires() {
+        QueryCache<JsonArray> cache = newCache(200);
+        watermark.set(Long.MAX_VALUE);
+
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("a"), 1));
+        clock.addAndGet(QueryCache.SEALED_TTL_MILLIS - 1);
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("b"), 1));
+        clock.incrementAndGet();
+        Assert.assertEquals(array("c"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("c"), 1));
+    }
+
+    @Test
+    public void testOpenResultExpires() {
+        QueryCache<JsonArray> cache = newCache(200);
+
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("a"), 1));
+        clock.addAndGet(QueryCache.OPEN_BUCKET_TTL_MILLIS - 1);
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("b"), 1));
+        clock.incrementAndGet();
+        Assert.assertEquals(array("c"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("c"), 1));
+    }
+
+    @Test
+    public void testCallersGetCopies() {
+        QueryCache<JsonArray> cache = newCache(200);
+        watermark.set(Long.MAX_VALUE);
+
+        JsonArray first = cache.get(MINUTE, MINUTE_BUCKET, () -> array("a"), 1);
+        first.add(new JsonPrimitive("modified"));
+
+        Assert.assertEquals(array("a"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("b"), 1));
+    }
+
+    @Test
+    public void testEviction() {
+        QueryCache<JsonArray> cache = newCache(1);
+        watermark.set(Long.MAX_VALUE);
+        cache.get(MINUTE, MINUTE_BUCKET, () -> array("a"), 1);
+        cache.get(MINUTE, MINUTE_BUCKET, () -> array("b"), 2);
+        Assert.assertEquals(array("c"), cache.get(MINUTE, MINUTE_BUCKET, () -> array("c"), 1));
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        QueryCache<JsonArray> cache = newCache(200);
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<JsonArray> first = executor.submit(() -> cache.get(MINUTE, MINUTE_BUCKET, () -> {
+                loadCount.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return array("a");
+            }, 1));
+            loading.await();
+
+            Future<JsonArray> second = executor.submit(() -> cache.get(MINUTE, MINUTE_BUCKET, () -> {
+                loadCount.incrementAndGet();
+                return array("b");
+            }, 1));
+
+            CompletableFuture<JsonArray> loadingQuery = cache.loadingQueries.get("1");
+            while (loadingQuery.getNumberOfDependents() == 0) {
+                Thread.yield();
+            }
+            release.countDown();
+
+            Assert.assertEquals(array("a"), first.get());
+            Assert.assertEquals(array("a"), second.get());
+            Assert.assertEquals(1, loadCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private QueryCache<JsonArray> newCache(int maxSize) {
+        return new QueryCache<>(maxSize, clock::get, watermark::get);
+    }
+
+    private static JsonArray array(String value) {
+        JsonArray array = new JsonArray();
+        array.add(value);
+        return array;
+    }
+}
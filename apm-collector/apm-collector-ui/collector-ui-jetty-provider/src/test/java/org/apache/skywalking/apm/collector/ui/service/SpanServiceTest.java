@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.ui.service;
+
+import com.google.gson.JsonObject;
+import java.util.Collections;
+import org.apache.skywalking.apm.collector.cache.service.ApplicationCacheService;
+import org.apache.skywalking.apm.collector.cache.service.ServiceNameCacheService;
+import org.apache.skywalking.apm.collector.storage.dao.ISegmentUIDAO;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.collector.ui.service.TraceStackServiceTest.segment;
+import static org.apache.skywalking.apm.collector.ui.service.TraceStackServiceTest.span;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SpanServiceTest {
+
+    private ISegmentUIDAO segmentDAO;
+    private SpanService spanService;
+
+    @Before
+    public void setUp() {
+        segmentDAO = mock(ISegmentUIDAO.class);
+        when(segmentDAO.load("1.2.3")).thenReturn(segment(span(0, -1, 1000, "/root")));
+        when(segmentDAO.loadParts("1.2.3")).thenReturn(Collections.singletonMap("1.2.3P2", segment(span(4, 0, 1500, "/part"))));
+        spanService = new SpanService(segmentDAO, mock(ServiceNameCacheService.class), mock(ApplicationCacheService.class));
+    }
+
+    @Test
+    public void testLoadSpanOfLastPart() {
+        JsonObject span = spanService.load("1.2.3", 0);
+        Assert.assertEquals("/root", span.get("operationName").getAsString());
+        verify(segmentDAO, never()).loadParts(anyString());
+    }
+
+    @Test
+    public void testLoadSpanOfPart() {
+        JsonObject span = spanService.load("1.2.3", 4);
+        Assert.assertEquals("/part", span.get("operationName").getAsString());
+    }
+
+    @Test
+    public void testLoadMissingSpan() {
+        Assert.assertFalse(spanService.load("1.2.3", 7).has("operationName"));
+    }
+}
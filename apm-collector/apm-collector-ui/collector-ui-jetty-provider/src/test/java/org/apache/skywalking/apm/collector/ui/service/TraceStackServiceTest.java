@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.collector.ui.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.collector.cache.service.ApplicationCacheService;
+import org.apache.skywalking.apm.collector.cache.service.ServiceNameCacheService;
+import org.apache.skywalking.apm.collector.storage.dao.IGlobalTraceUIDAO;
+import org.apache.skywalking.apm.collector.storage.dao.ISegmentUIDAO;
+import org.apache.skywalking.apm.network.proto.SpanObject;
+import org.apache.skywalking.apm.network.proto.TraceSegmentObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TraceStackServiceTest {
+
+    private IGlobalTraceUIDAO globalTraceDAO;
+    private ISegmentUIDAO segmentDAO;
+    private TraceStackService traceStackService;
+
+    @Before
+    public void setUp() {
+        globalTraceDAO = mock(IGlobalTraceUIDAO.class);
+        segmentDAO = mock(ISegmentUIDAO.class);
+        ApplicationCacheService applicationCacheService = mock(ApplicationCacheService.class);
+        when(applicationCacheService.get(anyInt())).thenReturn("app");
+        traceStackService = new TraceStackService(globalTraceDAO, segmentDAO, applicationCacheService, mock(ServiceNameCacheService.class));
+    }
+
+    @Test
+    public void testPartsLinkedBySegmentId() {
+        Map<String, TraceSegmentObject> segments = new HashMap<>();
+        segments.put("1.2.3P1", segment(span(1, 0, 1500, "/part")));
+        segments.put("1.2.3", segment(span(0, -1, 1000, "/root")));
+        when(globalTraceDAO.getSegmentIds("trace")).thenReturn(Arrays.asList("1.2.3P1", "1.2.3"));
+        when(segmentDAO.load(anyListOf(String.class))).thenReturn(segments);
+
+        JsonArray traceStack = traceStackService.load("trace");
+        Assert.assertEquals(2, traceStack.size());
+        JsonObject root = traceStack.get(0).getAsJsonObject();
+        JsonObject child = traceStack.get(1).getAsJsonObject();
+        Assert.assertEquals("/root", root.get("operationName").getAsString());
+        Assert.assertTrue(root.get("isRoot").getAsBoolean());
+        Assert.assertEquals("/part", child.get("operationName").getAsString());
+        Assert.assertFalse(child.get("isRoot").getAsBoolean());
+        Assert.assertEquals(root.get("segmentSpanId"), child.get("segmentParentSpanId"));
+
+        traceStackService.load("trace");
+        verify(segmentDAO, times(1)).load(anyListOf(String.class));
+    }
+
+    @Test
+    public void testTraceReceivingPartsNotCached() {
+        Map<String, TraceSegmentObject> segments = new HashMap<>();
+        segments.put("1.2.3P1", segment(span(1, 0, 1500, "/part")));
+        when(globalTraceDAO.getSegmentIds("trace")).thenReturn(Arrays.asList("1.2.3P1"));
+        when(segmentDAO.load(anyListOf(String.class))).thenReturn(segments);
+
+        Assert.assertEquals(1, traceStackService.load("trace").size());
+        traceStackService.load("trace");
+        verify(segmentDAO, times(2)).load(anyListOf(String.class));
+    }
+
+    static TraceSegmentObject segment(SpanObject... spans) {
+        return TraceSegmentObject.newBuilder().setApplicationId(1).addAllSpans(Arrays.asList(spans)).build();
+    }
+
+    static SpanObject span(int spanId, int parentSpanId, long startTime, String operationName) {
+        return SpanObject.newBuilder()
+            .setSpanId(spanId)
+            .setParentSpanId(parentSpanId)
+            .setStartTime(startTime)
+            .setEndTime(startTime + 100)
+            .setOperationName(operationName)
+            .build();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.network.compress;
+
+import io.grpc.Codec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.iq80.snappy.SnappyFramedInputStream;
+import org.iq80.snappy.SnappyFramedOutputStream;
+
+/**
+ * The grpc message codec of the snappy framing format, which is much cheaper than gzip in cpu, with a lower but still
+ * good ratio for the text heavy segments, such as sql statements, urls and stack traces.
+ *
+ * Both the agent and the collector register this codec, and the agent only uses it when the collector advertises it
+ * in the <code>grpc-accept-encoding</code> header.
+ */
+public class SnappyCodec implements Codec {
+    public static final String MESSAGE_ENCODING = "snappy";
+
+    @Override
+    public String getMessageEncoding() {
+        return MESSAGE_ENCODING;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        return new SnappyFramedOutputStream(os);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        return new SnappyFramedInputStream(is, true);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
+import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generating, encoding and decoding the {@link ID}s, which are propagated in every cross process call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IdBenchmark {
+    private ID id;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID = 1;
+        id = GlobalIdGenerator.generate();
+        encoded = id.encode();
+    }
+
+    @Benchmark
+    public Object generate() {
+        return GlobalIdGenerator.generate();
+    }
+
+    @Benchmark
+    public Object encode() {
+        return new ID(id.getPart1(), id.getPart2(), id.getPart3()).encode();
+    }
+
+    @Benchmark
+    public Object decode() {
+        return new ID(encoded);
+    }
+}
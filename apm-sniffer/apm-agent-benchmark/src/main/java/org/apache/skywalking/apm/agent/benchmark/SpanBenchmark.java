@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.trace.EntrySpan;
+import org.apache.skywalking.apm.agent.core.context.trace.ExitSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of building a {@link TraceSegment} with one {@link EntrySpan} and {@link #spanCount} - 1 tagged {@link
+ * ExitSpan}s, through the public span API only, so the same benchmark runs against older versions of the agent core
+ * for the numbers before a change.
+ *
+ * Run with <code>java -jar target/benchmarks.jar SpanBenchmark -prof gc</code> to see the allocation per span too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SpanBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int spanCount;
+
+    @Setup
+    public void setUp() {
+        RemoteDownstreamConfig.Agent.APPLICATION_ID = 1;
+        RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID = 1;
+    }
+
+    @Benchmark
+    public TraceSegment buildSegment() {
+        TraceSegment segment = new TraceSegment();
+        EntrySpan entrySpan = new EntrySpan(0, -1, 1);
+        entrySpan.start();
+        entrySpan.tag("url", "http://127.0.0.1:8080/benchmark");
+        entrySpan.tag("http.method", "GET");
+        for (int i = 1; i < spanCount; i++) {
+            ExitSpan exitSpan = new ExitSpan(i, 0, 2, 3);
+            exitSpan.start();
+            exitSpan.tag("db.type", "sql");
+            exitSpan.tag("db.instance", "benchmark");
+            exitSpan.tag("db.statement", "select * from benchmark where id = ?");
+            exitSpan.finish(segment);
+        }
+        entrySpan.finish(segment);
+        return segment.finish(false);
+    }
+}
@@ -54,11 +54,60 @@ public class Config {
          */
         public static int SPAN_LIMIT_PER_SEGMENT = 300;
 
+        /**
+         * If true, the exit spans over {@link #SPAN_LIMIT_PER_SEGMENT} are folded into one summary span per operation
+         * and peer, which carries the count, the total, min and max duration and the error count of them.
+         */
+        public static boolean SPAN_LIMIT_SUMMARY = false;
+
+        /**
+         * The max number of summary spans in a single segment, the exit spans over it are ignored as before.
+         */
+        public static int SPAN_SUMMARY_LIMIT_PER_SEGMENT = 50;
+
+        /**
+         * The finished spans of a running {@link TraceSegment} are sent as a part of it, when their number reaches this.
+         * Zero means the spans are only sent when the segment finishes.
+         */
+        public static int SEGMENT_FLUSH_SPAN_COUNT = 0;
+
+        /**
+         * The finished spans of a running {@link TraceSegment} are sent as a part of it, when this many milliseconds
+         * passed since the segment started or was flushed last time. Zero means off.
+         */
+        public static long SEGMENT_FLUSH_AGE = 0;
+
         /**
          * If true, skywalking agent will save all instrumented classes files in `/debugging` folder.
          * Skywalking team may ask for these files in order to resolve compatible problem.
          */
         public static boolean IS_OPEN_DEBUGGING_CLASS = false;
+
+        /**
+         * If true, the finished {@link TraceSegment}s and their spans are recycled after they have been sent to the
+         * collector, and the next {@link TraceSegment}s created in the same thread reuse them. Keep it false when
+         * there is any other {@link org.apache.skywalking.apm.agent.core.context.TracingContextListener} which
+         * holds the segments.
+         */
+        public static boolean RECYCLE_TRACING_OBJECTS = false;
+
+        /**
+         * The uri templates, separated by comma, e.g. /orders/{id},/users/{userId}/**. A segment in braces or * matches
+         * any single segment, ** matches the rest of the uri. The http entry spans take the matched template as the
+         * operation name.
+         */
+        public static String URI_TEMPLATES = "";
+
+        /**
+         * If true, the uri segments which are numbers or uuids are replaced by {id}, when no template matches. It
+         * renames the existing operation names which include ids, so it is off by default.
+         */
+        public static boolean URI_NORMALIZE_ID_SEGMENTS = false;
+
+        /**
+         * The max amount of uris, whose templates are cached.
+         */
+        public static int URI_TEMPLATE_CACHE_SIZE = 1024;
     }
 
     public static class Collector {
@@ -66,6 +115,28 @@ public class Config {
          * grpc channel status check interval
          */
         public static long GRPC_CHANNEL_CHECK_INTERVAL = 30;
+        /**
+         * The amount of grpc channels to different collectors, which the trace segments are balanced over.
+         */
+        public static int GRPC_CHANNEL_SIZE = 2;
+        /**
+         * The max amount of trace segment streams in flight per grpc channel.
+         */
+        public static int GRPC_STREAMS_PER_CHANNEL = 4;
+        /**
+         * The deadline of a trace segment stream, in seconds. The stream slot is released when the collector doesn't
+         * complete the stream in time.
+         */
+        public static long GRPC_STREAM_TIMEOUT = 30;
+        /**
+         * The preferred compression of the trace segments, snappy, gzip or none. The compression is negotiated per
+         * channel, it falls back to gzip or none when the collector doesn't accept it.
+         */
+        public static String GRPC_COMPRESSION = "snappy";
+        /**
+         * The segments smaller than this size, in bytes, are sent without compression.
+         */
+        public static int GRPC_COMPRESSION_THRESHOLD = 1024;
         /**
          * application and service registry check interval
          */
@@ -91,12 +162,44 @@ public class Config {
          * The buffer size of collected JVM info.
          */
         public static int BUFFER_SIZE = 60 * 10;
+
+        /**
+         * The seconds between two JVM metric samples.
+         */
+        public static int SAMPLE_INTERVAL = 1;
+
+        /**
+         * The seconds between two reports of the sampled JVM metrics.
+         */
+        public static int REPORT_INTERVAL = 1;
+
+        /**
+         * If true, the gc counts are reported as deltas and the unchanged memory pool readings are merged in a report.
+         * Requires a collector which expands the compact JVM metrics.
+         */
+        public static boolean COMPACT_REPORT = false;
     }
 
     public static class Buffer {
         public static int CHANNEL_SIZE = 5;
 
         public static int BUFFER_SIZE = 300;
+
+        /**
+         * The directory of the memory mapped file, which keeps the trace segments when the collector is unreachable or
+         * the buffer is full. Empty means these segments are abandoned.
+         */
+        public static String SPILL_DIR = "";
+
+        /**
+         * The max size of the spill file, in bytes.
+         */
+        public static int SPILL_MAX_SIZE = 64 * 1024 * 1024;
+
+        /**
+         * The max amount of spilled segments sent to the collector per second, after the collector is reachable again.
+         */
+        public static int SPILL_REPLAY_PER_SECOND = 200;
     }
 
     public static class Dictionary {
@@ -106,6 +209,23 @@ public class Config {
         public static int APPLICATION_CODE_BUFFER_SIZE = 10 * 10000;
 
         public static int OPERATION_NAME_BUFFER_SIZE = 1000 * 10000;
+
+        /**
+         * The max amount of application codes or operation names in a single register request.
+         */
+        public static int REGISTER_PAGE_SIZE = 1000;
+
+        /**
+         * The deadline of a register request, in seconds. The names of a request which exceeds it are sent again at
+         * the next sync.
+         */
+        public static long REGISTER_TIMEOUT = 30;
+
+        /**
+         * The directory to persist the registered application and operation name ids, which are loaded at the next
+         * boot. Empty means the ids are not persisted.
+         */
+        public static String CACHE_DIR = "";
     }
 
     public static class Logging {
@@ -142,5 +262,21 @@ public class Config {
              */
             public static boolean TRACE_PARAM = false;
         }
+
+        public static class JDBC {
+            /**
+             * If true, the literals of the sql statements are replaced by '?', so the statements differ only in the
+             * literals share the same tag value.
+             */
+            public static boolean SQL_FINGERPRINT = false;
+            /**
+             * The max amount of sql statements, whose tag values are cached.
+             */
+            public static int SQL_CACHE_SIZE = 1024;
+            /**
+             * The sql statements longer than this are cut off in the tag. 0 means no limit.
+             */
+            public static int SQL_MAX_LENGTH = 0;
+        }
     }
 }
@@ -35,6 +35,18 @@ import org.apache.skywalking.apm.util.StringUtil;
  * Created by wusheng on 2017/2/17.
  */
 public class ContextCarrier implements Serializable {
+    /**
+     * Builders grown over this capacity, by some huge operation names, are not kept by the thread.
+     */
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 1024;
+
+    private static final ThreadLocal<StringBuilder> HEADER_BUILDER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
     /**
      * {@link TraceSegment#traceSegmentId}
      */
@@ -86,52 +98,98 @@ public class ContextCarrier implements Serializable {
 
     /**
      * Serialize this {@link ContextCarrier} to a {@link String},
-     * with '|' split.
+     * with '|' split. The pieces are appended into a reusable per thread builder, so the header is the only created
+     * string.
      *
      * @return the serialization string.
      */
     String serialize() {
         if (this.isValid()) {
-            return StringUtil.join('|',
-                this.getTraceSegmentId().encode(),
-                this.getSpanId() + "",
-                this.getParentApplicationInstanceId() + "",
-                this.getEntryApplicationInstanceId() + "",
-                this.getPeerHost(),
-                this.getEntryOperationName(),
-                this.getParentOperationName(),
-                this.getPrimaryDistributedTraceId().encode());
+            StringBuilder builder = HEADER_BUILDER.get();
+            builder.setLength(0);
+            this.getTraceSegmentId().appendTo(builder);
+            builder.append('|').append(this.getSpanId())
+                .append('|').append(this.getParentApplicationInstanceId())
+                .append('|').append(this.getEntryApplicationInstanceId())
+                .append('|').append(this.getPeerHost())
+                .append('|').append(this.getEntryOperationName())
+                .append('|').append(this.getParentOperationName())
+                .append('|');
+            this.getPrimaryDistributedTraceId().appendTo(builder);
+            String header = builder.toString();
+            if (builder.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+                HEADER_BUILDER.remove();
+            }
+            return header;
         } else {
             return "";
         }
     }
 
     /**
-     * Initialize fields with the given text.
+     * Initialize fields with the given text, in one pass. The ids and numbers are parsed in place, only the peer and
+     * the operation names are cut from the text.
      *
      * @param text carries {@link #traceSegmentId} and {@link #spanId}, with '|' split.
      */
     ContextCarrier deserialize(String text) {
         if (text != null) {
-            String[] parts = text.split("\\|", 8);
-            if (parts.length == 8) {
-                try {
-                    this.traceSegmentId = new ID(parts[0]);
-                    this.spanId = Integer.parseInt(parts[1]);
-                    this.parentApplicationInstanceId = Integer.parseInt(parts[2]);
-                    this.entryApplicationInstanceId = Integer.parseInt(parts[3]);
-                    this.peerHost = parts[4];
-                    this.entryOperationName = parts[5];
-                    this.parentOperationName = parts[6];
-                    this.primaryDistributedTraceId = new PropagatedTraceId(parts[7]);
-                } catch (NumberFormatException e) {
-
+            int[] separators = new int[7];
+            int position = -1;
+            for (int i = 0; i < separators.length; i++) {
+                position = text.indexOf('|', position + 1);
+                if (position < 0) {
+                    return this;
                 }
+                separators[i] = position;
+            }
+            try {
+                this.traceSegmentId = new ID(text, 0, separators[0]);
+                this.spanId = parseInt(text, separators[0] + 1, separators[1]);
+                this.parentApplicationInstanceId = parseInt(text, separators[1] + 1, separators[2]);
+                this.entryApplicationInstanceId = parseInt(text, separators[2] + 1, separators[3]);
+                this.peerHost = text.substring(separators[3] + 1, separators[4]);
+                this.entryOperationName = text.substring(separators[4] + 1, separators[5]);
+                this.parentOperationName = text.substring(separators[5] + 1, separators[6]);
+                this.primaryDistributedTraceId = new PropagatedTraceId(new ID(text, separators[6] + 1, text.length()));
+            } catch (NumberFormatException e) {
+
             }
         }
         return this;
     }
 
+    /**
+     * Same as {@link Integer#parseInt(String)} on the [start, end) range of the text, without the substring.
+     */
+    private static int parseInt(String text, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("empty number in " + text);
+        }
+        boolean negative = text.charAt(start) == '-';
+        int index = negative ? start + 1 : start;
+        if (index == end) {
+            throw new NumberFormatException("illegal number in " + text);
+        }
+
+        // Accumulate negatively, same as Integer.parseInt, so Integer.MIN_VALUE could be parsed.
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiplyMin = limit / 10;
+        int result = 0;
+        for (; index < end; index++) {
+            int digit = text.charAt(index) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyMin) {
+                throw new NumberFormatException("illegal number in " + text);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("illegal number in " + text);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
     /**
      * Make sure this {@link ContextCarrier} has been initialized.
      *
@@ -194,7 +194,10 @@ public class ContextManager implements TracingContextListener, BootService, Igno
 
     @Override
     public void afterFinished(TraceSegment traceSegment) {
-        CONTEXT.remove();
+        // The flushed parts are sent while the context is still running.
+        if (traceSegment.getPartSequence() == 0) {
+            CONTEXT.remove();
+        }
     }
 
     @Override
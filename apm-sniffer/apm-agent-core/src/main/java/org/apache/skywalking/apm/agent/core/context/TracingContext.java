@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -29,7 +31,10 @@ import org.apache.skywalking.apm.agent.core.context.trace.ExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanSummary;
+import org.apache.skywalking.apm.agent.core.context.trace.SummaryExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentPool;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
 import org.apache.skywalking.apm.agent.core.context.trace.WithPeerInfo;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryManager;
@@ -52,6 +57,8 @@ import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
  * @author zhang xin
  */
 public class TracingContext implements AbstractTracerContext {
+    private static final int INITIAL_STACK_CAPACITY = 8;
+
     /**
      * @see {@link SamplingService}
      */
@@ -63,23 +70,52 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#last} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This array is the in-memory storage-structure,
+     * the top element is at {@link #activeSpanDepth} - 1. Check {@link #pop()}, {@link #push(AbstractSpan)}, {@link
+     * #peek()}
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<AbstractSpan>();
+    private AbstractSpan[] activeSpanStack = new AbstractSpan[INITIAL_STACK_CAPACITY];
+
+    private int activeSpanDepth = 0;
 
     /**
-     * A counter for the next span.
+     * A counter for the next span, the ids are unique in the segment and its parts.
      */
     private int spanIdGenerator;
 
+    /**
+     * The number of spans sent by {@link TraceSegment#flushPart()}. The span limit applies to the spans still held by
+     * this context, i.e. created minus flushed.
+     */
+    private int flushedSpanCount;
+
+    /**
+     * True once a span is dropped or folded by the span limit.
+     */
+    private boolean spanLimitReached;
+
+    /**
+     * The summaries of the exit spans over the span limit, by operation name and peer, created only when {@link
+     * Config.Agent#SPAN_LIMIT_SUMMARY} is on and the limit is reached.
+     */
+    private HashMap<String, HashMap<String, SpanSummary>> spanSummaries;
+
+    private int spanSummaryCount;
+
+    /**
+     * The time of the creation or the last flush, only tracked when {@link Config.Agent#SEGMENT_FLUSH_AGE} is on.
+     */
+    private long lastFlushTime;
+
     /**
      * Initialize all fields with default value.
      */
     TracingContext() {
-        this.segment = new TraceSegment();
+        this.segment = TraceSegmentPool.INSTANCE.obtain();
         this.spanIdGenerator = 0;
+        if (Config.Agent.SEGMENT_FLUSH_AGE > 0) {
+            this.lastFlushTime = System.currentTimeMillis();
+        }
         if (samplingService == null) {
             samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
         }
@@ -243,32 +279,18 @@ public class TracingContext implements AbstractTracerContext {
         AbstractSpan entrySpan;
         final AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
+        PossibleFound operation = DictionaryManager.findOperationNameCodeSection()
+            .findOnly(segment.getApplicationId(), operationName);
         if (parentSpan == null) {
-            entrySpan = (AbstractTracingSpan)DictionaryManager.findOperationNameCodeSection()
-                .findOnly(segment.getApplicationId(), operationName)
-                .doInCondition(new PossibleFound.FoundAndObtain() {
-                    @Override public Object doProcess(int operationId) {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationId);
-                    }
-                }, new PossibleFound.NotFoundAndObtain() {
-                    @Override public Object doProcess() {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationName);
-                    }
-                });
+            entrySpan = segment.newEntrySpan(spanIdGenerator++, parentSpanId, operationId(operation), operationName);
             entrySpan.start();
             return push(entrySpan);
         } else if (parentSpan.isEntry()) {
-            entrySpan = (AbstractTracingSpan)DictionaryManager.findOperationNameCodeSection()
-                .findOnly(segment.getApplicationId(), operationName)
-                .doInCondition(new PossibleFound.FoundAndObtain() {
-                    @Override public Object doProcess(int operationId) {
-                        return parentSpan.setOperationId(operationId);
-                    }
-                }, new PossibleFound.NotFoundAndObtain() {
-                    @Override public Object doProcess() {
-                        return parentSpan.setOperationName(operationName);
-                    }
-                });
+            if (operation.isFound()) {
+                entrySpan = parentSpan.setOperationId(operation.getValue());
+            } else {
+                entrySpan = parentSpan.setOperationName(operationName);
+            }
             return entrySpan.start();
         } else {
             throw new IllegalStateException("The Entry Span can't be the child of Non-Entry Span");
@@ -290,19 +312,9 @@ public class TracingContext implements AbstractTracerContext {
         }
         AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-        AbstractTracingSpan span = (AbstractTracingSpan)DictionaryManager.findOperationNameCodeSection()
-            .findOrPrepare4Register(segment.getApplicationId(), operationName)
-            .doInCondition(new PossibleFound.FoundAndObtain() {
-                @Override
-                public Object doProcess(int operationId) {
-                    return new LocalSpan(spanIdGenerator++, parentSpanId, operationId);
-                }
-            }, new PossibleFound.NotFoundAndObtain() {
-                @Override
-                public Object doProcess() {
-                    return new LocalSpan(spanIdGenerator++, parentSpanId, operationName);
-                }
-            });
+        PossibleFound operation = DictionaryManager.findOperationNameCodeSection()
+            .findOrPrepare4Register(segment.getApplicationId(), operationName);
+        AbstractTracingSpan span = segment.newLocalSpan(spanIdGenerator++, parentSpanId, operationId(operation), operationName);
         span.start();
         return push(span);
     }
@@ -323,60 +335,59 @@ public class TracingContext implements AbstractTracerContext {
             exitSpan = parentSpan;
         } else {
             final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-            exitSpan = (AbstractSpan)DictionaryManager.findApplicationCodeSection()
-                .find(remotePeer).doInCondition(
-                    new PossibleFound.FoundAndObtain() {
-                        @Override
-                        public Object doProcess(final int peerId) {
-                            if (isLimitMechanismWorking()) {
-                                return new NoopExitSpan(peerId);
-                            }
-
-                            return DictionaryManager.findOperationNameCodeSection()
-                                .findOnly(segment.getApplicationId(), operationName)
-                                .doInCondition(
-                                    new PossibleFound.FoundAndObtain() {
-                                        @Override
-                                        public Object doProcess(int operationId) {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationId, peerId);
-                                        }
-                                    }, new PossibleFound.NotFoundAndObtain() {
-                                        @Override
-                                        public Object doProcess() {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationName, peerId);
-                                        }
-                                    });
-                        }
-                    },
-                    new PossibleFound.NotFoundAndObtain() {
-                        @Override
-                        public Object doProcess() {
-                            if (isLimitMechanismWorking()) {
-                                return new NoopExitSpan(remotePeer);
-                            }
-
-                            return DictionaryManager.findOperationNameCodeSection()
-                                .findOnly(segment.getApplicationId(), operationName)
-                                .doInCondition(
-                                    new PossibleFound.FoundAndObtain() {
-                                        @Override
-                                        public Object doProcess(int operationId) {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationId, remotePeer);
-                                        }
-                                    }, new PossibleFound.NotFoundAndObtain() {
-                                        @Override
-                                        public Object doProcess() {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationName, remotePeer);
-                                        }
-                                    });
-                        }
-                    });
+            PossibleFound peer = DictionaryManager.findApplicationCodeSection().find(remotePeer);
+            if (isLimitMechanismWorking()) {
+                SpanSummary summary = Config.Agent.SPAN_LIMIT_SUMMARY ? findSpanSummary(parentSpanId, operationName, peer, remotePeer) : null;
+                if (summary != null) {
+                    exitSpan = summary.newCall();
+                } else {
+                    exitSpan = peer.isFound() ? new NoopExitSpan(peer.getValue()) : new NoopExitSpan(remotePeer);
+                }
+            } else {
+                PossibleFound operation = DictionaryManager.findOperationNameCodeSection()
+                    .findOnly(segment.getApplicationId(), operationName);
+                exitSpan = segment.newExitSpan(spanIdGenerator++, parentSpanId, operationId(operation), operationName,
+                    peer.isFound() ? peer.getValue() : DictionaryUtil.nullValue(), remotePeer);
+            }
             push(exitSpan);
         }
         exitSpan.start();
         return exitSpan;
     }
 
+    /**
+     * @return the summary of the given operation and peer, null if {@link Config.Agent#SPAN_SUMMARY_LIMIT_PER_SEGMENT}
+     * is reached.
+     */
+    private SpanSummary findSpanSummary(int parentSpanId, String operationName, PossibleFound peer,
+        String remotePeer) {
+        if (spanSummaries == null) {
+            spanSummaries = new HashMap<String, HashMap<String, SpanSummary>>();
+        }
+        HashMap<String, SpanSummary> summariesOfPeer = spanSummaries.get(remotePeer);
+        if (summariesOfPeer == null) {
+            summariesOfPeer = new HashMap<String, SpanSummary>();
+            spanSummaries.put(remotePeer, summariesOfPeer);
+        }
+        SpanSummary summary = summariesOfPeer.get(operationName);
+        if (summary == null) {
+            if (spanSummaryCount >= Config.Agent.SPAN_SUMMARY_LIMIT_PER_SEGMENT) {
+                return null;
+            }
+            PossibleFound operation = DictionaryManager.findOperationNameCodeSection()
+                .findOnly(segment.getApplicationId(), operationName);
+            summary = new SpanSummary(segment.newExitSpan(spanIdGenerator++, parentSpanId, operationId(operation), operationName,
+                peer.isFound() ? peer.getValue() : DictionaryUtil.nullValue(), remotePeer));
+            summariesOfPeer.put(operationName, summary);
+            spanSummaryCount++;
+        }
+        return summary;
+    }
+
+    private int operationId(PossibleFound operation) {
+        return operation.isFound() ? operation.getValue() : DictionaryUtil.nullValue();
+    }
+
     /**
      * @return the active span of current context, the top element of {@link #activeSpanStack}
      */
@@ -404,6 +415,10 @@ public class TracingContext implements AbstractTracerContext {
                 if (toFinishSpan.finish(segment)) {
                     pop();
                 }
+            } else if (lastSpan instanceof SummaryExitSpan) {
+                if (((SummaryExitSpan)lastSpan).stop()) {
+                    pop();
+                }
             } else {
                 pop();
             }
@@ -411,9 +426,35 @@ public class TracingContext implements AbstractTracerContext {
             throw new IllegalStateException("Stopping the unexpected span = " + span);
         }
 
-        if (activeSpanStack.isEmpty()) {
+        if (activeSpanDepth == 0) {
             this.finish();
+        } else if (shouldFlushPart()) {
+            flushedSpanCount += segment.getFinishedSpanCount();
+            TracingContext.ListenerManager.notifyFinish(segment.flushPart());
+        }
+    }
+
+    /**
+     * @return true if the finished spans should be sent as a part of the running segment, because of {@link
+     * Config.Agent#SEGMENT_FLUSH_SPAN_COUNT} or {@link Config.Agent#SEGMENT_FLUSH_AGE}.
+     */
+    private boolean shouldFlushPart() {
+        int finishedSpanCount = segment.getFinishedSpanCount();
+        if (finishedSpanCount == 0) {
+            return false;
+        }
+        if (Config.Agent.SEGMENT_FLUSH_SPAN_COUNT > 0 && finishedSpanCount >= Config.Agent.SEGMENT_FLUSH_SPAN_COUNT) {
+            lastFlushTime = System.currentTimeMillis();
+            return true;
+        }
+        if (Config.Agent.SEGMENT_FLUSH_AGE > 0) {
+            long currentTimeMillis = System.currentTimeMillis();
+            if (currentTimeMillis - lastFlushTime >= Config.Agent.SEGMENT_FLUSH_AGE) {
+                lastFlushTime = currentTimeMillis;
+                return true;
+            }
         }
+        return false;
     }
 
     /**
@@ -421,14 +462,21 @@ public class TracingContext implements AbstractTracerContext {
      * TracingContext.ListenerManager}
      */
     private void finish() {
-        TraceSegment finishedSegment = segment.finish(isLimitMechanismWorking());
+        if (spanSummaries != null) {
+            for (HashMap<String, SpanSummary> summariesOfPeer : spanSummaries.values()) {
+                for (SpanSummary summary : summariesOfPeer.values()) {
+                    summary.finish(segment);
+                }
+            }
+        }
+        TraceSegment finishedSegment = segment.finish(spanLimitReached);
         /**
          * Recheck the segment if the segment contains only one span.
          * Because in the runtime, can't sure this segment is part of distributed trace.
          *
          * @see {@link #createSpan(String, long, boolean)}
          */
-        if (!segment.hasRef() && segment.isSingleSpanSegment()) {
+        if (!segment.hasRef() && segment.isSingleSpanSegment() && !segment.hasFlushedParts()) {
             if (!samplingService.trySampling()) {
                 finishedSegment.setIgnore(true);
             }
@@ -478,7 +526,9 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        AbstractSpan span = activeSpanStack[--activeSpanDepth];
+        activeSpanStack[activeSpanDepth] = null;
+        return span;
     }
 
     /**
@@ -487,7 +537,10 @@ public class TracingContext implements AbstractTracerContext {
      * @param span
      */
     private AbstractSpan push(AbstractSpan span) {
-        activeSpanStack.addLast(span);
+        if (activeSpanDepth == activeSpanStack.length) {
+            activeSpanStack = Arrays.copyOf(activeSpanStack, activeSpanDepth * 2);
+        }
+        activeSpanStack[activeSpanDepth++] = span;
         return span;
     }
 
@@ -495,17 +548,21 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack' only.
      */
     private AbstractSpan peek() {
-        if (activeSpanStack.isEmpty()) {
+        if (activeSpanDepth == 0) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack[activeSpanDepth - 1];
     }
 
     private AbstractSpan first() {
-        return activeSpanStack.getFirst();
+        return activeSpanStack[0];
     }
 
     private boolean isLimitMechanismWorking() {
-        return spanIdGenerator >= Config.Agent.SPAN_LIMIT_PER_SEGMENT;
+        if (spanIdGenerator - flushedSpanCount >= Config.Agent.SPAN_LIMIT_PER_SEGMENT) {
+            spanLimitReached = true;
+            return true;
+        }
+        return false;
     }
 }
@@ -22,5 +22,9 @@ package org.apache.skywalking.apm.agent.core.context;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 
 public interface TracingContextListener {
+    /**
+     * @param traceSegment the finished segment, or a part of a running segment, which {@link
+     * TraceSegment#getPartSequence()} is not 0.
+     */
     void afterFinished(TraceSegment traceSegment);
 }
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * {@link URITemplateMatcher} maps the concrete uris of the http entry spans to their templates, e.g.
+ * <code>/orders/123456</code> to <code>/orders/{id}</code>, so the operation names, and their ids in the
+ * dictionary, stay bounded.
+ *
+ * The templates come from {@link Config.Agent#URI_TEMPLATES}, and from the mvc plugins through {@link
+ * #register(String)}, such as the request mappings of spring mvc. They are kept in a trie of the uri segments. When no
+ * template matches, the number and uuid segments are replaced by <code>{id}</code>, if {@link
+ * Config.Agent#URI_NORMALIZE_ID_SEGMENTS} is true.
+ *
+ * The results are cached per uri, and the cache is cleared when it reaches {@link
+ * Config.Agent#URI_TEMPLATE_CACHE_SIZE}, or when {@link Config.Agent#URI_TEMPLATES} or {@link
+ * Config.Agent#URI_NORMALIZE_ID_SEGMENTS} changes.
+ */
+public enum URITemplateMatcher {
+    INSTANCE;
+
+    private static final String ID_SEGMENT = "{id}";
+    private static final String REST = "**";
+
+    private final ConcurrentHashMap<String, String> cache = new ConcurrentHashMap<String, String>();
+    private volatile Node root = new Node();
+    private volatile String loadedTemplates;
+    private volatile boolean loadedNormalizeIdSegments;
+    private final List<String> registeredTemplates = new ArrayList<String>();
+    /**
+     * Same as {@link #registeredTemplates}, checked without lock, because some plugins register at every request.
+     */
+    private final ConcurrentHashMap<String, Boolean> registeredTemplateSet = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * @param contextPath the context path of the web application, the registered templates are matched after it, it
+     * could be null.
+     * @param uri the request uri, which includes the context path.
+     * @return the template of the uri, or the uri itself if it can't be normalized.
+     */
+    public String normalize(String contextPath, String uri) {
+        if (uri == null) {
+            return null;
+        }
+        if (Config.Agent.URI_TEMPLATES != loadedTemplates
+            || Config.Agent.URI_NORMALIZE_ID_SEGMENTS != loadedNormalizeIdSegments) {
+            reload();
+        }
+        String template = cache.get(uri);
+        if (template != null) {
+            return template;
+        }
+
+        template = match(root, segments(uri), 0);
+        if (template == null && contextPath != null && contextPath.length() > 1 && uri.startsWith(contextPath)) {
+            template = match(root, segments(uri.substring(contextPath.length())), 0);
+            if (template != null) {
+                template = contextPath + template;
+            }
+        }
+        if (template == null) {
+            template = Config.Agent.URI_NORMALIZE_ID_SEGMENTS ? replaceIdSegments(uri) : uri;
+        }
+
+        if (cache.size() >= Config.Agent.URI_TEMPLATE_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(uri, template);
+        return template;
+    }
+
+    /**
+     * Add the template provided by the framework, such as a request mapping of spring mvc.
+     */
+    public void register(String template) {
+        if (template == null || template.length() == 0 || registeredTemplateSet.containsKey(template)) {
+            return;
+        }
+        synchronized (registeredTemplates) {
+            if (registeredTemplates.contains(template)) {
+                return;
+            }
+            registeredTemplates.add(template);
+            registeredTemplateSet.put(template, Boolean.TRUE);
+            add(root, template);
+        }
+        cache.clear();
+    }
+
+    private void reload() {
+        synchronized (registeredTemplates) {
+            String templates = Config.Agent.URI_TEMPLATES;
+            Node newRoot = new Node();
+            if (templates != null) {
+                for (String template : templates.split(",")) {
+                    template = template.trim();
+                    if (template.length() > 0) {
+                        add(newRoot, template);
+                    }
+                }
+            }
+            for (String template : registeredTemplates) {
+                add(newRoot, template);
+            }
+            root = newRoot;
+            loadedTemplates = templates;
+            loadedNormalizeIdSegments = Config.Agent.URI_NORMALIZE_ID_SEGMENTS;
+        }
+        cache.clear();
+    }
+
+    /**
+     * Drop the registered templates and the cached results, only for tests.
+     */
+    void reset() {
+        synchronized (registeredTemplates) {
+            registeredTemplates.clear();
+            registeredTemplateSet.clear();
+            root = new Node();
+            loadedTemplates = null;
+        }
+        cache.clear();
+    }
+
+    private static void add(Node root, String template) {
+        Node node = root;
+        for (String segment : segments(template)) {
+            if (REST.equals(segment)) {
+                node.restTemplate = template;
+                return;
+            }
+            if ("*".equals(segment) || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                Node child = node.children.get(segment);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+        node.template = template;
+    }
+
+    /**
+     * Find the template, the literal segments take precedence over the wildcards.
+     */
+    private static String match(Node node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.template != null ? node.template : node.restTemplate;
+        }
+
+        Node child = node.children.get(segments[index]);
+        if (child != null) {
+            String template = match(child, segments, index + 1);
+            if (template != null) {
+                return template;
+            }
+        }
+        Node wildcard = node.wildcard;
+        if (wildcard != null) {
+            String template = match(wildcard, segments, index + 1);
+            if (template != null) {
+                return template;
+            }
+        }
+        return node.restTemplate;
+    }
+
+    private static String[] segments(String path) {
+        List<String> segments = new ArrayList<String>();
+        int start = 0;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    static String replaceIdSegments(String uri) {
+        StringBuilder normalized = null;
+        int start = 0;
+        int length = uri.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || uri.charAt(i) == '/') {
+                if (i > start && isIdSegment(uri, start, i)) {
+                    if (normalized == null) {
+                        normalized = new StringBuilder(length);
+                        normalized.append(uri, 0, start);
+                    }
+                    normalized.append(ID_SEGMENT);
+                } else if (normalized != null) {
+                    normalized.append(uri, start, i);
+                }
+                if (normalized != null && i < length) {
+                    normalized.append('/');
+                }
+                start = i + 1;
+            }
+        }
+        return normalized == null ? uri : normalized.toString();
+    }
+
+    /**
+     * @return true, if the segment is a number, or a uuid, or a hex string of at least 16 characters with digits.
+     */
+    private static boolean isIdSegment(String uri, int start, int end) {
+        boolean allDigits = true;
+        boolean hasDigit = false;
+        boolean allHex = true;
+        int hyphens = 0;
+        for (int i = start; i < end; i++) {
+            char c = uri.charAt(i);
+            if (c == '-') {
+                hyphens++;
+                allDigits = false;
+            } else if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else {
+                allDigits = false;
+                if ((c < 'a' || c > 'f') && (c < 'A' || c > 'F')) {
+                    allHex = false;
+                }
+            }
+        }
+        int length = end - start;
+        return allDigits
+            || (allHex && hyphens == 4 && length == 36)
+            || (allHex && hasDigit && hyphens == 0 && length >= 16);
+    }
+
+    private static class Node {
+        private final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<String, Node>();
+        private volatile Node wildcard;
+        private volatile String template;
+        private volatile String restTemplate;
+    }
+}
@@ -49,6 +49,10 @@ public abstract class DistributedTraceId {
         return id.encode();
     }
 
+    public void appendTo(StringBuilder builder) {
+        id.appendTo(builder);
+    }
+
     @Override
     public String toString() {
         return id.toString();
@@ -27,7 +27,7 @@ public final class GlobalIdGenerator {
     private static final ThreadLocal<IDContext> THREAD_ID_SEQUENCE = new ThreadLocal<IDContext>() {
         @Override
         protected IDContext initialValue() {
-            return new IDContext(System.currentTimeMillis(), (short)0);
+            return new IDContext(Thread.currentThread().getId(), System.currentTimeMillis(), (short)0);
         }
     };
 
@@ -60,12 +60,13 @@ public final class GlobalIdGenerator {
 
         return new ID(
             RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID,
-            Thread.currentThread().getId(),
+            context.threadId,
             context.nextSeq()
         );
     }
 
     private static class IDContext {
+        private final long threadId;
         private long lastTimestamp;
         private short threadSeq;
 
@@ -74,7 +75,8 @@ public final class GlobalIdGenerator {
         private int lastRandomValue;
         private Random random;
 
-        private IDContext(long lastTimestamp, short threadSeq) {
+        private IDContext(long threadId, long lastTimestamp, short threadSeq) {
+            this.threadId = threadId;
             this.lastTimestamp = lastTimestamp;
             this.threadSeq = threadSeq;
         }
@@ -29,6 +29,9 @@ public class ID {
     private long part2;
     private long part3;
     private String encoding;
+    private String source;
+    private int sourceStart;
+    private int sourceEnd;
     private boolean isValid;
 
     public ID(long part1, long part2, long part3) {
@@ -39,35 +42,139 @@ public class ID {
         this.isValid = true;
     }
 
+    /**
+     * Parse the <code>part1.part2.part3</code> form, without splitting the string. The id is invalid, if the string is
+     * not three dot separated long numbers. The valid string is kept as the encoding, to be propagated as it is.
+     */
     public ID(String encodingString) {
-        String[] idParts = encodingString.split("\\.", 3);
-        this.isValid = true;
+        this(encodingString, 0, encodingString.length());
+    }
+
+    /**
+     * Parse the <code>part1.part2.part3</code> form from the [start, end) range of the text, e.g. a whole sw3 header.
+     * The encoding is only cut from the text, when it is asked by {@link #encode()}.
+     */
+    public ID(String text, int start, int end) {
+        int partStart = start;
         for (int part = 0; part < 3; part++) {
-            try {
-                if (part == 0) {
-                    part1 = Long.parseLong(idParts[part]);
-                } else if (part == 1) {
-                    part2 = Long.parseLong(idParts[part]);
-                } else {
-                    part3 = Long.parseLong(idParts[part]);
-                }
-            } catch (NumberFormatException e) {
+            int partEnd = part < 2 ? text.indexOf('.', partStart) : end;
+            if (partEnd < 0 || partEnd > end || !parsePart(part, text, partStart, partEnd)) {
                 this.isValid = false;
-                break;
+                return;
+            }
+            partStart = partEnd + 1;
+        }
+        if (start == 0 && end == text.length()) {
+            this.encoding = text;
+        } else {
+            this.source = text;
+            this.sourceStart = start;
+            this.sourceEnd = end;
+        }
+        this.isValid = true;
+    }
+
+    private boolean parsePart(int part, String encodingString, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        boolean negative = encodingString.charAt(start) == '-';
+        int index = negative ? start + 1 : start;
+        if (index == end) {
+            return false;
+        }
+
+        // Accumulate negatively, same as Long.parseLong, so Long.MIN_VALUE could be parsed.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; index < end; index++) {
+            int digit = encodingString.charAt(index) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyMin) {
+                return false;
             }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        long value = negative ? result : -result;
 
+        if (part == 0) {
+            part1 = value;
+        } else if (part == 1) {
+            part2 = value;
+        } else {
+            part3 = value;
         }
+        return true;
     }
 
+    /**
+     * @return the <code>part1.part2.part3</code> form, written into an exactly sized char array once, and cached.
+     */
     public String encode() {
-        if (encoding == null) {
-            encoding = toString();
+        if (encoding == null && source != null) {
+            encoding = source.substring(sourceStart, sourceEnd);
+            source = null;
+        } else if (encoding == null) {
+            char[] chars = new char[stringSize(part1) + stringSize(part2) + stringSize(part3) + 2];
+            int position = writeLong(part1, chars, 0);
+            chars[position++] = '.';
+            position = writeLong(part2, chars, position);
+            chars[position++] = '.';
+            writeLong(part3, chars, position);
+            encoding = new String(chars);
         }
         return encoding;
     }
 
+    /**
+     * Append the <code>part1.part2.part3</code> form, without creating the encoding string if it doesn't exist yet.
+     */
+    public void appendTo(StringBuilder builder) {
+        if (encoding != null) {
+            builder.append(encoding);
+        } else if (source != null) {
+            builder.append(source, sourceStart, sourceEnd);
+        } else {
+            builder.append(part1).append('.').append(part2).append('.').append(part3);
+        }
+    }
+
+    static int stringSize(long value) {
+        int size = value < 0 ? 2 : 1;
+        long negativeValue = value < 0 ? value : -value;
+        while (negativeValue <= -10) {
+            negativeValue /= 10;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Write the digits backwards from the negative value, so Long.MIN_VALUE is written without overflow.
+     *
+     * @return the position after the written chars.
+     */
+    static int writeLong(long value, char[] chars, int position) {
+        int end = position + stringSize(value);
+        int index = end;
+        long negativeValue = value < 0 ? value : -value;
+        do {
+            chars[--index] = (char)('0' - negativeValue % 10);
+            negativeValue /= 10;
+        }
+        while (negativeValue != 0);
+        if (value < 0) {
+            chars[--index] = '-';
+        }
+        return end;
+    }
+
     @Override public String toString() {
-        return part1 + "." + part2 + '.' + part3;
+        return encode();
     }
 
     @Override public boolean equals(Object o) {
@@ -96,6 +203,18 @@ public class ID {
         return isValid;
     }
 
+    public long getPart1() {
+        return part1;
+    }
+
+    public long getPart2() {
+        return part2;
+    }
+
+    public long getPart3() {
+        return part3;
+    }
+
     public UniqueId transform() {
         return UniqueId.newBuilder().addIdParts(part1).addIdParts(part2).addIdParts(part3).build();
     }
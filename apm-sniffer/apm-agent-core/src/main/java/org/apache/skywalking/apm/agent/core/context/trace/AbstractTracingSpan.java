@@ -18,12 +18,14 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
 import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.apache.skywalking.apm.network.proto.KeyWithStringValue;
 import org.apache.skywalking.apm.network.proto.SpanObject;
 import org.apache.skywalking.apm.network.proto.SpanType;
 import org.apache.skywalking.apm.network.trace.component.Component;
@@ -35,9 +37,18 @@ import org.apache.skywalking.apm.network.trace.component.Component;
  * @author wusheng
  */
 public abstract class AbstractTracingSpan implements AbstractSpan {
+    private static final int INITIAL_TAG_CAPACITY = 4;
+
     protected int spanId;
     protected int parentSpanId;
-    protected List<KeyValuePair> tags;
+    /**
+     * The tags are kept in two parallel arrays, {@link #tagKeys} and {@link #tagValues}, with {@link #tagCount}
+     * elements used, rather than a list of {@link KeyValuePair}s, so adding a tag doesn't allocate anything but the
+     * arrays growing.
+     */
+    protected String[] tagKeys;
+    protected String[] tagValues;
+    protected int tagCount;
     protected String operationName;
     protected int operationId;
     protected SpanLayer layer;
@@ -84,6 +95,36 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         this.parentSpanId = parentSpanId;
     }
 
+    /**
+     * Reset all fields, as a new span created by the constructors, so the span can be reused by a new {@link
+     * TraceSegment}. The lists of tags and refs are kept, only cleared.
+     */
+    void reset(int spanId, int parentSpanId, int operationId, String operationName) {
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.operationId = operationId;
+        this.operationName = operationName;
+        this.layer = null;
+        this.startTime = 0;
+        this.endTime = 0;
+        this.errorOccurred = false;
+        this.componentId = DictionaryUtil.nullValue();
+        this.componentName = null;
+        clearTags();
+        this.logs = null;
+        if (this.refs != null) {
+            this.refs.clear();
+        }
+    }
+
+    protected void clearTags() {
+        for (int i = 0; i < tagCount; i++) {
+            tagKeys[i] = null;
+            tagValues[i] = null;
+        }
+        tagCount = 0;
+    }
+
     /**
      * Set a key:value tag on the Span.
      *
@@ -91,10 +132,16 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan tag(String key, String value) {
-        if (tags == null) {
-            tags = new LinkedList<KeyValuePair>();
+        if (tagKeys == null) {
+            tagKeys = new String[INITIAL_TAG_CAPACITY];
+            tagValues = new String[INITIAL_TAG_CAPACITY];
+        } else if (tagCount == tagKeys.length) {
+            tagKeys = Arrays.copyOf(tagKeys, tagCount * 2);
+            tagValues = Arrays.copyOf(tagValues, tagCount * 2);
         }
-        tags.add(new KeyValuePair(key, value));
+        tagKeys[tagCount] = key;
+        tagValues[tagCount] = value;
+        tagCount++;
         return this;
     }
 
@@ -125,7 +172,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(Throwable t) {
         if (logs == null) {
-            logs = new LinkedList<LogDataEntity>();
+            logs = new ArrayList<LogDataEntity>(1);
         }
         logs.add(new LogDataEntity.Builder()
             .add(new KeyValuePair("event", "error"))
@@ -145,7 +192,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(long timestampMicroseconds, Map<String, ?> fields) {
         if (logs == null) {
-            logs = new LinkedList<LogDataEntity>();
+            logs = new ArrayList<LogDataEntity>(1);
         }
         LogDataEntity.Builder builder = new LogDataEntity.Builder();
         for (Map.Entry<String, ?> entry : fields.entrySet()) {
@@ -269,10 +316,12 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
             }
         }
         spanBuilder.setIsError(errorOccurred);
-        if (this.tags != null) {
-            for (KeyValuePair tag : this.tags) {
-                spanBuilder.addTags(tag.transform());
+        for (int i = 0; i < tagCount; i++) {
+            KeyWithStringValue.Builder tagBuilder = KeyWithStringValue.newBuilder().setKey(tagKeys[i]);
+            if (tagValues[i] != null) {
+                tagBuilder.setValue(tagValues[i]);
             }
+            spanBuilder.addTags(tagBuilder);
         }
         if (this.logs != null) {
             for (LogDataEntity log : this.logs) {
@@ -290,7 +339,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
 
     @Override public void ref(TraceSegmentRef ref) {
         if (refs == null) {
-            refs = new LinkedList<TraceSegmentRef>();
+            refs = new ArrayList<TraceSegmentRef>(1);
         }
         if (!refs.contains(ref)) {
             refs.add(ref);
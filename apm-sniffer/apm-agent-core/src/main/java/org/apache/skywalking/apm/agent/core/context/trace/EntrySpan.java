@@ -47,6 +47,12 @@ public class EntrySpan extends StackBasedTracingSpan {
         this.currentMaxDepth = 0;
     }
 
+    @Override
+    void reset(int spanId, int parentSpanId, int operationId, String operationName) {
+        super.reset(spanId, parentSpanId, operationId, operationName);
+        this.currentMaxDepth = 0;
+    }
+
     /**
      * Set the {@link #startTime}, when the first start, which means the first service provided.
      */
@@ -131,6 +137,6 @@ public class EntrySpan extends StackBasedTracingSpan {
         this.componentName = null;
         this.layer = null;
         this.logs = null;
-        this.tags = null;
+        clearTags();
     }
 }
@@ -64,6 +64,12 @@ public class ExitSpan extends StackBasedTracingSpan implements WithPeerInfo {
         this.peerId = peerId;
     }
 
+    void reset(int spanId, int parentSpanId, int operationId, String operationName, int peerId, String peer) {
+        super.reset(spanId, parentSpanId, operationId, operationName);
+        this.peerId = peerId;
+        this.peer = peer;
+    }
+
     /**
      * Set the {@link #startTime}, when the first start, which means the first service provided.
      */
@@ -39,6 +39,10 @@ public class LogDataEntity {
         this.logs = logs;
     }
 
+    public long getTimestamp() {
+        return timestamp;
+    }
+
     public List<KeyValuePair> getLogs() {
         return logs;
     }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+/**
+ * The <code>SpanSummary</code> folds the repeated exit spans of the same operation and peer, which are created after
+ * the span limit of the segment is reached, into one {@link ExitSpan}. Only the first call's tags, component and layer
+ * are kept, the duration and error of every call are summarized into tags, when the segment finishes.
+ */
+public class SpanSummary {
+    public static final String COUNT = "summary.count";
+    public static final String TOTAL_DURATION = "summary.duration.total";
+    public static final String MIN_DURATION = "summary.duration.min";
+    public static final String MAX_DURATION = "summary.duration.max";
+    public static final String ERROR_COUNT = "summary.error.count";
+
+    private final ExitSpan span;
+    private long count;
+    private long totalDuration;
+    private long minDuration = Long.MAX_VALUE;
+    private long maxDuration;
+    private long errorCount;
+    private long firstStartTime;
+    private long lastEndTime;
+
+    /**
+     * @param span created by the segment, but not started yet.
+     */
+    public SpanSummary(ExitSpan span) {
+        this.span = span;
+        span.start();
+    }
+
+    /**
+     * @return a new span for a call, which is recorded into this summary when it stops.
+     */
+    public SummaryExitSpan newCall() {
+        return new SummaryExitSpan(this);
+    }
+
+    ExitSpan getSpan() {
+        return span;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    void record(long startTime, long endTime, boolean errorOccurred) {
+        long duration = endTime - startTime;
+        if (count == 0) {
+            firstStartTime = startTime;
+        }
+        count++;
+        totalDuration += duration;
+        minDuration = Math.min(minDuration, duration);
+        maxDuration = Math.max(maxDuration, duration);
+        if (errorOccurred) {
+            errorCount++;
+        }
+        lastEndTime = endTime;
+    }
+
+    /**
+     * Archive the summary span into the owner, spanning from the start of the first call to the end of the last one.
+     */
+    public void finish(TraceSegment owner) {
+        if (count == 0) {
+            return;
+        }
+        span.tag(COUNT, Long.toString(count));
+        span.tag(TOTAL_DURATION, Long.toString(totalDuration));
+        span.tag(MIN_DURATION, Long.toString(minDuration));
+        span.tag(MAX_DURATION, Long.toString(maxDuration));
+        span.tag(ERROR_COUNT, Long.toString(errorCount));
+        if (errorCount > 0) {
+            span.errorOccurred();
+        }
+        span.finish(owner);
+        span.startTime = firstStartTime;
+        span.endTime = lastEndTime;
+    }
+}
@@ -43,24 +43,19 @@ public abstract class StackBasedTracingSpan extends AbstractTracingSpan {
         this.stackDepth = 0;
     }
 
+    @Override
+    void reset(int spanId, int parentSpanId, int operationId, String operationName) {
+        super.reset(spanId, parentSpanId, operationId, operationName);
+        this.stackDepth = 0;
+    }
+
     @Override
     public boolean finish(TraceSegment owner) {
         if (--stackDepth == 0) {
             if (this.operationId == DictionaryUtil.nullValue()) {
-                this.operationId = (Integer)DictionaryManager.findOperationNameCodeSection()
-                    .findOrPrepare4Register(owner.getApplicationId(), operationName)
-                    .doInCondition(
-                        new PossibleFound.FoundAndObtain() {
-                            @Override public Object doProcess(int value) {
-                                return value;
-                            }
-                        },
-                        new PossibleFound.NotFoundAndObtain() {
-                            @Override public Object doProcess() {
-                                return DictionaryUtil.nullValue();
-                            }
-                        }
-                    );
+                PossibleFound operation = DictionaryManager.findOperationNameCodeSection()
+                    .findOrPrepare4Register(owner.getApplicationId(), operationName);
+                this.operationId = operation.isFound() ? operation.getValue() : DictionaryUtil.nullValue();
             }
             return super.finish(owner);
         } else {
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.network.trace.component.Component;
+
+/**
+ * The <code>SummaryExitSpan</code> represents one call folded into a {@link SpanSummary}. It acts as a {@link
+ * NoopSpan}, except for the first call of the summary, whose tags, component and layer are set on the summary span,
+ * and it carries the span id and peer of the summary span, so the context is still injected into the carrier.
+ */
+public class SummaryExitSpan extends NoopSpan implements WithPeerInfo {
+    private final SpanSummary summary;
+    private final boolean firstCall;
+    private int stackDepth;
+    private long startTime;
+    private boolean errorOccurred;
+
+    SummaryExitSpan(SpanSummary summary) {
+        this.summary = summary;
+        this.firstCall = summary.isEmpty();
+    }
+
+    @Override
+    public AbstractSpan start() {
+        if (++stackDepth == 1) {
+            startTime = System.currentTimeMillis();
+        }
+        return this;
+    }
+
+    /**
+     * Record this call into the summary, when the outermost start is stopped.
+     *
+     * @return true if this span should be popped from the active span stack.
+     */
+    public boolean stop() {
+        if (--stackDepth == 0) {
+            summary.record(startTime, System.currentTimeMillis(), errorOccurred);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public AbstractSpan errorOccurred() {
+        errorOccurred = true;
+        return this;
+    }
+
+    @Override
+    public AbstractSpan tag(String key, String value) {
+        if (firstCall && stackDepth == 1) {
+            summary.getSpan().tag(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    public AbstractSpan setComponent(Component component) {
+        if (firstCall && stackDepth == 1) {
+            summary.getSpan().setComponent(component);
+        }
+        return this;
+    }
+
+    @Override
+    public AbstractSpan setComponent(String componentName) {
+        if (firstCall && stackDepth == 1) {
+            summary.getSpan().setComponent(componentName);
+        }
+        return this;
+    }
+
+    @Override
+    public AbstractSpan setLayer(SpanLayer layer) {
+        if (firstCall && stackDepth == 1) {
+            summary.getSpan().setLayer(layer);
+        }
+        return this;
+    }
+
+    @Override
+    public int getSpanId() {
+        return summary.getSpan().getSpanId();
+    }
+
+    @Override
+    public int getOperationId() {
+        return summary.getSpan().getOperationId();
+    }
+
+    @Override
+    public String getOperationName() {
+        return summary.getSpan().getOperationName();
+    }
+
+    @Override
+    public int getPeerId() {
+        return summary.getSpan().getPeerId();
+    }
+
+    @Override
+    public String getPeer() {
+        return summary.getSpan().getPeer();
+    }
+
+    @Override
+    public boolean isExit() {
+        return true;
+    }
+}
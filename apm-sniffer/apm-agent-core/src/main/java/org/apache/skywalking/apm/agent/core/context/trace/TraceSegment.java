@@ -19,14 +19,16 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceIds;
 import org.apache.skywalking.apm.agent.core.context.ids.ID;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.apache.skywalking.apm.network.proto.TraceSegmentObject;
 import org.apache.skywalking.apm.network.proto.UpstreamSegment;
 
@@ -38,6 +40,8 @@ import org.apache.skywalking.apm.network.proto.UpstreamSegment;
  * @author wusheng
  */
 public class TraceSegment {
+    private static final int INITIAL_SPAN_CAPACITY = 8;
+
     /**
      * The id of this trace segment. Every segment has its unique-global-id.
      */
@@ -72,16 +76,169 @@ public class TraceSegment {
 
     private boolean isSizeLimited = false;
 
+    /**
+     * 0 for the segment itself, or the sequence of a part created by {@link #flushPart()}.
+     */
+    private int partSequence = 0;
+
+    /**
+     * The number of parts flushed from this segment.
+     */
+    private int flushedPartCount = 0;
+
+    /**
+     * The spans of the last use, which wait for being reused by the <code>newXXXSpan</code> methods, after this
+     * segment has been recycled by {@link TraceSegmentPool}.
+     */
+    private ArrayList<EntrySpan> idleEntrySpans;
+    private ArrayList<ExitSpan> idleExitSpans;
+    private ArrayList<LocalSpan> idleLocalSpans;
+
+    /**
+     * The stripe of {@link TraceSegmentPool} which this segment goes back to, -1 means not pooled.
+     */
+    private int poolIndex = -1;
+
+    private boolean recycled = false;
+
     /**
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
+        this.spans = new ArrayList<AbstractTracingSpan>(Math.min(Config.Agent.SPAN_LIMIT_PER_SEGMENT, INITIAL_SPAN_CAPACITY));
+        initialize();
+    }
+
+    /**
+     * Create a part of the given segment, with the same segment id, refs and global trace ids.
+     */
+    private TraceSegment(TraceSegment segment, List<AbstractTracingSpan> spans) {
+        this.traceSegmentId = segment.traceSegmentId;
+        this.refs = segment.refs == null ? null : new ArrayList<TraceSegmentRef>(segment.refs);
+        this.relatedGlobalTraces = new DistributedTraceIds();
+        for (DistributedTraceId distributedTraceId : segment.getRelatedGlobalTraces()) {
+            this.relatedGlobalTraces.append(distributedTraceId);
+        }
+        this.spans = spans;
+        this.partSequence = ++segment.flushedPartCount;
+    }
+
+    private void initialize() {
         this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<AbstractTracingSpan>();
         this.relatedGlobalTraces = new DistributedTraceIds();
         this.relatedGlobalTraces.append(new NewDistributedTraceId());
     }
 
+    /**
+     * Create an {@link EntrySpan}, reuse an idle one if exists.
+     *
+     * @param operationId the id of operation name, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     */
+    public EntrySpan newEntrySpan(int spanId, int parentSpanId, int operationId, String operationName) {
+        EntrySpan span = takeIdle(idleEntrySpans);
+        if (span == null) {
+            return DictionaryUtil.isNull(operationId) ? new EntrySpan(spanId, parentSpanId, operationName) : new EntrySpan(spanId, parentSpanId, operationId);
+        }
+        span.reset(spanId, parentSpanId, operationId, DictionaryUtil.isNull(operationId) ? operationName : null);
+        return span;
+    }
+
+    /**
+     * Create a {@link LocalSpan}, reuse an idle one if exists.
+     *
+     * @param operationId the id of operation name, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     */
+    public LocalSpan newLocalSpan(int spanId, int parentSpanId, int operationId, String operationName) {
+        LocalSpan span = takeIdle(idleLocalSpans);
+        if (span == null) {
+            return DictionaryUtil.isNull(operationId) ? new LocalSpan(spanId, parentSpanId, operationName) : new LocalSpan(spanId, parentSpanId, operationId);
+        }
+        span.reset(spanId, parentSpanId, operationId, DictionaryUtil.isNull(operationId) ? operationName : null);
+        return span;
+    }
+
+    /**
+     * Create an {@link ExitSpan}, reuse an idle one if exists.
+     *
+     * @param operationId the id of operation name, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     * @param peerId the application id of peer, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     */
+    public ExitSpan newExitSpan(int spanId, int parentSpanId, int operationId, String operationName, int peerId,
+        String peer) {
+        ExitSpan span = takeIdle(idleExitSpans);
+        if (span == null) {
+            if (DictionaryUtil.isNull(operationId)) {
+                return DictionaryUtil.isNull(peerId) ? new ExitSpan(spanId, parentSpanId, operationName, peer) : new ExitSpan(spanId, parentSpanId, operationName, peerId);
+            } else {
+                return DictionaryUtil.isNull(peerId) ? new ExitSpan(spanId, parentSpanId, operationId, peer) : new ExitSpan(spanId, parentSpanId, operationId, peerId);
+            }
+        }
+        span.reset(spanId, parentSpanId, operationId, DictionaryUtil.isNull(operationId) ? operationName : null,
+            peerId, DictionaryUtil.isNull(peerId) ? peer : null);
+        return span;
+    }
+
+    private <T extends AbstractTracingSpan> T takeIdle(ArrayList<T> idleSpans) {
+        if (idleSpans == null || idleSpans.isEmpty()) {
+            return null;
+        }
+        return idleSpans.remove(idleSpans.size() - 1);
+    }
+
+    /**
+     * Clear this segment and keep its spans as idle ones. Called by {@link TraceSegmentPool} only, after the segment
+     * has been sent.
+     */
+    void recycle() {
+        for (AbstractTracingSpan span : spans) {
+            if (span instanceof EntrySpan) {
+                if (idleEntrySpans == null) {
+                    idleEntrySpans = new ArrayList<EntrySpan>();
+                }
+                idleEntrySpans.add((EntrySpan)span);
+            } else if (span instanceof ExitSpan) {
+                if (idleExitSpans == null) {
+                    idleExitSpans = new ArrayList<ExitSpan>();
+                }
+                idleExitSpans.add((ExitSpan)span);
+            } else if (span instanceof LocalSpan) {
+                if (idleLocalSpans == null) {
+                    idleLocalSpans = new ArrayList<LocalSpan>();
+                }
+                idleLocalSpans.add((LocalSpan)span);
+            }
+        }
+        spans.clear();
+        // The ids and global trace ids may still be held by ContextCarrier or ContextSnapshot, so never reuse them.
+        this.traceSegmentId = null;
+        this.relatedGlobalTraces = null;
+        this.refs = null;
+        this.ignore = false;
+        this.isSizeLimited = false;
+        this.flushedPartCount = 0;
+        this.recycled = true;
+    }
+
+    /**
+     * Make this recycled segment as a new one, with a new segment id. Called by {@link TraceSegmentPool} only.
+     */
+    void reuse() {
+        initialize();
+        this.recycled = false;
+    }
+
+    boolean isRecycled() {
+        return recycled;
+    }
+
+    int getPoolIndex() {
+        return poolIndex;
+    }
+
+    void setPoolIndex(int poolIndex) {
+        this.poolIndex = poolIndex;
+    }
+
     /**
      * Establish the link between this segment and its parents.
      *
@@ -89,7 +246,7 @@ public class TraceSegment {
      */
     public void ref(TraceSegmentRef refSegment) {
         if (refs == null) {
-            refs = new LinkedList<TraceSegmentRef>();
+            refs = new ArrayList<TraceSegmentRef>(1);
         }
         if (!refs.contains(refSegment)) {
             refs.add(refSegment);
@@ -113,6 +270,18 @@ public class TraceSegment {
         spans.add(finishedSpan);
     }
 
+    /**
+     * Move the finished spans into a new part of this segment, so they are sent to the collector before this segment
+     * finishes, and not kept in memory by a long running context. The collector links the parts by the segment id.
+     *
+     * @return the part, which is sent as a segment.
+     */
+    public TraceSegment flushPart() {
+        TraceSegment part = new TraceSegment(this, spans);
+        this.spans = new ArrayList<AbstractTracingSpan>(INITIAL_SPAN_CAPACITY);
+        return part;
+    }
+
     /**
      * Finish this {@link TraceSegment}. <p> return this, for chaining
      */
@@ -141,6 +310,26 @@ public class TraceSegment {
         return relatedGlobalTraces.getRelatedGlobalTraces();
     }
 
+    public int getFinishedSpanCount() {
+        return spans.size();
+    }
+
+    public boolean hasFlushedParts() {
+        return flushedPartCount > 0;
+    }
+
+    public int getPartSequence() {
+        return partSequence;
+    }
+
+    List<AbstractTracingSpan> getSpans() {
+        return spans;
+    }
+
+    boolean isSizeLimited() {
+        return isSizeLimited;
+    }
+
     public boolean isSingleSpanSegment() {
         return this.spans != null && this.spans.size() == 1;
     }
@@ -177,6 +366,7 @@ public class TraceSegment {
         traceSegmentBuilder.setApplicationId(RemoteDownstreamConfig.Agent.APPLICATION_ID);
         traceSegmentBuilder.setApplicationInstanceId(RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID);
         traceSegmentBuilder.setIsSizeLimited(this.isSizeLimited);
+        traceSegmentBuilder.setPartSequence(this.partSequence);
 
         upstreamBuilder.setSegment(traceSegmentBuilder.build().toByteString());
         return upstreamBuilder.build();
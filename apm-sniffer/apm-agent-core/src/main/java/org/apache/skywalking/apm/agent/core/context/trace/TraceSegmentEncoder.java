@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.apache.skywalking.apm.network.proto.RefType;
+import org.apache.skywalking.apm.network.proto.SpanType;
+import org.apache.skywalking.apm.network.proto.UpstreamSegment;
+
+/**
+ * The <code>TraceSegmentEncoder</code> writes the <code>TraceSegmentObject</code> wire format straight from the
+ * fields of {@link TraceSegment} and its {@link AbstractTracingSpan}s, without building the intermediate protobuf
+ * messages, which {@link TraceSegment#transform()} does. The output is byte-compatible with {@link
+ * TraceSegment#transform()}.
+ * <p>
+ * The sizes of the nested messages (spans, refs, tags, logs and their data) are computed once, in the order they are
+ * written, and read back when their length prefixes are written.
+ * <p>
+ * The encoder keeps its buffers between segments, so it is not thread safe. Use one instance per consumer thread.
+ */
+public class TraceSegmentEncoder {
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    /**
+     * A segment bigger than this is encoded into a one-off buffer, so the encoder doesn't hold a huge array forever.
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+    private static final int INITIAL_MESSAGE_SIZES = 256;
+
+    /**
+     * Field numbers of TraceSegmentService.proto and KeyWithStringValue.proto
+     */
+    private static final int SEGMENT_ID = 1;
+    private static final int SEGMENT_SPANS = 2;
+    private static final int SEGMENT_APPLICATION_ID = 3;
+    private static final int SEGMENT_APPLICATION_INSTANCE_ID = 4;
+    private static final int SEGMENT_IS_SIZE_LIMITED = 5;
+    private static final int SEGMENT_PART_SEQUENCE = 6;
+
+    private static final int SPAN_ID = 1;
+    private static final int SPAN_PARENT_SPAN_ID = 2;
+    private static final int SPAN_START_TIME = 3;
+    private static final int SPAN_END_TIME = 4;
+    private static final int SPAN_REFS = 5;
+    private static final int SPAN_OPERATION_NAME_ID = 6;
+    private static final int SPAN_OPERATION_NAME = 7;
+    private static final int SPAN_PEER_ID = 8;
+    private static final int SPAN_PEER = 9;
+    private static final int SPAN_TYPE = 10;
+    private static final int SPAN_LAYER = 11;
+    private static final int SPAN_COMPONENT_ID = 12;
+    private static final int SPAN_COMPONENT = 13;
+    private static final int SPAN_IS_ERROR = 14;
+    private static final int SPAN_TAGS = 15;
+    private static final int SPAN_LOGS = 16;
+
+    private static final int REF_TYPE = 1;
+    private static final int REF_PARENT_SEGMENT_ID = 2;
+    private static final int REF_PARENT_SPAN_ID = 3;
+    private static final int REF_PARENT_APPLICATION_INSTANCE_ID = 4;
+    private static final int REF_NETWORK_ADDRESS = 5;
+    private static final int REF_NETWORK_ADDRESS_ID = 6;
+    private static final int REF_ENTRY_APPLICATION_INSTANCE_ID = 7;
+    private static final int REF_ENTRY_SERVICE_NAME = 8;
+    private static final int REF_ENTRY_SERVICE_ID = 9;
+    private static final int REF_PARENT_SERVICE_NAME = 10;
+    private static final int REF_PARENT_SERVICE_ID = 11;
+
+    private static final int LOG_TIME = 1;
+    private static final int LOG_DATA = 2;
+
+    private static final int KEY_VALUE_KEY = 1;
+    private static final int KEY_VALUE_VALUE = 2;
+
+    private static final int UNIQUE_ID_PARTS = 1;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int[] messageSizes = new int[INITIAL_MESSAGE_SIZES];
+    private int messageCount;
+    private int messageCursor;
+
+    /**
+     * @return the segment as GRPC service parameter, same as {@link TraceSegment#transform()}
+     */
+    public UpstreamSegment encode(TraceSegment segment) throws IOException {
+        UpstreamSegment.Builder upstreamBuilder = UpstreamSegment.newBuilder();
+        for (DistributedTraceId distributedTraceId : segment.getRelatedGlobalTraces()) {
+            upstreamBuilder.addGlobalTraceIds(distributedTraceId.toUniqueId());
+        }
+        upstreamBuilder.setSegment(encodeSegment(segment));
+        return upstreamBuilder.build();
+    }
+
+    /**
+     * @return the bytes of <code>TraceSegmentObject</code>
+     */
+    public ByteString encodeSegment(TraceSegment segment) throws IOException {
+        int applicationId = RemoteDownstreamConfig.Agent.APPLICATION_ID;
+        int applicationInstanceId = RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID;
+
+        messageCount = 0;
+        messageCursor = 0;
+        int size = segmentSize(segment, applicationId, applicationInstanceId);
+        byte[] target = buffer;
+        if (size > target.length) {
+            if (size > MAX_REUSED_BUFFER_SIZE) {
+                target = new byte[size];
+            } else {
+                target = new byte[Math.min(Math.max(size, target.length * 2), MAX_REUSED_BUFFER_SIZE)];
+                buffer = target;
+            }
+        }
+
+        CodedOutputStream output = CodedOutputStream.newInstance(target, 0, size);
+        writeSegment(output, segment, applicationId, applicationInstanceId);
+        output.checkNoSpaceLeft();
+        return ByteString.copyFrom(target, 0, size);
+    }
+
+    private void writeSegment(CodedOutputStream output, TraceSegment segment, int applicationId,
+        int applicationInstanceId) throws IOException {
+        writeId(output, SEGMENT_ID, segment.getTraceSegmentId());
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            writeMessageHeader(output, SEGMENT_SPANS, nextMessageSize());
+            writeSpan(output, span);
+        }
+        writeInt32(output, SEGMENT_APPLICATION_ID, applicationId);
+        writeInt32(output, SEGMENT_APPLICATION_INSTANCE_ID, applicationInstanceId);
+        writeBool(output, SEGMENT_IS_SIZE_LIMITED, segment.isSizeLimited());
+        writeInt32(output, SEGMENT_PART_SEQUENCE, segment.getPartSequence());
+    }
+
+    private int segmentSize(TraceSegment segment, int applicationId, int applicationInstanceId) {
+        int size = messageSize(SEGMENT_ID, idSize(segment.getTraceSegmentId()));
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            size += messageSize(SEGMENT_SPANS, spanSize(span));
+        }
+        size += int32Size(SEGMENT_APPLICATION_ID, applicationId);
+        size += int32Size(SEGMENT_APPLICATION_INSTANCE_ID, applicationInstanceId);
+        size += boolSize(SEGMENT_IS_SIZE_LIMITED, segment.isSizeLimited());
+        size += int32Size(SEGMENT_PART_SEQUENCE, segment.getPartSequence());
+        return size;
+    }
+
+    private void writeSpan(CodedOutputStream output, AbstractTracingSpan span) throws IOException {
+        writeInt32(output, SPAN_ID, span.spanId);
+        writeInt32(output, SPAN_PARENT_SPAN_ID, span.parentSpanId);
+        writeInt64(output, SPAN_START_TIME, span.startTime);
+        writeInt64(output, SPAN_END_TIME, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                writeMessageHeader(output, SPAN_REFS, nextMessageSize());
+                writeRef(output, ref);
+            }
+        }
+        if (span.operationId != DictionaryUtil.nullValue()) {
+            writeInt32(output, SPAN_OPERATION_NAME_ID, span.operationId);
+        } else {
+            writeString(output, SPAN_OPERATION_NAME, span.operationName);
+        }
+        if (span instanceof ExitSpan) {
+            ExitSpan exitSpan = (ExitSpan)span;
+            if (exitSpan.getPeerId() != DictionaryUtil.nullValue()) {
+                writeInt32(output, SPAN_PEER_ID, exitSpan.getPeerId());
+            } else {
+                writeString(output, SPAN_PEER, exitSpan.getPeer());
+            }
+        }
+        writeInt32(output, SPAN_TYPE, spanType(span));
+        if (span.layer != null) {
+            writeInt32(output, SPAN_LAYER, span.layer.getCode());
+        }
+        if (span.componentId != DictionaryUtil.nullValue()) {
+            writeInt32(output, SPAN_COMPONENT_ID, span.componentId);
+        } else {
+            writeString(output, SPAN_COMPONENT, span.componentName);
+        }
+        writeBool(output, SPAN_IS_ERROR, span.errorOccurred);
+        for (int i = 0; i < span.tagCount; i++) {
+            writeMessageHeader(output, SPAN_TAGS, nextMessageSize());
+            writeKeyValue(output, span.tagKeys[i], span.tagValues[i]);
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                writeMessageHeader(output, SPAN_LOGS, nextMessageSize());
+                writeLog(output, log);
+            }
+        }
+    }
+
+    private int spanSize(AbstractTracingSpan span) {
+        int slot = reserveMessageSize();
+        int size = int32Size(SPAN_ID, span.spanId);
+        size += int32Size(SPAN_PARENT_SPAN_ID, span.parentSpanId);
+        size += int64Size(SPAN_START_TIME, span.startTime);
+        size += int64Size(SPAN_END_TIME, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                size += messageSize(SPAN_REFS, refSize(ref));
+            }
+        }
+        if (span.operationId != DictionaryUtil.nullValue()) {
+            size += int32Size(SPAN_OPERATION_NAME_ID, span.operationId);
+        } else {
+            size += stringSize(SPAN_OPERATION_NAME, span.operationName);
+        }
+        if (span instanceof ExitSpan) {
+            ExitSpan exitSpan = (ExitSpan)span;
+            if (exitSpan.getPeerId() != DictionaryUtil.nullValue()) {
+                size += int32Size(SPAN_PEER_ID, exitSpan.getPeerId());
+            } else {
+                size += stringSize(SPAN_PEER, exitSpan.getPeer());
+            }
+        }
+        size += int32Size(SPAN_TYPE, spanType(span));
+        if (span.layer != null) {
+            size += int32Size(SPAN_LAYER, span.layer.getCode());
+        }
+        if (span.componentId != DictionaryUtil.nullValue()) {
+            size += int32Size(SPAN_COMPONENT_ID, span.componentId);
+        } else {
+            size += stringSize(SPAN_COMPONENT, span.componentName);
+        }
+        size += boolSize(SPAN_IS_ERROR, span.errorOccurred);
+        for (int i = 0; i < span.tagCount; i++) {
+            size += messageSize(SPAN_TAGS, keyValueSize(span.tagKeys[i], span.tagValues[i]));
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                size += messageSize(SPAN_LOGS, logSize(log));
+            }
+        }
+        messageSizes[slot] = size;
+        return size;
+    }
+
+    private int spanType(AbstractTracingSpan span) {
+        if (span.isEntry()) {
+            return SpanType.Entry.getNumber();
+        } else if (span.isExit()) {
+            return SpanType.Exit.getNumber();
+        } else {
+            return SpanType.Local.getNumber();
+        }
+    }
+
+    private void writeRef(CodedOutputStream output, TraceSegmentRef ref) throws IOException {
+        boolean isCrossProcess = TraceSegmentRef.SegmentRefType.CROSS_PROCESS.equals(ref.getType());
+        writeInt32(output, REF_TYPE, refType(isCrossProcess));
+        writeId(output, REF_PARENT_SEGMENT_ID, ref.getTraceSegmentId());
+        writeInt32(output, REF_PARENT_SPAN_ID, ref.getSpanId());
+        if (isCrossProcess) {
+            writeInt32(output, REF_PARENT_APPLICATION_INSTANCE_ID, ref.getParentApplicationInstanceId());
+            if (ref.getPeerId() == DictionaryUtil.nullValue()) {
+                writeString(output, REF_NETWORK_ADDRESS, ref.getPeerHost());
+            } else {
+                writeInt32(output, REF_NETWORK_ADDRESS_ID, ref.getPeerId());
+            }
+        }
+        writeInt32(output, REF_ENTRY_APPLICATION_INSTANCE_ID, ref.getEntryApplicationInstanceId());
+        if (ref.getEntryOperationId() == DictionaryUtil.nullValue()) {
+            writeString(output, REF_ENTRY_SERVICE_NAME, ref.getEntryOperationName());
+        } else {
+            writeInt32(output, REF_ENTRY_SERVICE_ID, ref.getEntryOperationId());
+        }
+        if (ref.getParentOperationId() == DictionaryUtil.nullValue()) {
+            writeString(output, REF_PARENT_SERVICE_NAME, ref.getParentOperationName());
+        } else {
+            writeInt32(output, REF_PARENT_SERVICE_ID, ref.getParentOperationId());
+        }
+    }
+
+    private int refSize(TraceSegmentRef ref) {
+        int slot = reserveMessageSize();
+        boolean isCrossProcess = TraceSegmentRef.SegmentRefType.CROSS_PROCESS.equals(ref.getType());
+        int size = int32Size(REF_TYPE, refType(isCrossProcess));
+        size += messageSize(REF_PARENT_SEGMENT_ID, idSize(ref.getTraceSegmentId()));
+        size += int32Size(REF_PARENT_SPAN_ID, ref.getSpanId());
+        if (isCrossProcess) {
+            size += int32Size(REF_PARENT_APPLICATION_INSTANCE_ID, ref.getParentApplicationInstanceId());
+            if (ref.getPeerId() == DictionaryUtil.nullValue()) {
+                size += stringSize(REF_NETWORK_ADDRESS, ref.getPeerHost());
+            } else {
+                size += int32Size(REF_NETWORK_ADDRESS_ID, ref.getPeerId());
+            }
+        }
+        size += int32Size(REF_ENTRY_APPLICATION_INSTANCE_ID, ref.getEntryApplicationInstanceId());
+        if (ref.getEntryOperationId() == DictionaryUtil.nullValue()) {
+            size += stringSize(REF_ENTRY_SERVICE_NAME, ref.getEntryOperationName());
+        } else {
+            size += int32Size(REF_ENTRY_SERVICE_ID, ref.getEntryOperationId());
+        }
+        if (ref.getParentOperationId() == DictionaryUtil.nullValue()) {
+            size += stringSize(REF_PARENT_SERVICE_NAME, ref.getParentOperationName());
+        } else {
+            size += int32Size(REF_PARENT_SERVICE_ID, ref.getParentOperationId());
+        }
+        messageSizes[slot] = size;
+        return size;
+    }
+
+    private int refType(boolean isCrossProcess) {
+        return isCrossProcess ? RefType.CrossProcess.getNumber() : RefType.CrossThread.getNumber();
+    }
+
+    private void writeLog(CodedOutputStream output, LogDataEntity log) throws IOException {
+        writeInt64(output, LOG_TIME, log.getTimestamp());
+        for (KeyValuePair data : log.getLogs()) {
+            writeMessageHeader(output, LOG_DATA, nextMessageSize());
+            writeKeyValue(output, data.getKey(), data.getValue());
+        }
+    }
+
+    private int logSize(LogDataEntity log) {
+        int slot = reserveMessageSize();
+        int size = int64Size(LOG_TIME, log.getTimestamp());
+        for (KeyValuePair data : log.getLogs()) {
+            size += messageSize(LOG_DATA, keyValueSize(data.getKey(), data.getValue()));
+        }
+        messageSizes[slot] = size;
+        return size;
+    }
+
+    private void writeKeyValue(CodedOutputStream output, String key, String value) throws IOException {
+        writeString(output, KEY_VALUE_KEY, key);
+        writeString(output, KEY_VALUE_VALUE, value);
+    }
+
+    private int keyValueSize(String key, String value) {
+        int slot = reserveMessageSize();
+        int size = stringSize(KEY_VALUE_KEY, key) + stringSize(KEY_VALUE_VALUE, value);
+        messageSizes[slot] = size;
+        return size;
+    }
+
+    /**
+     * Reserve the slot of a nested message before its children are sized, so the slots follow the write order.
+     */
+    private int reserveMessageSize() {
+        if (messageCount == messageSizes.length) {
+            int[] grown = new int[messageSizes.length * 2];
+            System.arraycopy(messageSizes, 0, grown, 0, messageCount);
+            messageSizes = grown;
+        }
+        return messageCount++;
+    }
+
+    private int nextMessageSize() {
+        return messageSizes[messageCursor++];
+    }
+
+    /**
+     * <code>UniqueId</code> holds the parts in a packed repeated field.
+     */
+    private void writeId(CodedOutputStream output, int fieldNumber, ID id) throws IOException {
+        int partsSize = idPartsSize(id);
+        writeMessageHeader(output, fieldNumber, messageSize(UNIQUE_ID_PARTS, partsSize));
+        writeMessageHeader(output, UNIQUE_ID_PARTS, partsSize);
+        output.writeInt64NoTag(id.getPart1());
+        output.writeInt64NoTag(id.getPart2());
+        output.writeInt64NoTag(id.getPart3());
+    }
+
+    private int idSize(ID id) {
+        return messageSize(UNIQUE_ID_PARTS, idPartsSize(id));
+    }
+
+    private int idPartsSize(ID id) {
+        return CodedOutputStream.computeInt64SizeNoTag(id.getPart1())
+            + CodedOutputStream.computeInt64SizeNoTag(id.getPart2())
+            + CodedOutputStream.computeInt64SizeNoTag(id.getPart3());
+    }
+
+    /**
+     * Proto3 doesn't write the fields which have the default value, neither does this encoder.
+     */
+    private static void writeInt32(CodedOutputStream output, int fieldNumber, int value) throws IOException {
+        if (value != 0) {
+            output.writeInt32(fieldNumber, value);
+        }
+    }
+
+    private static void writeInt64(CodedOutputStream output, int fieldNumber, long value) throws IOException {
+        if (value != 0) {
+            output.writeInt64(fieldNumber, value);
+        }
+    }
+
+    private static void writeBool(CodedOutputStream output, int fieldNumber, boolean value) throws IOException {
+        if (value) {
+            output.writeBool(fieldNumber, true);
+        }
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null && value.length() > 0) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    private static void writeMessageHeader(CodedOutputStream output, int fieldNumber, int size) throws IOException {
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(size);
+    }
+
+    private static int int32Size(int fieldNumber, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(fieldNumber, value);
+    }
+
+    private static int int64Size(int fieldNumber, long value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt64Size(fieldNumber, value);
+    }
+
+    private static int boolSize(int fieldNumber, boolean value) {
+        return value ? CodedOutputStream.computeBoolSize(fieldNumber, true) : 0;
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return value == null || value.length() == 0 ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    private static int messageSize(int fieldNumber, int size) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+}
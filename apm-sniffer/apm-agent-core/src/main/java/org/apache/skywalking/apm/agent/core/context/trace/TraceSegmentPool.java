@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The <code>TraceSegmentPool</code> keeps the sent {@link TraceSegment}s, including their spans, for reusing, when
+ * {@link Config.Agent#RECYCLE_TRACING_OBJECTS} is true.
+ *
+ * The segments are created by the application threads, but recycled by the uplink consumer thread, so a pure thread
+ * local pool never gets anything back. Instead, the pool is split into stripes by thread id, and a segment always goes
+ * back to the stripe of the thread which obtained it. Each stripe has its own lock, which is rarely contended.
+ */
+public enum TraceSegmentPool {
+    INSTANCE;
+
+    private static final int STRIPE_COUNT = 16;
+    private static final int STRIPE_CAPACITY = 64;
+
+    private final Stripe[] stripes;
+
+    TraceSegmentPool() {
+        stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return a recycled segment of current thread's stripe, or a new one if none.
+     */
+    public TraceSegment obtain() {
+        if (!Config.Agent.RECYCLE_TRACING_OBJECTS) {
+            return new TraceSegment();
+        }
+
+        int index = (int)(Thread.currentThread().getId() % STRIPE_COUNT);
+        TraceSegment segment = stripes[index].poll();
+        if (segment == null) {
+            segment = new TraceSegment();
+        } else {
+            segment.reuse();
+        }
+        segment.setPoolIndex(index);
+        return segment;
+    }
+
+    /**
+     * Give back the segment, which must not be accessed anymore. The segments, which were not obtained from the pool
+     * or have been recycled already, are ignored.
+     */
+    public void recycle(TraceSegment segment) {
+        int index = segment.getPoolIndex();
+        if (index < 0 || segment.isRecycled()) {
+            return;
+        }
+        segment.recycle();
+        stripes[index].offer(segment);
+    }
+
+    private static class Stripe {
+        private final TraceSegment[] segments = new TraceSegment[STRIPE_CAPACITY];
+        private int size = 0;
+
+        private synchronized TraceSegment poll() {
+            if (size == 0) {
+                return null;
+            }
+            TraceSegment segment = segments[--size];
+            segments[size] = null;
+            return segment;
+        }
+
+        private synchronized void offer(TraceSegment segment) {
+            if (size < STRIPE_CAPACITY) {
+                segments[size++] = segment;
+            }
+        }
+    }
+}
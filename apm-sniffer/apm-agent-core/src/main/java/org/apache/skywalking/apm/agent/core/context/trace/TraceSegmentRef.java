@@ -107,6 +107,38 @@ public class TraceSegmentRef {
         }
     }
 
+    SegmentRefType getType() {
+        return type;
+    }
+
+    ID getTraceSegmentId() {
+        return traceSegmentId;
+    }
+
+    int getSpanId() {
+        return spanId;
+    }
+
+    int getPeerId() {
+        return peerId;
+    }
+
+    String getPeerHost() {
+        return peerHost;
+    }
+
+    int getParentApplicationInstanceId() {
+        return parentApplicationInstanceId;
+    }
+
+    String getParentOperationName() {
+        return parentOperationName;
+    }
+
+    int getParentOperationId() {
+        return parentOperationId;
+    }
+
     public String getEntryOperationName() {
         return entryOperationName;
     }
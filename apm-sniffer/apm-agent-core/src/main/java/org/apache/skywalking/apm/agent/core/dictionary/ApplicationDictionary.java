@@ -19,16 +19,25 @@
 
 package org.apache.skywalking.apm.agent.core.dictionary;
 
+import io.grpc.stub.StreamObserver;
 import io.netty.util.internal.ConcurrentSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.network.proto.Application;
 import org.apache.skywalking.apm.network.proto.ApplicationMapping;
 import org.apache.skywalking.apm.network.proto.ApplicationRegisterServiceGrpc;
 import org.apache.skywalking.apm.network.proto.KeyWithIntegerValue;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.APPLICATION_CODE_BUFFER_SIZE;
+import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.REGISTER_TIMEOUT;
 
 /**
  * Map of application id to application code, which is from the collector side.
@@ -37,8 +46,11 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.APPLIC
  */
 public enum ApplicationDictionary {
     INSTANCE;
+    private static final ILog logger = LogManager.getLogger(ApplicationDictionary.class);
+
     private Map<String, Integer> applicationDictionary = new ConcurrentHashMap<String, Integer>();
     private Set<String> unRegisterApplications = new ConcurrentSet<String>();
+    private RegisterPager<String> pager = new RegisterPager<String>();
 
     public PossibleFound find(String applicationCode) {
         Integer applicationId = applicationDictionary.get(applicationCode);
@@ -52,17 +64,75 @@ public enum ApplicationDictionary {
         }
     }
 
+    /**
+     * Send the unregistered application codes page by page asynchronously, until all of them are in-flight, too many
+     * pages are in-flight, or a page fails. A completed page triggers the next one. The codes in-flight are not sent
+     * again.
+     */
     public void syncRemoteDictionary(
-        ApplicationRegisterServiceGrpc.ApplicationRegisterServiceBlockingStub applicationRegisterServiceBlockingStub) {
-        if (unRegisterApplications.size() > 0) {
-            ApplicationMapping applicationMapping = applicationRegisterServiceBlockingStub.register(
-                Application.newBuilder().addAllApplicationCode(unRegisterApplications).build());
-            if (applicationMapping.getApplicationCount() > 0) {
-                for (KeyWithIntegerValue keyWithIntegerValue : applicationMapping.getApplicationList()) {
-                    unRegisterApplications.remove(keyWithIntegerValue.getKey());
-                    applicationDictionary.put(keyWithIntegerValue.getKey(), keyWithIntegerValue.getValue());
-                }
+        final ApplicationRegisterServiceGrpc.ApplicationRegisterServiceStub applicationRegisterServiceStub) {
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        while (!failed.get() && !unRegisterApplications.isEmpty()) {
+            final List<String> page = pager.nextPage(unRegisterApplications);
+            if (page.isEmpty()) {
+                return;
             }
+            register(applicationRegisterServiceStub, page, failed);
+        }
+    }
+
+    private void register(final ApplicationRegisterServiceGrpc.ApplicationRegisterServiceStub applicationRegisterServiceStub,
+        final List<String> page, final AtomicBoolean failed) {
+        applicationRegisterServiceStub.withDeadlineAfter(REGISTER_TIMEOUT, TimeUnit.SECONDS).register(Application.newBuilder().addAllApplicationCode(page).build(),
+            new StreamObserver<ApplicationMapping>() {
+                @Override
+                public void onNext(ApplicationMapping applicationMapping) {
+                    for (KeyWithIntegerValue keyWithIntegerValue : applicationMapping.getApplicationList()) {
+                        unRegisterApplications.remove(keyWithIntegerValue.getKey());
+                        applicationDictionary.put(keyWithIntegerValue.getKey(), keyWithIntegerValue.getValue());
+                        pager.registered(keyWithIntegerValue.getKey());
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    logger.error(t, "Register application codes fail.");
+                    failed.set(true);
+                    pager.failed(page);
+                }
+
+                @Override
+                public void onCompleted() {
+                    List<String> unresolved = new ArrayList<String>();
+                    for (String applicationCode : page) {
+                        if (unRegisterApplications.contains(applicationCode)) {
+                            unresolved.add(applicationCode);
+                        }
+                    }
+                    pager.completed(unresolved);
+                    syncRemoteDictionary(applicationRegisterServiceStub);
+                }
+            });
+    }
+
+    /**
+     * Put the application id, which is registered in the collector before, e.g. loaded by {@link DictionaryCache}. It
+     * is used right away, without registering the application code again.
+     */
+    void restore(String applicationCode, int applicationId) {
+        if (!applicationDictionary.containsKey(applicationCode)) {
+            applicationDictionary.put(applicationCode, applicationId);
+            unRegisterApplications.remove(applicationCode);
         }
     }
+
+    Map<String, Integer> registered() {
+        return new HashMap<String, Integer>(applicationDictionary);
+    }
+
+    void clear() {
+        applicationDictionary.clear();
+        unRegisterApplications.clear();
+        pager.clear();
+    }
 }
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.dictionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.proto.ServiceNameCollection;
+import org.apache.skywalking.apm.network.proto.ServiceNameDiscoveryServiceGrpc;
+import org.apache.skywalking.apm.network.proto.ServiceNameElement;
+import org.apache.skywalking.apm.network.proto.ServiceNameMappingCollection;
+import org.apache.skywalking.apm.network.proto.ServiceNameMappingElement;
+
+import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.REGISTER_TIMEOUT;
+
+/**
+ * The <code>DictionaryCache</code> persists the application id, the {@link ApplicationDictionary} and the {@link
+ * OperationNameDictionary} into a local file, and loads them at the next boot. So the restarted agent uses the known
+ * ids right away, rather than registering all names again when they are seen. The collector assigns the ids
+ * sequentially and reuses them for other names after its storage is reset, so the loaded ids are held back until the
+ * collector confirms the cached application id and one sampled operation name id, see {@link
+ * #confirm(ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceBlockingStub)}.
+ *
+ * The file is keyed by the application code and the collector servers, ids registered in one collector cluster are
+ * never used for another one.
+ */
+public class DictionaryCache {
+    private static final ILog logger = LogManager.getLogger(DictionaryCache.class);
+
+    private static final int MAGIC = 0x534b4443;
+    private static final int VERSION = 1;
+    /**
+     * Longer names are not cached, {@link DataOutputStream#writeUTF(String)} supports 65535 bytes at most.
+     */
+    private static final int MAX_NAME_LENGTH = 65535 / 3;
+
+    private final File file;
+    private final String applicationCode;
+    private int savedApplicationId = DictionaryUtil.nullValue();
+    private int savedApplicationCount = -1;
+    private int savedOperationNameCount = -1;
+    /**
+     * The loaded dictionaries, held until confirmed by the collector. Null if nothing to confirm.
+     */
+    private Map<String, Integer> loadedApplications;
+    private Map<OperationNameDictionary.OperationNameKey, Integer> loadedOperationNames;
+
+    public DictionaryCache(File dir, String applicationCode, String collectorServers) {
+        this.applicationCode = applicationCode;
+        this.file = new File(dir, fileName(applicationCode, collectorServers));
+    }
+
+    /**
+     * The servers are sorted, so the same cluster maps to the same file whatever the configured order is.
+     */
+    static String fileName(String applicationCode, String collectorServers) {
+        String[] servers = collectorServers.split(",");
+        for (int i = 0; i < servers.length; i++) {
+            servers[i] = servers[i].trim();
+        }
+        Arrays.sort(servers);
+        StringBuilder cluster = new StringBuilder();
+        for (String server : servers) {
+            cluster.append(server).append(',');
+        }
+        return applicationCode.replaceAll("[^A-Za-z0-9_.-]", "_") + "-" + Integer.toHexString(cluster.toString().hashCode()) + ".dict";
+    }
+
+    /**
+     * Load the cached dictionaries, if the file exists. They are not used before {@link
+     * #confirm(ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceBlockingStub)}.
+     *
+     * @return the cached application id, or {@link DictionaryUtil#nullValue()} if no cache loaded.
+     */
+    public synchronized int load() {
+        if (!file.exists()) {
+            return DictionaryUtil.nullValue();
+        }
+
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || !applicationCode.equals(input.readUTF())) {
+                logger.warn("Ignore the dictionary cache {}, which is not compatible.", file);
+                return DictionaryUtil.nullValue();
+            }
+
+            int applicationId = input.readInt();
+            int applicationCount = input.readInt();
+            Map<String, Integer> applications = new HashMap<String, Integer>(applicationCount);
+            for (int i = 0; i < applicationCount; i++) {
+                applications.put(input.readUTF(), input.readInt());
+            }
+            int operationNameCount = input.readInt();
+            Map<OperationNameDictionary.OperationNameKey, Integer> operationNames = new HashMap<OperationNameDictionary.OperationNameKey, Integer>(operationNameCount);
+            for (int i = 0; i < operationNameCount; i++) {
+                operationNames.put(new OperationNameDictionary.OperationNameKey(input.readInt(), input.readUTF()), input.readInt());
+            }
+
+            loadedApplications = applications;
+            loadedOperationNames = operationNames;
+            savedApplicationId = applicationId;
+            savedApplicationCount = applicationCount;
+            savedOperationNameCount = operationNameCount;
+            logger.info("Dictionary cache {} loaded, {} application codes, {} operation names.", file, applicationCount, operationNameCount);
+            return applicationId;
+        } catch (IOException e) {
+            logger.error(e, "Fail to load the dictionary cache {}.", file);
+            clear();
+            return DictionaryUtil.nullValue();
+        } finally {
+            close(input);
+        }
+    }
+
+    /**
+     * Check the operation name with the highest cached id, i.e. the last registered one, with the collector. After the
+     * collector storage is reset, the name is unknown or registered with another id. The loaded dictionaries are used
+     * once the id matches, the other names are not sent to the collector.
+     *
+     * @return false if the collector doesn't recognize the sampled id, then the cache should be invalidated.
+     */
+    public synchronized boolean confirm(
+        ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceBlockingStub serviceNameDiscoveryServiceBlockingStub) {
+        if (loadedApplications == null) {
+            return true;
+        }
+
+        Map.Entry<OperationNameDictionary.OperationNameKey, Integer> sample = null;
+        for (Map.Entry<OperationNameDictionary.OperationNameKey, Integer> entry : loadedOperationNames.entrySet()) {
+            if (sample == null || entry.getValue() > sample.getValue()) {
+                sample = entry;
+            }
+        }
+        if (sample != null) {
+            ServiceNameMappingCollection mapping = serviceNameDiscoveryServiceBlockingStub.withDeadlineAfter(REGISTER_TIMEOUT, TimeUnit.SECONDS)
+                .discovery(ServiceNameCollection.newBuilder().addElements(ServiceNameElement.newBuilder()
+                    .setApplicationId(sample.getKey().getApplicationId())
+                    .setServiceName(sample.getKey().getOperationName())).build());
+            boolean matched = false;
+            for (ServiceNameMappingElement element : mapping.getElementsList()) {
+                if (sample.getKey().equals(new OperationNameDictionary.OperationNameKey(element.getElement().getApplicationId(), element.getElement().getServiceName()))
+                    && sample.getValue() == element.getServiceId()) {
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : loadedApplications.entrySet()) {
+            ApplicationDictionary.INSTANCE.restore(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<OperationNameDictionary.OperationNameKey, Integer> entry : loadedOperationNames.entrySet()) {
+            OperationNameDictionary.INSTANCE.restore(entry.getKey().getApplicationId(), entry.getKey().getOperationName(), entry.getValue());
+        }
+        loadedApplications = null;
+        loadedOperationNames = null;
+        return true;
+    }
+
+    /**
+     * Save the dictionaries, if anything registered after the last load or save. The file isn't replaced before the
+     * loaded dictionaries are confirmed, it would lose them.
+     */
+    public synchronized void saveIfChanged(int applicationId) {
+        if (applicationId == DictionaryUtil.nullValue() || loadedApplications != null) {
+            return;
+        }
+
+        Map<String, Integer> applications = ApplicationDictionary.INSTANCE.registered();
+        Map<OperationNameDictionary.OperationNameKey, Integer> operationNames = OperationNameDictionary.INSTANCE.registered();
+        if (applicationId == savedApplicationId && applications.size() == savedApplicationCount
+            && operationNames.size() == savedOperationNameCount) {
+            return;
+        }
+
+        List<Map.Entry<String, Integer>> applicationEntries = new ArrayList<Map.Entry<String, Integer>>(applications.size());
+        for (Map.Entry<String, Integer> entry : applications.entrySet()) {
+            if (entry.getKey().length() <= MAX_NAME_LENGTH) {
+                applicationEntries.add(entry);
+            }
+        }
+        List<Map.Entry<OperationNameDictionary.OperationNameKey, Integer>> operationNameEntries = new ArrayList<Map.Entry<OperationNameDictionary.OperationNameKey, Integer>>(operationNames.size());
+        for (Map.Entry<OperationNameDictionary.OperationNameKey, Integer> entry : operationNames.entrySet()) {
+            if (entry.getKey().getOperationName().length() <= MAX_NAME_LENGTH) {
+                operationNameEntries.add(entry);
+            }
+        }
+
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            logger.warn("Fail to create the dictionary cache directory {}.", dir);
+            return;
+        }
+
+        File tempFile = new File(dir, file.getName() + ".tmp");
+        DataOutputStream output = null;
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(applicationCode);
+            output.writeInt(applicationId);
+            output.writeInt(applicationEntries.size());
+            for (Map.Entry<String, Integer> entry : applicationEntries) {
+                output.writeUTF(entry.getKey());
+                output.writeInt(entry.getValue());
+            }
+            output.writeInt(operationNameEntries.size());
+            for (Map.Entry<OperationNameDictionary.OperationNameKey, Integer> entry : operationNameEntries) {
+                output.writeInt(entry.getKey().getApplicationId());
+                output.writeUTF(entry.getKey().getOperationName());
+                output.writeInt(entry.getValue());
+            }
+            output.close();
+            output = null;
+
+            if ((file.exists() && !file.delete()) || !tempFile.renameTo(file)) {
+                logger.warn("Fail to replace the dictionary cache {}.", file);
+                return;
+            }
+            savedApplicationId = applicationId;
+            savedApplicationCount = applications.size();
+            savedOperationNameCount = operationNames.size();
+        } catch (IOException e) {
+            logger.error(e, "Fail to save the dictionary cache {}.", file);
+        } finally {
+            close(output);
+        }
+    }
+
+    /**
+     * Drop the loaded dictionaries and delete the cache, called when the collector doesn't recognize the cached ids,
+     * e.g. the collector storage has been reset.
+     */
+    public synchronized void invalidate() {
+        clear();
+        if (file.exists() && !file.delete()) {
+            logger.warn("Fail to delete the dictionary cache {}.", file);
+        }
+    }
+
+    private void clear() {
+        loadedApplications = null;
+        loadedOperationNames = null;
+        savedApplicationId = DictionaryUtil.nullValue();
+        savedApplicationCount = -1;
+        savedOperationNameCount = -1;
+    }
+
+    private void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -19,10 +19,18 @@
 
 package org.apache.skywalking.apm.agent.core.dictionary;
 
+import io.grpc.stub.StreamObserver;
 import io.netty.util.internal.ConcurrentSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.network.proto.ServiceNameCollection;
 import org.apache.skywalking.apm.network.proto.ServiceNameDiscoveryServiceGrpc;
 import org.apache.skywalking.apm.network.proto.ServiceNameElement;
@@ -30,14 +38,18 @@ import org.apache.skywalking.apm.network.proto.ServiceNameMappingCollection;
 import org.apache.skywalking.apm.network.proto.ServiceNameMappingElement;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.OPERATION_NAME_BUFFER_SIZE;
+import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.REGISTER_TIMEOUT;
 
 /**
  * @author wusheng
  */
 public enum OperationNameDictionary {
     INSTANCE;
+    private static final ILog logger = LogManager.getLogger(OperationNameDictionary.class);
+
     private Map<OperationNameKey, Integer> operationNameDictionary = new ConcurrentHashMap<OperationNameKey, Integer>();
     private Set<OperationNameKey> unRegisterOperationNames = new ConcurrentSet<OperationNameKey>();
+    private RegisterPager<OperationNameKey> pager = new RegisterPager<OperationNameKey>();
 
     public PossibleFound findOrPrepare4Register(int applicationId, String operationName) {
         return find0(applicationId, operationName, true);
@@ -64,31 +76,90 @@ public enum OperationNameDictionary {
         }
     }
 
+    /**
+     * Send the unregistered operation names page by page asynchronously, until all of them are in-flight, too many
+     * pages are in-flight, or a page fails. A completed page triggers the next one. The names in-flight are not sent
+     * again.
+     */
     public void syncRemoteDictionary(
-        ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceBlockingStub serviceNameDiscoveryServiceBlockingStub) {
-        if (unRegisterOperationNames.size() > 0) {
-            ServiceNameCollection.Builder builder = ServiceNameCollection.newBuilder();
-            for (OperationNameKey operationNameKey : unRegisterOperationNames) {
-                ServiceNameElement serviceNameElement = ServiceNameElement.newBuilder()
-                    .setApplicationId(operationNameKey.getApplicationId())
-                    .setServiceName(operationNameKey.getOperationName())
-                    .build();
-                builder.addElements(serviceNameElement);
+        final ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceStub serviceNameDiscoveryServiceStub) {
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        while (!failed.get() && !unRegisterOperationNames.isEmpty()) {
+            final List<OperationNameKey> page = pager.nextPage(unRegisterOperationNames);
+            if (page.isEmpty()) {
+                return;
             }
-            ServiceNameMappingCollection serviceNameMappingCollection = serviceNameDiscoveryServiceBlockingStub.discovery(builder.build());
-            if (serviceNameMappingCollection.getElementsCount() > 0) {
+            discovery(serviceNameDiscoveryServiceStub, page, failed);
+        }
+    }
+
+    private void discovery(final ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceStub serviceNameDiscoveryServiceStub,
+        final List<OperationNameKey> page, final AtomicBoolean failed) {
+        ServiceNameCollection.Builder builder = ServiceNameCollection.newBuilder();
+        for (OperationNameKey operationNameKey : page) {
+            ServiceNameElement serviceNameElement = ServiceNameElement.newBuilder()
+                .setApplicationId(operationNameKey.getApplicationId())
+                .setServiceName(operationNameKey.getOperationName())
+                .build();
+            builder.addElements(serviceNameElement);
+        }
+        serviceNameDiscoveryServiceStub.withDeadlineAfter(REGISTER_TIMEOUT, TimeUnit.SECONDS).discovery(builder.build(), new StreamObserver<ServiceNameMappingCollection>() {
+            @Override
+            public void onNext(ServiceNameMappingCollection serviceNameMappingCollection) {
                 for (ServiceNameMappingElement serviceNameMappingElement : serviceNameMappingCollection.getElementsList()) {
                     OperationNameKey key = new OperationNameKey(
                         serviceNameMappingElement.getElement().getApplicationId(),
                         serviceNameMappingElement.getElement().getServiceName());
                     unRegisterOperationNames.remove(key);
                     operationNameDictionary.put(key, serviceNameMappingElement.getServiceId());
+                    pager.registered(key);
                 }
             }
+
+            @Override
+            public void onError(Throwable t) {
+                logger.error(t, "Register operation names fail.");
+                failed.set(true);
+                pager.failed(page);
+            }
+
+            @Override
+            public void onCompleted() {
+                List<OperationNameKey> unresolved = new ArrayList<OperationNameKey>();
+                for (OperationNameKey key : page) {
+                    if (unRegisterOperationNames.contains(key)) {
+                        unresolved.add(key);
+                    }
+                }
+                pager.completed(unresolved);
+                syncRemoteDictionary(serviceNameDiscoveryServiceStub);
+            }
+        });
+    }
+
+    /**
+     * Put the operation id, which is registered in the collector before, e.g. loaded by {@link DictionaryCache}. It is
+     * used right away, without registering the operation name again.
+     */
+    void restore(int applicationId, String operationName, int operationId) {
+        OperationNameKey key = new OperationNameKey(applicationId, operationName);
+        if (!operationNameDictionary.containsKey(key)) {
+            operationNameDictionary.put(key, operationId);
+            unRegisterOperationNames.remove(key);
         }
     }
 
-    private class OperationNameKey {
+    Map<OperationNameKey, Integer> registered() {
+        return new HashMap<OperationNameKey, Integer>(operationNameDictionary);
+    }
+
+    void clear() {
+        operationNameDictionary.clear();
+        unRegisterOperationNames.clear();
+        pager.clear();
+    }
+
+    static class OperationNameKey {
         private int applicationId;
         private String operationName;
 
@@ -37,6 +37,18 @@ public abstract class PossibleFound {
         this.found = false;
     }
 
+    /**
+     * Check {@link #isFound()} and {@link #getValue()} directly in the hot path, which doesn't need the callback
+     * objects of {@link #doInCondition(FoundAndObtain, NotFoundAndObtain)}.
+     */
+    public boolean isFound() {
+        return found;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
     public void doInCondition(Found condition1, NotFound condition2) {
         if (found) {
             condition1.doProcess(value);
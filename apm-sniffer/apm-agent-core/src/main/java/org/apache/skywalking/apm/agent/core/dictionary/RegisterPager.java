@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.dictionary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The <code>RegisterPager</code> splits the unregistered keys of a dictionary into bounded pages, and tracks the keys
+ * which have been sent. A key is not sent again, until its register request completed and one register check interval
+ * passed, because the collector registers the new keys asynchronously.
+ *
+ * At most {@link #MAX_IN_FLIGHT_REQUESTS} pages are in-flight, a new page is given when one of them completes.
+ */
+class RegisterPager<K> {
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+    static final int MAX_IN_FLIGHT_REQUESTS = 4;
+
+    /**
+     * Key to the earliest time it could be sent again.
+     */
+    private final Map<K, Long> sentKeys = new ConcurrentHashMap<K, Long>();
+    private int inFlightRequests;
+
+    /**
+     * @return at most {@link Config.Dictionary#REGISTER_PAGE_SIZE} keys, which could be sent now, or an empty page if
+     * {@link #MAX_IN_FLIGHT_REQUESTS} pages are in-flight. The keys are tracked as in-flight until {@link
+     * #registered(Object)}, {@link #completed(Collection)} or {@link #failed(Collection)}.
+     */
+    synchronized List<K> nextPage(Set<K> unRegisterKeys) {
+        if (inFlightRequests >= MAX_IN_FLIGHT_REQUESTS) {
+            return Collections.emptyList();
+        }
+        int pageSize = Math.max(1, Config.Dictionary.REGISTER_PAGE_SIZE);
+        long now = System.currentTimeMillis();
+        List<K> page = new ArrayList<K>(Math.min(pageSize, unRegisterKeys.size()));
+        for (K key : unRegisterKeys) {
+            Long notBefore = sentKeys.get(key);
+            if (notBefore != null && notBefore > now) {
+                continue;
+            }
+            sentKeys.put(key, IN_FLIGHT);
+            page.add(key);
+            if (page.size() >= pageSize) {
+                break;
+            }
+        }
+        if (!page.isEmpty()) {
+            inFlightRequests++;
+        }
+        return page;
+    }
+
+    void registered(K key) {
+        sentKeys.remove(key);
+    }
+
+    /**
+     * The register request of a page completed. Its keys answered by the collector without id are asked again after one
+     * register check interval.
+     */
+    synchronized void completed(Collection<K> unresolvedKeys) {
+        requestFinished();
+        long notBefore = System.currentTimeMillis() + Config.Collector.APP_AND_SERVICE_REGISTER_CHECK_INTERVAL * 1000;
+        for (K key : unresolvedKeys) {
+            sentKeys.put(key, notBefore);
+        }
+    }
+
+    /**
+     * The register request failed, the keys could be sent at the next sync.
+     */
+    synchronized void failed(Collection<K> keys) {
+        requestFinished();
+        for (K key : keys) {
+            sentKeys.remove(key);
+        }
+    }
+
+    /**
+     * A request sent before {@link #clear()} may finish after it.
+     */
+    private void requestFinished() {
+        if (inFlightRequests > 0) {
+            inFlightRequests--;
+        }
+    }
+
+    synchronized void clear() {
+        sentKeys.clear();
+        inFlightRequests = 0;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.jvm;
+
+import java.util.List;
+import org.apache.skywalking.apm.network.proto.GC;
+import org.apache.skywalking.apm.network.proto.JVMMetric;
+import org.apache.skywalking.apm.network.proto.JVMMetrics;
+import org.apache.skywalking.apm.network.proto.Memory;
+import org.apache.skywalking.apm.network.proto.MemoryPool;
+
+/**
+ * The <code>JVMMetricsCompactor</code> adds the sampled {@link JVMMetric}s into a compact {@link JVMMetrics}. The first
+ * sample is added as it is. Each following sample only carries the gc count and time as deltas of the previous sample,
+ * and the memory and memory pool readings which changed since the previous sample.
+ * <p>
+ * Every report starts with a complete sample, so the collector never needs the previous report to expand it.
+ */
+public class JVMMetricsCompactor {
+    private JVMMetricsCompactor() {
+    }
+
+    public static void compact(List<JVMMetric> samples, JVMMetrics.Builder builder) {
+        builder.setCompact(true);
+
+        JVMMetric previous = null;
+        for (JVMMetric sample : samples) {
+            if (previous == null) {
+                builder.addMetrics(sample);
+            } else {
+                JVMMetric.Builder metricBuilder = JVMMetric.newBuilder();
+                metricBuilder.setTime(sample.getTime());
+                metricBuilder.setCpu(sample.getCpu());
+                for (Memory memory : sample.getMemoryList()) {
+                    if (!memory.equals(findMemory(previous.getMemoryList(), memory.getIsHeap()))) {
+                        metricBuilder.addMemory(memory);
+                    }
+                }
+                for (MemoryPool memoryPool : sample.getMemoryPoolList()) {
+                    if (!memoryPool.equals(findMemoryPool(previous.getMemoryPoolList(), memoryPool.getType().getNumber()))) {
+                        metricBuilder.addMemoryPool(memoryPool);
+                    }
+                }
+                for (GC gc : sample.getGcList()) {
+                    GC previousGC = findGC(previous.getGcList(), gc.getPhraseValue());
+                    if (previousGC == null) {
+                        metricBuilder.addGc(gc);
+                    } else {
+                        metricBuilder.addGc(GC.newBuilder().setPhrase(gc.getPhrase())
+                            .setCount(gc.getCount() - previousGC.getCount())
+                            .setTime(gc.getTime() - previousGC.getTime()));
+                    }
+                }
+                builder.addMetrics(metricBuilder);
+            }
+            previous = sample;
+        }
+    }
+
+    private static Memory findMemory(List<Memory> memories, boolean isHeap) {
+        for (Memory memory : memories) {
+            if (memory.getIsHeap() == isHeap) {
+                return memory;
+            }
+        }
+        return null;
+    }
+
+    private static MemoryPool findMemoryPool(List<MemoryPool> memoryPools, int type) {
+        for (MemoryPool memoryPool : memoryPools) {
+            if (memoryPool.getType().getNumber() == type) {
+                return memoryPool;
+            }
+        }
+        return null;
+    }
+
+    private static GC findGC(List<GC> gcs, int phrase) {
+        for (GC gc : gcs) {
+            if (gc.getPhraseValue() == phrase) {
+                return gc;
+            }
+        }
+        return null;
+    }
+}
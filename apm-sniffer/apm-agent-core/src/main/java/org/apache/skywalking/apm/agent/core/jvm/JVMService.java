@@ -20,7 +20,7 @@
 package org.apache.skywalking.apm.agent.core.jvm;
 
 import io.grpc.ManagedChannel;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
@@ -57,6 +57,11 @@ public class JVMService implements BootService, Runnable {
     private volatile ScheduledFuture<?> collectMetricFuture;
     private volatile ScheduledFuture<?> sendMetricFuture;
     private Sender sender;
+    /**
+     * Only used by the produce thread, cleared and reused for every sample.
+     */
+    private final JVMMetric.Builder jvmBuilder = JVMMetric.newBuilder();
+
     @Override
     public void beforeBoot() throws Throwable {
         queue = new LinkedBlockingQueue(Config.Jvm.BUFFER_SIZE);
@@ -68,10 +73,10 @@ public class JVMService implements BootService, Runnable {
     public void boot() throws Throwable {
         collectMetricFuture = Executors
             .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("JVMService-produce"))
-            .scheduleAtFixedRate(this, 0, 1, TimeUnit.SECONDS);
+            .scheduleAtFixedRate(this, 0, Config.Jvm.SAMPLE_INTERVAL, TimeUnit.SECONDS);
         sendMetricFuture = Executors
             .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("JVMService-consume"))
-            .scheduleAtFixedRate(sender, 0, 1, TimeUnit.SECONDS);
+            .scheduleAtFixedRate(sender, 0, Config.Jvm.REPORT_INTERVAL, TimeUnit.SECONDS);
     }
 
     @Override
@@ -92,7 +97,7 @@ public class JVMService implements BootService, Runnable {
             ) {
             long currentTimeMillis = System.currentTimeMillis();
             try {
-                JVMMetric.Builder jvmBuilder = JVMMetric.newBuilder();
+                jvmBuilder.clear();
                 jvmBuilder.setTime(currentTimeMillis);
                 jvmBuilder.setCpu(CPUProvider.INSTANCE.getCpuMetric());
                 jvmBuilder.addAllMemory(MemoryProvider.INSTANCE.getMemoryMetricList());
@@ -113,6 +118,11 @@ public class JVMService implements BootService, Runnable {
     private class Sender implements Runnable, GRPCChannelListener {
         private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
         private volatile JVMMetricsServiceGrpc.JVMMetricsServiceBlockingStub stub = null;
+        /**
+         * Only used by the consume thread, cleared and reused for every report.
+         */
+        private final ArrayList<JVMMetric> buffer = new ArrayList<JVMMetric>();
+        private final JVMMetrics.Builder builder = JVMMetrics.newBuilder();
 
         @Override
         public void run() {
@@ -121,16 +131,22 @@ public class JVMService implements BootService, Runnable {
                 ) {
                 if (status == GRPCChannelStatus.CONNECTED) {
                     try {
-                        JVMMetrics.Builder builder = JVMMetrics.newBuilder();
-                        LinkedList<JVMMetric> buffer = new LinkedList<JVMMetric>();
                         queue.drainTo(buffer);
                         if (buffer.size() > 0) {
-                            builder.addAllMetrics(buffer);
+                            builder.clear();
+                            if (Config.Jvm.COMPACT_REPORT) {
+                                JVMMetricsCompactor.compact(buffer, builder);
+                            } else {
+                                builder.addAllMetrics(buffer);
+                            }
+                            builder.setSampleInterval(Config.Jvm.SAMPLE_INTERVAL);
                             builder.setApplicationInstanceId(RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID);
                             stub.collect(builder.build());
                         }
                     } catch (Throwable t) {
                         logger.error(t, "send JVM metrics to Collector fail.");
+                    } finally {
+                        buffer.clear();
                     }
                 }
             }
@@ -23,11 +23,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.regex.Matcher;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.Constants;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
-import org.apache.skywalking.apm.util.StringUtil;
 
 /**
  * The <code>EasyLogger</code> is a simple implementation of {@link ILog}.
@@ -36,42 +34,91 @@ import org.apache.skywalking.apm.util.StringUtil;
  */
 public class EasyLogger implements ILog {
 
+    private static final int MAX_REUSED_CAPACITY = 16 * 1024;
+
+    /**
+     * The line builder is reused by the logging thread, to avoid growing a new builder for every line. Only computed
+     * strings are appended, so no other log could be written into it at the same time.
+     */
+    private static final ThreadLocal<StringBuilder> LINE_BUILDER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        }
+    };
+    /**
+     * The timestamp has a second precision, so it is formatted once per second, and shared by all threads.
+     */
+    private static volatile FormattedTimestamp LAST_TIMESTAMP = new FormattedTimestamp(-1, "");
+
     private Class targetClass;
+    private String targetClassName;
 
     public EasyLogger(Class targetClass) {
         this.targetClass = targetClass;
+        this.targetClassName = targetClass.getSimpleName();
     }
 
     protected void logger(LogLevel level, String message, Throwable e) {
         WriterFactory.getLogWriter().write(format(level, message, e));
     }
 
-    private String replaceParam(String message, Object... parameters) {
+    /**
+     * Replace the <code>{}</code>s in the message by the parameters in order, without regex. The <code>{}</code>s
+     * inside the parameters are not replaced. The builder is not reused, because the parameters' toString could log
+     * again.
+     */
+    String replaceParam(String message, Object... parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return message;
+        }
+        StringBuilder builder = new StringBuilder(message.length() + 16 * parameters.length);
         int startSize = 0;
         int parametersIndex = 0;
         int index;
-        String tmpMessage = message;
-        while ((index = message.indexOf("{}", startSize)) != -1) {
-            if (parametersIndex >= parameters.length) {
-                break;
-            }
-            /**
-             * @Fix the Illegal group reference issue
-             */
-            tmpMessage = tmpMessage.replaceFirst("\\{\\}", Matcher.quoteReplacement(String.valueOf(parameters[parametersIndex++])));
+        while (parametersIndex < parameters.length && (index = message.indexOf("{}", startSize)) != -1) {
+            builder.append(message, startSize, index).append(String.valueOf(parameters[parametersIndex++]));
             startSize = index + 2;
         }
-        return tmpMessage;
+        builder.append(message, startSize, message.length());
+        return builder.toString();
     }
 
     String format(LogLevel level, String message, Throwable t) {
-        return StringUtil.join(' ', level.name(),
-            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()),
-            targetClass.getSimpleName(),
-            ": ",
-            message,
-            t == null ? "" : format(t)
-        );
+        StringBuilder builder = LINE_BUILDER.get();
+        if (builder.capacity() > MAX_REUSED_CAPACITY) {
+            builder = new StringBuilder(256);
+            LINE_BUILDER.set(builder);
+        }
+        builder.setLength(0);
+        builder.append(level.name()).append(' ')
+            .append(timestamp()).append(' ')
+            .append(targetClassName).append(' ')
+            .append(": ").append(' ');
+        if (message != null) {
+            builder.append(message);
+        }
+        builder.append(' ');
+        if (t != null) {
+            builder.append(format(t));
+        }
+        return builder.toString();
+    }
+
+    private static String timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        FormattedTimestamp last = LAST_TIMESTAMP;
+        if (last.second != second) {
+            last = new FormattedTimestamp(second, DATE_FORMAT.get().format(new Date(second * 1000)));
+            LAST_TIMESTAMP = last;
+        }
+        return last.text;
     }
 
     String format(Throwable t) {
@@ -157,4 +204,14 @@ public class EasyLogger implements ILog {
             logger(LogLevel.ERROR, format, null);
         }
     }
+
+    private static class FormattedTimestamp {
+        private final long second;
+        private final String text;
+
+        private FormattedTimestamp(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
 }
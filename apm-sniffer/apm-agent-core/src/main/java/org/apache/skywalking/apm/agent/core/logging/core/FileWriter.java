@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.agent.core.logging.core;
 
 import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.util.DaemonThreadFactory;
@@ -28,26 +29,44 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.Constants;
 
 /**
  * The <code>FileWriter</code> support async file output, by using a queue as buffer.
  *
+ * The messages are encoded into a reusable byte buffer by the only consumer thread, and written through a {@link
+ * FileChannel} when the buffer is full or the batch ends. The file is rotated by the consumer thread too. Producers
+ * never wait, a message is dropped if the queue is full, and the amount of dropped messages is logged later.
+ *
  * @author wusheng
  */
 public class FileWriter implements IWriter, EventHandler<LogMessageHolder> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private static FileWriter INSTANCE;
     private static final Object CREATE_LOCK = new Object();
     private Disruptor<LogMessageHolder> disruptor;
     private RingBuffer<LogMessageHolder> buffer;
-    private FileOutputStream fileOutputStream;
+    private FileChannel fileChannel;
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final EasyLogger lineFormatter = new EasyLogger(FileWriter.class);
     private volatile boolean started = false;
-    private volatile int fileSize;
-    private volatile int lineNum;
+    private volatile long fileSize;
 
     public static FileWriter get() {
         if (INSTANCE == null) {
@@ -69,7 +88,6 @@ public class FileWriter implements IWriter, EventHandler<LogMessageHolder> {
         }, 1024, DaemonThreadFactory.INSTANCE);
         disruptor.handleEventsWith(this);
         buffer = disruptor.getRingBuffer();
-        lineNum = 0;
         disruptor.start();
     }
 
@@ -77,74 +95,83 @@ public class FileWriter implements IWriter, EventHandler<LogMessageHolder> {
     public void onEvent(LogMessageHolder event, long sequence, boolean endOfBatch) throws Exception {
         if (hasWriteStream()) {
             try {
-                lineNum++;
-                write(event.getMessage() + Constants.LINE_SEPARATOR, endOfBatch);
+                long dropped = droppedCount.getAndSet(0);
+                if (dropped > 0) {
+                    encode(droppedLine(dropped));
+                }
+                encode(event.getMessage());
+                if (endOfBatch) {
+                    drain();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
             } finally {
                 event.setMessage(null);
+                switchFile();
             }
         }
     }
 
-    private void write(String message, boolean forceFlush) {
+    /**
+     * Formatted like the lines of {@link EasyLogger}, so it is read as any other warning.
+     */
+    String droppedLine(long dropped) {
+        return lineFormatter.format(LogLevel.WARN, dropped + " log messages dropped, because the log queue is full.", null);
+    }
+
+    private void encode(String message) throws IOException {
+        encoder.reset();
+        encode(CharBuffer.wrap(message), false);
+        encode(CharBuffer.wrap(Constants.LINE_SEPARATOR), true);
+        while (encoder.flush(byteBuffer).isOverflow()) {
+            drain();
+        }
+    }
+
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, byteBuffer, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        byteBuffer.flip();
         try {
-            fileOutputStream.write(message.getBytes());
-            fileSize += message.length();
-            if (forceFlush || lineNum % 20 == 0) {
-                fileOutputStream.flush();
+            while (byteBuffer.hasRemaining()) {
+                fileSize += fileChannel.write(byteBuffer);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         } finally {
-            switchFile();
+            byteBuffer.clear();
         }
     }
 
     private void switchFile() {
         if (fileSize > Config.Logging.MAX_FILE_SIZE) {
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream.flush();
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream.close();
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    new File(Config.Logging.DIR, Config.Logging.FILE_NAME)
-                        .renameTo(new File(Config.Logging.DIR,
-                            Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss").format(new Date())));
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream = null;
-                    started = false;
-                    return null;
-                }
-            });
-        }
-    }
-
-    private void forceExecute(Callable callable) {
-        try {
-            callable.call();
-        } catch (Exception e) {
-            e.printStackTrace();
+            try {
+                drain();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            new File(Config.Logging.DIR, Config.Logging.FILE_NAME)
+                .renameTo(new File(Config.Logging.DIR,
+                    Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss").format(new Date())));
+            fileChannel = null;
+            started = false;
         }
     }
 
     private boolean hasWriteStream() {
-        if (fileOutputStream != null) {
+        if (fileChannel != null) {
             return true;
         }
         if (!started) {
@@ -155,20 +182,27 @@ public class FileWriter implements IWriter, EventHandler<LogMessageHolder> {
                 System.err.println("Log dir(" + Config.Logging.DIR + ") is not a directory.");
             }
             try {
-                fileOutputStream = new FileOutputStream(new File(logFilePath, Config.Logging.FILE_NAME), true);
-                fileSize = Long.valueOf(new File(logFilePath, Config.Logging.FILE_NAME).length()).intValue();
+                File logFile = new File(logFilePath, Config.Logging.FILE_NAME);
+                fileChannel = new FileOutputStream(logFile, true).getChannel();
+                fileSize = logFile.length();
             } catch (FileNotFoundException e) {
                 e.printStackTrace();
             }
             started = true;
         }
 
-        return fileOutputStream != null;
+        return fileChannel != null;
     }
 
     @Override
     public void write(String message) {
-        long next = buffer.next();
+        long next;
+        try {
+            next = buffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            droppedCount.incrementAndGet();
+            return;
+        }
         try {
             LogMessageHolder messageHolder = buffer.get(next);
             messageHolder.setMessage(message);
@@ -16,34 +16,61 @@
  *
  */
 
-
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.security.ProtectionDomain;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDefinition;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.matcher.ElementMatcher;
-import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import net.bytebuddy.utility.JavaModule;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
 
-import static net.bytebuddy.matcher.ElementMatchers.isInterface;
-import static net.bytebuddy.matcher.ElementMatchers.not;
-
 /**
  * The <code>PluginFinder</code> represents a finder , which assist to find the one
  * from the given {@link AbstractClassEnhancePluginDefine} list.
  *
+ * The {@link IndirectMatch}s of {@link ClassAnnotationMatch}, {@link MethodAnnotationMatch} and {@link HierarchyMatch}
+ * are indexed by their first annotation or parent type name, so only the plugins, whose key is found in the type, are
+ * checked by {@link IndirectMatch#isMatch(TypeDescription)}. Most types are rejected by hash lookups only.
+ *
  * @author wusheng
  */
 public class PluginFinder {
+    private static final String OBJECT_TYPE_NAME = "java.lang.Object";
+
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new LinkedList<AbstractClassEnhancePluginDefine>();
 
+    private final Map<String, List<AbstractClassEnhancePluginDefine>> classAnnotationIndex = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, List<AbstractClassEnhancePluginDefine>> methodAnnotationIndex = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, List<AbstractClassEnhancePluginDefine>> hierarchyIndex = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
+    /**
+     * Other {@link IndirectMatch}s, which can't be indexed, are checked for every type.
+     */
+    private final List<AbstractClassEnhancePluginDefine> unindexedMatchDefine = new LinkedList<AbstractClassEnhancePluginDefine>();
+
+    /**
+     * The names of super types, whose hierarchy includes none of the keys in {@link #hierarchyIndex}, per class loader.
+     * The same type name could be a different type in another class loader, so the cache can't be shared.
+     */
+    private final Map<ClassLoader, Set<String>> hierarchyMissCache = new WeakHashMap<ClassLoader, Set<String>>();
+
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
             ClassMatch match = plugin.enhanceClass();
@@ -62,10 +89,29 @@ public class PluginFinder {
                 pluginDefines.add(plugin);
             } else {
                 signatureMatchDefine.add(plugin);
+                if (match instanceof ClassAnnotationMatch) {
+                    index(classAnnotationIndex, ((ClassAnnotationMatch)match).getAnnotations()[0], plugin);
+                } else if (match instanceof MethodAnnotationMatch) {
+                    index(methodAnnotationIndex, ((MethodAnnotationMatch)match).getAnnotations()[0], plugin);
+                } else if (match instanceof HierarchyMatch) {
+                    index(hierarchyIndex, ((HierarchyMatch)match).getParentTypes()[0], plugin);
+                } else {
+                    unindexedMatchDefine.add(plugin);
+                }
             }
         }
     }
 
+    private void index(Map<String, List<AbstractClassEnhancePluginDefine>> index, String key,
+        AbstractClassEnhancePluginDefine plugin) {
+        List<AbstractClassEnhancePluginDefine> pluginDefines = index.get(key);
+        if (pluginDefines == null) {
+            pluginDefines = new LinkedList<AbstractClassEnhancePluginDefine>();
+            index.put(key, pluginDefines);
+        }
+        pluginDefines.add(plugin);
+    }
+
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription,
         ClassLoader classLoader) {
         List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
@@ -74,7 +120,15 @@ public class PluginFinder {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
+        Set<AbstractClassEnhancePluginDefine> candidates = findSignatureCandidates(typeDescription, classLoader);
+        if (candidates.isEmpty()) {
+            return matchedPlugins;
+        }
+
         for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
+            if (!candidates.contains(pluginDefine)) {
+                continue;
+            }
             IndirectMatch match = (IndirectMatch)pluginDefine.enhanceClass();
             if (match.isMatch(typeDescription)) {
                 matchedPlugins.add(pluginDefine);
@@ -84,20 +138,108 @@ public class PluginFinder {
         return matchedPlugins;
     }
 
-    public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
-            @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+    /**
+     * @return the plugins, which could match the given type, should be confirmed by {@link
+     * IndirectMatch#isMatch(TypeDescription)}.
+     */
+    private Set<AbstractClassEnhancePluginDefine> findSignatureCandidates(TypeDescription typeDescription,
+        ClassLoader classLoader) {
+        Set<AbstractClassEnhancePluginDefine> candidates = new HashSet<AbstractClassEnhancePluginDefine>(unindexedMatchDefine);
+
+        if (!classAnnotationIndex.isEmpty()) {
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                addCandidates(classAnnotationIndex, annotation.getAnnotationType().getActualName(), candidates);
             }
-        };
-        judge = judge.and(not(isInterface()));
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch)match).buildJunction());
+        }
+
+        if (!methodAnnotationIndex.isEmpty()) {
+            for (MethodDescription.InDefinedShape methodDescription : typeDescription.getDeclaredMethods()) {
+                for (AnnotationDescription annotation : methodDescription.getDeclaredAnnotations()) {
+                    addCandidates(methodAnnotationIndex, annotation.getAnnotationType().getActualName(), candidates);
+                }
             }
         }
-        return judge;
+
+        if (!hierarchyIndex.isEmpty()) {
+            findHierarchyCandidates(typeDescription, getHierarchyMissCache(classLoader), candidates);
+        }
+
+        return candidates;
+    }
+
+    private boolean addCandidates(Map<String, List<AbstractClassEnhancePluginDefine>> index, String key,
+        Set<AbstractClassEnhancePluginDefine> candidates) {
+        List<AbstractClassEnhancePluginDefine> pluginDefines = index.get(key);
+        if (pluginDefines == null) {
+            return false;
+        }
+        candidates.addAll(pluginDefines);
+        return true;
+    }
+
+    /**
+     * Walk through the super class and interfaces of the given type, the sub-hierarchies, which have been known as no
+     * key of {@link #hierarchyIndex} included, are skipped.
+     *
+     * @return true, if any key of {@link #hierarchyIndex} is found.
+     */
+    private boolean findHierarchyCandidates(TypeDefinition type, Set<String> missCache,
+        Set<AbstractClassEnhancePluginDefine> candidates) {
+        boolean found = false;
+        for (TypeDescription.Generic implInterface : type.getInterfaces()) {
+            found |= findSuperTypeCandidates(implInterface, missCache, candidates);
+        }
+
+        TypeDescription.Generic superClass = type.getSuperClass();
+        if (superClass != null) {
+            found |= findSuperTypeCandidates(superClass, missCache, candidates);
+        }
+        return found;
+    }
+
+    private boolean findSuperTypeCandidates(TypeDescription.Generic superType, Set<String> missCache,
+        Set<AbstractClassEnhancePluginDefine> candidates) {
+        String superTypeName = superType.asErasure().getActualName();
+        if (missCache.contains(superTypeName)) {
+            return false;
+        }
+
+        boolean found = addCandidates(hierarchyIndex, superTypeName, candidates);
+        if (!OBJECT_TYPE_NAME.equals(superTypeName)) {
+            found |= findHierarchyCandidates(superType, missCache, candidates);
+        }
+
+        if (!found) {
+            missCache.add(superTypeName);
+        }
+        return found;
+    }
+
+    private Set<String> getHierarchyMissCache(ClassLoader classLoader) {
+        synchronized (hierarchyMissCache) {
+            Set<String> missCache = hierarchyMissCache.get(classLoader);
+            if (missCache == null) {
+                missCache = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                hierarchyMissCache.put(classLoader, missCache);
+            }
+            return missCache;
+        }
+    }
+
+    /**
+     * @return the matcher of the types, which should be enhanced. The matcher is based on {@link
+     * #find(TypeDescription, ClassLoader)}, because the index and cache need the class loader.
+     */
+    public AgentBuilder.RawMatcher buildMatch() {
+        return new AgentBuilder.RawMatcher() {
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader, JavaModule module,
+                Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
+                if (typeDescription.isInterface()) {
+                    return false;
+                }
+                return !find(typeDescription, classLoader).isEmpty();
+            }
+        };
     }
 }
@@ -47,6 +47,8 @@ public class InstMethodsInter {
      */
     private InstanceMethodsAroundInterceptor interceptor;
 
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
+
     /**
      * @param instanceMethodsAroundInterceptorClassName class full name.
      */
@@ -77,10 +79,10 @@ public class InstMethodsInter {
     ) throws Throwable {
         EnhancedInstance targetObject = (EnhancedInstance)obj;
 
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
-            interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(),
-                result);
+            interceptor.beforeMethod(targetObject, method, allArguments, argumentsTypes, result);
         } catch (Throwable t) {
             logger.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
         }
@@ -94,16 +96,14 @@ public class InstMethodsInter {
             }
         } catch (Throwable t) {
             try {
-                interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(),
-                    t);
+                interceptor.handleMethodException(targetObject, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
                 logger.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
             }
             throw t;
         } finally {
             try {
-                ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(),
-                    ret);
+                ret = interceptor.afterMethod(targetObject, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
                 logger.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
             }
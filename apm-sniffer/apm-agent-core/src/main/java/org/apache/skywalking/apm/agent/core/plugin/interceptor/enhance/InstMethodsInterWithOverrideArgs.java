@@ -46,6 +46,8 @@ public class InstMethodsInterWithOverrideArgs {
      */
     private InstanceMethodsAroundInterceptor interceptor;
 
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
+
     /**
      * @param instanceMethodsAroundInterceptorClassName class full name.
      */
@@ -76,10 +78,10 @@ public class InstMethodsInterWithOverrideArgs {
     ) throws Throwable {
         EnhancedInstance targetObject = (EnhancedInstance)obj;
 
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
-            interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(),
-                result);
+            interceptor.beforeMethod(targetObject, method, allArguments, argumentsTypes, result);
         } catch (Throwable t) {
             logger.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
         }
@@ -93,16 +95,14 @@ public class InstMethodsInterWithOverrideArgs {
             }
         } catch (Throwable t) {
             try {
-                interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(),
-                    t);
+                interceptor.handleMethodException(targetObject, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
                 logger.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
             }
             throw t;
         } finally {
             try {
-                ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(),
-                    ret);
+                ret = interceptor.afterMethod(targetObject, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
                 logger.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
             }
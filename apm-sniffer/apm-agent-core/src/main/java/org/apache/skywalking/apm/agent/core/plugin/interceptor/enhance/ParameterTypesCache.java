@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cache of {@link Method#getParameterTypes()}, which clones the array in every call, for the interceptors which
+ * are called in every intercepted method invocation.
+ *
+ * Byte-buddy binds the same {@link Method} instance, cached in the enhanced class, in every invocation, and most
+ * intercept points match only one method. So the first method is checked by identity, and the others, such as
+ * overloads matched by one point, go through a map.
+ *
+ * The cached array is shared by all invocations, so the interceptors must not modify the <code>argumentsTypes</code>.
+ */
+class ParameterTypesCache {
+    private volatile MethodParameterTypes first;
+
+    private final ConcurrentHashMap<Method, Class<?>[]> others = new ConcurrentHashMap<Method, Class<?>[]>();
+
+    Class<?>[] get(Method method) {
+        MethodParameterTypes cached = first;
+        if (cached != null && cached.method == method) {
+            return cached.parameterTypes;
+        }
+        if (cached == null) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            first = new MethodParameterTypes(method, parameterTypes);
+            return parameterTypes;
+        }
+
+        Class<?>[] parameterTypes = others.get(method);
+        if (parameterTypes == null) {
+            parameterTypes = method.getParameterTypes();
+            others.put(method, parameterTypes);
+        }
+        return parameterTypes;
+    }
+
+    private static class MethodParameterTypes {
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+
+        private MethodParameterTypes(Method method, Class<?>[] parameterTypes) {
+            this.method = method;
+            this.parameterTypes = parameterTypes;
+        }
+    }
+}
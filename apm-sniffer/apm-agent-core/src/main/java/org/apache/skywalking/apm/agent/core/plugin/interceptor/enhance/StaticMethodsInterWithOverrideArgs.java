@@ -44,6 +44,14 @@ public class StaticMethodsInterWithOverrideArgs {
      */
     private String staticMethodsAroundInterceptorClassName;
 
+    /**
+     * The interceptor loaded for the intercepted class. An instance of this class is bound to the methods of one
+     * enhanced class, so the interceptor is loaded once, rather than in every invocation.
+     */
+    private volatile LoadedInterceptor loadedInterceptor;
+
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
+
     /**
      * Set the name of {@link StaticMethodsInterWithOverrideArgs#staticMethodsAroundInterceptorClassName}
      *
@@ -67,12 +75,12 @@ public class StaticMethodsInterWithOverrideArgs {
     @RuntimeType
     public Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @Morph OverrideCallable zuper) throws Throwable {
-        StaticMethodsAroundInterceptor interceptor = InterceptorInstanceLoader
-            .load(staticMethodsAroundInterceptorClassName, clazz.getClassLoader());
+        StaticMethodsAroundInterceptor interceptor = getInterceptor(clazz);
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
 
         MethodInterceptResult result = new MethodInterceptResult();
         try {
-            interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
+            interceptor.beforeMethod(clazz, method, allArguments, argumentsTypes, result);
         } catch (Throwable t) {
             logger.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
         }
@@ -86,18 +94,39 @@ public class StaticMethodsInterWithOverrideArgs {
             }
         } catch (Throwable t) {
             try {
-                interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
+                interceptor.handleMethodException(clazz, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
                 logger.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
             }
             throw t;
         } finally {
             try {
-                ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
+                ret = interceptor.afterMethod(clazz, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
                 logger.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
             }
         }
         return ret;
     }
+
+    private StaticMethodsAroundInterceptor getInterceptor(Class<?> clazz) throws Throwable {
+        LoadedInterceptor loaded = loadedInterceptor;
+        if (loaded == null || loaded.interceptedClass != clazz) {
+            StaticMethodsAroundInterceptor interceptor = InterceptorInstanceLoader
+                .load(staticMethodsAroundInterceptorClassName, clazz.getClassLoader());
+            loaded = new LoadedInterceptor(clazz, interceptor);
+            loadedInterceptor = loaded;
+        }
+        return loaded.interceptor;
+    }
+
+    private static class LoadedInterceptor {
+        private final Class<?> interceptedClass;
+        private final StaticMethodsAroundInterceptor interceptor;
+
+        private LoadedInterceptor(Class<?> interceptedClass, StaticMethodsAroundInterceptor interceptor) {
+            this.interceptedClass = interceptedClass;
+            this.interceptor = interceptor;
+        }
+    }
 }
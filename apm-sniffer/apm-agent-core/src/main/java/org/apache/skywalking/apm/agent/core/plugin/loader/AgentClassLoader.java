@@ -29,9 +29,11 @@ import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -50,7 +52,11 @@ public class AgentClassLoader extends ClassLoader {
     private static AgentClassLoader DEFAULT_LOADER;
 
     private List<File> classpath;
-    private List<Jar> allJars;
+    private volatile List<Jar> allJars;
+    /**
+     * Entry name to the jar which includes it, built with {@link #allJars}.
+     */
+    private Map<String, Jar> jarIndex;
     private ReentrantLock jarScanLock = new ReentrantLock();
 
     public static AgentClassLoader getDefault() {
@@ -76,41 +82,20 @@ public class AgentClassLoader extends ClassLoader {
         classpath.add(new File(agentDictionary, "activations"));
     }
 
+    /**
+     * Class loaded by this loader is cached by the JVM, and returned by {@link #findLoadedClass(String)} in {@link
+     * #loadClass(String, boolean)}, so this is called once per class.
+     */
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
+        Jar jar = getJarIndex().get(path);
+        if (jar != null) {
             JarEntry entry = jar.jarFile.getJarEntry(path);
             if (entry != null) {
                 try {
-                    URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
-                    byte[] data = null;
-                    BufferedInputStream is = null;
-                    ByteArrayOutputStream baos = null;
-                    try {
-                        is = new BufferedInputStream(classFileUrl.openStream());
-                        baos = new ByteArrayOutputStream();
-                        int ch = 0;
-                        while ((ch = is.read()) != -1) {
-                            baos.write(ch);
-                        }
-                        data = baos.toByteArray();
-                    } finally {
-                        if (is != null)
-                            try {
-                                is.close();
-                            } catch (IOException ignored) {
-                            }
-                        if (baos != null)
-                            try {
-                                baos.close();
-                            } catch (IOException ignored) {
-                            }
-                    }
+                    byte[] data = readEntry(jar.jarFile, entry);
                     return defineClass(name, data, 0, data.length);
-                } catch (MalformedURLException e) {
-                    logger.error(e, "find class fail.");
                 } catch (IOException e) {
                     logger.error(e, "find class fail.");
                 }
@@ -121,15 +106,12 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
-                } catch (MalformedURLException e) {
-                    continue;
-                }
+        Jar jar = findJar(name);
+        if (jar != null) {
+            try {
+                return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
+            } catch (MalformedURLException e) {
+                logger.error(e, "find resource fail.");
             }
         }
         return null;
@@ -160,12 +142,71 @@ public class AgentClassLoader extends ClassLoader {
         };
     }
 
+    /**
+     * Read the whole entry by the size in the jar directory, instead of byte by byte through a <code>jar:file:</code>
+     * url connection.
+     */
+    private byte[] readEntry(JarFile jarFile, JarEntry entry) throws IOException {
+        InputStream is = jarFile.getInputStream(entry);
+        try {
+            long size = entry.getSize();
+            if (size >= 0) {
+                byte[] data = new byte[(int)size];
+                int offset = 0;
+                while (offset < data.length) {
+                    int count = is.read(data, offset, data.length - offset);
+                    if (count < 0) {
+                        throw new EOFException("Unexpected end of " + entry.getName());
+                    }
+                    offset += count;
+                }
+                return data;
+            }
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                baos.write(buffer, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            try {
+                is.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Look up the index first. A miss falls back to the jar scan, as {@link JarFile#getJarEntry(String)} also matches
+     * a directory name without the trailing slash.
+     */
+    private Jar findJar(String name) {
+        Jar jar = getJarIndex().get(name);
+        if (jar != null) {
+            return jar;
+        }
+        for (Jar scannedJar : getAllJars()) {
+            if (scannedJar.jarFile.getJarEntry(name) != null) {
+                return scannedJar;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Jar> getJarIndex() {
+        getAllJars();
+        return jarIndex;
+    }
+
     private List<Jar> getAllJars() {
         if (allJars == null) {
             jarScanLock.lock();
             try {
                 if (allJars == null) {
-                    allJars = new LinkedList<Jar>();
+                    List<Jar> scannedJars = new LinkedList<Jar>();
+                    Map<String, Jar> scannedIndex = new HashMap<String, Jar>();
                     for (File path : classpath) {
                         if (path.exists() && path.isDirectory()) {
                             String[] jarFileNames = path.list(new FilenameFilter() {
@@ -178,7 +219,8 @@ public class AgentClassLoader extends ClassLoader {
                                 try {
                                     File file = new File(path, fileName);
                                     Jar jar = new Jar(new JarFile(file), file);
-                                    allJars.add(jar);
+                                    scannedJars.add(jar);
+                                    index(jar, scannedIndex);
                                     logger.info("{} loaded.", file.toString());
                                 } catch (IOException e) {
                                     logger.error(e, "{} jar file can't be resolved", fileName);
@@ -186,6 +228,8 @@ public class AgentClassLoader extends ClassLoader {
                             }
                         }
                     }
+                    jarIndex = scannedIndex;
+                    allJars = scannedJars;
                 }
             } finally {
                 jarScanLock.unlock();
@@ -195,6 +239,20 @@ public class AgentClassLoader extends ClassLoader {
         return allJars;
     }
 
+    /**
+     * Index the entries by name, including the directories, which are looked up as package resources. Same as the
+     * scanning order, the first jar including the entry wins.
+     */
+    private void index(Jar jar, Map<String, Jar> jarIndex) {
+        Enumeration<JarEntry> entries = jar.jarFile.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (!jarIndex.containsKey(entry.getName())) {
+                jarIndex.put(entry.getName(), jar);
+            }
+        }
+    }
+
     private class Jar {
         private JarFile jarFile;
         private File sourceFile;
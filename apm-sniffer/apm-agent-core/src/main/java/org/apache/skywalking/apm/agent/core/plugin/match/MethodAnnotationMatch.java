@@ -85,6 +85,10 @@ public class MethodAnnotationMatch implements IndirectMatch {
         return isAnnotatedWith(named(annotationName));
     }
 
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
     public static ClassMatch byMethodAnnotationMatch(String[] annotations) {
         return new MethodAnnotationMatch(annotations);
     }
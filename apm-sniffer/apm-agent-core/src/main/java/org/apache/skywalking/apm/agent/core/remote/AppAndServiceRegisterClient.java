@@ -20,6 +20,7 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.ManagedChannel;
+import java.io.File;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
@@ -27,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.dictionary.ApplicationDictionary;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryCache;
 import org.apache.skywalking.apm.agent.core.os.OSUtil;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
@@ -38,6 +40,7 @@ import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.apache.skywalking.apm.agent.core.dictionary.OperationNameDictionary;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.network.proto.Application;
 import org.apache.skywalking.apm.network.proto.ApplicationInstance;
 import org.apache.skywalking.apm.network.proto.ApplicationInstanceHeartbeat;
@@ -45,8 +48,10 @@ import org.apache.skywalking.apm.network.proto.ApplicationInstanceMapping;
 import org.apache.skywalking.apm.network.proto.ApplicationInstanceRecover;
 import org.apache.skywalking.apm.network.proto.ApplicationMapping;
 import org.apache.skywalking.apm.network.proto.ApplicationRegisterServiceGrpc;
+import org.apache.skywalking.apm.network.proto.Downstream;
 import org.apache.skywalking.apm.network.proto.InstanceDiscoveryServiceGrpc;
 import org.apache.skywalking.apm.network.proto.ServiceNameDiscoveryServiceGrpc;
+import org.apache.skywalking.apm.util.StringUtil;
 
 /**
  * @author wusheng
@@ -58,10 +63,18 @@ public class AppAndServiceRegisterClient implements BootService, GRPCChannelList
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile ApplicationRegisterServiceGrpc.ApplicationRegisterServiceBlockingStub applicationRegisterServiceBlockingStub;
     private volatile InstanceDiscoveryServiceGrpc.InstanceDiscoveryServiceBlockingStub instanceDiscoveryServiceBlockingStub;
+    private volatile ApplicationRegisterServiceGrpc.ApplicationRegisterServiceStub applicationRegisterServiceStub;
+    private volatile ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceStub serviceNameDiscoveryServiceStub;
     private volatile ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceBlockingStub serviceNameDiscoveryServiceBlockingStub;
     private volatile ScheduledFuture<?> applicationRegisterFuture;
     private volatile boolean needRegisterRecover = false;
     private volatile long lastSegmentTime = -1;
+    private volatile DictionaryCache dictionaryCache;
+    /**
+     * The application id and the dictionaries loaded from {@link DictionaryCache} must be confirmed by the collector
+     * once.
+     */
+    private volatile boolean applicationIdConfirmed = true;
 
     @Override
     public void statusChanged(GRPCChannelStatus status) {
@@ -72,10 +85,14 @@ public class AppAndServiceRegisterClient implements BootService, GRPCChannelList
             if (RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID != DictionaryUtil.nullValue()) {
                 needRegisterRecover = true;
             }
+            applicationRegisterServiceStub = ApplicationRegisterServiceGrpc.newStub(channel);
+            serviceNameDiscoveryServiceStub = ServiceNameDiscoveryServiceGrpc.newStub(channel);
             serviceNameDiscoveryServiceBlockingStub = ServiceNameDiscoveryServiceGrpc.newBlockingStub(channel);
         } else {
             applicationRegisterServiceBlockingStub = null;
             instanceDiscoveryServiceBlockingStub = null;
+            applicationRegisterServiceStub = null;
+            serviceNameDiscoveryServiceStub = null;
             serviceNameDiscoveryServiceBlockingStub = null;
         }
         this.status = status;
@@ -84,6 +101,16 @@ public class AppAndServiceRegisterClient implements BootService, GRPCChannelList
     @Override
     public void beforeBoot() throws Throwable {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
+
+        if (!StringUtil.isEmpty(Config.Dictionary.CACHE_DIR)) {
+            dictionaryCache = new DictionaryCache(new File(Config.Dictionary.CACHE_DIR), Config.Agent.APPLICATION_CODE, Config.Collector.SERVERS);
+            int cachedApplicationId = dictionaryCache.load();
+            if (cachedApplicationId != DictionaryUtil.nullValue()
+                && RemoteDownstreamConfig.Agent.APPLICATION_ID == DictionaryUtil.nullValue()) {
+                RemoteDownstreamConfig.Agent.APPLICATION_ID = cachedApplicationId;
+                applicationIdConfirmed = false;
+            }
+        }
     }
 
     @Override
@@ -101,6 +128,9 @@ public class AppAndServiceRegisterClient implements BootService, GRPCChannelList
     @Override
     public void shutdown() throws Throwable {
         applicationRegisterFuture.cancel(true);
+        if (dictionaryCache != null) {
+            dictionaryCache.saveIfChanged(RemoteDownstreamConfig.Agent.APPLICATION_ID);
+        }
     }
 
     @Override
@@ -110,12 +140,23 @@ public class AppAndServiceRegisterClient implements BootService, GRPCChannelList
         while (GRPCChannelStatus.CONNECTED.equals(status) && shouldTry) {
             shouldTry = false;
             try {
-                if (RemoteDownstreamConfig.Agent.APPLICATION_ID == DictionaryUtil.nullValue()) {
+                if (RemoteDownstreamConfig.Agent.APPLICATION_ID == DictionaryUtil.nullValue() || !applicationIdConfirmed) {
                     if (applicationRegisterServiceBlockingStub != null) {
                         ApplicationMapping applicationMapping = applicationRegisterServiceBlockingStub.register(
                             Application.newBuilder().addApplicationCode(Config.Agent.APPLICATION_CODE).build());
                         if (applicationMapping.getApplicationCount() > 0) {
-                            RemoteDownstreamConfig.Agent.APPLICATION_ID = applicationMapping.getApplication(0).getValue();
+                            int applicationId = applicationMapping.getApplication(0).getValue();
+                            if (!applicationIdConfirmed) {
+                                if (applicationId != RemoteDownstreamConfig.Agent.APPLICATION_ID) {
+                                    logger.warn("Cached application id {} is not recognized by the collector, discard the dictionary cache.", RemoteDownstreamConfig.Agent.APPLICATION_ID);
+                                    dictionaryCache.invalidate();
+                                } else if (!dictionaryCache.confirm(serviceNameDiscoveryServiceBlockingStub)) {
+                                    logger.warn("Cached operation name ids are not recognized by the collector, discard the dictionary cache.");
+                                    dictionaryCache.invalidate();
+                                }
+                            }
+                            RemoteDownstreamConfig.Agent.APPLICATION_ID = applicationId;
+                            applicationIdConfirmed = true;
                             shouldTry = true;
                         }
                     }
@@ -144,15 +185,19 @@ public class AppAndServiceRegisterClient implements BootService, GRPCChannelList
                                 needRegisterRecover = false;
                             } else {
                                 if (lastSegmentTime - System.currentTimeMillis() > 60 * 1000) {
-                                    instanceDiscoveryServiceBlockingStub.heartbeat(ApplicationInstanceHeartbeat.newBuilder()
+                                    Downstream downstream = instanceDiscoveryServiceBlockingStub.heartbeat(ApplicationInstanceHeartbeat.newBuilder()
                                         .setApplicationInstanceId(RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID)
                                         .setHeartbeatTime(System.currentTimeMillis())
                                         .build());
+                                    ServiceManager.INSTANCE.findService(SamplingService.class).updateRemoteSamplingRate(downstream.getSampleNPer3Secs());
                                 }
                             }
 
-                            ApplicationDictionary.INSTANCE.syncRemoteDictionary(applicationRegisterServiceBlockingStub);
-                            OperationNameDictionary.INSTANCE.syncRemoteDictionary(serviceNameDiscoveryServiceBlockingStub);
+                            ApplicationDictionary.INSTANCE.syncRemoteDictionary(applicationRegisterServiceStub);
+                            OperationNameDictionary.INSTANCE.syncRemoteDictionary(serviceNameDiscoveryServiceStub);
+                            if (dictionaryCache != null) {
+                                dictionaryCache.saveIfChanged(RemoteDownstreamConfig.Agent.APPLICATION_ID);
+                            }
                         }
                     }
                 }
@@ -19,12 +19,15 @@
 
 package org.apache.skywalking.apm.agent.core.remote;
 
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.internal.DnsNameResolverProvider;
 import io.grpc.netty.NettyChannelBuilder;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -32,22 +35,32 @@ import java.util.Random;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.network.compress.SnappyCodec;
 
 /**
  * @author wusheng
  */
 public class GRPCChannelManager implements BootService, Runnable {
     private static final ILog logger = LogManager.getLogger(GRPCChannelManager.class);
+    private static final CompressorRegistry COMPRESSOR_REGISTRY = CompressorRegistry.newEmptyInstance();
+
+    static {
+        COMPRESSOR_REGISTRY.register(new Codec.Gzip());
+        COMPRESSOR_REGISTRY.register(new SnappyCodec());
+    }
 
     private volatile ManagedChannel managedChannel = null;
     private volatile ScheduledFuture<?> connectCheckFuture;
     private volatile boolean reconnect = true;
+    private volatile UplinkChannel[] uplinkChannels = new UplinkChannel[0];
+    private final AtomicInteger roundRobin = new AtomicInteger(0);
     private Random random = new Random();
     private List<GRPCChannelListener> listeners = Collections.synchronizedList(new LinkedList<GRPCChannelListener>());
 
@@ -71,43 +84,82 @@ public class GRPCChannelManager implements BootService, Runnable {
     @Override
     public void shutdown() throws Throwable {
         connectCheckFuture.cancel(true);
+        for (UplinkChannel channel : uplinkChannels) {
+            channel.getManagedChannel().shutdownNow();
+        }
         if (managedChannel != null) {
             managedChannel.shutdownNow();
         }
         logger.debug("Selected collector grpc service shutdown.");
     }
 
+    /**
+     * Keep {@link Config.Collector#GRPC_CHANNEL_SIZE} channels to different collectors. The broken channels are
+     * replaced by channels to the other collectors, and the first channel is provided to the services through {@link
+     * #getManagedChannel()}.
+     */
     @Override
     public void run() {
         logger.debug("Selected collector grpc service running, reconnect:{}.", reconnect);
-        if (reconnect) {
-            if (RemoteDownstreamConfig.Collector.GRPC_SERVERS.size() > 0) {
-                String server = "";
+        List<String> servers = RemoteDownstreamConfig.Collector.GRPC_SERVERS;
+        if (servers.size() > 0) {
+            int size = Math.min(Math.max(Config.Collector.GRPC_CHANNEL_SIZE, 1), servers.size());
+            List<UplinkChannel> channels = new ArrayList<UplinkChannel>(size);
+            for (UplinkChannel channel : uplinkChannels) {
+                boolean primaryBroken = reconnect && channel.getManagedChannel() == managedChannel;
+                if (!primaryBroken && channel.isAvailable() && channels.size() < size && servers.contains(channel.getServer())) {
+                    channels.add(channel);
+                } else {
+                    channel.getManagedChannel().shutdown();
+                }
+            }
+
+            while (channels.size() < size) {
+                String server = selectServer(servers, channels);
                 try {
-                    int index = Math.abs(random.nextInt()) % RemoteDownstreamConfig.Collector.GRPC_SERVERS.size();
-                    server = RemoteDownstreamConfig.Collector.GRPC_SERVERS.get(index);
-                    String[] ipAndPort = server.split(":");
-                    ManagedChannelBuilder<?> channelBuilder =
-                        NettyChannelBuilder.forAddress(ipAndPort[0], Integer.parseInt(ipAndPort[1]))
-                            .nameResolverFactory(new DnsNameResolverProvider())
-                            .maxInboundMessageSize(1024 * 1024 * 50)
-                            .usePlaintext(true);
-                    managedChannel = channelBuilder.build();
-                    if (!managedChannel.isShutdown() && !managedChannel.isTerminated()) {
-                        reconnect = false;
-                        notify(GRPCChannelStatus.CONNECTED);
-                    } else {
-                        notify(GRPCChannelStatus.DISCONNECT);
-                    }
-                    return;
+                    channels.add(new UplinkChannel(server, createChannel(server)));
                 } catch (Throwable t) {
                     logger.error(t, "Create channel to {} fail.", server);
-                    notify(GRPCChannelStatus.DISCONNECT);
+                    break;
+                }
+            }
+            uplinkChannels = channels.toArray(new UplinkChannel[channels.size()]);
+
+            if (channels.size() > 0) {
+                ManagedChannel primary = channels.get(0).getManagedChannel();
+                if (reconnect || primary != managedChannel) {
+                    managedChannel = primary;
+                    reconnect = false;
+                    notify(GRPCChannelStatus.CONNECTED);
                 }
+                return;
             }
+            notify(GRPCChannelStatus.DISCONNECT);
+        }
+
+        logger.debug("Selected collector grpc service is not available. Wait {} seconds to retry", Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL);
+    }
 
-            logger.debug("Selected collector grpc service is not available. Wait {} seconds to retry", Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL);
+    private String selectServer(List<String> servers, List<UplinkChannel> channels) {
+        List<String> candidates = new ArrayList<String>(servers);
+        for (UplinkChannel channel : channels) {
+            candidates.remove(channel.getServer());
         }
+        if (candidates.isEmpty()) {
+            candidates = servers;
+        }
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private ManagedChannel createChannel(String server) {
+        String[] ipAndPort = server.split(":");
+        ManagedChannelBuilder<?> channelBuilder =
+            NettyChannelBuilder.forAddress(ipAndPort[0], Integer.parseInt(ipAndPort[1]))
+                .nameResolverFactory(new DnsNameResolverProvider())
+                .maxInboundMessageSize(1024 * 1024 * 50)
+                .compressorRegistry(COMPRESSOR_REGISTRY)
+                .usePlaintext(true);
+        return channelBuilder.build();
     }
 
     public void addChannelListener(GRPCChannelListener listener) {
@@ -118,6 +170,32 @@ public class GRPCChannelManager implements BootService, Runnable {
         return managedChannel;
     }
 
+    /**
+     * Select the available channel with the least outstanding streams, and take one stream slot of it. The channels
+     * are scanned from a rotating start, so the ties are shared round-robin.
+     *
+     * @param excluded the channel which should not be selected, e.g. the one just failed, or null.
+     * @param maxOutstanding the max amount of outstanding streams per channel.
+     * @return the selected channel, or null if no channel is available or all of them are busy.
+     */
+    public UplinkChannel selectUplinkChannel(UplinkChannel excluded, int maxOutstanding) {
+        UplinkChannel[] channels = uplinkChannels;
+        int start = roundRobin.getAndIncrement() & Integer.MAX_VALUE;
+        while (true) {
+            UplinkChannel selected = null;
+            for (int i = 0; i < channels.length; i++) {
+                UplinkChannel channel = channels[(start + i) % channels.length];
+                if (channel != excluded && channel.isAvailable() && channel.getOutstanding() < maxOutstanding
+                    && (selected == null || channel.getOutstanding() < selected.getOutstanding())) {
+                    selected = channel;
+                }
+            }
+            if (selected == null || selected.tryAcquire(maxOutstanding)) {
+                return selected;
+            }
+        }
+    }
+
     /**
      * If the given expcetion is triggered by network problem, connect in background.
      *
@@ -126,6 +204,24 @@ public class GRPCChannelManager implements BootService, Runnable {
     public void reportError(Throwable throwable) {
         if (isNetworkError(throwable)) {
             reconnect = true;
+            for (UplinkChannel channel : uplinkChannels) {
+                if (channel.getManagedChannel() == managedChannel) {
+                    channel.markBroken();
+                }
+            }
+        }
+    }
+
+    /**
+     * If the given exception of the uplink channel is triggered by network problem, or the collector doesn't complete
+     * the stream before the deadline, the channel is not selected anymore, and replaced in background.
+     */
+    public void reportError(UplinkChannel channel, Throwable throwable) {
+        if (isNetworkError(throwable) || isDeadlineExceeded(throwable)) {
+            channel.markBroken();
+            if (channel.getManagedChannel() == managedChannel) {
+                reconnect = true;
+            }
         }
     }
 
@@ -153,6 +249,11 @@ public class GRPCChannelManager implements BootService, Runnable {
         return false;
     }
 
+    private boolean isDeadlineExceeded(Throwable throwable) {
+        return throwable instanceof StatusRuntimeException
+            && ((StatusRuntimeException)throwable).getStatus().getCode() == Status.Code.DEADLINE_EXCEEDED;
+    }
+
     private boolean statusEquals(Status sourceStatus, Status... potentialStatus) {
         for (Status status : potentialStatus) {
             if (sourceStatus.getCode() == status.getCode()) {
@@ -19,22 +19,39 @@
 
 package org.apache.skywalking.apm.agent.core.remote;
 
-import io.grpc.ManagedChannel;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Metadata;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.MetadataUtils;
 import io.grpc.stub.StreamObserver;
+import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentEncoder;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentPool;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.network.proto.Downstream;
 import org.apache.skywalking.apm.network.proto.TraceSegmentServiceGrpc;
 import org.apache.skywalking.apm.network.proto.UpstreamSegment;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -46,13 +63,16 @@ import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONN
 public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
     private static final ILog logger = LogManager.getLogger(TraceSegmentServiceClient.class);
     private static final int TIMEOUT = 30 * 1000;
+    private static final Metadata.Key<String> ACCEPT_ENCODING_KEY = Metadata.Key.of("grpc-accept-encoding", Metadata.ASCII_STRING_MARSHALLER);
 
     private long lastLogTime;
-    private long segmentUplinkedCounter;
-    private long segmentAbandonedCounter;
+    private final AtomicLong segmentUplinkedCounter = new AtomicLong(0);
+    private final AtomicLong segmentAbandonedCounter = new AtomicLong(0);
     private volatile DataCarrier<TraceSegment> carrier;
-    private volatile TraceSegmentServiceGrpc.TraceSegmentServiceStub serviceStub;
+    private final TraceSegmentEncoder encoder = new TraceSegmentEncoder();
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    private volatile TraceSegmentSpillQueue spillQueue;
+    private volatile ScheduledFuture<?> replayFuture;
 
     @Override
     public void beforeBoot() throws Throwable {
@@ -62,11 +82,34 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void boot() throws Throwable {
         lastLogTime = System.currentTimeMillis();
-        segmentUplinkedCounter = 0;
-        segmentAbandonedCounter = 0;
+        segmentUplinkedCounter.set(0);
+        segmentAbandonedCounter.set(0);
         carrier = new DataCarrier<TraceSegment>(CHANNEL_SIZE, BUFFER_SIZE);
         carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
+
+        if (!StringUtil.isEmpty(Config.Buffer.SPILL_DIR)) {
+            File spillDir = new File(Config.Buffer.SPILL_DIR);
+            if (!spillDir.exists() && !spillDir.mkdirs()) {
+                logger.warn("Can't create the spill directory {}, trace segments are not spilled.", spillDir);
+                return;
+            }
+            File spillFile = new File(spillDir, "trace-segment-" + UUID.randomUUID().toString() + ".spill");
+            spillFile.deleteOnExit();
+            spillQueue = new TraceSegmentSpillQueue(spillFile, Config.Buffer.SPILL_MAX_SIZE);
+            replayFuture = Executors
+                .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("TraceSegmentReplay"))
+                .scheduleAtFixedRate(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            replay();
+                        } catch (Throwable t) {
+                            logger.error(t, "Replay spilled trace segments fail.");
+                        }
+                    }
+                }, 1, 1, TimeUnit.SECONDS);
+        }
     }
 
     @Override
@@ -77,6 +120,12 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void shutdown() throws Throwable {
         carrier.shutdownConsumers();
+        if (replayFuture != null) {
+            replayFuture.cancel(true);
+        }
+        if (spillQueue != null) {
+            spillQueue.close();
+        }
     }
 
     @Override
@@ -84,62 +133,208 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     }
 
+    /**
+     * Send the segments as one stream through the least busy channel, without waiting for the stream to finish. The
+     * consumer only waits when all channels have {@link Config.Collector#GRPC_STREAMS_PER_CHANNEL} outstanding
+     * streams.
+     */
     @Override
     public void consume(List<TraceSegment> data) {
         if (CONNECTED.equals(status)) {
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<UpstreamSegment> upstreamSegmentStreamObserver = serviceStub.collect(new StreamObserver<Downstream>() {
+            UplinkChannel channel = waitForUplinkChannel();
+            if (channel != null) {
+                List<UpstreamSegment> batch = new ArrayList<UpstreamSegment>(data.size());
+                for (TraceSegment segment : data) {
+                    try {
+                        batch.add(encoder.encode(segment));
+                    } catch (Throwable t) {
+                        logger.error(t, "Transform UpstreamSegment fail.");
+                    } finally {
+                        TraceSegmentPool.INSTANCE.recycle(segment);
+                    }
+                }
+                send(batch, channel, false);
+                printUplinkStatus();
+                return;
+            }
+        }
+
+        for (TraceSegment segment : data) {
+            if (!spill(segment)) {
+                segmentAbandonedCounter.incrementAndGet();
+            }
+        }
+        printUplinkStatus();
+    }
+
+    private UplinkChannel waitForUplinkChannel() {
+        GRPCChannelManager channelManager = ServiceManager.INSTANCE.findService(GRPCChannelManager.class);
+        long time = 0;
+        while (true) {
+            UplinkChannel channel = channelManager.selectUplinkChannel(null, Config.Collector.GRPC_STREAMS_PER_CHANNEL);
+            if (channel != null || time > TIMEOUT || !CONNECTED.equals(status)) {
+                return channel;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                return null;
+            }
+            time += 5;
+        }
+    }
+
+    /**
+     * Send the batch through the given channel, which stream slot has been taken. If the stream fails, the batch is
+     * sent again through another available channel once, otherwise it is spilled.
+     */
+    private void send(final List<UpstreamSegment> batch, final UplinkChannel channel, final boolean isRetry) {
+        final GRPCChannelManager channelManager = ServiceManager.INSTANCE.findService(GRPCChannelManager.class);
+        final AtomicReference<Metadata> headers = new AtomicReference<Metadata>();
+        final AtomicReference<Metadata> trailers = new AtomicReference<Metadata>();
+        TraceSegmentServiceGrpc.TraceSegmentServiceStub stub = MetadataUtils.captureMetadata(
+            TraceSegmentServiceGrpc.newStub(channel.getManagedChannel()), headers, trailers)
+            .withDeadlineAfter(Config.Collector.GRPC_STREAM_TIMEOUT, TimeUnit.SECONDS);
+        String compression = channel.getCompression();
+        if (compression != null) {
+            stub = stub.withCompression(compression);
+        }
+
+        ClientCallStreamObserver<UpstreamSegment> upstreamSegmentStreamObserver;
+        try {
+            upstreamSegmentStreamObserver = (ClientCallStreamObserver<UpstreamSegment>)stub.collect(new StreamObserver<Downstream>() {
                 @Override
                 public void onNext(Downstream downstream) {
-
+                    ServiceManager.INSTANCE.findService(SamplingService.class).updateRemoteSamplingRate(downstream.getSampleNPer3Secs());
                 }
 
                 @Override
                 public void onError(Throwable throwable) {
-                    status.finished();
+                    channel.release();
                     if (logger.isErrorEnable()) {
-                        logger.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+                        logger.error(throwable, "Send UpstreamSegment to collector {} fail with a grpc internal exception.", channel.getServer());
                     }
-                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+                    channelManager.reportError(channel, throwable);
+                    failover(batch, channel, isRetry);
                 }
 
                 @Override
                 public void onCompleted() {
-                    status.finished();
+                    channel.release();
+                    Metadata responseHeaders = headers.get();
+                    if (responseHeaders != null) {
+                        channel.negotiateCompression(responseHeaders.get(ACCEPT_ENCODING_KEY));
+                    }
+                    segmentUplinkedCounter.addAndGet(batch.size());
                 }
             });
+        } catch (Throwable t) {
+            channel.release();
+            logger.error(t, "Open stream to collector {} fail.", channel.getServer());
+            failover(batch, channel, isRetry);
+            return;
+        }
 
-            for (TraceSegment segment : data) {
-                try {
-                    UpstreamSegment upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
-                } catch (Throwable t) {
-                    logger.error(t, "Transform and send UpstreamSegment to collector fail.");
-                }
+        for (UpstreamSegment upstreamSegment : batch) {
+            if (compression != null) {
+                upstreamSegmentStreamObserver.setMessageCompression(upstreamSegment.getSerializedSize() >= Config.Collector.GRPC_COMPRESSION_THRESHOLD);
             }
-            upstreamSegmentStreamObserver.onCompleted();
+            upstreamSegmentStreamObserver.onNext(upstreamSegment);
+        }
+        upstreamSegmentStreamObserver.onCompleted();
+    }
 
-            if (status.wait4Finish(TIMEOUT)) {
-                segmentUplinkedCounter += data.size();
+    private void failover(List<UpstreamSegment> batch, UplinkChannel failedChannel, boolean isRetry) {
+        if (!isRetry) {
+            UplinkChannel channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class)
+                .selectUplinkChannel(failedChannel, Config.Collector.GRPC_STREAMS_PER_CHANNEL);
+            if (channel != null) {
+                send(batch, channel, true);
+                return;
             }
-        } else {
-            segmentAbandonedCounter += data.size();
         }
 
-        printUplinkStatus();
+        TraceSegmentSpillQueue queue = spillQueue;
+        for (UpstreamSegment upstreamSegment : batch) {
+            if (queue == null || !queue.offer(upstreamSegment.toByteArray())) {
+                segmentAbandonedCounter.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Keep the segment in the {@link TraceSegmentSpillQueue} if it is enabled, and recycle the segment.
+     *
+     * @return true, if the segment is spilled.
+     */
+    private boolean spill(TraceSegment segment) {
+        try {
+            TraceSegmentSpillQueue queue = spillQueue;
+            return queue != null && queue.offer(segment);
+        } catch (Throwable t) {
+            logger.error(t, "Spill trace segment fail.");
+            return false;
+        } finally {
+            TraceSegmentPool.INSTANCE.recycle(segment);
+        }
+    }
+
+    /**
+     * Send at most {@link Config.Buffer#SPILL_REPLAY_PER_SECOND} spilled segments, called every second. A broken
+     * record is abandoned and doesn't stop the batch. If the batch can't be handed to {@link #send}, the channel slot
+     * is released and the polled segments are put back to the queue.
+     */
+    void replay() {
+        TraceSegmentSpillQueue queue = spillQueue;
+        if (!CONNECTED.equals(status) || queue == null || queue.size() == 0) {
+            return;
+        }
+        UplinkChannel channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class)
+            .selectUplinkChannel(null, Config.Collector.GRPC_STREAMS_PER_CHANNEL);
+        if (channel == null) {
+            return;
+        }
+
+        List<UpstreamSegment> batch = new ArrayList<UpstreamSegment>();
+        boolean isSent = false;
+        try {
+            byte[] data;
+            while (batch.size() < Config.Buffer.SPILL_REPLAY_PER_SECOND && (data = queue.poll()) != null) {
+                try {
+                    batch.add(UpstreamSegment.parseFrom(data));
+                } catch (InvalidProtocolBufferException e) {
+                    segmentAbandonedCounter.incrementAndGet();
+                    logger.error(e, "Parse spilled trace segment fail, the segment is abandoned.");
+                }
+            }
+            if (!batch.isEmpty()) {
+                isSent = true;
+                send(batch, channel, false);
+                logger.debug("{} spilled trace segments are sent to collector, {} left.", batch.size(), queue.size());
+            }
+        } finally {
+            if (!isSent) {
+                channel.release();
+                for (UpstreamSegment upstreamSegment : batch) {
+                    if (!queue.offer(upstreamSegment.toByteArray())) {
+                        segmentAbandonedCounter.incrementAndGet();
+                    }
+                }
+            }
+        }
     }
 
     private void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
             lastLogTime = currentTimeMillis;
-            if (segmentUplinkedCounter > 0) {
-                logger.debug("{} trace segments have been sent to collector.", segmentUplinkedCounter);
-                segmentUplinkedCounter = 0;
+            long uplinked = segmentUplinkedCounter.getAndSet(0);
+            if (uplinked > 0) {
+                logger.debug("{} trace segments have been sent to collector.", uplinked);
             }
-            if (segmentAbandonedCounter > 0) {
-                logger.debug("{} trace segments have been abandoned, cause by no available channel.", segmentAbandonedCounter);
-                segmentAbandonedCounter = 0;
+            long abandoned = segmentAbandonedCounter.getAndSet(0);
+            if (abandoned > 0) {
+                logger.debug("{} trace segments have been abandoned, cause by no available channel.", abandoned);
             }
         }
     }
@@ -157,10 +352,11 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void afterFinished(TraceSegment traceSegment) {
         if (traceSegment.isIgnore()) {
+            TraceSegmentPool.INSTANCE.recycle(traceSegment);
             return;
         }
         if (!carrier.produce(traceSegment)) {
-            if (logger.isDebugEnable()) {
+            if (!spill(traceSegment) && logger.isDebugEnable()) {
                 logger.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
         }
@@ -168,10 +364,6 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void statusChanged(GRPCChannelStatus status) {
-        if (CONNECTED.equals(status)) {
-            ManagedChannel channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class).getManagedChannel();
-            serviceStub = TraceSegmentServiceGrpc.newStub(channel);
-        }
         this.status = status;
     }
 }
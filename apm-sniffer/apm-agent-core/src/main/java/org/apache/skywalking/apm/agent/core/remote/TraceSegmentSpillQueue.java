@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+
+/**
+ * The <code>TraceSegmentSpillQueue</code> is a bounded FIFO queue of encoded {@link TraceSegment}s, in a memory mapped
+ * file. It keeps the segments, which can't be sent because the collector is unreachable or the buffer is full, until
+ * they are replayed.
+ *
+ * The file is a ring of records, each record is an int length followed by the bytes. When a record doesn't fit the
+ * end of the file, a {@link #WRAP} mark is written, and the record starts from the beginning.
+ *
+ * The file is only a scratch area of the current process, it is not reloaded after restart.
+ */
+public class TraceSegmentSpillQueue {
+    private static final int WRAP = -1;
+    private static final int LENGTH_SIZE = 4;
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int head;
+    private int tail;
+    /**
+     * The bytes taken by the records and the skipped ends of the file.
+     */
+    private int used;
+    private int count;
+
+    public TraceSegmentSpillQueue(File file, int capacity) throws IOException {
+        this.file = file;
+        this.capacity = capacity;
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.setLength(capacity);
+        buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Encode and add the segment, which is safe to be called from any thread. The segment is encoded by {@link
+     * TraceSegment#transform()} outside the lock, because the application threads spill when the buffer is full, and
+     * they should only contend for the copy into the file.
+     *
+     * @return false, if the queue is full.
+     */
+    public boolean offer(TraceSegment segment) {
+        return offer(segment.transform().toByteArray());
+    }
+
+    /**
+     * @return false, if the queue is full.
+     */
+    public synchronized boolean offer(byte[] data) {
+        int recordSize = LENGTH_SIZE + data.length;
+        int skipped = 0;
+        if (capacity - tail < recordSize) {
+            skipped = capacity - tail;
+            if (used + skipped + recordSize > capacity || recordSize > capacity) {
+                return false;
+            }
+        } else if (used + recordSize > capacity) {
+            return false;
+        }
+
+        if (skipped > 0) {
+            if (skipped >= LENGTH_SIZE) {
+                buffer.putInt(tail, WRAP);
+            }
+            used += skipped;
+            tail = 0;
+        }
+        buffer.putInt(tail, data.length);
+        buffer.position(tail + LENGTH_SIZE);
+        buffer.put(data);
+        tail += recordSize;
+        if (tail == capacity) {
+            tail = 0;
+        }
+        used += recordSize;
+        count++;
+        return true;
+    }
+
+    /**
+     * @return the bytes of the eldest segment, or null if the queue is empty.
+     */
+    public synchronized byte[] poll() {
+        if (count == 0) {
+            return null;
+        }
+
+        int length = capacity - head < LENGTH_SIZE ? WRAP : buffer.getInt(head);
+        if (length == WRAP) {
+            used -= capacity - head;
+            head = 0;
+            length = buffer.getInt(head);
+        }
+        byte[] data = new byte[length];
+        buffer.position(head + LENGTH_SIZE);
+        buffer.get(data);
+        head += LENGTH_SIZE + length;
+        if (head == capacity) {
+            head = 0;
+        }
+        used -= LENGTH_SIZE + length;
+        count--;
+        if (count == 0) {
+            head = 0;
+            tail = 0;
+            used = 0;
+        }
+        return data;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized void close() {
+        try {
+            randomAccessFile.close();
+        } catch (IOException ignored) {
+        }
+        file.delete();
+    }
+}
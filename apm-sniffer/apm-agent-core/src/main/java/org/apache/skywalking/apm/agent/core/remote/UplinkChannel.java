@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.ManagedChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * A channel to one of the collectors, which carries the trace segment streams. {@link GRPCChannelManager} keeps
+ * several of them, and the streams are balanced by the amount of outstanding streams per channel.
+ */
+public class UplinkChannel {
+    private static final String GZIP = "gzip";
+    private static final String NONE = "none";
+
+    private final String server;
+    private final ManagedChannel managedChannel;
+    private final AtomicInteger outstanding = new AtomicInteger(0);
+    private volatile boolean broken = false;
+    /**
+     * The message encoding accepted by the collector, null means no compression, until the first stream tells.
+     */
+    private volatile String compression;
+
+    public UplinkChannel(String server, ManagedChannel managedChannel) {
+        this.server = server;
+        this.managedChannel = managedChannel;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public ManagedChannel getManagedChannel() {
+        return managedChannel;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * Pick the compression from the <code>grpc-accept-encoding</code> header of the collector, the configured one if
+     * it is accepted, otherwise gzip, otherwise none.
+     *
+     * @param acceptEncoding the encodings separated by comma, null if the collector doesn't tell.
+     */
+    public void negotiateCompression(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return;
+        }
+        String preferred = Config.Collector.GRPC_COMPRESSION;
+        String negotiated = null;
+        for (String encoding : acceptEncoding.split(",")) {
+            encoding = encoding.trim();
+            if (encoding.equals(preferred)) {
+                negotiated = encoding;
+                break;
+            }
+            if (encoding.equals(GZIP) && !NONE.equals(preferred)) {
+                negotiated = encoding;
+            }
+        }
+        compression = negotiated;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Take one stream slot of this channel.
+     *
+     * @return false, if the channel already has the given max amount of outstanding streams.
+     */
+    public boolean tryAcquire(int maxOutstanding) {
+        while (true) {
+            int current = outstanding.get();
+            if (current >= maxOutstanding) {
+                return false;
+            }
+            if (outstanding.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * The channel is not selected anymore, until {@link GRPCChannelManager} replaces it at the next check.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    public boolean isAvailable() {
+        return !broken && !managedChannel.isShutdown() && !managedChannel.isTerminated();
+    }
+}
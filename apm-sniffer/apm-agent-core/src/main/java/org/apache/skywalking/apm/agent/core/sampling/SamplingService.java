@@ -23,7 +23,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
@@ -36,17 +37,50 @@ import org.apache.skywalking.apm.agent.core.conf.Config;
  * have been traced, but, considering CPU cost of serialization/deserialization, and network bandwidth, the agent do NOT
  * send all of them to collector, if SAMPLING is on.
  * <p>
- * By default, SAMPLING is on, and {@see {@link Config.Agent#SAMPLE_N_PER_3_SECS }}
+ * By default, SAMPLING is on, and {@see {@link Config.Agent#SAMPLE_N_PER_3_SECS }}, which could be overridden by the
+ * collector through {@link #updateRemoteSamplingRate(int)}.
+ * <p>
+ * The sampling works in two steps:
+ * 1. Every 3 seconds, the amount of traces in the last window is observed from striped counters, and smoothed. When
+ * it is higher than the rate, only a share of the traces, rate / observed, is selected, evenly spread in the window.
+ * 2. The selected traces pass a token bucket, which refills smoothly at the rate, and holds 3 seconds of tokens at
+ * most. So a spike, before the share adapts, can't exceed the rate.
  *
  * @author wusheng
  */
 public class SamplingService implements BootService {
     private static final ILog logger = LogManager.getLogger(SamplingService.class);
 
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(3);
+    /**
+     * The number of trace counters, must be power of 2.
+     */
+    private static final int STRIPES = 16;
+    /**
+     * Every counter takes a cache line, 8 longs, to avoid false sharing.
+     */
+    private static final int PADDING = 8;
+    /**
+     * The weight of the latest window in the observed traces.
+     */
+    private static final double SMOOTHING = 0.5;
+
     private volatile boolean on = false;
-    private volatile AtomicInteger samplingFactorHolder;
+    private volatile int samplingRate;
+    private volatile int remoteSamplingRate = 0;
+    private volatile long intervalNanos;
+    private volatile double samplingShare = 1;
     private volatile ScheduledFuture<?> scheduledFuture;
 
+    /**
+     * The theoretical time of the next token, see GCRA. A trace is sampled, if the time doesn't go beyond now plus 3
+     * seconds.
+     */
+    private final AtomicLong nextTokenTime = new AtomicLong();
+    private final AtomicLongArray traceCounters = new AtomicLongArray(STRIPES * PADDING);
+    private long lastTraceCount;
+    private double observedTracesPerWindow = -1;
+
     @Override
     public void beforeBoot() throws Throwable {
 
@@ -61,19 +95,16 @@ public class SamplingService implements BootService {
              */
             scheduledFuture.cancel(true);
         }
-        if (Config.Agent.SAMPLE_N_PER_3_SECS > 0) {
-            on = true;
-            this.resetSamplingFactor();
-            ScheduledExecutorService service = Executors
-                .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SamplingService"));
-            scheduledFuture = service.scheduleAtFixedRate(new Runnable() {
-                @Override
-                public void run() {
-                    resetSamplingFactor();
-                }
-            }, 0, 3, TimeUnit.SECONDS);
-            logger.debug("Agent sampling mechanism started. Sample {} traces in 10 seconds.", Config.Agent.SAMPLE_N_PER_3_SECS);
-        }
+        remoteSamplingRate = 0;
+        applySamplingRate(Config.Agent.SAMPLE_N_PER_3_SECS);
+        ScheduledExecutorService service = Executors
+            .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SamplingService"));
+        scheduledFuture = service.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                adaptSamplingShare();
+            }
+        }, 3, 3, TimeUnit.SECONDS);
     }
 
     @Override
@@ -91,13 +122,7 @@ public class SamplingService implements BootService {
      */
     public boolean trySampling() {
         if (on) {
-            int factor = samplingFactorHolder.get();
-            if (factor < Config.Agent.SAMPLE_N_PER_3_SECS) {
-                boolean success = samplingFactorHolder.compareAndSet(factor, factor + 1);
-                return success;
-            } else {
-                return false;
-            }
+            return isInSamplingShare() && tryAcquireToken();
         }
         return true;
     }
@@ -110,11 +135,100 @@ public class SamplingService implements BootService {
      */
     public void forceSampled() {
         if (on) {
-            samplingFactorHolder.incrementAndGet();
+            long now = System.nanoTime();
+            long interval = intervalNanos;
+            while (true) {
+                long tokenTime = nextTokenTime.get();
+                long base = tokenTime - now > 0 ? tokenTime : now;
+                if (base - now >= WINDOW_NANOS) {
+                    return;
+                }
+                if (nextTokenTime.compareAndSet(tokenTime, base + interval)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Use the sampling rate pushed by the collector.
+     *
+     * @param sampleNPer3Secs 0 means to use {@link Config.Agent#SAMPLE_N_PER_3_SECS}, negative number means sample all.
+     */
+    public void updateRemoteSamplingRate(int sampleNPer3Secs) {
+        if (sampleNPer3Secs == remoteSamplingRate) {
+            return;
+        }
+        remoteSamplingRate = sampleNPer3Secs;
+        int rate = sampleNPer3Secs == 0 ? Config.Agent.SAMPLE_N_PER_3_SECS : sampleNPer3Secs;
+        logger.info("Sampling rate changed by the collector, sample {} traces in 3 seconds.", rate);
+        applySamplingRate(rate);
+    }
+
+    private void applySamplingRate(int rate) {
+        if (rate > 0) {
+            intervalNanos = WINDOW_NANOS / rate;
+            nextTokenTime.set(System.nanoTime());
+            samplingRate = rate;
+            on = true;
+            logger.debug("Agent sampling mechanism started. Sample {} traces in 3 seconds.", rate);
+        } else {
+            on = false;
+            samplingRate = rate;
+            samplingShare = 1;
         }
     }
 
-    private void resetSamplingFactor() {
-        samplingFactorHolder = new AtomicInteger(0);
+    /**
+     * Count the trace in the counter of the current thread, and select it if the count crosses an integer boundary of
+     * the share, e.g. every 4th trace when the share is 0.25.
+     */
+    private boolean isInSamplingShare() {
+        int index = ((int)Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+        long count = traceCounters.incrementAndGet(index);
+        double share = samplingShare;
+        if (share >= 1) {
+            return true;
+        }
+        return (long)(count * share) != (long)((count - 1) * share);
+    }
+
+    private boolean tryAcquireToken() {
+        long now = System.nanoTime();
+        long interval = intervalNanos;
+        while (true) {
+            long tokenTime = nextTokenTime.get();
+            long next = (tokenTime - now > 0 ? tokenTime : now) + interval;
+            if (next - now > WINDOW_NANOS) {
+                return false;
+            }
+            if (nextTokenTime.compareAndSet(tokenTime, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Observe the traces of the last window, and adapt the share of the traces to select.
+     */
+    void adaptSamplingShare() {
+        long traceCount = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            traceCount += traceCounters.get(i * PADDING);
+        }
+        long tracesInWindow = traceCount - lastTraceCount;
+        lastTraceCount = traceCount;
+        if (observedTracesPerWindow < 0) {
+            observedTracesPerWindow = tracesInWindow;
+        } else {
+            observedTracesPerWindow = SMOOTHING * tracesInWindow + (1 - SMOOTHING) * observedTracesPerWindow;
+        }
+
+        int rate = samplingRate;
+        if (!on || observedTracesPerWindow <= rate) {
+            samplingShare = 1;
+        } else {
+            samplingShare = rate / observedTracesPerWindow;
+        }
     }
 }
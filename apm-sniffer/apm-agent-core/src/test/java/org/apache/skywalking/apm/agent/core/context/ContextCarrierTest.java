@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Collections;
+import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.apache.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ContextCarrierTest {
+    private static final String HEADER = "1.2343.234234234|1|1|1|#127.0.0.1:8080|#/portal/|#/testEntrySpan|1.2343.234234235";
+
+    @Test
+    public void testDeserialize() {
+        ContextCarrier carrier = new ContextCarrier().deserialize(HEADER);
+        assertTrue(carrier.isValid());
+        assertEquals(new ID(1, 2343, 234234234), carrier.getTraceSegmentId());
+        assertEquals(1, carrier.getSpanId());
+        assertEquals(1, carrier.getParentApplicationInstanceId());
+        assertEquals(1, carrier.getEntryApplicationInstanceId());
+        assertEquals("#127.0.0.1:8080", carrier.getPeerHost());
+        assertEquals("#/portal/", carrier.getEntryOperationName());
+        assertEquals("#/testEntrySpan", carrier.getParentOperationName());
+        assertEquals(new PropagatedTraceId("1.2343.234234235"), carrier.getDistributedTraceId());
+        assertEquals("1.2343.234234235", carrier.getDistributedTraceId().encode());
+    }
+
+    @Test
+    public void testSerializeAsItIsPropagated() {
+        assertEquals(HEADER, new ContextCarrier().deserialize(HEADER).serialize());
+
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceSegmentId(new ID(1, -2, 3));
+        carrier.setSpanId(Integer.MAX_VALUE);
+        carrier.setParentApplicationInstanceId(Integer.MIN_VALUE);
+        carrier.setEntryApplicationInstanceId(5);
+        carrier.setPeerId(6);
+        carrier.setEntryOperationId(7);
+        carrier.setParentOperationName("/parent");
+        carrier.setDistributedTraceIds(Collections.<DistributedTraceId>singletonList(new PropagatedTraceId("9.8.7")));
+        String header = carrier.serialize();
+        assertEquals("1.-2.3|2147483647|-2147483648|5|6|7|#/parent|9.8.7", header);
+
+        ContextCarrier deserialized = new ContextCarrier().deserialize(header);
+        assertEquals(new ID(1, -2, 3), deserialized.getTraceSegmentId());
+        assertEquals(Integer.MAX_VALUE, deserialized.getSpanId());
+        assertEquals(Integer.MIN_VALUE, deserialized.getParentApplicationInstanceId());
+        assertEquals(header, deserialized.serialize());
+    }
+
+    @Test
+    public void testDeserializeBrokenHeader() {
+        assertFalse(new ContextCarrier().deserialize(null).isValid());
+        assertFalse(new ContextCarrier().deserialize("").isValid());
+        assertFalse(new ContextCarrier().deserialize("1.2.3|1|1|1|#peer|#entry|#parent").isValid());
+        assertFalse(new ContextCarrier().deserialize("1.2.3|x|1|1|#peer|#entry|#parent|1.2.3").isValid());
+        assertFalse(new ContextCarrier().deserialize("1.2.3|1||1|#peer|#entry|#parent|1.2.3").isValid());
+        assertFalse(new ContextCarrier().deserialize("1.2.3|1|1|2147483648|#peer|#entry|#parent|1.2.3").isValid());
+        assertFalse(new ContextCarrier().deserialize("1.2|1|1|1|#peer|#entry|#parent|1.2.3").isValid());
+        assertEquals("", new ContextCarrier().serialize());
+    }
+}
@@ -22,9 +22,11 @@ package org.apache.skywalking.apm.agent.core.context;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.List;
 
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanSummary;
 import org.apache.skywalking.apm.agent.core.context.util.AbstractTracingSpanHelper;
 import org.apache.skywalking.apm.agent.core.context.util.SegmentHelper;
 import org.apache.skywalking.apm.agent.core.context.util.TraceSegmentRefHelper;
@@ -37,6 +39,7 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.LogDataEntity;
+import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
 import org.apache.skywalking.apm.agent.core.context.util.SpanHelper;
@@ -54,6 +57,7 @@ import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -296,4 +300,119 @@ public class ContextManagerTest {
         assertThat(values.get(2).getValue(), is("exception"));
         assertTrue(values.get(2).getValue().length() <= 4000);
     }
+
+    @Test
+    public void summarizeExitSpansOverSpanLimit() throws InvalidProtocolBufferException {
+        int spanLimit = Config.Agent.SPAN_LIMIT_PER_SEGMENT;
+        Config.Agent.SPAN_LIMIT_PER_SEGMENT = 2;
+        Config.Agent.SPAN_LIMIT_SUMMARY = true;
+        try {
+            ContextManager.createEntrySpan("/testEntrySpan", null);
+            ContextManager.createExitSpan("/firstQuery", "127.0.0.1:3306").setComponent(ComponentsDefine.MYSQL);
+            ContextManager.stopSpan();
+            for (int i = 0; i < 5; i++) {
+                AbstractSpan span = ContextManager.createExitSpan("/loopQuery", "127.0.0.1:3306");
+                span.setComponent(ComponentsDefine.MYSQL);
+                SpanLayer.asDB(span);
+                if (i == 3) {
+                    span.errorOccurred();
+                }
+                ContextCarrier carrier = new ContextCarrier();
+                ContextManager.inject(carrier);
+                assertThat(carrier.getSpanId(), is(2));
+                ContextManager.stopSpan();
+            }
+            ContextManager.createExitSpan("/loopQuery", "127.0.0.2:3306");
+            ContextManager.stopSpan();
+            ContextManager.stopSpan();
+        } finally {
+            Config.Agent.SPAN_LIMIT_PER_SEGMENT = spanLimit;
+            Config.Agent.SPAN_LIMIT_SUMMARY = false;
+        }
+
+        TraceSegment actualSegment = tracingData.getTraceSegments().get(0);
+        TraceSegmentObject traceSegmentObject = TraceSegmentObject.parseFrom(actualSegment.transform().getSegment());
+        assertThat(traceSegmentObject.getIsSizeLimited(), is(true));
+        assertThat(traceSegmentObject.getSpansCount(), is(4));
+
+        SpanObject summarySpan = null;
+        for (SpanObject span : traceSegmentObject.getSpansList()) {
+            if (span.getSpanId() == 2) {
+                summarySpan = span;
+            }
+        }
+        assertThat(summarySpan.getOperationName(), is("/loopQuery"));
+        assertThat(summarySpan.getPeer(), is("127.0.0.1:3306"));
+        assertThat(summarySpan.getParentSpanId(), is(0));
+        assertThat(summarySpan.getComponentId(), is(ComponentsDefine.MYSQL.getId()));
+        assertThat(summarySpan.getSpanLayerValue(), is(SpanLayer.DB.getCode()));
+        assertThat(summarySpan.getIsError(), is(true));
+        List<KeyWithStringValue> tags = summarySpan.getTagsList();
+        assertThat(tags.get(0).getKey(), is(SpanSummary.COUNT));
+        assertThat(tags.get(0).getValue(), is("5"));
+        assertThat(tags.get(4).getKey(), is(SpanSummary.ERROR_COUNT));
+        assertThat(tags.get(4).getValue(), is("1"));
+    }
+
+    @Test
+    public void flushFinishedSpansOfRunningSegment() throws InvalidProtocolBufferException {
+        Config.Agent.SEGMENT_FLUSH_SPAN_COUNT = 2;
+        try {
+            ContextManager.createEntrySpan("/testEntrySpan", null);
+            for (int i = 0; i < 3; i++) {
+                ContextManager.createExitSpan("/testExitSpan", "127.0.0.1:8080");
+                ContextManager.stopSpan();
+            }
+            assertThat(tracingData.getTraceSegments().size(), is(1));
+            ContextManager.stopSpan();
+        } finally {
+            Config.Agent.SEGMENT_FLUSH_SPAN_COUNT = 0;
+        }
+
+        assertThat(tracingData.getTraceSegments().size(), is(2));
+        TraceSegment part = tracingData.getTraceSegments().get(0);
+        TraceSegment finishedSegment = tracingData.getTraceSegments().get(1);
+        assertThat(part.getTraceSegmentId(), is(finishedSegment.getTraceSegmentId()));
+        assertThat(part.getRelatedGlobalTraces(), is(finishedSegment.getRelatedGlobalTraces()));
+        assertThat(part.getPartSequence(), is(1));
+        assertThat(finishedSegment.getPartSequence(), is(0));
+        assertTrue(finishedSegment.hasFlushedParts());
+
+        TraceSegmentObject partObject = TraceSegmentObject.parseFrom(part.transform().getSegment());
+        assertThat(partObject.getPartSequence(), is(1));
+        assertThat(partObject.getSpansCount(), is(2));
+        assertThat(partObject.getSpans(0).getSpanId(), is(1));
+        assertThat(partObject.getSpans(1).getSpanId(), is(2));
+
+        TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(finishedSegment.transform().getSegment());
+        assertThat(segmentObject.getPartSequence(), is(0));
+        assertThat(segmentObject.getSpansCount(), is(2));
+        assertThat(segmentObject.getSpans(0).getSpanId(), is(3));
+        assertThat(segmentObject.getSpans(1).getSpanId(), is(0));
+    }
+
+    @Test
+    public void spanLimitAppliesToSpansNotFlushed() throws InvalidProtocolBufferException {
+        Config.Agent.SEGMENT_FLUSH_SPAN_COUNT = 10;
+        int spanCount = Config.Agent.SPAN_LIMIT_PER_SEGMENT + 100;
+        try {
+            ContextManager.createEntrySpan("/testEntrySpan", null);
+            for (int i = 0; i < spanCount; i++) {
+                AbstractSpan span = ContextManager.createLocalSpan("/testLocalSpan");
+                assertFalse(span instanceof NoopSpan);
+                ContextManager.stopSpan();
+            }
+            ContextManager.stopSpan();
+        } finally {
+            Config.Agent.SEGMENT_FLUSH_SPAN_COUNT = 0;
+        }
+
+        int sentSpanCount = 0;
+        for (TraceSegment segment : tracingData.getTraceSegments()) {
+            sentSpanCount += TraceSegmentObject.parseFrom(segment.transform().getSegment()).getSpansCount();
+        }
+        assertThat(sentSpanCount, is(spanCount + 1));
+        TraceSegment finishedSegment = tracingData.getTraceSegments().get(tracingData.getTraceSegments().size() - 1);
+        assertFalse(TraceSegmentObject.parseFrom(finishedSegment.transform().getSegment()).getIsSizeLimited());
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class URITemplateMatcherTest {
+    @Before
+    public void setUp() {
+        URITemplateMatcher.INSTANCE.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Config.Agent.URI_TEMPLATES = "";
+        Config.Agent.URI_NORMALIZE_ID_SEGMENTS = false;
+        URITemplateMatcher.INSTANCE.reset();
+    }
+
+    @Test
+    public void testConfiguredTemplates() {
+        Config.Agent.URI_TEMPLATES = "/orders/{id}, /orders/{id}/items/*, /orders/latest, /static/**";
+        URITemplateMatcher matcher = URITemplateMatcher.INSTANCE;
+
+        assertThat(matcher.normalize(null, "/orders/abc"), is("/orders/{id}"));
+        assertThat(matcher.normalize(null, "/orders/latest"), is("/orders/latest"));
+        assertThat(matcher.normalize(null, "/orders/abc/items/def"), is("/orders/{id}/items/*"));
+        assertThat(matcher.normalize(null, "/static/js/app.js"), is("/static/**"));
+        assertThat(matcher.normalize(null, "/users/abc"), is("/users/abc"));
+    }
+
+    @Test
+    public void testRegisteredTemplateAfterContextPath() {
+        URITemplateMatcher matcher = URITemplateMatcher.INSTANCE;
+        matcher.register("/accounts/{accountId}/profile");
+
+        assertThat(matcher.normalize("/shop", "/shop/accounts/tom/profile"), is("/shop/accounts/{accountId}/profile"));
+    }
+
+    @Test
+    public void testReplaceIdSegments() {
+        URITemplateMatcher matcher = URITemplateMatcher.INSTANCE;
+        assertThat(matcher.normalize(null, "/carts/123456/entries/7"), is("/carts/123456/entries/7"));
+
+        Config.Agent.URI_NORMALIZE_ID_SEGMENTS = true;
+        assertThat(matcher.normalize(null, "/carts/123456/entries/7"), is("/carts/{id}/entries/{id}"));
+        assertThat(matcher.normalize(null, "/carts/6ba7b810-9dad-11d1-80b4-00c04fd430c8"), is("/carts/{id}"));
+        assertThat(matcher.normalize(null, "/carts/v2/checkout"), is("/carts/v2/checkout"));
+
+        Config.Agent.URI_NORMALIZE_ID_SEGMENTS = false;
+        assertThat(matcher.normalize(null, "/carts/123456/entries/7"), is("/carts/123456/entries/7"));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IDTest {
+
+    @Test
+    public void testEncode() {
+        assertEquals("1.2.3", new ID(1, 2, 3).encode());
+        assertEquals("0.-45.15163092350000", new ID(0, -45, 15163092350000L).encode());
+        assertEquals(Long.MIN_VALUE + "." + Long.MAX_VALUE + ".-1", new ID(Long.MIN_VALUE, Long.MAX_VALUE, -1).encode());
+        assertEquals("1.2.3", new ID(1, 2, 3).toString());
+    }
+
+    @Test
+    public void testDecode() {
+        ID id = new ID("2.10.15163092350001");
+        assertTrue(id.isValid());
+        assertEquals(new ID(2, 10, 15163092350001L), id);
+        assertEquals("2.10.15163092350001", id.encode());
+
+        ID edge = new ID(Long.MIN_VALUE + "." + Long.MAX_VALUE + ".-1");
+        assertTrue(edge.isValid());
+        assertEquals(new ID(Long.MIN_VALUE, Long.MAX_VALUE, -1), edge);
+    }
+
+    @Test
+    public void testDecodeRange() {
+        String text = "1|2.10.15163092350001|3";
+        ID id = new ID(text, 2, 21);
+        assertTrue(id.isValid());
+        assertEquals(new ID(2, 10, 15163092350001L), id);
+
+        StringBuilder builder = new StringBuilder();
+        id.appendTo(builder);
+        assertEquals("2.10.15163092350001", builder.toString());
+        assertEquals("2.10.15163092350001", id.encode());
+
+        assertFalse(new ID("1.2|3.4", 0, 3).isValid());
+        assertFalse(new ID("1.2.3|4", 0, 3).isValid());
+    }
+
+    @Test
+    public void testDecodeInvalid() {
+        assertFalse(new ID("").isValid());
+        assertFalse(new ID("1.2").isValid());
+        assertFalse(new ID("1.2.3.4").isValid());
+        assertFalse(new ID("1..3").isValid());
+        assertFalse(new ID("1.2.").isValid());
+        assertFalse(new ID("1.-.3").isValid());
+        assertFalse(new ID("1.a.3").isValid());
+        assertFalse(new ID("1.2.9223372036854775808").isValid());
+        assertFalse(new ID("1.2.-9223372036854775809").isValid());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.network.proto.UpstreamSegment;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TraceSegmentEncoderTest {
+
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        RemoteDownstreamConfig.Agent.APPLICATION_ID = 1;
+        RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID = 1;
+    }
+
+    @Test
+    public void testSameBytesAsTransform() throws Exception {
+        TraceSegment segment = new TraceSegment();
+
+        EntrySpan entrySpan = new EntrySpan(0, -1, "/testEntrySpan");
+        entrySpan.start();
+        entrySpan.ref(new TraceSegmentRef(carrier("1.2343.234234234|1|1|1|#127.0.0.1:8080|#/portal/|#/testEntrySpan|1.2343.234234234")));
+        entrySpan.ref(new TraceSegmentRef(carrier("1.2343.234234235|3|2|2|12|23|34|1.2343.234234234")));
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        entrySpan.setLayer(SpanLayer.HTTP);
+        entrySpan.tag("url", "http://127.0.0.1:8080/\u00e9t\u00e9");
+        entrySpan.tag("status_code", null);
+
+        LocalSpan localSpan = new LocalSpan(1, 0, 10);
+        localSpan.start();
+        localSpan.setComponent("custom-component");
+        localSpan.log(new RuntimeException("local failure"));
+        Map<String, String> fields = new HashMap<String, String>();
+        fields.put("event", "error");
+        localSpan.log(System.currentTimeMillis(), fields);
+        localSpan.finish(segment);
+
+        ExitSpan nameExitSpan = new ExitSpan(2, 0, "/testExitSpan", "127.0.0.1:3306");
+        nameExitSpan.start();
+        nameExitSpan.setLayer(SpanLayer.DB);
+        nameExitSpan.finish(segment);
+
+        ExitSpan idExitSpan = new ExitSpan(3, 0, 5, 7);
+        idExitSpan.start();
+        idExitSpan.errorOccurred();
+        idExitSpan.finish(segment);
+
+        entrySpan.finish(segment);
+        segment.finish(true);
+
+        UpstreamSegment expected = segment.transform();
+        TraceSegmentEncoder encoder = new TraceSegmentEncoder();
+        UpstreamSegment actual = encoder.encode(segment);
+
+        assertArrayEquals(expected.getSegment().toByteArray(), actual.getSegment().toByteArray());
+        assertEquals(expected, actual);
+        assertArrayEquals(expected.toByteArray(), encoder.encode(segment).toByteArray());
+    }
+
+    @Test
+    public void testEncodeSegmentBiggerThanBuffer() throws Exception {
+        TraceSegment segment = new TraceSegment();
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longValue.append("select * from test_table;");
+        }
+        for (int i = 0; i < 10; i++) {
+            ExitSpan exitSpan = new ExitSpan(i, -1, "/testExitSpan", "127.0.0.1:3306");
+            exitSpan.start();
+            exitSpan.tag("db.statement", longValue.toString());
+            exitSpan.finish(segment);
+        }
+
+        assertArrayEquals(segment.transform().toByteArray(), new TraceSegmentEncoder().encode(segment).toByteArray());
+    }
+
+    @Test
+    public void testEncodeSegmentWithManyNestedMessages() throws Exception {
+        TraceSegment segment = new TraceSegment();
+        for (int i = 0; i < 200; i++) {
+            LocalSpan localSpan = new LocalSpan(i, -1, "/testLocalSpan" + i);
+            localSpan.start();
+            localSpan.tag("index", String.valueOf(i));
+            localSpan.tag("name", "\u00e9t\u00e9" + i);
+            localSpan.finish(segment);
+        }
+        TraceSegmentEncoder encoder = new TraceSegmentEncoder();
+
+        assertArrayEquals(segment.transform().toByteArray(), encoder.encode(segment).toByteArray());
+        assertArrayEquals(segment.transform().toByteArray(), encoder.encode(segment).toByteArray());
+    }
+
+    private ContextCarrier carrier(String headValue) {
+        ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            next.setHeadValue(headValue);
+        }
+        return carrier;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TraceSegmentPoolTest {
+
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        RemoteDownstreamConfig.Agent.APPLICATION_ID = 1;
+        RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID = 1;
+    }
+
+    @Before
+    public void setUp() {
+        Config.Agent.RECYCLE_TRACING_OBJECTS = true;
+    }
+
+    @After
+    public void tearDown() {
+        Config.Agent.RECYCLE_TRACING_OBJECTS = false;
+    }
+
+    @Test
+    public void testReuseSegmentAndSpans() throws Exception {
+        TraceSegment segment = TraceSegmentPool.INSTANCE.obtain();
+        ID firstSegmentId = segment.getTraceSegmentId();
+        EntrySpan entrySpan = segment.newEntrySpan(0, -1, DictionaryUtil.nullValue(), "/testEntrySpan");
+        entrySpan.start();
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        entrySpan.tag("url", "http://127.0.0.1:8080/testEntrySpan");
+        entrySpan.log(new RuntimeException("entry failure"));
+        ExitSpan exitSpan = segment.newExitSpan(1, 0, 3, "/testExitSpan", DictionaryUtil.nullValue(), "127.0.0.1:3306");
+        exitSpan.start();
+        exitSpan.errorOccurred();
+        exitSpan.finish(segment);
+        entrySpan.finish(segment);
+        segment.finish(true);
+
+        TraceSegmentPool.INSTANCE.recycle(segment);
+        TraceSegmentPool.INSTANCE.recycle(segment);
+
+        TraceSegment reused = TraceSegmentPool.INSTANCE.obtain();
+        assertSame(segment, reused);
+        assertNotSame(firstSegmentId, reused.getTraceSegmentId());
+        assertEquals(1, reused.getRelatedGlobalTraces().size());
+        assertFalse(reused.hasRef());
+
+        ExitSpan reusedExitSpan = reused.newExitSpan(0, -1, DictionaryUtil.nullValue(), "/testReusedExitSpan", 5, "127.0.0.1:3306");
+        assertSame(exitSpan, reusedExitSpan);
+        assertEquals(DictionaryUtil.nullValue(), reusedExitSpan.getOperationId());
+        assertEquals("/testReusedExitSpan", reusedExitSpan.getOperationName());
+        assertEquals(5, reusedExitSpan.getPeerId());
+        assertNull(reusedExitSpan.getPeer());
+        reusedExitSpan.start();
+        reusedExitSpan.finish(reused);
+        reused.finish(false);
+
+        TraceSegment expected = new TraceSegment();
+        ExitSpan expectedExitSpan = new ExitSpan(0, -1, "/testReusedExitSpan", 5);
+        expectedExitSpan.startTime = reusedExitSpan.startTime;
+        expectedExitSpan.endTime = reusedExitSpan.endTime;
+        expected.archive(expectedExitSpan);
+        Whitebox.setInternalState(expected, "traceSegmentId", reused.getTraceSegmentId());
+
+        assertArrayEquals(expected.transform().getSegment().toByteArray(), reused.transform().getSegment().toByteArray());
+    }
+
+    @Test
+    public void testNotPooledWhenDisabled() {
+        Config.Agent.RECYCLE_TRACING_OBJECTS = false;
+        TraceSegment segment = TraceSegmentPool.INSTANCE.obtain();
+        segment.finish(false);
+        TraceSegmentPool.INSTANCE.recycle(segment);
+
+        assertFalse(segment.isRecycled());
+        assertNotSame(segment, TraceSegmentPool.INSTANCE.obtain());
+    }
+}
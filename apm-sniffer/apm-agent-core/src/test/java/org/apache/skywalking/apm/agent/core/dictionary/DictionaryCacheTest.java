@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.agent.core.dictionary;
+
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.network.proto.ServiceNameCollection;
+import org.apache.skywalking.apm.network.proto.ServiceNameDiscoveryServiceGrpc;
+import org.apache.skywalking.apm.network.proto.ServiceNameElement;
+import org.apache.skywalking.apm.network.proto.ServiceNameMappingCollection;
+import org.apache.skywalking.apm.network.proto.ServiceNameMappingElement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DictionaryCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Rule
+    public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
+
+    private List<ServiceNameCollection> requests = new ArrayList<ServiceNameCollection>();
+    private int collectorOperationId;
+    private ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceBlockingStub stub;
+
+    @Before
+    public void setUp() {
+        grpcServerRule.getServiceRegistry().addService(new ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceImplBase() {
+            @Override
+            public void discovery(ServiceNameCollection request,
+                StreamObserver<ServiceNameMappingCollection> responseObserver) {
+                requests.add(request);
+                ServiceNameMappingCollection.Builder builder = ServiceNameMappingCollection.newBuilder();
+                for (ServiceNameElement element : request.getElementsList()) {
+                    builder.addElements(ServiceNameMappingElement.newBuilder().setElement(element).setServiceId(collectorOperationId));
+                }
+                responseObserver.onNext(builder.build());
+                responseObserver.onCompleted();
+            }
+        });
+        stub = ServiceNameDiscoveryServiceGrpc.newBlockingStub(grpcServerRule.getChannel());
+    }
+
+    @After
+    public void tearDown() {
+        ApplicationDictionary.INSTANCE.clear();
+        OperationNameDictionary.INSTANCE.clear();
+    }
+
+    @Test
+    public void testSaveLoadAndConfirm() throws Exception {
+        DictionaryCache cache = new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800,10.0.0.2:10800");
+        assertEquals(DictionaryUtil.nullValue(), cache.load());
+
+        ApplicationDictionary.INSTANCE.restore("peer-app", 3);
+        OperationNameDictionary.INSTANCE.restore(2, "/test/first", 11);
+        OperationNameDictionary.INSTANCE.restore(2, "/test/last", 12);
+        cache.saveIfChanged(2);
+        ApplicationDictionary.INSTANCE.clear();
+        OperationNameDictionary.INSTANCE.clear();
+
+        DictionaryCache restartedCache = new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.2:10800, 10.0.0.1:10800");
+        assertEquals(2, restartedCache.load());
+        assertFalse(ApplicationDictionary.INSTANCE.find("peer-app").isFound());
+        assertFalse(OperationNameDictionary.INSTANCE.findOnly(2, "/test/last").isFound());
+
+        collectorOperationId = 12;
+        assertTrue(restartedCache.confirm(stub));
+        assertEquals(1, requests.size());
+        assertEquals(1, requests.get(0).getElementsCount());
+        assertEquals("/test/last", requests.get(0).getElements(0).getServiceName());
+
+        assertEquals(3, ApplicationDictionary.INSTANCE.find("peer-app").getValue());
+        assertEquals(11, OperationNameDictionary.INSTANCE.findOnly(2, "/test/first").getValue());
+        assertEquals(12, OperationNameDictionary.INSTANCE.findOnly(2, "/test/last").getValue());
+    }
+
+    @Test
+    public void testRejectedWhenSampledIdChanged() throws Exception {
+        OperationNameDictionary.INSTANCE.restore(2, "/test/operation", 12);
+        new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800").saveIfChanged(2);
+        OperationNameDictionary.INSTANCE.clear();
+
+        DictionaryCache cache = new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800");
+        assertEquals(2, cache.load());
+        collectorOperationId = 5;
+        assertFalse(cache.confirm(stub));
+        assertFalse(OperationNameDictionary.INSTANCE.findOnly(2, "/test/operation").isFound());
+    }
+
+    @Test
+    public void testCachePerApplicationAndCollector() throws Exception {
+        ApplicationDictionary.INSTANCE.restore("peer-app", 3);
+        new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800").saveIfChanged(2);
+        ApplicationDictionary.INSTANCE.clear();
+
+        assertEquals(DictionaryUtil.nullValue(), new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.3:10800").load());
+        assertEquals(DictionaryUtil.nullValue(), new DictionaryCache(folder.getRoot(), "other-app", "10.0.0.1:10800").load());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        ApplicationDictionary.INSTANCE.restore("peer-app", 3);
+        new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800").saveIfChanged(2);
+        ApplicationDictionary.INSTANCE.clear();
+
+        DictionaryCache cache = new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800");
+        assertEquals(2, cache.load());
+        cache.invalidate();
+        assertTrue(cache.confirm(stub));
+        assertFalse(ApplicationDictionary.INSTANCE.find("peer-app").isFound());
+        assertEquals(DictionaryUtil.nullValue(), new DictionaryCache(folder.getRoot(), "test-app", "10.0.0.1:10800").load());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.dictionary;
+
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.network.proto.ServiceNameCollection;
+import org.apache.skywalking.apm.network.proto.ServiceNameDiscoveryServiceGrpc;
+import org.apache.skywalking.apm.network.proto.ServiceNameElement;
+import org.apache.skywalking.apm.network.proto.ServiceNameMappingCollection;
+import org.apache.skywalking.apm.network.proto.ServiceNameMappingElement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OperationNameDictionaryTest {
+    @Rule
+    public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
+
+    private List<ServiceNameCollection> requests = new ArrayList<ServiceNameCollection>();
+    private ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceStub stub;
+    private int originalPageSize;
+    private long originalRegisterTimeout;
+
+    @Before
+    public void setUp() {
+        originalPageSize = Config.Dictionary.REGISTER_PAGE_SIZE;
+        Config.Dictionary.REGISTER_PAGE_SIZE = 2;
+        originalRegisterTimeout = Config.Dictionary.REGISTER_TIMEOUT;
+
+        grpcServerRule.getServiceRegistry().addService(new ServiceNameDiscoveryServiceGrpc.ServiceNameDiscoveryServiceImplBase() {
+            @Override
+            public void discovery(ServiceNameCollection request,
+                StreamObserver<ServiceNameMappingCollection> responseObserver) {
+                requests.add(request);
+                if (request.getElements(0).getServiceName().startsWith("/hang")) {
+                    return;
+                }
+                ServiceNameMappingCollection.Builder builder = ServiceNameMappingCollection.newBuilder();
+                for (ServiceNameElement element : request.getElementsList()) {
+                    if (!element.getServiceName().startsWith("/unresolved")) {
+                        builder.addElements(ServiceNameMappingElement.newBuilder().setElement(element).setServiceId(100 + requests.size()));
+                    }
+                }
+                responseObserver.onNext(builder.build());
+                responseObserver.onCompleted();
+            }
+        });
+        stub = ServiceNameDiscoveryServiceGrpc.newStub(grpcServerRule.getChannel());
+    }
+
+    @After
+    public void tearDown() {
+        Config.Dictionary.REGISTER_PAGE_SIZE = originalPageSize;
+        Config.Dictionary.REGISTER_TIMEOUT = originalRegisterTimeout;
+        OperationNameDictionary.INSTANCE.clear();
+    }
+
+    @Test
+    public void testSyncAllPagesInOneTick() {
+        OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/first");
+        OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/second");
+        OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/third");
+
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(2, requests.size());
+        assertEquals(2, requests.get(0).getElementsCount());
+        assertEquals(1, requests.get(1).getElementsCount());
+
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(2, requests.size());
+
+        assertTrue(OperationNameDictionary.INSTANCE.findOnly(1, "/first").isFound());
+        assertTrue(OperationNameDictionary.INSTANCE.findOnly(1, "/second").isFound());
+        assertTrue(OperationNameDictionary.INSTANCE.findOnly(1, "/third").isFound());
+    }
+
+    @Test
+    public void testInFlightRequestsLimited() {
+        for (int i = 0; i < 20; i++) {
+            OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/hang" + i);
+        }
+
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(RegisterPager.MAX_IN_FLIGHT_REQUESTS, requests.size());
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(RegisterPager.MAX_IN_FLIGHT_REQUESTS, requests.size());
+    }
+
+    @Test
+    public void testUnresolvedNotResentImmediately() {
+        OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/unresolved");
+
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(1, requests.size());
+        assertFalse(OperationNameDictionary.INSTANCE.findOnly(1, "/unresolved").isFound());
+    }
+
+    @Test
+    public void testRestoredIdsServedWithoutRegister() {
+        OperationNameDictionary.INSTANCE.restore(1, "/cached", 12);
+
+        PossibleFound operationName = OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/cached");
+        assertTrue(operationName.isFound());
+        assertEquals(12, operationName.getValue());
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void testTimedOutNamesResent() throws Exception {
+        Config.Dictionary.REGISTER_TIMEOUT = 1;
+        OperationNameDictionary.INSTANCE.findOrPrepare4Register(1, "/hang");
+
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        assertEquals(1, requests.size());
+
+        long giveUpTime = System.currentTimeMillis() + 10 * 1000;
+        while (requests.size() < 2 && System.currentTimeMillis() < giveUpTime) {
+            Thread.sleep(50);
+            OperationNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+        }
+        assertEquals(2, requests.size());
+        assertFalse(OperationNameDictionary.INSTANCE.findOnly(1, "/hang").isFound());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.jvm;
+
+import java.util.Arrays;
+import org.apache.skywalking.apm.network.proto.CPU;
+import org.apache.skywalking.apm.network.proto.GC;
+import org.apache.skywalking.apm.network.proto.GCPhrase;
+import org.apache.skywalking.apm.network.proto.JVMMetric;
+import org.apache.skywalking.apm.network.proto.JVMMetrics;
+import org.apache.skywalking.apm.network.proto.Memory;
+import org.apache.skywalking.apm.network.proto.MemoryPool;
+import org.apache.skywalking.apm.network.proto.PoolType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JVMMetricsCompactorTest {
+
+    @Test
+    public void testCompact() {
+        JVMMetric first = sample(1000, 100, 200, 5, 50);
+        JVMMetric second = sample(2000, 100, 300, 7, 80);
+        JVMMetric third = sample(3000, 150, 300, 7, 80);
+
+        JVMMetrics.Builder builder = JVMMetrics.newBuilder();
+        JVMMetricsCompactor.compact(Arrays.asList(first, second, third), builder);
+        JVMMetrics metrics = builder.build();
+
+        assertTrue(metrics.getCompact());
+        assertEquals(3, metrics.getMetricsCount());
+        assertEquals(first, metrics.getMetrics(0));
+
+        JVMMetric compacted = metrics.getMetrics(1);
+        assertEquals(2000, compacted.getTime());
+        assertEquals(0.5, compacted.getCpu().getUsagePercent(), 0);
+        assertEquals(0, compacted.getMemoryCount());
+        assertEquals(1, compacted.getMemoryPoolCount());
+        assertEquals(PoolType.OLDGEN_USAGE, compacted.getMemoryPool(0).getType());
+        assertEquals(300, compacted.getMemoryPool(0).getUsed());
+        assertEquals(GCPhrase.OLD, compacted.getGc(0).getPhrase());
+        assertEquals(2, compacted.getGc(0).getCount());
+        assertEquals(30, compacted.getGc(0).getTime());
+
+        compacted = metrics.getMetrics(2);
+        assertEquals(1, compacted.getMemoryCount());
+        assertEquals(150, compacted.getMemory(0).getUsed());
+        assertEquals(0, compacted.getMemoryPoolCount());
+        assertEquals(0, compacted.getGc(0).getCount());
+        assertEquals(0, compacted.getGc(0).getTime());
+    }
+
+    private JVMMetric sample(long time, long heapUsed, long oldGenUsed, long gcCount, long gcTime) {
+        return JVMMetric.newBuilder().setTime(time)
+            .setCpu(CPU.newBuilder().setUsagePercent(0.5))
+            .addMemory(Memory.newBuilder().setIsHeap(true).setUsed(heapUsed))
+            .addMemoryPool(MemoryPool.newBuilder().setType(PoolType.NEWGEN_USAGE).setUsed(10))
+            .addMemoryPool(MemoryPool.newBuilder().setType(PoolType.OLDGEN_USAGE).setUsed(oldGenUsed))
+            .addGc(GC.newBuilder().setPhrase(GCPhrase.OLD).setCount(gcCount).setTime(gcTime))
+            .build();
+    }
+}
@@ -120,6 +120,23 @@ public class EasyLoggerTest {
         Assert.assertEquals("\tat org.apache.skywalking.apm.agent.core.logging.core.EasyLoggerTest.testFormat(EasyLoggerTest.java:115)", lines[2]);
     }
 
+    @Test
+    public void testReplaceParam() {
+        EasyLogger logger = new EasyLogger(EasyLoggerTest.class);
+        Assert.assertEquals("hello world", logger.replaceParam("hello {}", "world"));
+        Assert.assertEquals("a 1 b {} c {}", logger.replaceParam("a {} b {} c {}", 1, "{}"));
+        Assert.assertEquals("$1 \\ null", logger.replaceParam("{} {} {}", "$1", "\\", null));
+        Assert.assertEquals("no placeholder", logger.replaceParam("no placeholder", "unused"));
+    }
+
+    @Test
+    public void testFormatLine() {
+        EasyLogger logger = new EasyLogger(EasyLoggerTest.class);
+        String line = logger.format(LogLevel.INFO, "hello world", null);
+        Assert.assertTrue(line, line.matches("INFO \\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2} EasyLoggerTest :  hello world "));
+        Assert.assertTrue(logger.format(LogLevel.ERROR, "fail", new NullPointerException()).startsWith("ERROR "));
+    }
+
     @AfterClass
     public static void reset() {
         System.setOut(OUT_REF);
@@ -20,6 +20,7 @@
 package org.apache.skywalking.apm.agent.core.logging.core;
 
 import org.junit.AfterClass;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -50,6 +51,13 @@ public class FileWriterTest {
         Thread.sleep(10000L);
     }
 
+    @Test
+    public void testDroppedLineFormattedAsOtherLines() {
+        String line = FileWriter.get().droppedLine(3);
+
+        Assert.assertTrue(line.matches("WARN \\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2} FileWriter :  3 log messages dropped.*"));
+    }
+
     @AfterClass
     public static void clear() {
         Config.Logging.MAX_FILE_SIZE = 300 * 1024 * 1024;
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PluginFinderTest {
+    private AbstractClassEnhancePluginDefine nameMatchPlugin;
+    private AbstractClassEnhancePluginDefine classAnnotationPlugin;
+    private AbstractClassEnhancePluginDefine methodAnnotationPlugin;
+    private AbstractClassEnhancePluginDefine hierarchyPlugin;
+    private AbstractClassEnhancePluginDefine multiHierarchyPlugin;
+    private PluginFinder finder;
+
+    @Before
+    public void setUp() {
+        nameMatchPlugin = new MockPluginDefine(NameMatch.byName(HashMap.class.getName()));
+        classAnnotationPlugin = new MockPluginDefine(ClassAnnotationMatch.byClassAnnotationMatch(new String[] {Deprecated.class.getName()}));
+        methodAnnotationPlugin = new MockPluginDefine(MethodAnnotationMatch.byMethodAnnotationMatch(new String[] {Deprecated.class.getName()}));
+        hierarchyPlugin = new MockPluginDefine(HierarchyMatch.byHierarchyMatch(new String[] {BaseType.class.getName()}));
+        multiHierarchyPlugin = new MockPluginDefine(HierarchyMatch.byHierarchyMatch(new String[] {BaseType.class.getName(), Runnable.class.getName()}));
+        finder = new PluginFinder(Arrays.asList(nameMatchPlugin, classAnnotationPlugin, methodAnnotationPlugin, hierarchyPlugin, multiHierarchyPlugin));
+    }
+
+    @Test
+    public void testFindByName() {
+        assertEquals(Arrays.asList(nameMatchPlugin), find(HashMap.class));
+    }
+
+    @Test
+    public void testFindByHierarchy() {
+        assertEquals(Arrays.asList(hierarchyPlugin), find(SubType.class));
+        assertEquals(Arrays.asList(hierarchyPlugin, multiHierarchyPlugin), find(RunnableSubType.class));
+        assertTrue(find(PlainType.class).isEmpty());
+        assertTrue(find(PlainType.class).isEmpty());
+        assertEquals(Arrays.asList(hierarchyPlugin, multiHierarchyPlugin), find(RunnableSubType.class));
+    }
+
+    @Test
+    public void testFindByAnnotation() {
+        assertEquals(Arrays.asList(classAnnotationPlugin), find(DeprecatedType.class));
+        assertEquals(Arrays.asList(methodAnnotationPlugin), find(DeprecatedMethodType.class));
+    }
+
+    @Test
+    public void testBuildMatch() {
+        assertTrue(matches(SubType.class));
+        assertFalse(matches(PlainType.class));
+        assertFalse(matches(Runnable.class));
+    }
+
+    private List<AbstractClassEnhancePluginDefine> find(Class<?> type) {
+        return finder.find(new TypeDescription.ForLoadedType(type), type.getClassLoader());
+    }
+
+    private boolean matches(Class<?> type) {
+        return finder.buildMatch().matches(new TypeDescription.ForLoadedType(type), type.getClassLoader(), null, null, null);
+    }
+
+    @Deprecated
+    private static class DeprecatedType {
+    }
+
+    private static class DeprecatedMethodType {
+        @Deprecated
+        public void deprecated() {
+        }
+    }
+
+    private static class PlainType implements Cloneable {
+    }
+
+    private static class BaseType {
+    }
+
+    private static class SubType extends BaseType {
+    }
+
+    private static class RunnableSubType extends SubType implements Runnable {
+        @Override public void run() {
+        }
+    }
+
+    private static class MockPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private MockPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override protected ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return null;
+        }
+
+        @Override protected InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return null;
+        }
+    }
+}
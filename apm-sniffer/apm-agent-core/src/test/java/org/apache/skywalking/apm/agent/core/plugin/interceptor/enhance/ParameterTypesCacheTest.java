@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+public class ParameterTypesCacheTest {
+
+    @Test
+    public void testCachePerMethod() throws Exception {
+        Method append = StringBuilder.class.getMethod("append", String.class);
+        Method insert = StringBuilder.class.getMethod("insert", int.class, String.class);
+        ParameterTypesCache cache = new ParameterTypesCache();
+
+        Class<?>[] appendTypes = cache.get(append);
+        assertArrayEquals(new Class<?>[] {String.class}, appendTypes);
+        assertSame(appendTypes, cache.get(append));
+
+        Class<?>[] insertTypes = cache.get(insert);
+        assertArrayEquals(new Class<?>[] {int.class, String.class}, insertTypes);
+        assertSame(insertTypes, cache.get(insert));
+        assertSame(appendTypes, cache.get(append));
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.agent.core.remote;
 
+import io.grpc.CompressorRegistry;
 import io.grpc.NameResolver;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -75,6 +76,7 @@ public class GRPCChannelManagerTest {
         when(NettyChannelBuilder.forAddress(anyString(), anyInt())).thenReturn(mock);
         when(mock.nameResolverFactory(any(NameResolver.Factory.class))).thenReturn(mock);
         when(mock.maxInboundMessageSize(anyInt())).thenReturn(mock);
+        when(mock.compressorRegistry(any(CompressorRegistry.class))).thenReturn(mock);
         when(mock.usePlaintext(true)).thenReturn(mock);
         when(mock.build()).thenReturn(grpcServerRule.getChannel());
 
@@ -109,6 +111,25 @@ public class GRPCChannelManagerTest {
         assertThat(listener.status, is(GRPCChannelStatus.CONNECTED));
     }
 
+    @Test
+    public void balanceStreamsOverChannels() throws Throwable {
+        RemoteDownstreamConfig.Collector.GRPC_SERVERS.add("127.0.0.2:2181");
+        grpcChannelManager.run();
+
+        UplinkChannel first = grpcChannelManager.selectUplinkChannel(null, 1);
+        UplinkChannel second = grpcChannelManager.selectUplinkChannel(null, 1);
+        assertThat(first != second, is(true));
+        assertThat(grpcChannelManager.selectUplinkChannel(null, 1) == null, is(true));
+
+        first.release();
+        assertThat(grpcChannelManager.selectUplinkChannel(second, 2) == first, is(true));
+        first.release();
+
+        grpcChannelManager.reportError(first, new StatusRuntimeException(Status.UNAVAILABLE));
+        assertThat(grpcChannelManager.selectUplinkChannel(null, 2) == second, is(true));
+        assertThat(grpcChannelManager.selectUplinkChannel(second, 2) == null, is(true));
+    }
+
     private class MockGRPCChannelListener implements GRPCChannelListener {
         private GRPCChannelStatus status;
 
@@ -23,9 +23,12 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
@@ -33,6 +36,7 @@ import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
 import org.junit.*;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.powermock.reflect.Whitebox;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -60,6 +64,12 @@ public class TraceSegmentServiceClientTest {
     @Rule
     public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
+    @Rule
+    public GrpcServerRule backupServerRule = new GrpcServerRule().directExecutor();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @SegmentStoragePoint
     private SegmentStorage storage;
 
@@ -101,11 +111,13 @@ public class TraceSegmentServiceClientTest {
 
     @Before
     public void setUp() throws Throwable {
-        Whitebox.setInternalState(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), "reconnect", false);
+        GRPCChannelManager channelManager = ServiceManager.INSTANCE.findService(GRPCChannelManager.class);
+        Whitebox.setInternalState(channelManager, "reconnect", false);
+        Whitebox.setInternalState(channelManager, "managedChannel", grpcServerRule.getChannel());
+        Whitebox.setInternalState(channelManager, "uplinkChannels",
+                new UplinkChannel[] {new UplinkChannel("primary", grpcServerRule.getChannel())});
         spy(serviceClient);
 
-        Whitebox.setInternalState(serviceClient, "serviceStub",
-                TraceSegmentServiceGrpc.newStub(grpcServerRule.getChannel()));
         Whitebox.setInternalState(serviceClient, "status", GRPCChannelStatus.CONNECTED);
 
         upstreamSegments = new ArrayList<UpstreamSegment>();
@@ -156,4 +168,117 @@ public class TraceSegmentServiceClientTest {
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testFailoverToAnotherChannel() throws InvalidProtocolBufferException {
+        backupServerRule.getServiceRegistry().addService(serviceImplBase);
+        GRPCChannelManager channelManager = ServiceManager.INSTANCE.findService(GRPCChannelManager.class);
+        UplinkChannel primary = new UplinkChannel("primary", grpcServerRule.getChannel());
+        UplinkChannel backup = new UplinkChannel("backup", backupServerRule.getChannel());
+        Whitebox.setInternalState(channelManager, "uplinkChannels", new UplinkChannel[] {primary, backup});
+
+        AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+        SpanLayer.asHttp(firstEntrySpan);
+        ContextManager.stopSpan();
+        grpcServerRule.getServer().shutdownNow();
+        Whitebox.<AtomicInteger>getInternalState(channelManager, "roundRobin").set(0);
+        serviceClient.consume(storage.getTraceSegments());
+
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(primary.isAvailable(), is(false));
+        assertThat(primary.getOutstanding(), is(0));
+        assertThat(backup.getOutstanding(), is(0));
+    }
+
+    @Test
+    public void testNegotiateCompression() throws InvalidProtocolBufferException {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        UplinkChannel[] channels = Whitebox.getInternalState(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), "uplinkChannels");
+        assertThat(channels[0].getCompression() == null, is(true));
+
+        AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+        Tags.URL.set(firstEntrySpan, "127.0.0.1:8080");
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+
+        // The in-process server accepts gzip only.
+        assertThat(channels[0].getCompression(), is("gzip"));
+
+        AbstractSpan secondEntrySpan = ContextManager.createEntrySpan("/testSecondEntry", null);
+        Tags.URL.set(secondEntrySpan, "127.0.0.1:8080");
+        ContextManager.stopSpan();
+        Config.Collector.GRPC_COMPRESSION_THRESHOLD = 0;
+        try {
+            serviceClient.consume(storage.getTraceSegments().subList(1, 2));
+        } finally {
+            Config.Collector.GRPC_COMPRESSION_THRESHOLD = 1024;
+        }
+        assertThat(upstreamSegments.size(), is(2));
+        TraceSegmentObject traceSegmentObject = TraceSegmentObject.parseFrom(upstreamSegments.get(1).getSegment());
+        assertThat(traceSegmentObject.getSpansCount(), is(1));
+    }
+
+    @Test
+    public void testReplaySkipsBrokenRecord() throws Exception {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        TraceSegmentSpillQueue queue = new TraceSegmentSpillQueue(new File(folder.getRoot(), "test.spill"), 4096);
+        Whitebox.setInternalState(serviceClient, "spillQueue", queue);
+        try {
+            AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+            SpanLayer.asHttp(firstEntrySpan);
+            ContextManager.stopSpan();
+            assertThat(queue.offer(new byte[] {(byte)0xFF}), is(true));
+            assertThat(queue.offer(storage.getTraceSegments().get(0)), is(true));
+
+            serviceClient.replay();
+
+            assertThat(upstreamSegments.size(), is(1));
+            assertThat(queue.size(), is(0));
+            UplinkChannel[] channels = Whitebox.getInternalState(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), "uplinkChannels");
+            assertThat(channels[0].getOutstanding(), is(0));
+        } finally {
+            Whitebox.setInternalState(serviceClient, "spillQueue", (TraceSegmentSpillQueue)null);
+            queue.close();
+        }
+    }
+
+    @Test
+    public void testReleaseStreamOfHungCollector() throws InterruptedException {
+        grpcServerRule.getServiceRegistry().addService(new TraceSegmentServiceGrpc.TraceSegmentServiceImplBase() {
+            @Override
+            public StreamObserver<UpstreamSegment> collect(StreamObserver<Downstream> responseObserver) {
+                return new StreamObserver<UpstreamSegment>() {
+                    @Override
+                    public void onNext(UpstreamSegment value) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        // Never respond, as a collector which hangs without dropping the connection.
+                    }
+                };
+            }
+        });
+        UplinkChannel[] channels = Whitebox.getInternalState(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), "uplinkChannels");
+
+        AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+        SpanLayer.asHttp(firstEntrySpan);
+        ContextManager.stopSpan();
+        Config.Collector.GRPC_STREAM_TIMEOUT = 1;
+        try {
+            serviceClient.consume(storage.getTraceSegments());
+        } finally {
+            Config.Collector.GRPC_STREAM_TIMEOUT = 30;
+        }
+
+        for (int i = 0; i < 100 && channels[0].getOutstanding() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(channels[0].getOutstanding(), is(0));
+        assertThat(channels[0].isAvailable(), is(false));
+    }
 }
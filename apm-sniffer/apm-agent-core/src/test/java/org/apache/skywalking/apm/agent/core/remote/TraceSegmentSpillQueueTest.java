@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TraceSegmentSpillQueueTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private TraceSegmentSpillQueue queue;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "test.spill");
+        queue = new TraceSegmentSpillQueue(file, 64);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        queue.close();
+    }
+
+    @Test
+    public void testOfferAndPollInOrder() {
+        assertTrue(queue.offer(bytes(10, (byte)1)));
+        assertTrue(queue.offer(bytes(20, (byte)2)));
+        assertEquals(2, queue.size());
+
+        assertArrayEquals(bytes(10, (byte)1), queue.poll());
+        assertArrayEquals(bytes(20, (byte)2), queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRejectWhenFull() {
+        assertTrue(queue.offer(bytes(28, (byte)1)));
+        assertTrue(queue.offer(bytes(28, (byte)2)));
+        assertFalse(queue.offer(bytes(1, (byte)3)));
+
+        assertArrayEquals(bytes(28, (byte)1), queue.poll());
+        assertTrue(queue.offer(bytes(28, (byte)3)));
+        assertArrayEquals(bytes(28, (byte)2), queue.poll());
+        assertArrayEquals(bytes(28, (byte)3), queue.poll());
+    }
+
+    @Test
+    public void testWrapAround() {
+        assertTrue(queue.offer(bytes(20, (byte)1)));
+        assertTrue(queue.offer(bytes(20, (byte)2)));
+        assertArrayEquals(bytes(20, (byte)1), queue.poll());
+
+        // 16 bytes left at the end, the record starts from the beginning of the file.
+        assertTrue(queue.offer(bytes(16, (byte)3)));
+        assertFalse(queue.offer(bytes(16, (byte)4)));
+
+        assertArrayEquals(bytes(20, (byte)2), queue.poll());
+        assertArrayEquals(bytes(16, (byte)3), queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testResetWhenEmpty() {
+        assertTrue(queue.offer(bytes(40, (byte)1)));
+        assertArrayEquals(bytes(40, (byte)1), queue.poll());
+
+        assertTrue(queue.offer(bytes(60, (byte)2)));
+        assertArrayEquals(bytes(60, (byte)2), queue.poll());
+    }
+
+    @Test
+    public void testCloseDeletesFile() throws Exception {
+        assertTrue(file.exists());
+        queue.close();
+        assertFalse(file.exists());
+    }
+
+    private static byte[] bytes(int length, byte value) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = value;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SamplingServiceTest {
+    private SamplingService samplingService = new SamplingService();
+    private int originalSampleNPer3Secs;
+
+    @Before
+    public void setUp() throws Throwable {
+        originalSampleNPer3Secs = Config.Agent.SAMPLE_N_PER_3_SECS;
+        Config.Agent.SAMPLE_N_PER_3_SECS = 10;
+        samplingService.boot();
+    }
+
+    @After
+    public void tearDown() throws Throwable {
+        samplingService.shutdown();
+        Config.Agent.SAMPLE_N_PER_3_SECS = originalSampleNPer3Secs;
+    }
+
+    @Test
+    public void testSampleAtMostRate() {
+        assertEquals(10, trySampling(100));
+    }
+
+    @Test
+    public void testForceSampled() {
+        for (int i = 0; i < 4; i++) {
+            samplingService.forceSampled();
+        }
+        assertEquals(6, trySampling(100));
+    }
+
+    @Test
+    public void testRemoteSamplingRate() {
+        samplingService.updateRemoteSamplingRate(-1);
+        assertEquals(100, trySampling(100));
+
+        samplingService.updateRemoteSamplingRate(3);
+        assertEquals(3, trySampling(100));
+
+        samplingService.updateRemoteSamplingRate(0);
+        assertEquals(10, trySampling(100));
+    }
+
+    @Test
+    public void testAdaptToObservedTraces() {
+        trySampling(100);
+        samplingService.adaptSamplingShare();
+        samplingService.updateRemoteSamplingRate(5);
+        samplingService.updateRemoteSamplingRate(0);
+
+        assertFalse(samplingService.trySampling());
+        assertEquals(10, trySampling(99));
+    }
+
+    private int trySampling(int times) {
+        int sampled = 0;
+        for (int i = 0; i < times; i++) {
+            if (samplingService.trySampling()) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
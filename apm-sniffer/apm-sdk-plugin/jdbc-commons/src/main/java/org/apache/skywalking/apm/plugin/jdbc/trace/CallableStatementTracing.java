@@ -37,11 +37,11 @@ public class CallableStatementTracing {
         ConnectionInfo connectInfo, String method, String sql, Executable<R> exec)
         throws SQLException {
         try {
-            AbstractSpan span = ContextManager.createExitSpan(connectInfo.getDBType() + "/JDBI/CallableStatement/" + method, connectInfo.getDatabasePeer());
+            AbstractSpan span = ContextManager.createExitSpan(OperationNameCache.get(connectInfo.getDBType(), "CallableStatement", method), connectInfo.getDatabasePeer());
             Tags.DB_TYPE.set(span, "sql");
             SpanLayer.asDB(span);
             Tags.DB_INSTANCE.set(span, connectInfo.getDatabaseName());
-            Tags.DB_STATEMENT.set(span, sql);
+            Tags.DB_STATEMENT.set(span, SQLStatementCache.get(sql));
             span.setComponent(connectInfo.getComponent());
             return exec.exe(realStatement, sql);
         } catch (SQLException e) {
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.jdbc.trace;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link OperationNameCache} builds the operation name of the jdbc spans, such as
+ * <code>Mysql/JDBI/PreparedStatement/executeQuery</code>, only once per db type, statement name and method name. All
+ * of them come from a small fixed set, so the cache is bounded by nature.
+ */
+public class OperationNameCache {
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, String>>> OPERATION_NAMES
+        = new ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, String>>>();
+
+    public static String get(String dbType, String statementName, String methodName) {
+        if (dbType == null || statementName == null || methodName == null) {
+            return dbType + "/JDBI/" + statementName + "/" + methodName;
+        }
+
+        ConcurrentHashMap<String, String> names = namesOf(namesOf(OPERATION_NAMES, dbType), statementName);
+        String operationName = names.get(methodName);
+        if (operationName == null) {
+            operationName = dbType + "/JDBI/" + statementName + "/" + methodName;
+            names.putIfAbsent(methodName, operationName);
+        }
+        return operationName;
+    }
+
+    private static <V> ConcurrentHashMap<String, V> namesOf(ConcurrentHashMap<String, ConcurrentHashMap<String, V>> parent,
+        String key) {
+        ConcurrentHashMap<String, V> names = parent.get(key);
+        if (names == null) {
+            names = new ConcurrentHashMap<String, V>();
+            ConcurrentHashMap<String, V> previous = parent.putIfAbsent(key, names);
+            if (previous != null) {
+                names = previous;
+            }
+        }
+        return names;
+    }
+}
@@ -37,10 +37,10 @@ public class PreparedStatementTracing {
         ConnectionInfo connectInfo, String method, String sql, Executable<R> exec)
         throws SQLException {
         try {
-            AbstractSpan span = ContextManager.createExitSpan(connectInfo.getDBType() + "/JDBI/PreparedStatement/" + method, connectInfo.getDatabasePeer());
+            AbstractSpan span = ContextManager.createExitSpan(OperationNameCache.get(connectInfo.getDBType(), "PreparedStatement", method), connectInfo.getDatabasePeer());
             Tags.DB_TYPE.set(span, "sql");
             Tags.DB_INSTANCE.set(span, connectInfo.getDatabaseName());
-            Tags.DB_STATEMENT.set(span, sql);
+            Tags.DB_STATEMENT.set(span, SQLStatementCache.get(sql));
             span.setComponent(connectInfo.getComponent());
 
             SpanLayer.asDB(span);
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.jdbc.trace;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * {@link SQLStatementCache} provides the value of the <code>db.statement</code> tag. The value is the sql statement,
+ * or its fingerprint if {@link Config.Plugin.JDBC#SQL_FINGERPRINT} is true, cut off at {@link
+ * Config.Plugin.JDBC#SQL_MAX_LENGTH}.
+ *
+ * The values are cached per sql statement, and the equal values share one instance. Both maps are cleared when they
+ * reach {@link Config.Plugin.JDBC#SQL_CACHE_SIZE}, so the statements built with literals can't grow them unbounded.
+ * The statements longer than {@link #MAX_CACHED_SQL_LENGTH}, such as the bulk inserts, are not cached, so they are
+ * not pinned in the heap.
+ */
+public class SQLStatementCache {
+    static final int MAX_CACHED_SQL_LENGTH = 2048;
+
+    private static final ConcurrentHashMap<String, String> STATEMENTS = new ConcurrentHashMap<String, String>();
+    private static final ConcurrentHashMap<String, String> VALUES = new ConcurrentHashMap<String, String>();
+
+    public static String get(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        if (sql.length() > MAX_CACHED_SQL_LENGTH) {
+            return toValue(sql);
+        }
+        String value = STATEMENTS.get(sql);
+        if (value != null) {
+            return value;
+        }
+
+        value = toValue(sql);
+        if (STATEMENTS.size() >= Config.Plugin.JDBC.SQL_CACHE_SIZE) {
+            STATEMENTS.clear();
+        }
+        if (VALUES.size() >= Config.Plugin.JDBC.SQL_CACHE_SIZE) {
+            VALUES.clear();
+        }
+        String shared = VALUES.putIfAbsent(value, value);
+        if (shared != null) {
+            value = shared;
+        }
+        STATEMENTS.put(sql, value);
+        return value;
+    }
+
+    static int size() {
+        return STATEMENTS.size();
+    }
+
+    private static String toValue(String sql) {
+        String value = Config.Plugin.JDBC.SQL_FINGERPRINT ? fingerprint(sql) : sql;
+        int maxLength = Config.Plugin.JDBC.SQL_MAX_LENGTH;
+        if (maxLength > 0 && value.length() > maxLength) {
+            value = value.substring(0, maxLength) + "...";
+        }
+        return value;
+    }
+
+    /**
+     * Replace the string and number literals by '?', and collapse the whitespaces, e.g. <code>SELECT * FROM t WHERE
+     * a = 'x' AND b IN (1, 2)</code> to <code>SELECT * FROM t WHERE a = ? AND b IN (?, ?)</code>. The quoted
+     * identifiers and the digits in the names, such as <code>t_order_1</code>, are kept.
+     */
+    static String fingerprint(String sql) {
+        int length = sql.length();
+        StringBuilder fingerprint = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = fingerprint.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                fingerprint.append(' ');
+                pendingSpace = false;
+            }
+
+            if (c == '\'') {
+                i = skipString(sql, i + 1);
+                fingerprint.append('?');
+            } else if (c == '"' || c == '`') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length : end + 1;
+                fingerprint.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c) && !isPartOfName(fingerprint)) {
+                i = skipNumber(sql, i);
+                fingerprint.append('?');
+            } else {
+                fingerprint.append(c);
+                i++;
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * @return the index after the closing quote, the quote is escaped by doubling it or by backslash.
+     */
+    private static int skipString(String sql, int i) {
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '\'') {
+                if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static int skipNumber(String sql, int i) {
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '.') {
+                i++;
+            } else if ((c == '+' || c == '-') && (sql.charAt(i - 1) == 'e' || sql.charAt(i - 1) == 'E')) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isPartOfName(StringBuilder fingerprint) {
+        if (fingerprint.length() == 0) {
+            return false;
+        }
+        char last = fingerprint.charAt(fingerprint.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+}
@@ -36,10 +36,10 @@ public class StatementTracing {
         ConnectionInfo connectInfo, String method, String sql, Executable<R> exec)
         throws SQLException {
         try {
-            AbstractSpan span = ContextManager.createExitSpan(connectInfo.getDBType() + "/JDBI/Statement/" + method, connectInfo.getDatabasePeer());
+            AbstractSpan span = ContextManager.createExitSpan(OperationNameCache.get(connectInfo.getDBType(), "Statement", method), connectInfo.getDatabasePeer());
             Tags.DB_TYPE.set(span, "sql");
             Tags.DB_INSTANCE.set(span, connectInfo.getDatabaseName());
-            Tags.DB_STATEMENT.set(span, sql);
+            Tags.DB_STATEMENT.set(span, SQLStatementCache.get(sql));
             span.setComponent(connectInfo.getComponent());
             SpanLayer.asDB(span);
             return exec.exe(realStatement, sql);
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.jdbc.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class SQLStatementCacheTest {
+
+    @After
+    public void tearDown() {
+        Config.Plugin.JDBC.SQL_FINGERPRINT = false;
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 0;
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertThat(SQLStatementCache.fingerprint("SELECT * FROM t_order_1 WHERE id = 10 AND name = 'it''s'"),
+            is("SELECT * FROM t_order_1 WHERE id = ? AND name = ?"));
+        assertThat(SQLStatementCache.fingerprint("  INSERT INTO test\n VALUES(1.5e-3,  'a\\'b', \"col1\")  "),
+            is("INSERT INTO test VALUES(?, ?, \"col1\")"));
+        assertThat(SQLStatementCache.fingerprint("SELECT a FROM b WHERE c IN (1, 0x1F) LIMIT 10"),
+            is("SELECT a FROM b WHERE c IN (?, ?) LIMIT ?"));
+    }
+
+    @Test
+    public void testStatementsShareFingerprint() {
+        Config.Plugin.JDBC.SQL_FINGERPRINT = true;
+        String first = SQLStatementCache.get("SELECT * FROM test WHERE id = 1");
+        String second = SQLStatementCache.get("SELECT * FROM test WHERE id = 2");
+        assertThat(first, is("SELECT * FROM test WHERE id = ?"));
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testCutOffLongStatement() {
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 10;
+        assertThat(SQLStatementCache.get("SELECT * FROM long_table"), is("SELECT * F..."));
+    }
+
+    @Test
+    public void testLongStatementNotCached() {
+        StringBuilder sql = new StringBuilder("INSERT INTO test VALUES (1)");
+        while (sql.length() <= SQLStatementCache.MAX_CACHED_SQL_LENGTH) {
+            sql.append(", (1)");
+        }
+        int size = SQLStatementCache.size();
+        assertThat(SQLStatementCache.get(sql.toString()), is(sql.toString()));
+        assertThat(SQLStatementCache.size(), is(size));
+    }
+
+    @Test
+    public void testOperationName() {
+        String operationName = OperationNameCache.get("Mysql", "PreparedStatement", "executeQuery");
+        assertThat(operationName, is("Mysql/JDBI/PreparedStatement/executeQuery"));
+        assertSame(operationName, OperationNameCache.get("Mysql", "PreparedStatement", "executeQuery"));
+    }
+}
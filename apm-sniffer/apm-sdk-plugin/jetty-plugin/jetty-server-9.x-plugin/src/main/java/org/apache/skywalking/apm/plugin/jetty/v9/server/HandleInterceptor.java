@@ -25,6 +25,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.skywalking.apm.agent.core.context.CarrierItem;
 import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.URITemplateMatcher;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
@@ -49,7 +50,7 @@ public class HandleInterceptor implements InstanceMethodsAroundInterceptor {
             next.setHeadValue(servletRequest.getHeader(next.getHeadKey()));
         }
 
-        AbstractSpan span = ContextManager.createEntrySpan(servletRequest.getRequestURI(), contextCarrier);
+        AbstractSpan span = ContextManager.createEntrySpan(URITemplateMatcher.INSTANCE.normalize(servletRequest.getContextPath(), servletRequest.getRequestURI()), contextCarrier);
         Tags.URL.set(span, servletRequest.getRequestURL().toString());
         Tags.HTTP.METHOD.set(span, servletRequest.getMethod());
         span.setComponent(ComponentsDefine.JETTY_SERVER);
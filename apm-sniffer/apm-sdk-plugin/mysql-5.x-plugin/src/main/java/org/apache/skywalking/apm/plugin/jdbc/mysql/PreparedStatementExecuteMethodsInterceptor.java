@@ -28,6 +28,8 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceM
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
 import org.apache.skywalking.apm.plugin.jdbc.define.StatementEnhanceInfos;
 import org.apache.skywalking.apm.plugin.jdbc.trace.ConnectionInfo;
+import org.apache.skywalking.apm.plugin.jdbc.trace.OperationNameCache;
+import org.apache.skywalking.apm.plugin.jdbc.trace.SQLStatementCache;
 
 /**
  * @author zhang xin
@@ -51,7 +53,7 @@ public class PreparedStatementExecuteMethodsInterceptor implements InstanceMetho
             AbstractSpan span = ContextManager.createExitSpan(buildOperationName(connectInfo, method.getName(), cacheObject.getStatementName()), connectInfo.getDatabasePeer());
             Tags.DB_TYPE.set(span, "sql");
             Tags.DB_INSTANCE.set(span, connectInfo.getDatabaseName());
-            Tags.DB_STATEMENT.set(span, cacheObject.getSql());
+            Tags.DB_STATEMENT.set(span, SQLStatementCache.get(cacheObject.getSql()));
             span.setComponent(connectInfo.getComponent());
 
             SpanLayer.asDB(span);
@@ -78,6 +80,6 @@ public class PreparedStatementExecuteMethodsInterceptor implements InstanceMetho
     }
 
     private String buildOperationName(ConnectionInfo connectionInfo, String methodName, String statementName) {
-        return connectionInfo.getDBType() + "/JDBI/" + statementName + "/" + methodName;
+        return OperationNameCache.get(connectionInfo.getDBType(), statementName, methodName);
     }
 }
@@ -28,6 +28,8 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceM
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
 import org.apache.skywalking.apm.plugin.jdbc.define.StatementEnhanceInfos;
 import org.apache.skywalking.apm.plugin.jdbc.trace.ConnectionInfo;
+import org.apache.skywalking.apm.plugin.jdbc.trace.OperationNameCache;
+import org.apache.skywalking.apm.plugin.jdbc.trace.SQLStatementCache;
 
 /**
  * {@link StatementExecuteMethodsInterceptor} create the exit span when the client call the interceptor methods.
@@ -63,7 +65,7 @@ public class StatementExecuteMethodsInterceptor implements InstanceMethodsAround
                 sql = (String)allArguments[0];
             }
 
-            Tags.DB_STATEMENT.set(span, sql);
+            Tags.DB_STATEMENT.set(span, SQLStatementCache.get(sql));
             span.setComponent(connectInfo.getComponent());
 
             SpanLayer.asDB(span);
@@ -90,6 +92,6 @@ public class StatementExecuteMethodsInterceptor implements InstanceMethodsAround
     }
 
     private String buildOperationName(ConnectionInfo connectionInfo, String methodName, String statementName) {
-        return connectionInfo.getDBType() + "/JDBI/" + statementName + "/" + methodName;
+        return OperationNameCache.get(connectionInfo.getDBType(), statementName, methodName);
     }
 }
@@ -27,6 +27,7 @@ import org.nutz.mvc.annotation.At;
 import org.apache.skywalking.apm.agent.core.context.CarrierItem;
 import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.URITemplateMatcher;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
@@ -55,6 +56,7 @@ public class ActionMethodInterceptor implements InstanceMethodsAroundInterceptor
             }
             pathMappingCache.addPathMapping(method, requestURL);
             requestURL = pathMappingCache.findPathMapping(method);
+            URITemplateMatcher.INSTANCE.register(requestURL);
         }
 
         HttpServletRequest request = Mvcs.getReq();
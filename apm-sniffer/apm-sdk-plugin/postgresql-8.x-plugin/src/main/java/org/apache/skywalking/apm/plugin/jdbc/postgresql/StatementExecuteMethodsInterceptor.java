@@ -29,6 +29,8 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceM
 import org.apache.skywalking.apm.plugin.jdbc.define.StatementEnhanceInfos;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
 import org.apache.skywalking.apm.plugin.jdbc.trace.ConnectionInfo;
+import org.apache.skywalking.apm.plugin.jdbc.trace.OperationNameCache;
+import org.apache.skywalking.apm.plugin.jdbc.trace.SQLStatementCache;
 
 /**
  * {@link StatementExecuteMethodsInterceptor} create the exit span when the client call the interceptor methods.
@@ -45,7 +47,7 @@ public class StatementExecuteMethodsInterceptor implements InstanceMethodsAround
         AbstractSpan span = ContextManager.createExitSpan(buildOperationName(connectInfo, method.getName(), cacheObject.getStatementName()), connectInfo.getDatabasePeer());
         Tags.DB_TYPE.set(span, "sql");
         Tags.DB_INSTANCE.set(span, connectInfo.getDatabaseName());
-        Tags.DB_STATEMENT.set(span, cacheObject.getSql());
+        Tags.DB_STATEMENT.set(span, SQLStatementCache.get(cacheObject.getSql()));
         span.setComponent(connectInfo.getComponent());
 
         SpanLayer.asDB(span);
@@ -71,6 +73,6 @@ public class StatementExecuteMethodsInterceptor implements InstanceMethodsAround
     }
 
     private String buildOperationName(ConnectionInfo connectionInfo, String methodName, String statementName) {
-        return connectionInfo.getDBType() + "/JDBI/" + statementName + "/" + methodName;
+        return OperationNameCache.get(connectionInfo.getDBType(), statementName, methodName);
     }
 }
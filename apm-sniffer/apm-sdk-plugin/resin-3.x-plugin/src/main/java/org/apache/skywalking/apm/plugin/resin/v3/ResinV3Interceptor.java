@@ -26,6 +26,7 @@ import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.CarrierItem;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.URITemplateMatcher;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
@@ -51,7 +52,7 @@ public class ResinV3Interceptor implements InstanceMethodsAroundInterceptor {
             next.setHeadValue(request.getHeader(next.getHeadKey()));
         }
 
-        AbstractSpan span = ContextManager.createEntrySpan(request.getPageURI(), contextCarrier);
+        AbstractSpan span = ContextManager.createEntrySpan(URITemplateMatcher.INSTANCE.normalize(request.getContextPath(), request.getPageURI()), contextCarrier);
         span.setComponent(ComponentsDefine.RESIN);
         Tags.URL.set(span, appendRequestURL(request));
         SpanLayer.asHttp(span);
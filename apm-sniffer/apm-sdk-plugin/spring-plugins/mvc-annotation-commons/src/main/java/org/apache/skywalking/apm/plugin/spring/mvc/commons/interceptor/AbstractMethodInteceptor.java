@@ -31,6 +31,7 @@ import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
 import org.apache.skywalking.apm.plugin.spring.mvc.commons.EnhanceRequireObjectCache;
 import org.apache.skywalking.apm.agent.core.context.CarrierItem;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.URITemplateMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -51,6 +52,7 @@ public abstract class AbstractMethodInteceptor implements InstanceMethodsAroundI
             requestURL = getRequestURL(method);
             pathMappingCache.addPathMapping(method, requestURL);
             requestURL = pathMappingCache.findPathMapping(method);
+            URITemplateMatcher.INSTANCE.register(requestURL);
         }
 
         HttpServletRequest request = ((ServletRequestAttributes)RequestContextHolder.getRequestAttributes()).getRequest();
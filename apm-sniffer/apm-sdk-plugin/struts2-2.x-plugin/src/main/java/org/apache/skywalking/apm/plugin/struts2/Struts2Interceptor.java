@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.plugin.struts2;
 
+import com.opensymphony.xwork2.config.entities.ActionConfig;
 import java.lang.reflect.Method;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -29,16 +30,23 @@ import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
 import org.apache.struts2.ServletActionContext;
+import org.apache.struts2.dispatcher.mapper.ActionMapping;
 import org.apache.skywalking.apm.agent.core.context.CarrierItem;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.URITemplateMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
 
+/**
+ * The configured action name with named variables or wildcards, e.g. <code>orders/{id}</code>, is registered with the
+ * namespace as an uri template, so the entry span is named by the action rather than the concrete uri.
+ */
 public class Struts2Interceptor implements InstanceMethodsAroundInterceptor {
     @Override
     public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes,
         MethodInterceptResult result) throws Throwable {
         HttpServletRequest request = ServletActionContext.getRequest();
+        registerTemplate(allArguments);
         ContextCarrier contextCarrier = new ContextCarrier();
 
         CarrierItem next = contextCarrier.items();
@@ -47,7 +55,7 @@ public class Struts2Interceptor implements InstanceMethodsAroundInterceptor {
             next.setHeadValue(request.getHeader(next.getHeadKey()));
         }
 
-        AbstractSpan span = ContextManager.createEntrySpan(request.getRequestURI(), contextCarrier);
+        AbstractSpan span = ContextManager.createEntrySpan(URITemplateMatcher.INSTANCE.normalize(request.getContextPath(), request.getRequestURI()), contextCarrier);
         Tags.URL.set(span, request.getRequestURL().toString());
         Tags.HTTP.METHOD.set(span, request.getMethod());
         span.setComponent(ComponentsDefine.STRUTS2);
@@ -68,6 +76,26 @@ public class Struts2Interceptor implements InstanceMethodsAroundInterceptor {
         return ret;
     }
 
+    /**
+     * <code>invokeAction(Object action, ActionConfig actionConfig)</code>, the config keeps the configured name when a
+     * wildcard or a named variable matches.
+     */
+    private void registerTemplate(Object[] allArguments) {
+        ActionMapping actionMapping = ServletActionContext.getActionMapping();
+        if (actionMapping == null || allArguments.length < 2 || !(allArguments[1] instanceof ActionConfig)) {
+            return;
+        }
+        String name = ((ActionConfig)allArguments[1]).getName();
+        if (name == null || (name.indexOf('{') < 0 && name.indexOf('*') < 0)) {
+            return;
+        }
+        String namespace = actionMapping.getNamespace();
+        if (namespace == null || namespace.endsWith("/")) {
+            namespace = namespace == null ? "" : namespace.substring(0, namespace.length() - 1);
+        }
+        URITemplateMatcher.INSTANCE.register(namespace + "/" + name);
+    }
+
     @Override public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
         Class<?>[] argumentsTypes, Throwable t) {
         ContextManager.activeSpan().errorOccurred().log(t);
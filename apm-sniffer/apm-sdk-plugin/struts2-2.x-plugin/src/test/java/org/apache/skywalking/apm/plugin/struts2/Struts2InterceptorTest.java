@@ -20,10 +20,13 @@
 package org.apache.skywalking.apm.plugin.struts2;
 
 import com.opensymphony.xwork2.ActionContext;
+import com.opensymphony.xwork2.config.entities.ActionConfig;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.apache.struts2.ServletActionContext;
 import org.apache.struts2.StrutsStatics;
+import org.apache.struts2.dispatcher.mapper.ActionMapping;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -152,6 +155,20 @@ public class Struts2InterceptorTest {
         assertException(logDataEntities.get(0), RuntimeException.class);
     }
 
+    @Test
+    public void testOperationNameFromActionTemplate() throws Throwable {
+        when(request.getRequestURI()).thenReturn("/shop/orders/123456");
+        when(actionContext.get(ServletActionContext.ACTION_MAPPING)).thenReturn(new ActionMapping("orders/123456", "/shop", null, null));
+        Object[] invokeActionArguments = new Object[] {new Object(), new ActionConfig.Builder("shop", "orders/{id}", "org.example.OrderAction").build()};
+
+        struts2Interceptor.beforeMethod(enhancedInstance, null, invokeActionArguments, argumentType, methodInterceptResult);
+        struts2Interceptor.afterMethod(enhancedInstance, null, invokeActionArguments, argumentType, null);
+
+        TraceSegment traceSegment = segmentStorage.getTraceSegments().get(0);
+        List<AbstractTracingSpan> spans = SegmentHelper.getSpans(traceSegment);
+        assertThat(spans.get(0).getOperationName(), is("/shop/orders/{id}"));
+    }
+
     private void assertTraceSegmentRef(TraceSegmentRef ref) {
         assertThat(SegmentRefHelper.getEntryApplicationInstanceId(ref), is(1));
         assertThat(SegmentRefHelper.getSpanId(ref), is(3));
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.agent.test.helper;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
@@ -62,23 +63,32 @@ public class SpanHelper {
     }
 
     public static List<KeyValuePair> getTags(AbstractSpan tracingSpan) {
+        String[] tagKeys = getTracingSpanFieldValue(tracingSpan, "tagKeys");
+        String[] tagValues = getTracingSpanFieldValue(tracingSpan, "tagValues");
+        Integer tagCount = getTracingSpanFieldValue(tracingSpan, "tagCount");
+        if (tagKeys == null || tagCount == null) {
+            return Collections.emptyList();
+        }
+
+        List<KeyValuePair> tags = new ArrayList<KeyValuePair>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(new KeyValuePair(tagKeys[i], tagValues[i]));
+        }
+        return tags;
+    }
+
+    private static <T> T getTracingSpanFieldValue(AbstractSpan tracingSpan, String fieldName) {
         try {
-            List<KeyValuePair> tags = FieldGetter.get2LevelParentFieldValue(tracingSpan, "tags");
-            if (tags != null) {
-                return tags;
-            }
+            return FieldGetter.get2LevelParentFieldValue(tracingSpan, fieldName);
         } catch (Exception e) {
             try {
-                List<KeyValuePair> tags = FieldGetter.getParentFieldValue(tracingSpan, "tags");
-                if (tags != null) {
-                    return tags;
-                }
+                return FieldGetter.getParentFieldValue(tracingSpan, fieldName);
             } catch (Exception e1) {
 
             }
         }
 
-        return Collections.emptyList();
+        return null;
     }
 
     public static SpanLayer getLayer(AbstractSpan tracingSpan) {